@@ -2,6 +2,7 @@ package client_group.controller;
 
 import client_group.dto.ProfileDTO;
 import client_group.model.Session;
+import client_group.service.ApiClient;
 import client_group.service.ProfileService;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -46,8 +47,7 @@ public class AuthController {
     public AuthController() {
         this(new ProfileService(), (urlString) -> {
             try {
-                URL url = new URL(urlString);
-                return (HttpURLConnection) url.openConnection();
+                return ApiClient.open(new URL(urlString));
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
@@ -65,7 +65,7 @@ public class AuthController {
         }
 
         try {
-            HttpURLConnection conn = connectionFactory.apply("http://localhost:8080/api/auth/login");
+            HttpURLConnection conn = connectionFactory.apply(ApiClient.url("/api/auth/login"));
             conn.setRequestMethod("POST");
             conn.setRequestProperty("Content-Type", "application/json");
             conn.setDoOutput(true);
@@ -169,7 +169,7 @@ public class AuthController {
         }
 
         try {
-            HttpURLConnection conn = connectionFactory.apply("http://localhost:8080/api/auth/register");
+            HttpURLConnection conn = connectionFactory.apply(ApiClient.url("/api/auth/register"));
             conn.setRequestMethod("POST");
             conn.setRequestProperty("Content-Type", "application/json");
             conn.setDoOutput(true);
@@ -1,6 +1,7 @@
 package client_group.controller;
 
 import client_group.model.Employee;
+import client_group.service.ApiClient;
 import client_group.service.EmployeeListService;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
@@ -41,8 +42,8 @@ public class EmployeeListController {
         // esegui richiesta su nuovo thread per evitare blocchi UI
         new Thread(() -> {
             try {
-                URL url = new URL("http://localhost:8080/api/manager/employees");
-                HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+                URL url = new URL(ApiClient.url("/api/manager/employees"));
+                HttpURLConnection conn = ApiClient.open(url);
                 conn.setRequestMethod("GET");
 
                 int responseCode = conn.getResponseCode();
@@ -105,7 +106,7 @@ public class EmployeeListController {
     }
 
     private void loadEmployeeData() {
-        List<Employee> employees = employeeService.fetchEmployees();
+        List<Employee> employees = employeeService.requestEmployees();
         Platform.runLater(() -> employeeTable.getItems().setAll(employees));
     }
 }
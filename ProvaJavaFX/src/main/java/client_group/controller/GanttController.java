@@ -1,11 +1,16 @@
 package client_group.controller;
 
 import client_group.dto.GanttBlockDTO;
+import client_group.dto.GanttChangesDTO;
+import client_group.dto.GanttOrderFacetDTO;
+import client_group.dto.MachineLoadDTO;
 import client_group.dto.NoticeDTO;
 import client_group.model.*;
+import client_group.service.ApiClient;
 import client_group.service.EmployeeListService;
 import client_group.service.GanttService;
 import client_group.service.NoticeService;
+import client_group.service.ReferenceData;
 import com.flexganttfx.model.Activity;
 import com.flexganttfx.model.ActivityRef;
 import com.flexganttfx.model.Layer;
@@ -16,6 +21,7 @@ import com.flexganttfx.view.graphics.ActivityEvent;
 import com.flexganttfx.view.graphics.GraphicsBase;
 import com.flexganttfx.view.graphics.renderer.ActivityBarRenderer;
 import com.flexganttfx.view.timeline.Timeline;
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.event.ActionEvent;
@@ -31,6 +37,7 @@ import java.net.URL;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -57,10 +64,60 @@ public class GanttController {
 
     private final NoticeService noticeService = new NoticeService();
 
+    // grafico mostrato e dove sta ogni blocco, per aggiornare solo le righe toccate dagli eventi del server
+    private GanttChart<MachineRow> chart;
+    private Layer layer;
+    private final Map<String, MachineRow> rows = new LinkedHashMap<>();
+    private final Map<Long, BlockActivity> activities = new HashMap<>();
+    private final Map<Long, MachineRow> rowByExecution = new HashMap<>();
+    // il filtro ordini toglie i blocchi dalle righe senza ricaricare niente: quelli nascosti restano in activities
+    private final Set<Long> hiddenExecutions = new HashSet<>();
+    private final Set<MachineRow> shownRows = new HashSet<>();
+
+    private GanttEventListener ganttEventListener;
+
+    // caricamento del piano in background: i pezzi di un caricamento superato da uno nuovo vengono scartati
+    private long loadGeneration;
+    private ProgressIndicator loadingIndicator;
+    private Label loadingLabel;
+
+    // gantt visto da lontano: al posto dei blocchi una barra di carico per macchina e per giorno/settimana/mese
+    private Layer loadLayer;
+    private LoadLevel loadLevel = LoadLevel.BLOCKS;
+    private LoadLevel loadedLevel;
+    private LocalDate loadedFrom;
+    private LocalDate loadedTo;
+    private long loadRequest;
+    private PauseTransition zoomPause;
+
     @FXML
     public void initialize() {
         //loadGanttForAllOrders();
         loadAndShowAllOrders();
+
+        // modifiche fatte da altri (riprogrammazioni, ordini avviati o chiusi) senza ricaricare il gantt
+        ganttEventListener = new GanttEventListener(ApiClient.url("/api/gantt/stream"), new GanttEventListener.GanttUpdateHandler() {
+            @Override
+            public void onPlanChanged(GanttChangesDTO changes) {
+                applyChanges(changes);
+            }
+
+            @Override
+            public void onResync() {
+                catchUp();
+            }
+        });
+        ganttEventListener.start();
+        // il menu "Assign Employee" legge i dipendenti dalla cache: la si riempie prima del primo click destro
+        if ("MANAGER".equals(Session.getInstance().getCurrentUser().getRole())) {
+            ReferenceData.getInstance().employees().getAsync();
+        }
+        // cambiando schermata il gantt esce dalla scena: la connessione non serve più
+        contentPane.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene == null) {
+                ganttEventListener.stop();
+            }
+        });
     }
 
     /* //versione prima del tasto coi filtri ordine
@@ -75,19 +132,46 @@ public class GanttController {
     }
     */
 
+    // il grafico compare subito vuoto e si riempie a pezzi mentre il piano arriva e viene letto in background;
+    // se è già in memoria si scaricano solo le differenze dall'ultima volta
     void loadAndShowAllOrders() {
-        try {
-            List<GanttBlockDTO> data = ganttService.getGanttForAllOrders();
-            if (!selectedOrderIds.isEmpty()) {
-                data = data.stream()
-                        .filter(dto -> selectedOrderIds.contains(dto.getOrderId()))
-                        .collect(Collectors.toList());
+        long generation = ++loadGeneration;
+
+        GanttChart<MachineRow> ganttChart = buildChartFromData(List.of());
+        showGanttWithFilterButton(ganttChart);
+        showLoading(true, 0);
+
+        Thread loader = new Thread(() -> {
+            try {
+                ganttService.loadPlan(chunk -> {
+                    Platform.runLater(() -> {
+                        if (generation == loadGeneration) {
+                            addBlocks(chunk);
+                            showLoading(true, activities.size());
+                        }
+                    });
+                });
+            } catch (Exception e) {
+                e.printStackTrace();
+            } finally {
+                Platform.runLater(() -> {
+                    if (generation == loadGeneration) {
+                        showLoading(false, activities.size());
+                    }
+                });
             }
-            GanttChart<MachineRow> ganttChart = buildChartFromData(data);
-            showGanttWithFilterButton(ganttChart);
-        } catch (Exception e) {
-            e.printStackTrace();
+        }, "gantt-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void showLoading(boolean loading, int blocks) {
+        if (loadingIndicator == null) {
+            return;
         }
+        loadingIndicator.setVisible(loading);
+        loadingLabel.setVisible(loading);
+        loadingLabel.setText("Caricamento piano: " + blocks + " blocchi");
     }
 
 
@@ -104,23 +188,34 @@ public class GanttController {
         }
 
 
-        Layer layer = new Layer("Process Steps");
-        ganttChart.getLayers().add(layer);
+        layer = new Layer("Process Steps");
+        loadLayer = new Layer("Machine Load");
+        loadLayer.setVisible(false);
+        ganttChart.getLayers().addAll(layer, loadLayer);
 
-        Map<String, MachineRow> rows = new LinkedHashMap<>();
+        rows.clear();
+        activities.clear();
+        rowByExecution.clear();
+        hiddenExecutions.clear();
+        shownRows.clear();
+        loadLevel = LoadLevel.BLOCKS;
+        invalidateLoad();
+        chart = ganttChart;
 
-        for (GanttBlockDTO block : data) {
-            MachineRow row = rows.computeIfAbsent(block.getMachineryName(), MachineRow::new);
-            row.addActivity(layer, new BlockActivity(block));
-        }
-
-        ganttChart.getRoot().getChildren().setAll(rows.values());
+        addBlocks(data);
 
         Timeline timeline = ganttChart.getTimeline();
         timeline.showTemporalUnit(ChronoUnit.DAYS, 10);
 
         ganttChart.getGraphics().setActivityRenderer(BlockActivity.class, GanttLayout.class,
                 new ColoredActivityRenderer(ganttChart.getGraphics()));
+        ganttChart.getGraphics().setActivityRenderer(LoadActivity.class, GanttLayout.class,
+                new LoadHeatRenderer(ganttChart.getGraphics()));
+
+        // zoom e scorrimento cambiano l'intervallo molte volte al secondo: si decide solo quando si fermano
+        zoomPause = new PauseTransition(javafx.util.Duration.millis(250));
+        zoomPause.setOnFinished(e -> updateLevelOfDetail());
+        timeline.visibleTimeIntervalProperty().addListener((obs, old, interval) -> zoomPause.playFromStart());
 
         // per aggiungere assign employee e notify delay
         graphics.setContextMenuCallback(param -> {
@@ -266,11 +361,222 @@ public class GanttController {
 
 
 
-        ganttChart.getGraphics().showEarliestActivities();
-
         return ganttChart;
     }
 
+    // aggiunge un pezzo del piano al grafico mostrato; le righe nuove vanno in fondo, tutte in una volta
+    void addBlocks(List<GanttBlockDTO> data) {
+        boolean first = shownRows.isEmpty();
+        List<MachineRow> newRows = new ArrayList<>();
+
+        for (GanttBlockDTO block : data) {
+            // già arrivato da un evento del server durante il caricamento, ed è più recente
+            if (activities.containsKey(block.getExecutionId())) {
+                continue;
+            }
+            BlockActivity activity = new BlockActivity(block);
+            activities.put(block.getExecutionId(), activity);
+            MachineRow shown = place(block, activity);
+            if (shown != null) {
+                newRows.add(shown);
+            }
+        }
+
+        chart.getRoot().getChildren().addAll(newRows);
+        // il piano arriva ordinato per inizio: il primo pezzo contiene già i blocchi più vicini
+        if (first && !shownRows.isEmpty()) {
+            chart.getGraphics().showEarliestActivities();
+        }
+    }
+
+    // mette il blocco nella sua riga se passa il filtro ordini, altrimenti lo tiene da parte;
+    // ritorna la riga se prima non era nel grafico
+    private MachineRow place(GanttBlockDTO block, BlockActivity activity) {
+        MachineRow row = rows.computeIfAbsent(rowNameOf(block), MachineRow::new);
+        rowByExecution.put(block.getExecutionId(), row);
+        if (!matchesOrderFilter(block)) {
+            hiddenExecutions.add(block.getExecutionId());
+            return null;
+        }
+        hiddenExecutions.remove(block.getExecutionId());
+        row.addActivity(layer, activity);
+        return shownRows.add(row) ? row : null;
+    }
+
+    private boolean matchesOrderFilter(GanttBlockDTO block) {
+        return selectedOrderIds.isEmpty() || selectedOrderIds.contains(block.getOrderId());
+    }
+
+    // nuovo filtro sugli stessi blocchi: si spostano solo quelli che cambiano stato, senza rete né nuovo grafico;
+    // le righe rimaste senza blocchi escono, le altre tornano nell'ordine di caricamento
+    void applyOrderFilter() {
+        if (chart == null) {
+            return;
+        }
+        shownRows.clear();
+        for (Map.Entry<Long, BlockActivity> entry : activities.entrySet()) {
+            Long executionId = entry.getKey();
+            BlockActivity activity = entry.getValue();
+            MachineRow row = rowByExecution.get(executionId);
+            boolean hidden = hiddenExecutions.contains(executionId);
+            // le modifiche non confermate restano sempre visibili
+            boolean visible = matchesOrderFilter(activity.getDTO()) || modifiedActivities.contains(activity);
+
+            if (visible && hidden) {
+                row.addActivity(layer, activity);
+                hiddenExecutions.remove(executionId);
+            } else if (!visible && !hidden) {
+                row.removeActivity(layer, activity);
+                hiddenExecutions.add(executionId);
+            }
+            if (visible) {
+                shownRows.add(row);
+            }
+        }
+        chart.getRoot().getChildren().setAll(rows.values().stream().filter(shownRows::contains).toList());
+    }
+
+    // sceglie blocchi o carico in base ai giorni visibili; il carico si chiede solo se quello in memoria non copre la vista
+    private void updateLevelOfDetail() {
+        if (chart == null) {
+            return;
+        }
+        Timeline timeline = chart.getTimeline();
+        Instant start = timeline.getVisibleTimeInterval().getStartTime();
+        Instant end = timeline.getVisibleTimeInterval().getEndTime();
+        LoadLevel level = LoadLevel.forVisible(timeline.getVisibleDuration());
+
+        if (level != loadLevel) {
+            loadLevel = level;
+            layer.setVisible(level == LoadLevel.BLOCKS);
+            loadLayer.setVisible(level != LoadLevel.BLOCKS);
+        }
+        if (level == LoadLevel.BLOCKS) {
+            return;
+        }
+
+        ZoneId zone = ZoneId.systemDefault();
+        if (level == loadedLevel
+                && !loadedFrom.isAfter(LocalDate.ofInstant(start, zone))
+                && !loadedTo.isBefore(LocalDate.ofInstant(end, zone))) {
+            return;
+        }
+        LocalDate[] window = level.window(start, end, zone);
+        fetchLoad(level, window[0], window[1]);
+    }
+
+    private void fetchLoad(LoadLevel level, LocalDate from, LocalDate to) {
+        long request = ++loadRequest;
+        ganttService.getMachineLoadAsync(from, to, level).whenComplete((load, error) -> Platform.runLater(() -> {
+            // nel frattempo è partita un'altra richiesta o è cambiato il grafico
+            if (request != loadRequest) {
+                return;
+            }
+            if (error != null) {
+                System.err.println("Carico macchine non disponibile: " + error.getMessage());
+                return;
+            }
+            showLoad(load);
+            loadedLevel = level;
+            loadedFrom = from;
+            loadedTo = to;
+        }));
+    }
+
+    // una barra per macchina e periodo, nella riga della prima corsia; il carico è di tutti gli ordini, non solo dei filtrati
+    private void showLoad(List<MachineLoadDTO> load) {
+        for (MachineRow row : rows.values()) {
+            row.clearActivities(loadLayer);
+        }
+        for (MachineLoadDTO bucket : load) {
+            MachineRow row = rows.get(bucket.getMachineryName());
+            if (row != null) {
+                row.addActivity(loadLayer, new LoadActivity(bucket));
+            }
+        }
+    }
+
+    // il piano è cambiato: il carico mostrato va richiesto di nuovo, se serve subito
+    private void invalidateLoad() {
+        loadRequest++;
+        loadedLevel = null;
+        if (loadLevel != LoadLevel.BLOCKS && zoomPause != null) {
+            zoomPause.playFromStart();
+        }
+    }
+
+    // le macchine con più corsie hanno una riga per corsia
+    private static String rowNameOf(GanttBlockDTO block) {
+        return block.getLane() > 0
+                ? block.getMachineryName() + " #" + (block.getLane() + 1)
+                : block.getMachineryName();
+    }
+
+    // evento del server: sposta, aggiunge o toglie solo i blocchi coinvolti, il grafico resta quello
+    // i blocchi che l'utente sta modificando (non ancora confermati) non vengono toccati
+    void applyChanges(GanttChangesDTO changes) {
+        GanttPlan.getInstance().apply(changes.getChanged(), changes.getRemoved());
+        if (chart == null) {
+            return;
+        }
+
+        for (Long executionId : changes.getRemoved()) {
+            BlockActivity activity = activities.get(executionId);
+            if (activity != null && !modifiedActivities.contains(activity)) {
+                MachineRow row = rowByExecution.remove(executionId);
+                if (!hiddenExecutions.remove(executionId)) {
+                    row.removeActivity(layer, activity);
+                }
+                activities.remove(executionId);
+            }
+        }
+
+        // anche i blocchi nascosti dal filtro si aggiornano, così tolto il filtro sono già giusti
+        for (GanttBlockDTO block : changes.getChanged()) {
+            BlockActivity activity = activities.get(block.getExecutionId());
+            if (activity != null && modifiedActivities.contains(activity)) {
+                continue;
+            }
+            if (activity != null) {
+                // tolto e rimesso, così la riga (anche se è un'altra) lo ridisegna al posto giusto
+                if (!hiddenExecutions.contains(block.getExecutionId())) {
+                    rowByExecution.get(block.getExecutionId()).removeActivity(layer, activity);
+                }
+                activity.update(block);
+            } else {
+                activity = new BlockActivity(block);
+                activities.put(block.getExecutionId(), activity);
+            }
+
+            MachineRow shown = place(block, activity);
+            if (shown != null) {
+                chart.getRoot().getChildren().add(shown);
+            }
+        }
+        invalidateLoad();
+    }
+
+    // stream ricollegato o resettato: gli eventi persi si recuperano con le differenze del piano;
+    // se il server non le ha più si ricarica tutto
+    void catchUp() {
+        Thread loader = new Thread(() -> {
+            try {
+                GanttChangesDTO changes = ganttService.loadPlanChanges();
+                Platform.runLater(() -> {
+                    if (changes != null) {
+                        applyChanges(changes);
+                    } else {
+                        loadAndShowAllOrders();
+                    }
+                });
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }, "gantt-catch-up");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
     private void createDelayNotice(BlockActivity blockActivity, Duration delay, long days, long hours, long minutes) {
         NoticeDTO notice = new NoticeDTO();
         notice.setCreatorEmail(Session.getInstance().getCurrentUser().getEmail());
@@ -351,47 +657,14 @@ public class GanttController {
     }*/
 
     @FXML
-    private void onFilterButtonClick() throws Exception {
-        List<GanttBlockDTO> allData = ganttService.getGanttForAllOrders();
-        Set<Long> allOrderIds = allData.stream()
-                .map(GanttBlockDTO::getOrderId)
-                .collect(Collectors.toCollection(TreeSet::new));
-
-        // finestra di dialogo con selezione multipla
-        Dialog<Set<Long>> dialog = new Dialog<>();
-        dialog.setTitle("Seleziona Ordini");
-        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.APPLY, ButtonType.CANCEL);
-
-        ListView<Long> listView = new ListView<>(FXCollections.observableArrayList(allOrderIds));
-        listView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
-        selectedOrderIds.forEach(id -> listView.getSelectionModel().select(id)); // pre-seleziona
-
-        dialog.getDialogPane().setContent(listView);
-
-        dialog.setResultConverter(dialogButton -> {
-            if (dialogButton == ButtonType.APPLY) {
-                return new HashSet<>(listView.getSelectionModel().getSelectedItems());
-            }
-            return null;
-        });
-
-        Optional<Set<Long>> result = dialog.showAndWait();
-        result.ifPresent(selection -> {
-            selectedOrderIds = selection;
-            loadAndShowAllOrders(); // ricarica la Gantt con il filtro
-        });
+    private void onFilterButtonClick() {
+        openFilterDialog();
     }
 
     private void showGanttWithFilterButton(GanttChart<MachineRow> chart) {
         // crea il bottone filtro dinamicamente
         Button filterButton = new Button("Orders Filter");
-        filterButton.setOnAction(evt -> {
-            try {
-                openFilterDialog();
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        });
+        filterButton.setOnAction(evt -> openFilterDialog());
 
         // arra superiore con bottoni
         HBox topBar = new HBox(10);
@@ -409,7 +682,11 @@ public class GanttController {
         cancelButton.setOnAction(evt -> onCancelChanges());
         cancelButton.setVisible(false);
 
-        topBar.getChildren().addAll(filterButton, spacer, cancelButton, confirmButton);
+        ProgressIndicator loadingIndicator = new ProgressIndicator();
+        loadingIndicator.setPrefSize(20, 20);
+        Label loadingLabel = new Label();
+
+        topBar.getChildren().addAll(filterButton, loadingIndicator, loadingLabel, spacer, cancelButton, confirmButton);
 
         // ScrollPane con il Gantt
         ScrollPane scrollPane = new ScrollPane(chart);
@@ -424,6 +701,8 @@ public class GanttController {
         // salva riferimenti per toggle visibilità
         this.confirmButton = confirmButton;
         this.cancelButton = cancelButton;
+        this.loadingIndicator = loadingIndicator;
+        this.loadingLabel = loadingLabel;
         // pulisci contentPane e metti il VBox
         contentPane.getChildren().clear();
         contentPane.getChildren().add(vbox);
@@ -434,12 +713,32 @@ public class GanttController {
         AnchorPane.setRightAnchor(vbox, 0.0);
     }
 
-    private void openFilterDialog() throws Exception {
-        List<GanttBlockDTO> allData = ganttService.getGanttForAllOrders();
-        Set<Long> allOrderIds = allData.stream()
-                .map(GanttBlockDTO::getOrderId)
-                .collect(Collectors.toCollection(TreeSet::new));
+    // gli ordini arrivano dal server già con cliente, modello e scadenza (una riga per ordine, non tutto il piano);
+    // il filtro scelto si applica ai blocchi già nel grafico
+    private void openFilterDialog() {
+        ganttService.getOrderFacetsAsync()
+                .exceptionally(e -> {
+                    System.err.println("Errore nel recupero degli ordini: " + e.getMessage());
+                    return null;
+                })
+                .thenAccept(facets -> Platform.runLater(() -> showFilterDialog(facets != null ? facets : facetsFromChart())));
+    }
+
+    // senza risposta dal server si usano gli ordini dei blocchi caricati, senza dettagli
+    private List<GanttOrderFacetDTO> facetsFromChart() {
+        return activities.values().stream()
+                .map(activity -> activity.getDTO().getOrderId())
+                .distinct()
+                .sorted()
+                .map(orderId -> {
+                    GanttOrderFacetDTO facet = new GanttOrderFacetDTO();
+                    facet.setOrderId(orderId);
+                    return facet;
+                })
+                .toList();
+    }
 
+    private void showFilterDialog(List<GanttOrderFacetDTO> facets) {
         Dialog<Set<Long>> dialog = new Dialog<>();
         dialog.setTitle("Select Orders");
         dialog.getDialogPane().getButtonTypes().addAll(ButtonType.APPLY, ButtonType.CANCEL);
@@ -449,18 +748,21 @@ public class GanttController {
         checkBoxContainer.setPadding(new Insets(10));
 
         // mappa per tenere traccia delle checkbox per ogni orderId
-        Map<Long, CheckBox> checkBoxMap = new HashMap<>();
+        Map<Long, CheckBox> checkBoxMap = new LinkedHashMap<>();
 
-        for (Long orderId : allOrderIds) {
-            CheckBox cb = new CheckBox("Order #" + orderId);
-            if (selectedOrderIds.contains(orderId)) {
+        for (GanttOrderFacetDTO facet : facets) {
+            CheckBox cb = new CheckBox(orderLabel(facet));
+            if (selectedOrderIds.contains(facet.getOrderId())) {
                 cb.setSelected(true);
             }
-            checkBoxMap.put(orderId, cb);
+            checkBoxMap.put(facet.getOrderId(), cb);
             checkBoxContainer.getChildren().add(cb);
         }
 
-        dialog.getDialogPane().setContent(checkBoxContainer);
+        ScrollPane scrollPane = new ScrollPane(checkBoxContainer);
+        scrollPane.setFitToWidth(true);
+        scrollPane.setPrefViewportHeight(Math.min(400, 30 * Math.max(1, facets.size())));
+        dialog.getDialogPane().setContent(scrollPane);
 
         dialog.setResultConverter(buttonType -> {
             if (buttonType == ButtonType.APPLY) {
@@ -477,10 +779,25 @@ public class GanttController {
         Optional<Set<Long>> result = dialog.showAndWait();
         result.ifPresent(selection -> {
             selectedOrderIds = selection;
-            loadAndShowAllOrders();
+            applyOrderFilter();
         });
     }
 
+    // es. "Order #12 - Acme - Flangia x50 (deadline 2025-03-01)"
+    private static String orderLabel(GanttOrderFacetDTO facet) {
+        StringBuilder label = new StringBuilder("Order #").append(facet.getOrderId());
+        if (facet.getClientName() != null) {
+            label.append(" - ").append(facet.getClientName());
+        }
+        if (facet.getModelName() != null) {
+            label.append(" - ").append(facet.getModelName()).append(" x").append(facet.getQuantity());
+        }
+        if (facet.getDeadline() != null) {
+            label.append(" (deadline ").append(facet.getDeadline()).append(")");
+        }
+        return label.toString();
+    }
+
     private void handleActivityUpdate(ActivityEvent evt) {
         Activity activity = evt.getActivityRef().getActivity();
         if (activity instanceof BlockActivity blockActivity) {
@@ -488,6 +805,8 @@ public class GanttController {
 
             dto.setActualStart(LocalDate.ofInstant(blockActivity.getStartTime(), ZoneId.systemDefault()));
             dto.setActualEnd(LocalDate.ofInstant(blockActivity.getEndTime(), ZoneId.systemDefault()));
+            dto.setActualStartTime(LocalDateTime.ofInstant(blockActivity.getStartTime(), ZoneId.systemDefault()));
+            dto.setActualEndTime(LocalDateTime.ofInstant(blockActivity.getEndTime(), ZoneId.systemDefault()));
 
             if (!modifiedActivities.contains(blockActivity)) {
                 modifiedActivities.add(blockActivity);
@@ -521,13 +840,24 @@ public class GanttController {
                     .map(BlockActivity::getDTO)
                     .collect(Collectors.toList());
 
-            ganttService.saveModifiedBlocks(modifiedBlocks);
+            List<GanttBlockDTO> changed = ganttService.saveModifiedBlocks(modifiedBlocks);
 
             modifiedActivities.clear();
             hideConfirmationButtons();
+            invalidateLoad();
+
+            // il server ha spostato anche altri blocchi: si aggiornano solo quelli
+            // (lo stesso arriva anche dallo stream, applicarlo due volte non cambia niente)
+            if (changed.size() > modifiedBlocks.size()) {
+                GanttChangesDTO shifted = new GanttChangesDTO();
+                shifted.setChanged(changed);
+                applyChanges(shifted);
+            }
 
         } catch (IOException e) {
             e.printStackTrace();
+            // le modifiche restano in attesa: l'utente può correggerle o annullarle
+            new Alert(Alert.AlertType.ERROR, e.getMessage()).showAndWait();
         }
     }
 
@@ -0,0 +1,173 @@
+package client_group.controller;
+
+import client_group.dto.GanttChangesDTO;
+import client_group.model.Session;
+import client_group.service.ApiClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import javafx.application.Platform;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+// come NoticeEventListener, ma per /api/gantt/stream: ogni evento porta i blocchi cambiati,
+// che vengono passati al controller (sul thread JavaFX) per aggiornare solo quelle righe.
+// se la connessione cade si ricollega con attese crescenti e casuali; dopo ogni ricollegamento,
+// o se il server manda un reset, il controller si riallinea con le differenze del piano
+public class GanttEventListener {
+    static final long INITIAL_BACKOFF_MILLIS = 1_000;
+    static final long MAX_BACKOFF_MILLIS = 30_000;
+    static final String RESET_EVENT = "streamReset";
+
+    private final String serverUrl;
+    private final GanttUpdateHandler handler;
+    private final long initialBackoffMillis;
+    private Thread listenerThread;
+    private volatile HttpURLConnection connection;
+    private volatile boolean running;
+    private volatile String lastEventId;
+
+    // Permette di fornire uno stream "finto" nei test
+    private final Supplier<InputStream> inputStreamSupplier;
+
+    private final ObjectMapper mapper = ApiClient.JSON;
+
+    public interface GanttUpdateHandler {
+        void onPlanChanged(GanttChangesDTO changes);
+
+        // eventi forse persi (stream ricollegato, reset del server, evento illeggibile): va chiesto il piano aggiornato
+        default void onResync() {
+        }
+    }
+
+    public GanttEventListener(String serverUrl, GanttUpdateHandler handler) {
+        this(serverUrl, handler, null);
+    }
+
+    // Costruttore usato solo nei test
+    GanttEventListener(String serverUrl, GanttUpdateHandler handler, Supplier<InputStream> supplier) {
+        this(serverUrl, handler, supplier, INITIAL_BACKOFF_MILLIS);
+    }
+
+    // Costruttore usato solo nei test, con un'attesa iniziale più corta
+    GanttEventListener(String serverUrl, GanttUpdateHandler handler, Supplier<InputStream> supplier, long initialBackoffMillis) {
+        this.serverUrl = serverUrl;
+        this.handler = handler;
+        this.inputStreamSupplier = supplier;
+        this.initialBackoffMillis = initialBackoffMillis;
+    }
+
+    public void start() {
+        running = true;
+        listenerThread = new Thread(() -> {
+            int attempt = 0;
+            boolean connectedBefore = false;
+            while (running) {
+                try {
+                    InputStream in = open();
+                    attempt = 0;
+                    // alla prima connessione il piano l'ha appena caricato il controller
+                    if (connectedBefore) {
+                        Platform.runLater(handler::onResync);
+                    }
+                    connectedBefore = true;
+                    read(in);
+                } catch (Exception e) {
+                    // chiusura da stop(): non è un errore
+                    if (!running) {
+                        return;
+                    }
+                    System.err.println("Stream gantt interrotto: " + e.getMessage());
+                }
+                try {
+                    Thread.sleep(backoff(attempt++));
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        listenerThread.setDaemon(true); // daemon = funziona in background
+        listenerThread.start();
+    }
+
+    private InputStream open() throws Exception {
+        if (inputStreamSupplier != null) {
+            return inputStreamSupplier.get();
+        }
+        URL url = new URL(serverUrl);
+        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        conn.setRequestMethod("GET");
+        conn.setRequestProperty("Accept", "text/event-stream");
+        conn.setRequestProperty("Authorization", "Bearer " + Session.getInstance().getToken());
+        if (lastEventId != null) {
+            conn.setRequestProperty("Last-Event-ID", lastEventId);
+        }
+        connection = conn;
+        return conn.getInputStream();
+    }
+
+    // id e nome arrivano prima dei dati dell'evento; una riga vuota chiude l'evento
+    private void read(InputStream in) throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in))) {
+            String line;
+            String eventId = null;
+            String eventName = null;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("id:")) {
+                    eventId = line.substring(3).trim();
+                } else if (line.startsWith("event:")) {
+                    eventName = line.substring(6).trim();
+                } else if (line.startsWith("data:")) {
+                    if (eventId != null) {
+                        lastEventId = eventId;
+                    }
+                    dispatch(eventName, line.substring(5).trim());
+                } else if (line.isEmpty()) {
+                    eventId = null;
+                    eventName = null;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String eventName, String data) {
+        if (RESET_EVENT.equals(eventName)) {
+            Platform.runLater(handler::onResync);
+            return;
+        }
+        try {
+            GanttChangesDTO changes = mapper.readValue(data, GanttChangesDTO.class);
+            Platform.runLater(() -> handler.onPlanChanged(changes));
+        } catch (Exception e) {
+            // un evento saltato lascerebbe il grafico indietro
+            System.err.println("Evento gantt non valido: " + data);
+            Platform.runLater(handler::onResync);
+        }
+    }
+
+    // raddoppia a ogni tentativo fallito fino a MAX_BACKOFF_MILLIS, poi si aspetta tra metà e tutto l'intervallo
+    long backoff(int attempt) {
+        long window = Math.min(MAX_BACKOFF_MILLIS, initialBackoffMillis << Math.min(attempt, 20));
+        return window / 2 + ThreadLocalRandom.current().nextLong(window / 2 + 1);
+    }
+
+    String getLastEventId() {
+        return lastEventId;
+    }
+
+    // chiude anche la connessione, altrimenti il thread resterebbe fermo sulla lettura
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+        HttpURLConnection conn = connection;
+        if (conn != null) {
+            conn.disconnect();
+        }
+    }
+}
@@ -122,6 +122,12 @@ public class MachineryController {
         TextField capacityField = new TextField();
         capacityField.setPromptText("Capacity");
 
+        // quante lavorazioni la macchina può fare contemporaneamente (usato dallo scheduler)
+        Spinner<Integer> parallelField = new Spinner<>(1, 64, 1);
+
+        TextField groupField = new TextField();
+        groupField.setPromptText("Group (optional)");
+
         GridPane grid = new GridPane();
         grid.setHgap(10);
         grid.setVgap(10);
@@ -133,6 +139,10 @@ public class MachineryController {
         grid.add(yearManufactureField, 1, 2);
         grid.add(new Label("Capacity:"), 0, 3);
         grid.add(capacityField, 1, 3);
+        grid.add(new Label("Parallel Capacity:"), 0, 4);
+        grid.add(parallelField, 1, 4);
+        grid.add(new Label("Machine Group:"), 0, 5);
+        grid.add(groupField, 1, 5);
 
         dialog.getDialogPane().setContent(grid);
 
@@ -151,6 +161,8 @@ public class MachineryController {
                 machinery.setBuyDate(datePicker.getValue());
                 machinery.setYearManufacture(yearManufactureField.getText());
                 machinery.setCapacity(capacityField.getText());
+                machinery.setParallelCapacity(parallelField.getValue());
+                machinery.setMachineGroup(groupField.getText().isBlank() ? null : groupField.getText().trim());
                 return machinery;
             }
             return null;
@@ -196,6 +208,8 @@ public class MachineryController {
         DatePicker datePicker = new DatePicker(selected.getBuyDate());
         TextField yearManufactureField = new TextField();
         TextField capacityField = new TextField();
+        Spinner<Integer> parallelField = new Spinner<>(1, 64, Math.max(selected.getParallelCapacity(), 1));
+        TextField groupField = new TextField(selected.getMachineGroup());
 
         GridPane grid = new GridPane();
         grid.setHgap(10);
@@ -208,6 +222,10 @@ public class MachineryController {
         grid.add(yearManufactureField, 1, 2);
         grid.add(new Label("Capacity:"), 0, 3);
         grid.add(capacityField, 1, 3);
+        grid.add(new Label("Parallel Capacity:"), 0, 4);
+        grid.add(parallelField, 1, 4);
+        grid.add(new Label("Machine Group:"), 0, 5);
+        grid.add(groupField, 1, 5);
 
         dialog.getDialogPane().setContent(grid);
 
@@ -227,6 +245,8 @@ public class MachineryController {
                 updated.setBuyDate(datePicker.getValue());
                 updated.setYearManufacture(yearManufactureField.getText());
                 updated.setCapacity(capacityField.getText());
+                updated.setParallelCapacity(parallelField.getValue());
+                updated.setMachineGroup(groupField.getText() == null || groupField.getText().isBlank() ? null : groupField.getText().trim());
                 return updated;
             }
             return null;
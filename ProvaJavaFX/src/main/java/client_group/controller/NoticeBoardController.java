@@ -1,7 +1,9 @@
 package client_group.controller;
 
 import client_group.dto.NoticeDTO;
+import client_group.dto.NoticePageDTO;
 import client_group.model.Session;
+import client_group.service.ApiClient;
 import client_group.service.NoticeService;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
@@ -11,7 +13,10 @@ import javafx.scene.control.*;
 import javafx.scene.input.MouseButton;
 import javafx.scene.layout.*;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class NoticeBoardController {
 
@@ -36,41 +41,214 @@ public class NoticeBoardController {
     //per observer pattern
     private NoticeEventListener noticeEventListener;
 
+    // box mostrati per id dell'avviso, per aggiornare solo quello che cambia
+    final Map<Long, VBox> boxesById = new HashMap<>();
+    private final Map<Long, String> categoryById = new HashMap<>();
+
+    // ogni griglia si riempie una pagina alla volta (GET /api/notice per categoria), il resto con "Show more"
+    static final int PAGE_SIZE = 12;
+    static final List<String> CATEGORIES = List.of("PersonalNotice", "DelayNotice", "EmployeeNotice",
+            "ManagerNotice", "AccountantNotice", "Other");
+    // cursore della pagina successiva, assente se la griglia è completa
+    private final Map<String, Long> cursors = new HashMap<>();
+    private final Map<String, Long> counts = new HashMap<>();
+    private final Map<String, Button> moreButtons = new HashMap<>();
+    private final Map<String, Label> titles = new HashMap<>();
+    private final Map<String, String> baseTitles = new HashMap<>();
+    // cambia a ogni refresh, così le risposte arrivate tardi vengono ignorate
+    private int loadGeneration;
+
     @FXML
     public void initialize() {
-        String userEmail = Session.getInstance().getCurrentUser().getEmail();
         String userRole = Session.getInstance().getCurrentUser().getRole();
 
         // Manager può sempre cancellare
         deleteButton.setVisible("MANAGER".equalsIgnoreCase(userRole));
         deleteButton.setDisable(true);
 
-        // Carica e popola i notice
-        List<NoticeDTO> all = noticeService.fetchNotices(userEmail);
-        for (NoticeDTO notice : all) {
-            VBox box = createNoticeBox(notice, userRole, userEmail);
-            switch (notice.getCategory()) {
-                case "PersonalNotice" -> addBoxToGrid(personalGrid, box);
-                case "DelayNotice" -> addBoxToGrid(delayGrid, box);
-                case "EmployeeNotice" -> addBoxToGrid(employeeGrid, box);
-                case "ManagerNotice" -> addBoxToGrid(managerGrid, box);
-                case "AccountantNotice" -> addBoxToGrid(accountantGrid, box);
-                default -> addBoxToGrid(otherGrid, box);
-            }
-        }
+        setupSections();
+        loadNotices();
 
         //per observer pattern
+        // un solo listener per la vita della bacheca: gli eventi aggiungono o tolgono un avviso alla volta
         noticeEventListener = new NoticeEventListener(
-                "http://localhost:8080/api/notice/stream",
-                this::handleNoticeUpdate
+                ApiClient.url("/api/notice/stream"),
+                new NoticeEventListener.NoticeUpdateHandler() {
+                    @Override
+                    public void onNoticesUpdated() {
+                        handleNoticeUpdate();
+                    }
+
+                    @Override
+                    public void onNoticeCreated(NoticeDTO notice) {
+                        addNotice(notice, true);
+                        showStatus("New notice from server", "blue");
+                    }
+
+                    @Override
+                    public void onNoticeDeleted(Long id) {
+                        removeNotice(id);
+                        showStatus("Notice removed on server", "blue");
+                    }
+                }
         );
         noticeEventListener.start();
+        // il listener si ricollega da solo: va fermato quando la bacheca esce dalla scena
+        deleteButton.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene == null) {
+                noticeEventListener.stop();
+            }
+        });
     }
 
+    // titolo con il numero di avvisi e bottone "Show more" sotto ogni griglia
+    private void setupSections() {
+        for (String category : CATEGORIES) {
+            GridPane grid = gridFor(category);
+            VBox section = (VBox) grid.getParent();
+            if (section.getChildren().get(0) instanceof Label title) {
+                titles.put(category, title);
+                baseTitles.put(category, title.getText());
+            }
+            Button more = new Button("Show more");
+            more.managedProperty().bind(more.visibleProperty());
+            more.setVisible(false);
+            more.setOnAction(e -> loadPage(category));
+            moreButtons.put(category, more);
+            section.getChildren().add(more);
+        }
+    }
+
+    // Carica e popola i notice: prima i conteggi (una query), poi la prima pagina delle sole categorie non vuote;
+    // le richieste partono insieme sul client http condiviso e le risposte tornano sul thread JavaFX
+    private void loadNotices() {
+        String userEmail = Session.getInstance().getCurrentUser().getEmail();
+        int generation = loadGeneration;
+        noticeService.fetchCountsAsync(userEmail).thenAccept(result -> Platform.runLater(() -> {
+            if (generation != loadGeneration) {
+                return;
+            }
+            counts.clear();
+            counts.putAll(result);
+            // senza conteggi (errore) si prova comunque a caricare tutte le griglie
+            boolean countsKnown = !counts.isEmpty();
+            for (String category : CATEGORIES) {
+                if (!countsKnown || counts.getOrDefault(category, 0L) > 0) {
+                    loadPage(category);
+                } else {
+                    updateSection(category);
+                }
+            }
+        }));
+    }
+
+    private void loadPage(String category) {
+        String userEmail = Session.getInstance().getCurrentUser().getEmail();
+        int generation = loadGeneration;
+        noticeService.fetchPageAsync(userEmail, category, cursors.get(category), PAGE_SIZE)
+                .thenAccept(page -> Platform.runLater(() -> {
+                    // pagina chiesta prima di un refresh: le griglie sono già state svuotate
+                    if (generation != loadGeneration) {
+                        return;
+                    }
+                    for (NoticeDTO notice : page.getItems()) {
+                        addNotice(notice, false);
+                    }
+                    if (page.getNextCursor() != null) {
+                        cursors.put(category, page.getNextCursor());
+                    } else {
+                        cursors.remove(category);
+                    }
+                    updateSection(category);
+                }));
+    }
+
+    private void updateSection(String category) {
+        Label title = titles.get(category);
+        if (title != null) {
+            Long count = counts.get(category);
+            title.setText(baseTitles.get(category) + (count != null ? " (" + count + ")" : ""));
+        }
+        moreButtons.get(category).setVisible(cursors.containsKey(category));
+    }
+
+    // la categoria arriva calcolata per chi non è il creatore: i propri avvisi vanno tra i personali
+    // isNew: avviso appena creato, va in cima alla griglia (le pagine sono dal più recente)
+    void addNotice(NoticeDTO notice, boolean isNew) {
+        if (notice.getId() != null && boxesById.containsKey(notice.getId())) {
+            return;
+        }
+        String userEmail = Session.getInstance().getCurrentUser().getEmail();
+        String userRole = Session.getInstance().getCurrentUser().getRole();
+        if (!"DelayNotice".equals(notice.getCategory()) && userEmail.equalsIgnoreCase(notice.getCreatorEmail())) {
+            notice.setCategory("PersonalNotice");
+        }
+        String category = CATEGORIES.contains(notice.getCategory()) ? notice.getCategory() : "Other";
+        VBox box = createNoticeBox(notice, userRole, userEmail);
+        if (notice.getId() != null) {
+            boxesById.put(notice.getId(), box);
+            categoryById.put(notice.getId(), category);
+        }
+        GridPane grid = gridFor(category);
+        if (!isNew) {
+            addBoxToGrid(grid, box);
+            return;
+        }
+        List<Node> boxes = new ArrayList<>(grid.getChildren());
+        boxes.add(0, box);
+        relayout(grid, boxes);
+        counts.merge(category, 1L, Long::sum);
+        updateSection(category);
+    }
+
+    void removeNotice(Long id) {
+        VBox box = boxesById.remove(id);
+        if (box == null) {
+            return;
+        }
+        if (box == selectedBox) {
+            selectedBox = null;
+            selectedNotice = null;
+            deleteButton.setDisable(true);
+        }
+        GridPane grid = (GridPane) box.getParent();
+        grid.getChildren().remove(box);
+        relayout(grid, new ArrayList<>(grid.getChildren()));
+        String category = categoryById.remove(id);
+        if (counts.containsKey(category)) {
+            counts.merge(category, -1L, Long::sum);
+        }
+        updateSection(category);
+    }
+
+    // rimette i box nella griglia in quest'ordine, 4 per riga
+    private void relayout(GridPane grid, List<Node> boxes) {
+        grid.getChildren().clear();
+        for (Node node : boxes) {
+            addBoxToGrid(grid, (VBox) node);
+        }
+    }
+
+    private GridPane gridFor(String category) {
+        return switch (category == null ? "" : category) {
+            case "PersonalNotice" -> personalGrid;
+            case "DelayNotice" -> delayGrid;
+            case "EmployeeNotice" -> employeeGrid;
+            case "ManagerNotice" -> managerGrid;
+            case "AccountantNotice" -> accountantGrid;
+            default -> otherGrid;
+        };
+    }
+
+    // stream ripartito senza poter recuperare gli eventi persi: si ricarica tutto
     private void handleNoticeUpdate() {
         handleRefresh();
-        statusLabel.setText("Updated from server");
-        statusLabel.setStyle("-fx-text-fill: blue;");
+        showStatus("Updated from server", "blue");
+    }
+
+    private void showStatus(String text, String color) {
+        statusLabel.setText(text);
+        statusLabel.setStyle("-fx-text-fill: " + color + ";");
     }
 
     VBox createNoticeBox(NoticeDTO notice, String userRole, String userEmail) {
@@ -121,7 +299,10 @@ public class NoticeBoardController {
     private void handleRefresh() {
         Platform.runLater(() -> {
             clearAllGrids();
-            initialize();
+            selectedBox = null;
+            selectedNotice = null;
+            deleteButton.setDisable(true);
+            loadNotices();
             statusLabel.setText("Refreshed");
             statusLabel.setStyle("-fx-text-fill: black;");
         });
@@ -145,8 +326,8 @@ public class NoticeBoardController {
 
         dlg.setResultConverter(bt -> bt == ok ? new NoticeDTO(Session.getInstance().getCurrentUser().getEmail(), subjectF.getText(), descA.getText()) : null);
         dlg.showAndWait().ifPresent(dto -> {
-            noticeService.saveNotice(dto);
-            handleRefresh();
+            // lo stesso avviso arriva anche dallo stream, addNotice lo aggiunge una volta sola
+            noticeService.saveNotice(dto).ifPresent(saved -> addNotice(saved, true));
             statusLabel.setText("Added new notice");
             statusLabel.setStyle("-fx-text-fill: green;");
         });
@@ -160,15 +341,16 @@ public class NoticeBoardController {
             return;
         }
 
+        Long id = selectedNotice.getId();
         new Thread(() -> {
             try {
-                noticeService.deleteNotice(selectedNotice.getId());
-                Pane parent = (Pane) selectedBox.getParent();
+                boolean deleted = noticeService.deleteNotice(id);
                 Platform.runLater(() -> {
-                    //parent.getChildren().remove(selectedBox);
-                    selectedBox = null;
-                    selectedNotice = null;
-                    deleteButton.setDisable(true);
+                    if (!deleted) {
+                        showStatus("Error deleting notice", "red");
+                        return;
+                    }
+                    removeNotice(id);
                     statusLabel.setText("Notice deleted");
                     statusLabel.setStyle("-fx-text-fill: green;");
                 });
@@ -186,6 +368,10 @@ public class NoticeBoardController {
         for (GridPane gp : List.of(personalGrid, delayGrid, employeeGrid, managerGrid, accountantGrid, otherGrid)) {
             gp.getChildren().clear();
         }
+        boxesById.clear();
+        categoryById.clear();
+        cursors.clear();
+        loadGeneration++;
     }
 }
 
@@ -1,6 +1,9 @@
 package client_group.controller;
 
+import client_group.dto.NoticeDTO;
 import client_group.model.Session;
+import client_group.service.ApiClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import javafx.application.Platform;
 
 import java.io.BufferedReader;
@@ -8,19 +11,41 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Supplier;
 
+// se la connessione cade (riavvio del server, rete) si ricollega da solo con attese crescenti e casuali,
+// così dopo un deploy i client non si ricollegano tutti nello stesso istante;
+// con Last-Event-ID il server rimanda solo gli eventi persi (o un reset se non li ha più)
 public class NoticeEventListener {
+    static final long INITIAL_BACKOFF_MILLIS = 1_000;
+    static final long MAX_BACKOFF_MILLIS = 30_000;
+
     private final String serverUrl;
     private final NoticeUpdateHandler handler;
+    private final long initialBackoffMillis;
     private Thread listenerThread;
+    private volatile HttpURLConnection connection;
+    private volatile boolean running;
+    private volatile String lastEventId;
 
     // Permette di fornire uno stream "finto" nei test
     private final Supplier<InputStream> inputStreamSupplier;
 
+    private final ObjectMapper mapper = ApiClient.JSON;
+
     // in modo che il controller stesso possa decidere il proprio handler
+    // onNoticesUpdated = ricaricare tutto (reset dello stream o evento sconosciuto)
     public interface NoticeUpdateHandler {
         void onNoticesUpdated();
+
+        default void onNoticeCreated(NoticeDTO notice) {
+            onNoticesUpdated();
+        }
+
+        default void onNoticeDeleted(Long id) {
+            onNoticesUpdated();
+        }
     }
 
     public NoticeEventListener(String serverUrl, NoticeUpdateHandler handler) {
@@ -29,47 +54,123 @@ public class NoticeEventListener {
 
     // Costruttore usato solo nei test
     NoticeEventListener(String serverUrl, NoticeUpdateHandler handler, Supplier<InputStream> supplier) {
+        this(serverUrl, handler, supplier, INITIAL_BACKOFF_MILLIS);
+    }
+
+    // Costruttore usato solo nei test, con un'attesa iniziale più corta
+    NoticeEventListener(String serverUrl, NoticeUpdateHandler handler, Supplier<InputStream> supplier, long initialBackoffMillis) {
         this.serverUrl = serverUrl;
         this.handler = handler;
         this.inputStreamSupplier = supplier;
+        this.initialBackoffMillis = initialBackoffMillis;
     }
 
     public void start() {
+        running = true;
         listenerThread = new Thread(() -> {
-            try {
-                InputStream in;
-                if (inputStreamSupplier != null) {
-                    // nei test usiamo lo stream finto
-                    in = inputStreamSupplier.get();
-                } else {
-                    // in produzione apriamo la connessione vera
-                    URL url = new URL(serverUrl);
-                    HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-                    conn.setRequestMethod("GET");
-                    conn.setRequestProperty("Accept", "text/event-stream");
-                    conn.setRequestProperty("Authorization", "Bearer " + Session.getInstance().getToken());
-                    in = conn.getInputStream();
-                }
-
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(in))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        if (line.startsWith("data:")) {
-                            Platform.runLater(handler::onNoticesUpdated);
-                        }
+            int attempt = 0;
+            while (running) {
+                try {
+                    InputStream in = open();
+                    attempt = 0;
+                    read(in);
+                } catch (Exception e) {
+                    // chiusura da stop(): non è un errore
+                    if (!running) {
+                        return;
                     }
+                    System.err.println("Stream avvisi interrotto: " + e.getMessage());
+                }
+                try {
+                    Thread.sleep(backoff(attempt++));
+                } catch (InterruptedException e) {
+                    return;
                 }
-            } catch (Exception e) {
-                e.printStackTrace();
             }
         });
         listenerThread.setDaemon(true); // daemon = funziona in background
         listenerThread.start();
     }
 
+    private InputStream open() throws Exception {
+        if (inputStreamSupplier != null) {
+            // nei test usiamo lo stream finto
+            return inputStreamSupplier.get();
+        }
+        // in produzione apriamo la connessione vera
+        URL url = new URL(serverUrl);
+        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        conn.setRequestMethod("GET");
+        conn.setRequestProperty("Accept", "text/event-stream");
+        conn.setRequestProperty("Authorization", "Bearer " + Session.getInstance().getToken());
+        if (lastEventId != null) {
+            conn.setRequestProperty("Last-Event-ID", lastEventId);
+        }
+        connection = conn;
+        return conn.getInputStream();
+    }
+
+    // id e nome arrivano prima dei dati dell'evento; una riga vuota chiude l'evento
+    private void read(InputStream in) throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in))) {
+            String line;
+            String eventId = null;
+            String eventName = null;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("id:")) {
+                    eventId = line.substring(3).trim();
+                } else if (line.startsWith("event:")) {
+                    eventName = line.substring(6).trim();
+                } else if (line.startsWith("data:")) {
+                    if (eventId != null) {
+                        lastEventId = eventId;
+                    }
+                    dispatch(eventName, line.substring(5).trim());
+                } else if (line.isEmpty()) {
+                    eventId = null;
+                    eventName = null;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String eventName, String data) {
+        try {
+            if ("noticeCreated".equals(eventName)) {
+                NoticeDTO notice = mapper.readValue(data, NoticeDTO.class);
+                Platform.runLater(() -> handler.onNoticeCreated(notice));
+                return;
+            }
+            if ("noticeDeleted".equals(eventName)) {
+                Long id = Long.valueOf(data);
+                Platform.runLater(() -> handler.onNoticeDeleted(id));
+                return;
+            }
+        } catch (Exception e) {
+            System.err.println("Evento avvisi non valido: " + data);
+        }
+        Platform.runLater(handler::onNoticesUpdated);
+    }
+
+    // raddoppia a ogni tentativo fallito fino a MAX_BACKOFF_MILLIS, poi si aspetta tra metà e tutto l'intervallo
+    long backoff(int attempt) {
+        long window = Math.min(MAX_BACKOFF_MILLIS, initialBackoffMillis << Math.min(attempt, 20));
+        return window / 2 + ThreadLocalRandom.current().nextLong(window / 2 + 1);
+    }
+
+    String getLastEventId() {
+        return lastEventId;
+    }
+
+    // chiude anche la connessione, altrimenti il thread resterebbe fermo sulla lettura
     public void stop() {
+        running = false;
         if (listenerThread != null) {
             listenerThread.interrupt();
         }
+        HttpURLConnection conn = connection;
+        if (conn != null) {
+            conn.disconnect();
+        }
     }
 }
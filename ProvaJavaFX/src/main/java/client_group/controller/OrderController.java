@@ -171,7 +171,7 @@ public class OrderController {
         ComboBox<Model> modelComboBox = new ComboBox<>();
         ComboBox<String> statusComboBox = new ComboBox<>();
 
-        List<Client> clients = new ClientService().fetchAllClients();
+        List<Client> clients = new ClientService().getAllClients();
         List<Model> models = new ModelService().fetchAllModels();
         clientComboBox.getItems().addAll(clients);
         modelComboBox.getItems().addAll(models);
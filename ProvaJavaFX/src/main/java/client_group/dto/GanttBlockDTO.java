@@ -1,17 +1,27 @@
 package client_group.dto;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 public class GanttBlockDTO {
     private Long executionId;        // l'id di ProcessStepExecution
     private Long orderId;
     private String machineryName;
+    private int lane;                 // corsia della macchina (macchine con capacità > 1)
     private String stepName;
     private LocalDate scheduledStart; // start pianificato
     private LocalDate scheduledEnd;   // end pianificato
     private LocalDate actualStart;    // start effettivo (può essere null finché non viene modificato)
     private LocalDate actualEnd;      // end effettivo
+    // stessi intervalli al minuto, null per i blocchi pianificati a giorni interi
+    private LocalDateTime scheduledStartTime;
+    private LocalDateTime scheduledEndTime;
+    private LocalDateTime actualStartTime;
+    private LocalDateTime actualEndTime;
     private int stepOrder;
+    private Integer lotIndex;         // lotto dello step (0 .. lotCount - 1), null se lo step non è diviso
+    private Integer lotCount;
+    private Integer lotQuantity;      // pezzi del lotto
     private String assignedEmployeeEmail;
     private String assignedEmployeeFullName;
 
@@ -33,6 +43,29 @@ public class GanttBlockDTO {
         this.actualEnd = scheduledEnd;
     }
 
+    // copia indipendente: il grafico modifica i blocchi trascinati, la copia del piano in memoria non deve cambiare
+    public GanttBlockDTO(GanttBlockDTO other) {
+        this.executionId = other.executionId;
+        this.orderId = other.orderId;
+        this.machineryName = other.machineryName;
+        this.lane = other.lane;
+        this.stepName = other.stepName;
+        this.scheduledStart = other.scheduledStart;
+        this.scheduledEnd = other.scheduledEnd;
+        this.actualStart = other.actualStart;
+        this.actualEnd = other.actualEnd;
+        this.scheduledStartTime = other.scheduledStartTime;
+        this.scheduledEndTime = other.scheduledEndTime;
+        this.actualStartTime = other.actualStartTime;
+        this.actualEndTime = other.actualEndTime;
+        this.stepOrder = other.stepOrder;
+        this.lotIndex = other.lotIndex;
+        this.lotCount = other.lotCount;
+        this.lotQuantity = other.lotQuantity;
+        this.assignedEmployeeEmail = other.assignedEmployeeEmail;
+        this.assignedEmployeeFullName = other.assignedEmployeeFullName;
+    }
+
     public Long getExecutionId() {
         return executionId;
     }
@@ -57,6 +90,14 @@ public class GanttBlockDTO {
         this.machineryName = machineryName;
     }
 
+    public int getLane() {
+        return lane;
+    }
+
+    public void setLane(int lane) {
+        this.lane = lane;
+    }
+
     public String getStepName() {
         return stepName;
     }
@@ -97,6 +138,62 @@ public class GanttBlockDTO {
         this.actualEnd = actualEnd;
     }
 
+    public LocalDateTime getScheduledStartTime() {
+        return scheduledStartTime;
+    }
+
+    public void setScheduledStartTime(LocalDateTime scheduledStartTime) {
+        this.scheduledStartTime = scheduledStartTime;
+    }
+
+    public LocalDateTime getScheduledEndTime() {
+        return scheduledEndTime;
+    }
+
+    public void setScheduledEndTime(LocalDateTime scheduledEndTime) {
+        this.scheduledEndTime = scheduledEndTime;
+    }
+
+    public LocalDateTime getActualStartTime() {
+        return actualStartTime;
+    }
+
+    public void setActualStartTime(LocalDateTime actualStartTime) {
+        this.actualStartTime = actualStartTime;
+    }
+
+    public LocalDateTime getActualEndTime() {
+        return actualEndTime;
+    }
+
+    public void setActualEndTime(LocalDateTime actualEndTime) {
+        this.actualEndTime = actualEndTime;
+    }
+
+    public Integer getLotIndex() {
+        return lotIndex;
+    }
+
+    public void setLotIndex(Integer lotIndex) {
+        this.lotIndex = lotIndex;
+    }
+
+    public Integer getLotCount() {
+        return lotCount;
+    }
+
+    public void setLotCount(Integer lotCount) {
+        this.lotCount = lotCount;
+    }
+
+    public Integer getLotQuantity() {
+        return lotQuantity;
+    }
+
+    public void setLotQuantity(Integer lotQuantity) {
+        this.lotQuantity = lotQuantity;
+    }
+
     public int getStepOrder() {
         return stepOrder;
     }
@@ -0,0 +1,47 @@
+package client_group.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// risposta di GET /api/gantt/changes: differenze rispetto alla versione del piano già caricata
+public class GanttChangesDTO {
+    private long version;
+    private boolean fullReload;
+    private List<GanttBlockDTO> changed = new ArrayList<>();
+    private List<Long> removed = new ArrayList<>();
+
+    public GanttChangesDTO() {
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public boolean isFullReload() {
+        return fullReload;
+    }
+
+    public void setFullReload(boolean fullReload) {
+        this.fullReload = fullReload;
+    }
+
+    public List<GanttBlockDTO> getChanged() {
+        return changed;
+    }
+
+    public void setChanged(List<GanttBlockDTO> changed) {
+        this.changed = changed;
+    }
+
+    public List<Long> getRemoved() {
+        return removed;
+    }
+
+    public void setRemoved(List<Long> removed) {
+        this.removed = removed;
+    }
+}
@@ -0,0 +1,82 @@
+package client_group.dto;
+
+import java.time.LocalDate;
+
+// risposta di GET /api/gantt/orders/facets: un ordine del gantt con i dati da mostrare nel filtro
+public class GanttOrderFacetDTO {
+    private Long orderId;
+    private String clientPiva;
+    private String clientName;
+    private String modelName;
+    private int quantity;
+    private LocalDate startDate;
+    private LocalDate deadline;
+    private long blockCount;
+
+    public GanttOrderFacetDTO() {
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getClientPiva() {
+        return clientPiva;
+    }
+
+    public void setClientPiva(String clientPiva) {
+        this.clientPiva = clientPiva;
+    }
+
+    public String getClientName() {
+        return clientName;
+    }
+
+    public void setClientName(String clientName) {
+        this.clientName = clientName;
+    }
+
+    public String getModelName() {
+        return modelName;
+    }
+
+    public void setModelName(String modelName) {
+        this.modelName = modelName;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(LocalDate deadline) {
+        this.deadline = deadline;
+    }
+
+    public long getBlockCount() {
+        return blockCount;
+    }
+
+    public void setBlockCount(long blockCount) {
+        this.blockCount = blockCount;
+    }
+}
@@ -0,0 +1,82 @@
+package client_group.dto;
+
+import java.time.LocalDate;
+
+// risposta di GET /api/gantt/load: carico di una macchina in un giorno, settimana o mese
+public class MachineLoadDTO {
+    private String machineryName;
+    private LocalDate bucketStart;
+    private LocalDate bucketEnd;      // escluso
+    private long blocks;
+    private long busyMinutes;         // minuti lavorativi occupati nel periodo
+    private long availableMinutes;    // minuti lavorativi del periodo × corsie
+    private int capacity;
+    private double load;              // busyMinutes / availableMinutes
+
+    public MachineLoadDTO() {
+    }
+
+    public String getMachineryName() {
+        return machineryName;
+    }
+
+    public void setMachineryName(String machineryName) {
+        this.machineryName = machineryName;
+    }
+
+    public LocalDate getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDate bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public LocalDate getBucketEnd() {
+        return bucketEnd;
+    }
+
+    public void setBucketEnd(LocalDate bucketEnd) {
+        this.bucketEnd = bucketEnd;
+    }
+
+    public long getBlocks() {
+        return blocks;
+    }
+
+    public void setBlocks(long blocks) {
+        this.blocks = blocks;
+    }
+
+    public long getBusyMinutes() {
+        return busyMinutes;
+    }
+
+    public void setBusyMinutes(long busyMinutes) {
+        this.busyMinutes = busyMinutes;
+    }
+
+    public long getAvailableMinutes() {
+        return availableMinutes;
+    }
+
+    public void setAvailableMinutes(long availableMinutes) {
+        this.availableMinutes = availableMinutes;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public double getLoad() {
+        return load;
+    }
+
+    public void setLoad(double load) {
+        this.load = load;
+    }
+}
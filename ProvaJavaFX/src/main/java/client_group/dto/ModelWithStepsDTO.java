@@ -1,8 +1,11 @@
 package client_group.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 import java.time.Duration;
 import java.util.List;
 
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class ModelWithStepsDTO {
     private String name;
     private double price;
@@ -41,6 +44,7 @@ public class ModelWithStepsDTO {
         this.processSteps = processSteps;
     }
 
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class RawDTO {
         private String material;
         private String shape;
@@ -71,6 +75,7 @@ public class ModelWithStepsDTO {
         }
     }
 
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class ProcessStepDTO {
         private Long id;
         private int stepOrder;
@@ -119,6 +124,7 @@ public class ModelWithStepsDTO {
         }
     }
 
+    @JsonIgnoreProperties(ignoreUnknown = true)
     public static class MachineryDTO {
         private String name;
 
@@ -1,5 +1,6 @@
 package client_group.dto;
 
+import java.time.LocalDateTime;
 
 public class NoticeDTO {
     private Long id;
@@ -8,6 +9,7 @@ public class NoticeDTO {
     private String subject;
     private String description;
     private String category; // uno tra: MyNotice, DelayNotice, EmployeesNotice, etc.
+    private LocalDateTime createdAt;
 
     public NoticeDTO() {
     }
@@ -65,4 +67,12 @@ public class NoticeDTO {
     public void setCategory(String category) {
         this.category = category;
     }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
 }
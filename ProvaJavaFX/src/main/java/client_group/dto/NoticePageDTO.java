@@ -0,0 +1,26 @@
+package client_group.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// una pagina di GET /api/notice; nextCursor null = non ci sono altre pagine
+public class NoticePageDTO {
+    private List<NoticeDTO> items = new ArrayList<>();
+    private Long nextCursor;
+
+    public List<NoticeDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<NoticeDTO> items) {
+        this.items = items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
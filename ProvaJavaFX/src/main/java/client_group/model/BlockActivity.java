@@ -11,11 +11,22 @@ public class BlockActivity extends MutableActivityBase<GanttBlockDTO> {
 
     public BlockActivity(GanttBlockDTO dto) {
         super(dto.getStepName());
+        update(dto);
+    }
 
+    // nuovo stato del blocco arrivato dal server (il chiamante lo toglie e rimette nella riga)
+    public void update(GanttBlockDTO dto) {
+        setName(dto.getStepName());
         setUserObject(dto);
 
-        setStartTime(Date.from(dto.getActualStart().atStartOfDay(ZoneId.systemDefault()).toInstant()).toInstant());
-        setEndTime(Date.from(dto.getActualEnd().atStartOfDay(ZoneId.systemDefault()).toInstant()).toInstant());
+        // se il server manda gli orari (schedulazione al minuto) uso quelli, altrimenti i giorni interi
+        if (dto.getActualStartTime() != null && dto.getActualEndTime() != null) {
+            setStartTime(dto.getActualStartTime().atZone(ZoneId.systemDefault()).toInstant());
+            setEndTime(dto.getActualEndTime().atZone(ZoneId.systemDefault()).toInstant());
+        } else {
+            setStartTime(Date.from(dto.getActualStart().atStartOfDay(ZoneId.systemDefault()).toInstant()).toInstant());
+            setEndTime(Date.from(dto.getActualEnd().atStartOfDay(ZoneId.systemDefault()).toInstant()).toInstant());
+        }
     }
 
     public GanttBlockDTO getDTO() {
@@ -0,0 +1,78 @@
+package client_group.model;
+
+import client_group.dto.GanttBlockDTO;
+
+import java.util.*;
+
+// copia in memoria del piano di produzione, condivisa tra le aperture della schermata del gantt:
+// dopo il primo caricamento si scaricano solo le differenze (GanttService.loadPlan)
+public class GanttPlan {
+    private static GanttPlan instance;
+
+    private final Map<Long, GanttBlockDTO> blocks = new HashMap<>();
+    private Long version;   // null = mai caricato, serve il caricamento completo
+    private String token;   // utente per cui è stato caricato
+
+    private GanttPlan() {}
+
+    public static GanttPlan getInstance() {
+        if (instance == null) {
+            instance = new GanttPlan();
+        }
+        return instance;
+    }
+
+    // versione da cui chiedere le differenze, null se bisogna ricaricare tutto (anche dopo un nuovo login)
+    public synchronized Long getVersion(String currentToken) {
+        return Objects.equals(token, currentToken) ? version : null;
+    }
+
+    public synchronized void replace(List<GanttBlockDTO> all, Long version, String currentToken) {
+        blocks.clear();
+        for (GanttBlockDTO block : all) {
+            blocks.put(block.getExecutionId(), block);
+        }
+        this.version = version;
+        this.token = currentToken;
+    }
+
+    public synchronized void merge(List<GanttBlockDTO> changed, List<Long> removed, long version) {
+        for (Long executionId : removed) {
+            blocks.remove(executionId);
+        }
+        for (GanttBlockDTO block : changed) {
+            blocks.put(block.getExecutionId(), block);
+        }
+        this.version = version;
+    }
+
+    // modifiche arrivate in push: la versione non cambia, perché eventi di altre transazioni potrebbero
+    // essere ancora in arrivo; la richiesta di differenze successiva le ripete e non fa danni
+    public synchronized void apply(List<GanttBlockDTO> changed, List<Long> removed) {
+        if (version == null) {
+            return;
+        }
+        for (Long executionId : removed) {
+            blocks.remove(executionId);
+        }
+        for (GanttBlockDTO block : changed) {
+            blocks.put(block.getExecutionId(), new GanttBlockDTO(block));
+        }
+    }
+
+    // copie, nello stesso ordine del server (inizio pianificato)
+    public synchronized List<GanttBlockDTO> getBlocks() {
+        return blocks.values().stream()
+                .sorted(Comparator.comparing(GanttBlockDTO::getScheduledStart, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(GanttBlockDTO::getScheduledStartTime, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(GanttBlockDTO::getExecutionId))
+                .map(GanttBlockDTO::new)
+                .toList();
+    }
+
+    public synchronized void clear() {
+        blocks.clear();
+        version = null;
+        token = null;
+    }
+}
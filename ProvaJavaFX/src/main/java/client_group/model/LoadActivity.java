@@ -0,0 +1,21 @@
+package client_group.model;
+
+import client_group.dto.MachineLoadDTO;
+import com.flexganttfx.model.activity.ActivityBase;
+
+import java.time.ZoneId;
+
+// barra di carico di una macchina per un giorno, settimana o mese (gantt visto da lontano); non si trascina
+public class LoadActivity extends ActivityBase<MachineLoadDTO> {
+
+    public LoadActivity(MachineLoadDTO dto) {
+        super(Math.round(dto.getLoad() * 100) + "%",
+                dto.getBucketStart().atStartOfDay(ZoneId.systemDefault()).toInstant(),
+                dto.getBucketEnd().atStartOfDay(ZoneId.systemDefault()).toInstant());
+        setUserObject(dto);
+    }
+
+    public MachineLoadDTO getDTO() {
+        return getUserObject();
+    }
+}
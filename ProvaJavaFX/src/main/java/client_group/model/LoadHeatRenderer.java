@@ -0,0 +1,50 @@
+package client_group.model;
+
+import com.flexganttfx.model.ActivityRef;
+import com.flexganttfx.view.graphics.GraphicsBase;
+import com.flexganttfx.view.graphics.renderer.ActivityBarRenderer;
+import com.flexganttfx.view.util.Position;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+// colore dal verde (macchina libera) al rosso (piena); oltre il 100% rosso scuro.
+// la percentuale si scrive solo se la barra è abbastanza larga
+public class LoadHeatRenderer extends ActivityBarRenderer<LoadActivity> {
+
+    private static final double MIN_LABEL_WIDTH = 30;
+
+    public LoadHeatRenderer(GraphicsBase<?> graphics) {
+        super(graphics, "LoadHeatRenderer");
+    }
+
+    static Color colorFor(double load) {
+        if (load > 1) {
+            return Color.DARKRED;
+        }
+        // tonalità 120 = verde, 0 = rosso
+        return Color.hsb(120 * (1 - Math.max(0, load)), 0.7, 0.9);
+    }
+
+    @Override
+    protected void drawBackground(ActivityRef<LoadActivity> activityRef, Position position, GraphicsContext gc,
+                                  double x, double y, double w, double h,
+                                  boolean selected, boolean hover, boolean highlighted, boolean pressed) {
+        double load = activityRef.getActivity().getDTO().getLoad();
+        gc.setFill(colorFor(load));
+        gc.fillRect(x, y, w, h);
+
+        if (w >= MIN_LABEL_WIDTH) {
+            gc.setFill(load > 1 ? Color.WHITE : Color.BLACK);
+            gc.fillText(activityRef.getActivity().getName(), x + 3, y + h / 2 + 4);
+        }
+    }
+
+    @Override
+    protected void drawBorder(ActivityRef<LoadActivity> activityRef, Position position, GraphicsContext gc,
+                              double x, double y, double w, double h,
+                              boolean selected, boolean hover, boolean highlighted, boolean pressed) {
+        gc.setStroke(Color.WHITE);
+        gc.setLineWidth(0.5);
+        gc.strokeRect(x, y, w, h);
+    }
+}
@@ -0,0 +1,54 @@
+package client_group.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+// livello di dettaglio del gantt in base a quanti giorni sono visibili:
+// vicino i singoli blocchi, da lontano il carico delle macchine a giorni, settimane o mesi.
+// i gruppi visibili in una riga restano al massimo MAX_VISIBLE_BUCKETS a qualunque zoom
+public enum LoadLevel {
+    BLOCKS(0),
+    DAY(1),
+    WEEK(7),
+    // il mese più corto: per la finestra massima si conta per difetto
+    MONTH(28);
+
+    // oltre questi giorni visibili i blocchi diventano troppo piccoli per leggerli
+    static final long MAX_BLOCK_DAYS = 60;
+    static final long MAX_VISIBLE_BUCKETS = 100;
+    // il server accetta al massimo 400 gruppi per richiesta
+    static final long MAX_REQUEST_BUCKETS = 380;
+
+    private final long bucketDays;
+
+    LoadLevel(long bucketDays) {
+        this.bucketDays = bucketDays;
+    }
+
+    public static LoadLevel forVisible(Duration visible) {
+        long days = Math.max(1, visible.toDays());
+        if (days <= MAX_BLOCK_DAYS) {
+            return BLOCKS;
+        }
+        if (days <= MAX_VISIBLE_BUCKETS) {
+            return DAY;
+        }
+        if (days <= MAX_VISIBLE_BUCKETS * WEEK.bucketDays) {
+            return WEEK;
+        }
+        return MONTH;
+    }
+
+    // finestra da chiedere al server: quella visibile più metà per lato, così piccoli spostamenti non richiedono
+    // altre richieste, ma mai più gruppi di quanti il server ne accetta
+    public LocalDate[] window(Instant visibleStart, Instant visibleEnd, ZoneId zone) {
+        LocalDate from = LocalDate.ofInstant(visibleStart, zone);
+        LocalDate to = LocalDate.ofInstant(visibleEnd, zone);
+        long visibleDays = Math.max(1, Duration.between(visibleStart, visibleEnd).toDays());
+        long maxDays = MAX_REQUEST_BUCKETS * Math.max(1, bucketDays);
+        long margin = Math.max(0, Math.min(visibleDays / 2, (maxDays - visibleDays) / 2));
+        return new LocalDate[]{from.minusDays(margin), to.plusDays(margin)};
+    }
+}
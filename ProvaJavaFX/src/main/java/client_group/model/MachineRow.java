@@ -1,7 +1,9 @@
 package client_group.model;
 
+import com.flexganttfx.model.Activity;
 import com.flexganttfx.model.Row;
 
-public class MachineRow extends Row<MachineRow, MachineRow, BlockActivity> {
+// una riga può contenere sia blocchi (BlockActivity) sia barre di carico (LoadActivity), su layer diversi
+public class MachineRow extends Row<MachineRow, MachineRow, Activity> {
     public MachineRow(String name) { super(name); }
 }
@@ -8,6 +8,8 @@ public class Machinery {
     private LocalDate buyDate;
     private String yearManufacture;
     private String capacity;
+    private int parallelCapacity = 1; // execution che la macchina lavora insieme
+    private String machineGroup;      // macchine identiche che si dividono i lotti
 
     public Machinery() {}
 
@@ -41,4 +43,20 @@ public class Machinery {
     public void setCapacity(String capacity) {
         this.capacity = capacity;
     }
+
+    public int getParallelCapacity() {
+        return parallelCapacity;
+    }
+
+    public void setParallelCapacity(int parallelCapacity) {
+        this.parallelCapacity = parallelCapacity;
+    }
+
+    public String getMachineGroup() {
+        return machineGroup;
+    }
+
+    public void setMachineGroup(String machineGroup) {
+        this.machineGroup = machineGroup;
+    }
 }
@@ -0,0 +1,111 @@
+package client_group.service;
+
+import client_group.model.Session;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+// trasporto condiviso da tutti i service: un solo HttpClient (connessioni keep-alive riusate, HTTP/2 se il server
+// lo accetta, risposte gzip) e un solo ObjectMapper già configurato
+// l'indirizzo del server si cambia con -Dapi.base-url=... o con la variabile d'ambiente API_BASE_URL
+public final class ApiClient {
+
+    public static final String BASE_URL = baseUrl();
+
+    // stesso formato dei mapper che ogni service creava da sé (date java.time comprese)
+    public static final ObjectMapper JSON = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private static final HttpClient HTTP = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofSeconds(5))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    private ApiClient() {}
+
+    private static String baseUrl() {
+        String url = System.getProperty("api.base-url", System.getenv("API_BASE_URL"));
+        if (url == null || url.isBlank()) {
+            url = "http://localhost:8080";
+        }
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    // path relativo al server, es. "/api/raw"
+    public static String url(String path) {
+        return BASE_URL + path;
+    }
+
+    // connessione con la stessa interfaccia di prima ma sul client condiviso: disconnect() non chiude il socket
+    public static HttpURLConnection open(URL url) {
+        return new ApiConnection(url, HTTP);
+    }
+
+    // nei test testConnection fornisce la connessione finta; il token della sessione va su ogni richiesta
+    static HttpURLConnection open(Supplier<HttpURLConnection> testConnection, String path, String method) throws IOException {
+        HttpURLConnection conn = testConnection != null ? testConnection.get() : open(new URL(url(path)));
+        conn.setRequestMethod(method);
+        conn.setRequestProperty("Authorization", "Bearer " + Session.getInstance().getToken());
+        return conn;
+    }
+
+    // per le risposte grandi: il corpo si legge mentre arriva (le connessioni finte dei test restano come sono)
+    static void streamResponse(HttpURLConnection conn) {
+        if (conn instanceof ApiConnection api) {
+            api.streamResponse();
+        }
+    }
+
+    // GET senza bloccare il thread chiamante; il future fallisce se la risposta non è 200
+    public static <T> CompletableFuture<T> getAsync(String path, TypeReference<T> type) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url(path)))
+                .header("Authorization", "Bearer " + Session.getInstance().getToken())
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+        return HTTP.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new UncheckedIOException(new IOException("HTTP " + response.statusCode() + " su " + path));
+                    }
+                    try (InputStream body = body(response)) {
+                        return JSON.readValue(body, type);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    // corpo della risposta già decompresso se il server l'ha mandato in gzip
+    static InputStream body(HttpResponse<byte[]> response) throws IOException {
+        InputStream in = new ByteArrayInputStream(response.body());
+        if (response.body().length == 0) {
+            return in;
+        }
+        return decode(response.headers(), in);
+    }
+
+    static InputStream decode(HttpHeaders headers, InputStream in) throws IOException {
+        boolean gzip = headers.firstValue("Content-Encoding")
+                .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+                .orElse(false);
+        return gzip ? new GZIPInputStream(in) : in;
+    }
+}
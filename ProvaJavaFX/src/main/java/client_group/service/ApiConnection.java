@@ -0,0 +1,191 @@
+package client_group.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.ProtocolException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// HttpURLConnection che passa dall'HttpClient condiviso: i service (e i loro test con connessioni finte)
+// restano uguali, ma le connessioni TCP vengono riusate invece di aprirne una a chiamata.
+// il corpo della richiesta si accumula in memoria e parte alla prima lettura della risposta;
+// anche la risposta viene letta tutta, tranne che con streamResponse() (per questo gli stream SSE
+// aprono ancora una connessione propria)
+class ApiConnection extends HttpURLConnection {
+
+    // header che decide HttpClient da solo
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private final HttpClient client;
+    private ByteArrayOutputStream requestBody;
+    private HttpResponse<byte[]> response;
+    private boolean streaming;
+    private HttpResponse<InputStream> streamedResponse;
+
+    ApiConnection(URL url, HttpClient client) {
+        super(url);
+        this.client = client;
+    }
+
+    // la risposta si legge mentre arriva invece di aspettarla tutta: va letta fino in fondo o chiusa,
+    // altrimenti la connessione non torna nel pool
+    void streamResponse() {
+        streaming = true;
+    }
+
+    // HttpURLConnection accetta solo alcuni metodi (niente PATCH)
+    @Override
+    public void setRequestMethod(String method) throws ProtocolException {
+        if (connected) {
+            throw new ProtocolException("Can't reset method: already connected");
+        }
+        this.method = method;
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        if (connected) {
+            throw new ProtocolException("Cannot write output after reading input.");
+        }
+        if (requestBody == null) {
+            requestBody = new ByteArrayOutputStream();
+        }
+        return requestBody;
+    }
+
+    @Override
+    public void connect() throws IOException {
+        if (connected) {
+            return;
+        }
+        HttpRequest.Builder builder;
+        try {
+            builder = HttpRequest.newBuilder(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+        for (Map.Entry<String, List<String>> header : getRequestProperties().entrySet()) {
+            if (header.getKey() == null || RESTRICTED_HEADERS.contains(header.getKey().toLowerCase())) {
+                continue;
+            }
+            for (String value : header.getValue()) {
+                builder.header(header.getKey(), value);
+            }
+        }
+        if (getRequestProperty("Accept-Encoding") == null) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+        if (getReadTimeout() > 0) {
+            builder.timeout(Duration.ofMillis(getReadTimeout()));
+        }
+        builder.method(method, requestBody != null
+                ? HttpRequest.BodyPublishers.ofByteArray(requestBody.toByteArray())
+                : HttpRequest.BodyPublishers.noBody());
+
+        try {
+            if (streaming) {
+                streamedResponse = client.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+                responseCode = streamedResponse.statusCode();
+            } else {
+                response = client.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+                responseCode = response.statusCode();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Richiesta interrotta: " + url);
+        }
+        connected = true;
+    }
+
+    @Override
+    public int getResponseCode() throws IOException {
+        connect();
+        return responseCode;
+    }
+
+    // come HttpURLConnection: sugli errori il corpo si legge da getErrorStream()
+    @Override
+    public InputStream getInputStream() throws IOException {
+        connect();
+        if (responseCode == HTTP_NOT_FOUND || responseCode == HTTP_GONE) {
+            throw new FileNotFoundException(url.toString());
+        }
+        if (responseCode >= 400) {
+            throw new IOException("Server returned HTTP response code: " + responseCode + " for URL: " + url);
+        }
+        if (streamedResponse != null) {
+            return ApiClient.decode(streamedResponse.headers(), streamedResponse.body());
+        }
+        return ApiClient.body(response);
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+        if (responseCode < 400) {
+            return null;
+        }
+        try {
+            if (streamedResponse != null) {
+                return ApiClient.decode(streamedResponse.headers(), streamedResponse.body());
+            }
+            if (response == null || response.body().length == 0) {
+                return null;
+            }
+            return ApiClient.body(response);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private HttpHeaders headers() {
+        if (streamedResponse != null) {
+            return streamedResponse.headers();
+        }
+        return response != null ? response.headers() : null;
+    }
+
+    @Override
+    public String getHeaderField(String name) {
+        HttpHeaders headers = headers();
+        if (headers == null) {
+            return null;
+        }
+        return headers.firstValue(name).orElse(null);
+    }
+
+    @Override
+    public Map<String, List<String>> getHeaderFields() {
+        HttpHeaders headers = headers();
+        return headers == null ? Map.of() : headers.map();
+    }
+
+    // la connessione torna nel pool di HttpClient; una risposta letta in streaming va chiusa per liberarla
+    @Override
+    public void disconnect() {
+        if (streamedResponse != null) {
+            try {
+                streamedResponse.body().close();
+            } catch (IOException ignored) {
+                // la connessione verrà scartata
+            }
+        }
+    }
+
+    @Override
+    public boolean usingProxy() {
+        return false;
+    }
+}
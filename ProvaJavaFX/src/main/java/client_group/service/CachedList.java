@@ -0,0 +1,131 @@
+package client_group.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.LongSupplier;
+
+// lista di dati che cambiano di rado (dipendenti, macchinari, ...) tenuta in memoria per ttlMillis:
+// - valore fresco: risposta immediata, nessuna richiesta
+// - valore scaduto o invalidato: risposta immediata col vecchio valore e ricarica in background
+// - nessun valore: si aspetta il caricamento, e richieste contemporanee ne condividono uno solo
+public class CachedList<T> {
+
+    @FunctionalInterface
+    public interface Loader<T> {
+        List<T> load() throws Exception;
+    }
+
+    private final Loader<T> loader;
+    private final long ttlMillis;
+    private final Executor executor;
+    private final LongSupplier clock;
+
+    private List<T> value;
+    private long loadedAt;
+    // cresce a ogni invalidate: un caricamento partito prima non rende fresco il valore
+    private long generation;
+    private CompletableFuture<List<T>> inFlight;
+
+    public CachedList(Loader<T> loader, long ttlMillis, Executor executor) {
+        this(loader, ttlMillis, executor, System::currentTimeMillis);
+    }
+
+    // Costruttore usato nei test, con un orologio finto
+    CachedList(Loader<T> loader, long ttlMillis, Executor executor, LongSupplier clock) {
+        this.loader = loader;
+        this.ttlMillis = ttlMillis;
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    public List<T> get() throws IOException {
+        CompletableFuture<List<T>> pending;
+        synchronized (this) {
+            if (value != null) {
+                if (isStale()) {
+                    refresh();
+                }
+                return value;
+            }
+            pending = refresh();
+        }
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Caricamento interrotto", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException io ? io : new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    // come get() ma senza mai bloccare: utile per precaricare dal thread FX
+    public synchronized CompletableFuture<List<T>> getAsync() {
+        if (value != null) {
+            if (isStale()) {
+                refresh();
+            }
+            return CompletableFuture.completedFuture(value);
+        }
+        return refresh();
+    }
+
+    // valore in memoria, anche scaduto; null se non è mai stato caricato
+    public synchronized List<T> peek() {
+        return value;
+    }
+
+    // il server ha segnalato una modifica: se la lista era già caricata la si ricarica subito,
+    // ma finché la ricarica non finisce get() e peek() rispondono ancora col valore vecchio
+    public synchronized void invalidate() {
+        generation++;
+        if (value != null) {
+            refresh();
+        }
+    }
+
+    private boolean isStale() {
+        return clock.getAsLong() - loadedAt >= ttlMillis;
+    }
+
+    // un solo caricamento alla volta; se fallisce resta il valore vecchio
+    private CompletableFuture<List<T>> refresh() {
+        if (inFlight != null) {
+            return inFlight;
+        }
+        long started = generation;
+        CompletableFuture<List<T>> future = CompletableFuture.supplyAsync(() -> {
+            try {
+                return List.copyOf(loader.load());
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+        inFlight = future;
+        future.whenComplete((loaded, error) -> completed(future, started, loaded, error));
+        return future;
+    }
+
+    private synchronized void completed(CompletableFuture<List<T>> future, long started, List<T> loaded, Throwable error) {
+        if (inFlight == future) {
+            inFlight = null;
+        }
+        if (error != null) {
+            System.err.println("Aggiornamento dati di riferimento fallito: " + error.getMessage());
+            return;
+        }
+        value = loaded;
+        // invalidata durante il caricamento: il dato potrebbe essere già vecchio, lo si ricarica
+        if (started != generation) {
+            loadedAt = Long.MIN_VALUE / 2;
+            refresh();
+        } else {
+            loadedAt = clock.getAsLong();
+        }
+    }
+}
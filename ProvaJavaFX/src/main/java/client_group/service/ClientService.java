@@ -1,20 +1,19 @@
 package client_group.service;
 
 import client_group.model.Client;
-import client_group.model.Session;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.*;
 import java.net.HttpURLConnection;
-import java.net.URL;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Supplier;
 
 public class ClientService {
 
-    private final String BASE_URL = "http://localhost:8080/api/clients";
-    private final ObjectMapper mapper = new ObjectMapper();
+    private final String BASE_PATH = "/api/clients";
+    private final ObjectMapper mapper = ApiClient.JSON;
 
     // factory injection
     private final Supplier<HttpURLConnection> connectionSupplier;
@@ -29,39 +28,47 @@ public class ClientService {
         this.connectionSupplier = supplier;
     }
 
-    private HttpURLConnection openConnection(String urlString, String method) throws Exception {
-        HttpURLConnection con;
-        if (connectionSupplier != null) {
-            con = connectionSupplier.get();
-        } else {
-            URL url = new URL(urlString);
-            con = (HttpURLConnection) url.openConnection();
-        }
-        con.setRequestMethod(method);
-        con.setRequestProperty("Authorization", "Bearer " + Session.getInstance().getToken());
-        return con;
+    private HttpURLConnection openConnection(String path, String method) throws Exception {
+        return ApiClient.open(connectionSupplier, path, method);
     }
 
     public List<Client> fetchAllClients() {
         try {
-            HttpURLConnection con = openConnection(BASE_URL, "GET");
-            con.setRequestProperty("Accept", "application/json");
-
-            if (con.getResponseCode() != 200) {
-                throw new RuntimeException("Errore nel recupero clienti: HTTP code " + con.getResponseCode());
-            }
-
-            try (InputStream input = con.getInputStream()) {
-                return mapper.readValue(input, new TypeReference<List<Client>>() {});
-            }
+            return requestAllClients();
         } catch (Exception e) {
             e.printStackTrace();
             return List.of(); // lista vuota in caso di errore
         }
     }
 
+    // per le scelte nei dialog: senza connessione iniettata la lista arriva dalla cache condivisa
+    public List<Client> getAllClients() {
+        if (connectionSupplier != null) {
+            return fetchAllClients();
+        }
+        try {
+            return new ArrayList<>(ReferenceData.getInstance().clients().get());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    List<Client> requestAllClients() throws Exception {
+        HttpURLConnection con = openConnection(BASE_PATH, "GET");
+        con.setRequestProperty("Accept", "application/json");
+
+        if (con.getResponseCode() != 200) {
+            throw new RuntimeException("Errore nel recupero clienti: HTTP code " + con.getResponseCode());
+        }
+
+        try (InputStream input = con.getInputStream()) {
+            return mapper.readValue(input, new TypeReference<List<Client>>() {});
+        }
+    }
+
     public void deleteClient(String piva) throws Exception {
-        HttpURLConnection con = openConnection(BASE_URL + "/" + piva, "DELETE");
+        HttpURLConnection con = openConnection(BASE_PATH + "/" + piva, "DELETE");
 
         int responseCode = con.getResponseCode();
         con.disconnect();
@@ -72,7 +79,7 @@ public class ClientService {
     }
 
     public Client createClient(Client client) throws Exception {
-        HttpURLConnection con = openConnection(BASE_URL + "/create_client", "POST");
+        HttpURLConnection con = openConnection(BASE_PATH + "/create_client", "POST");
         con.setDoOutput(true);
         con.setRequestProperty("Content-Type", "application/json");
 
@@ -93,7 +100,7 @@ public class ClientService {
     }
 
     public Client updateClient(Client client) throws Exception {
-        HttpURLConnection con = openConnection(BASE_URL + "/" + client.getPiva(), "PUT");
+        HttpURLConnection con = openConnection(BASE_PATH + "/" + client.getPiva(), "PUT");
         con.setDoOutput(true);
         con.setRequestProperty("Content-Type", "application/json");
 
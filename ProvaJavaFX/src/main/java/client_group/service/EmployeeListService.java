@@ -1,14 +1,13 @@
 package client_group.service;
 
 import client_group.model.Employee;
-import client_group.model.Session;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
+import java.io.IOException;
 import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Supplier;
@@ -27,24 +26,29 @@ public class EmployeeListService {
         this.connectionSupplier = supplier;
     }
 
-    private HttpURLConnection openConnection(String urlString, String method) throws Exception {
-        HttpURLConnection conn;
-        if (connectionSupplier != null) {
-            conn = connectionSupplier.get();
-        } else {
-            URL url = new URL(urlString);
-            conn = (HttpURLConnection) url.openConnection();
-        }
-        conn.setRequestMethod(method);
-        conn.setRequestProperty("Authorization", "Bearer " + Session.getInstance().getToken());
-        return conn;
+    private HttpURLConnection openConnection(String path, String method) throws Exception {
+        return ApiClient.open(connectionSupplier, path, method);
     }
 
+    // senza connessione iniettata la lista arriva dalla cache condivisa
     public List<Employee> fetchEmployees() {
+        if (connectionSupplier == null) {
+            try {
+                return new ArrayList<>(ReferenceData.getInstance().employees().get());
+            } catch (IOException e) {
+                e.printStackTrace();
+                return new ArrayList<>();
+            }
+        }
+        return requestEmployees();
+    }
+
+    // sempre dal server: per la tabella di gestione, che deve mostrare i dati del momento
+    public List<Employee> requestEmployees() {
         List<Employee> employeeList = new ArrayList<>();
 
         try {
-            HttpURLConnection conn = openConnection("http://localhost:8080/api/employee/list", "GET");
+            HttpURLConnection conn = openConnection("/api/employee/list", "GET");
 
             int responseCode = conn.getResponseCode();
             if (responseCode == 200) {
@@ -1,21 +1,39 @@
 package client_group.service;
 
 import client_group.dto.GanttBlockDTO;
+import client_group.dto.GanttChangesDTO;
+import client_group.dto.GanttOrderFacetDTO;
+import client_group.dto.MachineLoadDTO;
+import client_group.model.GanttPlan;
+import client_group.model.LoadLevel;
 import client_group.model.Session;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
-import java.net.URL;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 public class GanttService {
 
+    private static final String PLAN_VERSION_HEADER = "X-Plan-Version";
+    // blocchi consegnati alla schermata per volta durante il caricamento del piano
+    static final int CHUNK_SIZE = 200;
+    private static final String ORDER_FACETS_PATH = "/api/gantt/orders/facets";
+    private static final String MACHINE_LOAD_PATH = "/api/gantt/load";
+
+    private final ObjectMapper mapper = ApiClient.JSON;
+
     private final Supplier<HttpURLConnection> connectionSupplier;
 
     // Costruttore normale
@@ -28,51 +46,188 @@ public class GanttService {
         this.connectionSupplier = supplier;
     }
 
-    private HttpURLConnection openConnection(String urlString, String method) throws Exception {
-        HttpURLConnection conn;
-        if (connectionSupplier != null) {
-            conn = connectionSupplier.get();
-        } else {
-            URL url = new URL(urlString);
-            conn = (HttpURLConnection) url.openConnection();
-        }
-        conn.setRequestMethod(method);
-        conn.setRequestProperty("Authorization", "Bearer " + Session.getInstance().getToken());
-        return conn;
+    private HttpURLConnection openConnection(String path, String method) throws Exception {
+        return ApiClient.open(connectionSupplier, path, method);
     }
 
     public List<GanttBlockDTO> getGanttForAllOrders() throws Exception {
-        HttpURLConnection conn = openConnection("http://localhost:8080/api/gantt/orders/all", "GET");
-
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
+        HttpURLConnection conn = openConnection("/api/gantt/orders/all", "GET");
 
         try (InputStream input = conn.getInputStream()) {
             return mapper.readValue(input, new TypeReference<List<GanttBlockDTO>>() {});
         }
     }
 
-    public void saveModifiedBlocks(List<GanttBlockDTO> modifiedBlocks) throws IOException {
+    // ordini del gantt con cliente, modello e scadenza: una riga per ordine, per il filtro
+    public List<GanttOrderFacetDTO> getOrderFacets() throws Exception {
+        HttpURLConnection conn = openConnection(ORDER_FACETS_PATH, "GET");
+
+        try (InputStream input = conn.getInputStream()) {
+            return mapper.readValue(input, new TypeReference<List<GanttOrderFacetDTO>>() {});
+        }
+    }
+
+    // come getOrderFacets() ma senza bloccare il thread FX
+    public CompletableFuture<List<GanttOrderFacetDTO>> getOrderFacetsAsync() {
+        if (connectionSupplier != null) {
+            try {
+                return CompletableFuture.completedFuture(getOrderFacets());
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return ApiClient.getAsync(ORDER_FACETS_PATH, new TypeReference<List<GanttOrderFacetDTO>>() {});
+    }
+
+    // carico delle macchine tra from e to (incluso) raggruppato per giorno, settimana o mese, per il gantt visto da lontano
+    public List<MachineLoadDTO> getMachineLoad(LocalDate from, LocalDate to, LoadLevel level) throws Exception {
+        HttpURLConnection conn = openConnection(machineLoadPath(from, to, level), "GET");
+
+        try (InputStream input = conn.getInputStream()) {
+            return mapper.readValue(input, new TypeReference<List<MachineLoadDTO>>() {});
+        }
+    }
+
+    // come getMachineLoad() ma senza bloccare il thread FX
+    public CompletableFuture<List<MachineLoadDTO>> getMachineLoadAsync(LocalDate from, LocalDate to, LoadLevel level) {
+        if (connectionSupplier != null) {
+            try {
+                return CompletableFuture.completedFuture(getMachineLoad(from, to, level));
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return ApiClient.getAsync(machineLoadPath(from, to, level), new TypeReference<List<MachineLoadDTO>>() {});
+    }
+
+    static String machineLoadPath(LocalDate from, LocalDate to, LoadLevel level) {
+        if (level == LoadLevel.BLOCKS) {
+            throw new IllegalArgumentException("Il carico si chiede solo per giorno, settimana o mese");
+        }
+        return MACHINE_LOAD_PATH + "?from=" + from + "&to=" + to + "&bucket=" + level.name();
+    }
+
+    // piano completo tramite la copia in memoria: la prima volta lo scarica tutto,
+    // poi chiede al server solo i blocchi cambiati dall'ultima versione vista
+    public List<GanttBlockDTO> loadPlan() throws Exception {
+        return loadPlan(chunk -> {});
+    }
+
+    // come loadPlan(), ma i blocchi arrivano anche a onChunk a gruppi di CHUNK_SIZE mentre si legge la risposta,
+    // così la schermata li mostra prima della fine del download; va chiamato fuori dal thread FX
+    public List<GanttBlockDTO> loadPlan(Consumer<List<GanttBlockDTO>> onChunk) throws Exception {
+        GanttPlan plan = GanttPlan.getInstance();
+        String token = Session.getInstance().getToken();
+
+        if (loadPlanChanges() != null) {
+            List<GanttBlockDTO> blocks = plan.getBlocks();
+            for (int i = 0; i < blocks.size(); i += CHUNK_SIZE) {
+                onChunk.accept(blocks.subList(i, Math.min(i + CHUNK_SIZE, blocks.size())));
+            }
+            return blocks;
+        }
+
+        HttpURLConnection conn = openConnection("/api/gantt/orders/all", "GET");
+        ApiClient.streamResponse(conn);
+        List<GanttBlockDTO> all;
+        try (InputStream input = conn.getInputStream()) {
+            all = readBlocks(input, onChunk);
+        }
+        // senza header (server vecchio) si ricarica tutto ogni volta
+        String header = conn.getHeaderField(PLAN_VERSION_HEADER);
+        plan.replace(all, header != null ? Long.valueOf(header) : null, token);
+        return plan.getBlocks();
+    }
+
+    // solo le differenze dall'ultima versione vista, già unite alla copia in memoria: servono a un grafico aperto
+    // per rimettersi in pari (stream del gantt ricollegato); null se il server non le ha più e va usato loadPlan()
+    public GanttChangesDTO loadPlanChanges() throws Exception {
+        GanttPlan plan = GanttPlan.getInstance();
+        Long version = plan.getVersion(Session.getInstance().getToken());
+        if (version == null) {
+            return null;
+        }
+        HttpURLConnection conn = openConnection("/api/gantt/changes?since=" + version, "GET");
+        GanttChangesDTO changes;
+        try (InputStream input = conn.getInputStream()) {
+            changes = mapper.readValue(input, GanttChangesDTO.class);
+        }
+        if (changes.isFullReload()) {
+            return null;
+        }
+        // nel piano vanno copie, i blocchi restituiti finiscono sul grafico
+        plan.merge(changes.getChanged().stream().map(GanttBlockDTO::new).toList(), changes.getRemoved(), changes.getVersion());
+        return changes;
+    }
+
+    // l'array si legge un blocco alla volta col parser streaming, senza aspettare la fine del JSON;
+    // a onChunk vanno copie, perché il grafico modifica i blocchi mentre l'utente li trascina
+    private List<GanttBlockDTO> readBlocks(InputStream input, Consumer<List<GanttBlockDTO>> onChunk) throws IOException {
+        List<GanttBlockDTO> all = new ArrayList<>();
+        List<GanttBlockDTO> chunk = new ArrayList<>(CHUNK_SIZE);
+        try (JsonParser parser = mapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Risposta del piano non valida: atteso un array");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                GanttBlockDTO block = mapper.readValue(parser, GanttBlockDTO.class);
+                all.add(block);
+                chunk.add(new GanttBlockDTO(block));
+                if (chunk.size() == CHUNK_SIZE) {
+                    onChunk.accept(chunk);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            onChunk.accept(chunk);
+        }
+        return all;
+    }
+
+    // ritorna i blocchi salvati più quelli che il server ha spostato a catena
+    public List<GanttBlockDTO> saveModifiedBlocks(List<GanttBlockDTO> modifiedBlocks) throws IOException {
         try {
-            HttpURLConnection conn = openConnection("http://localhost:8080/api/gantt/update", "POST");
+            HttpURLConnection conn = openConnection("/api/gantt/update", "POST");
             conn.setRequestProperty("Content-Type", "application/json");
             conn.setDoOutput(true);
 
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.registerModule(new JavaTimeModule());
-
             try (OutputStream os = conn.getOutputStream()) {
                 mapper.writeValue(os, modifiedBlocks);
             }
 
             int responseCode = conn.getResponseCode();
+            if (responseCode == HttpURLConnection.HTTP_BAD_REQUEST) {
+                // il server non ha salvato niente e spiega cosa non va in ogni blocco
+                throw new IOException(rejectedBlocksMessage(mapper, conn.getErrorStream()));
+            }
             if (responseCode != HttpURLConnection.HTTP_OK) {
                 throw new IOException("Errore nella conferma delle modifiche: " + responseCode);
             }
-        } catch (IOException e) {
-            throw e;
+
+            try (InputStream input = conn.getInputStream()) {
+                if (input == null) {
+                    return List.of();
+                }
+                return mapper.readValue(input, new TypeReference<List<GanttBlockDTO>>() {});
+            }
         } catch (Exception e) {
-            throw new IOException(e);
+            throw e instanceof IOException io ? io : new IOException(e);
+        }
+    }
+
+    // una riga per ogni blocco rifiutato: [{"executionId": .., "message": ..}, ...]
+    private String rejectedBlocksMessage(ObjectMapper mapper, InputStream error) throws IOException {
+        if (error == null) {
+            return "Modifiche rifiutate dal server";
+        }
+        try (error) {
+            JsonNode errors = mapper.readTree(error);
+            StringBuilder message = new StringBuilder("Modifiche rifiutate dal server:");
+            for (JsonNode blockError : errors) {
+                message.append("\n- ").append(blockError.path("message").asText());
+            }
+            return message.toString();
         }
     }
 }
@@ -4,7 +4,6 @@ import client_group.model.Machinery;
 import client_group.model.Session;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
@@ -19,7 +18,9 @@ import java.net.URLEncoder;
 
 public class MachineryService {
 
-    private static final String BASE_URL = "http://localhost:8080/api/machinery";
+    private static final String BASE_URL = ApiClient.url("/api/machinery");
+
+    private final ObjectMapper mapper = ApiClient.JSON;
 
     //Factory Injection
     @FunctionalInterface
@@ -28,13 +29,17 @@ public class MachineryService {
     }
 
     private final ConnectionFactory connectionFactory;
+    // solo il costruttore reale passa dalla cache condivisa
+    private final boolean cached;
 
     public MachineryService() {
-        this.connectionFactory=url -> (HttpURLConnection) url.openConnection(); // default → produce connessioni reali
+        this.connectionFactory=ApiClient::open; // default → produce connessioni reali
+        this.cached = true;
     }
 
     public MachineryService(ConnectionFactory connectionFactory) {
         this.connectionFactory = connectionFactory;
+        this.cached = false;
     }
 
     // GET all
@@ -68,6 +73,8 @@ public class MachineryService {
             m.setBuyDate(LocalDate.parse(obj.getString("buyDate")));
             m.setYearManufacture(obj.optString("yearManufacture", ""));
             m.setCapacity(obj.optString("capacity", ""));
+            m.setParallelCapacity(obj.optInt("parallelCapacity", 1));
+            m.setMachineGroup(obj.optString("machineGroup", null));
             machineryList.add(m);
         }
 
@@ -103,6 +110,8 @@ public class MachineryService {
         json.put("buyDate", machinery.getBuyDate().toString());
         json.put("yearManufacture", machinery.getYearManufacture());
         json.put("capacity", machinery.getCapacity());
+        json.put("parallelCapacity", machinery.getParallelCapacity());
+        json.put("machineGroup", machinery.getMachineGroup());
 
         try (OutputStream os = conn.getOutputStream()) {
             os.write(json.toString().getBytes());
@@ -129,6 +138,8 @@ public class MachineryService {
         created.setBuyDate(LocalDate.parse(obj.getString("buyDate")));
         created.setYearManufacture(obj.getString("yearManufacture"));
         created.setCapacity(obj.getString("capacity"));
+        created.setParallelCapacity(obj.optInt("parallelCapacity", 1));
+        created.setMachineGroup(obj.optString("machineGroup", null));
 
         return Optional.of(created);
     }
@@ -149,6 +160,8 @@ public class MachineryService {
         json.put("buyDate", machinery.getBuyDate().toString());
         json.put("yearManufacture", machinery.getYearManufacture());
         json.put("capacity", machinery.getCapacity());
+        json.put("parallelCapacity", machinery.getParallelCapacity());
+        json.put("machineGroup", machinery.getMachineGroup());
 
         try (OutputStream os = conn.getOutputStream()) {
             os.write(json.toString().getBytes());
@@ -175,20 +188,26 @@ public class MachineryService {
         updated.setBuyDate(LocalDate.parse(obj.getString("buyDate")));
         updated.setYearManufacture(obj.getString("yearManufacture"));
         updated.setCapacity(obj.getString("capacity"));
+        updated.setParallelCapacity(obj.optInt("parallelCapacity", 1));
+        updated.setMachineGroup(obj.optString("machineGroup", null));
 
         return Optional.of(updated);
     }
 
-    // GET all
+    // GET all, dalla cache condivisa se non ci sono connessioni iniettate
     public List<Machinery> getAllMachinery() throws IOException {
+        if (cached) {
+            return new ArrayList<>(ReferenceData.getInstance().machinery().get());
+        }
+        return requestAllMachinery();
+    }
+
+    List<Machinery> requestAllMachinery() throws IOException {
         URL url = new URL(BASE_URL);
         HttpURLConnection conn = connectionFactory.create(url);
         conn.setRequestMethod("GET");
         conn.setRequestProperty("Authorization", "Bearer " + Session.getInstance().getToken());
 
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-
         try (InputStream input = conn.getInputStream()) {
             return mapper.readValue(input, new TypeReference<List<Machinery>>() {});
         }
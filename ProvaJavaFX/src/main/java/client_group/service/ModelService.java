@@ -9,15 +9,16 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.*;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 public class ModelService {
 
-    private final String BASE_URL = "http://localhost:8080/api/models";
-    private final String RAW_URL = "http://localhost:8080/api/raw";
+    private final String BASE_URL = ApiClient.url("/api/models");
+    private final String RAW_URL = ApiClient.url("/api/raw");
 
-    private final ObjectMapper mapper = new ObjectMapper();
+    private final ObjectMapper mapper = ApiClient.JSON;
 
     //Factory Injection
     @FunctionalInterface
@@ -26,15 +27,19 @@ public class ModelService {
     }
 
     private final ConnectionFactory connectionFactory;
+    // solo il costruttore reale passa dalla cache condivisa
+    private final boolean cached;
 
     // Costruttore reale
     public ModelService() {
-        this.connectionFactory = url -> (HttpURLConnection) url.openConnection();
+        this.connectionFactory = ApiClient::open;
+        this.cached = true;
     }
 
     // Costruttore per i test
     public ModelService(ConnectionFactory connectionFactory) {
         this.connectionFactory = connectionFactory;
+        this.cached = false;
     }
 
     public List<Model> loadAllModels() throws IOException {
@@ -50,6 +55,9 @@ public class ModelService {
 
     public List<Model> fetchAllModels() {
         try {
+            if (cached) {
+                return new ArrayList<>(ReferenceData.getInstance().models().get());
+            }
             return loadAllModels();
         } catch (IOException e) {
             e.printStackTrace();
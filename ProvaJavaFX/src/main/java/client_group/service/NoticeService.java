@@ -1,23 +1,26 @@
 package client_group.service;
 
 import client_group.dto.NoticeDTO;
-import client_group.model.Session;
+import client_group.dto.NoticePageDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.*;
 import java.net.HttpURLConnection;
-import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
 public class NoticeService {
 
     private final Supplier<HttpURLConnection> connectionSupplier;
+    private final ObjectMapper mapper = ApiClient.JSON;
 
     // Costruttore normale
     public NoticeService() {
@@ -29,28 +32,18 @@ public class NoticeService {
         this.connectionSupplier = connectionSupplier;
     }
 
-    private HttpURLConnection openConnection(String urlString, String method) throws Exception {
-        HttpURLConnection conn;
-        if (connectionSupplier != null) {
-            conn = connectionSupplier.get();
-        } else {
-            URL url = new URL(urlString);
-            conn = (HttpURLConnection) url.openConnection();
-        }
-        conn.setRequestMethod(method);
-        conn.setRequestProperty("Authorization", "Bearer " + Session.getInstance().getToken());
-        return conn;
+    private HttpURLConnection openConnection(String path, String method) throws Exception {
+        return ApiClient.open(connectionSupplier, path, method);
     }
 
     public List<NoticeDTO> fetchNotices(String userEmail) {
         List<NoticeDTO> notices = new ArrayList<>();
 
         try {
-            HttpURLConnection conn = openConnection("http://localhost:8080/api/notice/all" + "?userEmail=" + URLEncoder.encode(userEmail, "UTF-8"), "GET");
+            HttpURLConnection conn = openConnection("/api/notice/all" + "?userEmail=" + URLEncoder.encode(userEmail, "UTF-8"), "GET");
             conn.setRequestProperty("Accept", "application/json");
 
             if (conn.getResponseCode() == 200) {
-                ObjectMapper mapper = new ObjectMapper();
                 notices = Arrays.asList(mapper.readValue(conn.getInputStream(), NoticeDTO[].class));
             } else {
                 System.err.println("Errore nel recupero annunci: " + conn.getResponseCode());
@@ -64,14 +57,89 @@ public class NoticeService {
         return notices;
     }
 
+    // una pagina di una categoria della bacheca (before = nextCursor della pagina precedente, null per la prima)
+    public NoticePageDTO fetchPage(String userEmail, String category, Long before, int size) {
+        try {
+            HttpURLConnection conn = openConnection(pagePath(userEmail, category, before, size), "GET");
+            conn.setRequestProperty("Accept", "application/json");
+
+            try {
+                if (conn.getResponseCode() == 200) {
+                    return mapper.readValue(conn.getInputStream(), NoticePageDTO.class);
+                }
+                System.err.println("Errore nel recupero annunci: " + conn.getResponseCode());
+            } finally {
+                conn.disconnect();
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return new NoticePageDTO();
+    }
+
+    // come fetchPage ma senza bloccare: la bacheca chiede tutte le categorie insieme
+    public CompletableFuture<NoticePageDTO> fetchPageAsync(String userEmail, String category, Long before, int size) {
+        if (connectionSupplier != null) {
+            return CompletableFuture.completedFuture(fetchPage(userEmail, category, before, size));
+        }
+        return ApiClient.getAsync(pagePath(userEmail, category, before, size), new TypeReference<NoticePageDTO>() {})
+                .exceptionally(e -> {
+                    System.err.println("Errore nel recupero annunci: " + e.getMessage());
+                    return new NoticePageDTO();
+                });
+    }
+
+    private static String pagePath(String userEmail, String category, Long before, int size) {
+        StringBuilder path = new StringBuilder("/api/notice?userEmail=")
+                .append(URLEncoder.encode(userEmail, StandardCharsets.UTF_8))
+                .append("&category=").append(URLEncoder.encode(category, StandardCharsets.UTF_8))
+                .append("&size=").append(size);
+        if (before != null) {
+            path.append("&before=").append(before);
+        }
+        return path.toString();
+    }
+
+    // numero di avvisi per categoria, per sapere quali griglie caricare
+    public Map<String, Long> fetchCounts(String userEmail) {
+        try {
+            HttpURLConnection conn = openConnection("/api/notice/counts?userEmail="
+                    + URLEncoder.encode(userEmail, StandardCharsets.UTF_8), "GET");
+            conn.setRequestProperty("Accept", "application/json");
+
+            try {
+                if (conn.getResponseCode() == 200) {
+                    return mapper.readValue(conn.getInputStream(), new TypeReference<Map<String, Long>>() {});
+                }
+                System.err.println("Errore nel conteggio annunci: " + conn.getResponseCode());
+            } finally {
+                conn.disconnect();
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return Map.of();
+    }
+
+    public CompletableFuture<Map<String, Long>> fetchCountsAsync(String userEmail) {
+        if (connectionSupplier != null) {
+            return CompletableFuture.completedFuture(fetchCounts(userEmail));
+        }
+        return ApiClient.getAsync("/api/notice/counts?userEmail=" + URLEncoder.encode(userEmail, StandardCharsets.UTF_8),
+                        new TypeReference<Map<String, Long>>() {})
+                .exceptionally(e -> {
+                    System.err.println("Errore nel conteggio annunci: " + e.getMessage());
+                    return Map.of();
+                });
+    }
+
     public Optional<NoticeDTO> saveNotice(NoticeDTO notice) {
         try {
-            HttpURLConnection conn = openConnection("http://localhost:8080/api/notice/add", "POST");
+            HttpURLConnection conn = openConnection("/api/notice/add", "POST");
             conn.setRequestProperty("Content-Type", "application/json; utf-8");
             conn.setDoOutput(true);
 
-            ObjectMapper objectMapper = new ObjectMapper();
-            String jsonInputString = objectMapper.writeValueAsString(notice);
+            String jsonInputString = mapper.writeValueAsString(notice);
 
             try (OutputStream os = conn.getOutputStream()) {
                 byte[] input = jsonInputString.getBytes(StandardCharsets.UTF_8);
@@ -81,7 +149,7 @@ public class NoticeService {
             int code = conn.getResponseCode();
             if (code == 200 || code == 201) {
                 try (InputStream is = conn.getInputStream()) {
-                    NoticeDTO savedNotice = objectMapper.readValue(is, NoticeDTO.class);
+                    NoticeDTO savedNotice = mapper.readValue(is, NoticeDTO.class);
                     return Optional.of(savedNotice);
                 }
             } else {
@@ -97,7 +165,7 @@ public class NoticeService {
 
     public boolean deleteNotice(long id) {
         try {
-            HttpURLConnection conn = openConnection("http://localhost:8080/api/notice/delete/" + id, "DELETE");
+            HttpURLConnection conn = openConnection("/api/notice/delete/" + id, "DELETE");
 
             int code = conn.getResponseCode();
             if (code == 200 || code == 204) {
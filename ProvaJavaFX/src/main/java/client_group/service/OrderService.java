@@ -6,7 +6,6 @@ import org.json.JSONObject;
 
 import java.io.*;
 import java.net.HttpURLConnection;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -15,7 +14,7 @@ import java.util.function.Supplier;
 
 public class OrderService {
 
-    private static final String BASE_URL = "http://localhost:8080/api/orders";
+    private static final String BASE_PATH = "/api/orders";
 
     private final Supplier<HttpURLConnection> connectionSupplier;
 
@@ -29,21 +28,11 @@ public class OrderService {
         this.connectionSupplier = connectionSupplier;
     }
 
-    // apertura connessione
-    private HttpURLConnection openConnection(String urlString, String method) throws IOException {
-        HttpURLConnection conn;
-        if (connectionSupplier != null) {
-            conn = connectionSupplier.get();
-        } else {
-            URL url = new URL(urlString);
-            conn = (HttpURLConnection) url.openConnection();
-        }
-        conn.setRequestMethod(method);
-        conn.setRequestProperty("Authorization", "Bearer " + Session.getInstance().getToken());
-        return conn;
+    private HttpURLConnection openConnection(String path, String method) throws IOException {
+        return ApiClient.open(connectionSupplier, path, method);
     }
     public List<Order> fetchAll() throws Exception {
-        HttpURLConnection conn = openConnection(BASE_URL, "GET");
+        HttpURLConnection conn = openConnection(BASE_PATH, "GET");
         conn.setRequestProperty("Accept", "application/json");
 
         if (conn.getResponseCode() != 200) {
@@ -72,7 +61,7 @@ public class OrderService {
 
     // Create new order
     public Order createOrder(Order order) throws Exception {
-        HttpURLConnection conn = openConnection(BASE_URL, "POST");
+        HttpURLConnection conn = openConnection(BASE_PATH, "POST");
         conn.setDoOutput(true);
         conn.setRequestProperty("Content-Type", "application/json; charset=UTF-8");
 
@@ -101,7 +90,7 @@ public class OrderService {
 
     // Update existing order
     public Order updateOrder(Order order) throws Exception {
-        HttpURLConnection conn = openConnection(BASE_URL + "/" + order.getId(), "PUT");
+        HttpURLConnection conn = openConnection(BASE_PATH + "/" + order.getId(), "PUT");
         conn.setDoOutput(true);
         conn.setRequestProperty("Content-Type", "application/json; charset=UTF-8");
 
@@ -131,7 +120,7 @@ public class OrderService {
 
     //Update state
     public void updateOrderState(Long orderId, String action) throws IOException {
-        HttpURLConnection conn = openConnection(BASE_URL + "/" + orderId + "/" + action, "PUT");
+        HttpURLConnection conn = openConnection(BASE_PATH + "/" + orderId + "/" + action, "PUT");
         conn.setRequestProperty("Content-Type", "application/json");
         conn.setDoOutput(true);
 
@@ -3,15 +3,12 @@ package client_group.service;
 import client_group.dto.ModelWithStepsDTO;
 import client_group.model.Machinery;
 import client_group.model.ProcessStep;
-import client_group.model.Session;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import java.io.*;
 import java.net.HttpURLConnection;
-import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
@@ -20,6 +17,8 @@ import java.util.function.Supplier;
 
 public class ProcessService {
 
+    private final ObjectMapper mapper = ApiClient.JSON;
+
     private final MachineryService machineryService;
     private final Supplier<HttpURLConnection> connectionSupplier;
 
@@ -35,25 +34,12 @@ public class ProcessService {
         this.connectionSupplier = connectionSupplier;
     }
 
-    // Metodo che apre la connessione con factory injection
-    private HttpURLConnection openConnection(String urlString, String method) throws Exception {
-        HttpURLConnection con;
-        if (connectionSupplier != null) {
-            con = connectionSupplier.get();  // Usa il Supplier
-        } else {
-            URL url = new URL(urlString);
-            con = (HttpURLConnection) url.openConnection();  // Connessione reale
-        }
-        con.setRequestMethod(method);
-        con.setRequestProperty("Authorization", "Bearer " + Session.getInstance().getToken());
-        return con;
+    private HttpURLConnection openConnection(String path, String method) throws Exception {
+        return ApiClient.open(connectionSupplier, path, method);
     }
 
     public List<ModelWithStepsDTO> getAllModelWithSteps() throws Exception {
-        HttpURLConnection conn = openConnection("http://localhost:8080/api/models/processes", "GET");
-
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
+        HttpURLConnection conn = openConnection("/api/models/processes", "GET");
 
         try (InputStream input = conn.getInputStream()) {
             return mapper.readValue(input, new TypeReference<List<ModelWithStepsDTO>>() {});
@@ -62,7 +48,7 @@ public class ProcessService {
 
     public boolean deleteById(Long id) {
         try {
-            HttpURLConnection conn = openConnection("http://localhost:8080/api/process/" + id, "DELETE");
+            HttpURLConnection conn = openConnection("/api/process/" + id, "DELETE");
 
             int responseCode = conn.getResponseCode();
             conn.disconnect();
@@ -74,7 +60,7 @@ public class ProcessService {
     }
 
     public boolean updateStepById(Long stepId, Duration duration, String semifinishedName, String machineryName) throws Exception {
-        HttpURLConnection conn = openConnection("http://localhost:8080/api/process/" + stepId + "/updateStep", "PUT");
+        HttpURLConnection conn = openConnection("/api/process/" + stepId + "/updateStep", "PUT");
         conn.setRequestProperty("Content-Type", "application/json");
         conn.setDoOutput(true);
 
@@ -84,9 +70,6 @@ public class ProcessService {
             throw new IllegalArgumentException("Invalid machinery name: " + machineryName);
         }
 
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-
         // crea JSON per aggiornare lo step
         ObjectNode json = mapper.createObjectNode();
         json.put("duration", duration.toString());
@@ -107,7 +90,7 @@ public class ProcessService {
     }
 
     public ProcessStep addNewStepToModel(String modelName, Duration duration, String semifinishedName, String machineryName, int insertAfterOrder) throws Exception {
-        String endpoint = String.format("http://localhost:8080/api/process/add?modelName=%s&afterOrder=%d&duration=%s&semifinishedName=%s&machineryName=%s",
+        String endpoint = String.format("/api/process/add?modelName=%s&afterOrder=%d&duration=%s&semifinishedName=%s&machineryName=%s",
                 URLEncoder.encode(modelName, StandardCharsets.UTF_8),
                 insertAfterOrder,
                 URLEncoder.encode(duration.toString(), StandardCharsets.UTF_8),
@@ -122,8 +105,6 @@ public class ProcessService {
         if (responseCode == 200) {
             try (InputStream in = conn.getInputStream()) {
                 String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
-                ObjectMapper mapper = new ObjectMapper();
-                mapper.registerModule(new JavaTimeModule());
                 return mapper.readValue(body, ProcessStep.class);
             }
         } else {
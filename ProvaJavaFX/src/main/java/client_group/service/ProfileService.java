@@ -4,7 +4,6 @@ import client_group.dto.AssignedTaskDTO;
 import client_group.dto.ProfileDTO;
 import client_group.model.Session;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.json.JSONObject;
 
 import java.io.*;
@@ -17,8 +16,8 @@ import java.util.List;
 
 public class ProfileService {
 
-    private static final String BASE_URL = "http://localhost:8080/api/profile";
-    private final ObjectMapper mapper = new ObjectMapper();
+    private static final String BASE_URL = ApiClient.url("/api/profile");
+    private final ObjectMapper mapper = ApiClient.JSON;
 
     //Factory Injection
     @FunctionalInterface
@@ -40,7 +39,7 @@ public class ProfileService {
 
     private HttpURLConnection openConnection(String urlString, String method) throws IOException {
         URL url = new URL(urlString);
-        HttpURLConnection conn = (connectionFactory != null) ? connectionFactory.create(url) : (HttpURLConnection) url.openConnection();
+        HttpURLConnection conn = (connectionFactory != null) ? connectionFactory.create(url) : ApiClient.open(url);
         conn.setRequestMethod(method);
         conn.setRequestProperty("Authorization", "Bearer " + Session.getInstance().getToken());
         return conn;
@@ -118,8 +117,6 @@ public class ProfileService {
 
         if (conn.getResponseCode() == 200) {
             try (InputStream is = conn.getInputStream()) {
-                ObjectMapper mapper = new ObjectMapper();
-                mapper.registerModule(new JavaTimeModule());
                 AssignedTaskDTO[] arr = mapper.readValue(is, AssignedTaskDTO[].class);
                 return Arrays.asList(arr);
             } finally {
@@ -138,8 +135,6 @@ public class ProfileService {
 
         if (conn.getResponseCode() == 200) {
             try (InputStream is = conn.getInputStream()) {
-                ObjectMapper mapper = new ObjectMapper();
-                mapper.registerModule(new JavaTimeModule());
                 AssignedTaskDTO[] arr = mapper.readValue(is, AssignedTaskDTO[].class);
                 return Arrays.asList(arr);
             } finally {
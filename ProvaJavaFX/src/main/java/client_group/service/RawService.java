@@ -1,7 +1,6 @@
 package client_group.service;
 
 import client_group.model.Raw;
-import client_group.model.Session;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.json.JSONArray;
@@ -9,16 +8,15 @@ import org.json.JSONObject;
 
 import java.io.*;
 import java.net.HttpURLConnection;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Supplier;
 
 public class RawService {
 
-    private static final String BASE_URL = "http://localhost:8080/api/raw";
+    private static final String BASE_PATH = "/api/raw";
 
-    private final ObjectMapper mapper = new ObjectMapper();
+    private final ObjectMapper mapper = ApiClient.JSON;
 
     private final Supplier<HttpURLConnection> connectionSupplier;
 
@@ -32,22 +30,13 @@ public class RawService {
         this.connectionSupplier = connectionSupplier;
     }
 
-    private HttpURLConnection openConnection(String urlString, String method) throws Exception {
-        HttpURLConnection conn;
-        if (connectionSupplier != null) {
-            conn = connectionSupplier.get();
-        } else {
-            URL url = new URL(urlString);
-            conn = (HttpURLConnection) url.openConnection();
-        }
-        conn.setRequestMethod(method);
-        conn.setRequestProperty("Authorization", "Bearer " + Session.getInstance().getToken());
-        return conn;
+    private HttpURLConnection openConnection(String path, String method) throws Exception {
+        return ApiClient.open(connectionSupplier, path, method);
     }
 
     // GET all
     public List<Raw> fetchAllRaw() throws Exception {
-        HttpURLConnection conn = openConnection(BASE_URL, "GET");
+        HttpURLConnection conn = openConnection(BASE_PATH, "GET");
         conn.setRequestProperty("Accept", "application/json");
 
         if (conn.getResponseCode() != 200) {
@@ -82,7 +71,7 @@ public class RawService {
 
     // DELETE by ID
     public void deleteRaw(Long id) throws Exception {
-        HttpURLConnection conn = openConnection(BASE_URL + "/" + id, "DELETE");
+        HttpURLConnection conn = openConnection(BASE_PATH + "/" + id, "DELETE");
 
         int responseCode = conn.getResponseCode();
         conn.disconnect();
@@ -94,7 +83,7 @@ public class RawService {
 
     // POST create
     public Raw createRaw(Raw raw) throws Exception {
-        HttpURLConnection conn = openConnection(BASE_URL, "POST");
+        HttpURLConnection conn = openConnection(BASE_PATH, "POST");
         conn.setDoOutput(true);
         conn.setRequestProperty("Content-Type", "application/json");
 
@@ -136,7 +125,7 @@ public class RawService {
     // PUT update
     public Raw updateRaw(Raw raw) throws Exception {
         Long id = raw.getId();
-        HttpURLConnection conn = openConnection(BASE_URL + "/" + id, "PUT");
+        HttpURLConnection conn = openConnection(BASE_PATH + "/" + id, "PUT");
         conn.setDoOutput(true);
         conn.setRequestProperty("Content-Type", "application/json");
 
@@ -177,7 +166,10 @@ public class RawService {
     }
 
     public List<Raw> loadAllRaw() throws Exception {
-        HttpURLConnection conn = openConnection(BASE_URL, "GET");
+        if (connectionSupplier == null) {
+            return new ArrayList<>(ReferenceData.getInstance().raws().get());
+        }
+        HttpURLConnection conn = openConnection(BASE_PATH, "GET");
         conn.setRequestProperty("Accept", "application/json");
 
         if (conn.getResponseCode() != 200) {
@@ -210,8 +202,16 @@ public class RawService {
         return rawList;
     }
 
+    // senza connessione iniettata la lista arriva dalla cache condivisa
     public List<Raw> getAllRaws() throws Exception {
-        HttpURLConnection conn = openConnection(BASE_URL, "GET");
+        if (connectionSupplier == null) {
+            return new ArrayList<>(ReferenceData.getInstance().raws().get());
+        }
+        return requestAllRaws();
+    }
+
+    List<Raw> requestAllRaws() throws Exception {
+        HttpURLConnection conn = openConnection(BASE_PATH, "GET");
         conn.setRequestProperty("Accept", "application/json");
 
         if (conn.getResponseCode() != 200) {
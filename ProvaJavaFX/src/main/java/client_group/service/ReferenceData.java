@@ -0,0 +1,100 @@
+package client_group.service;
+
+import client_group.model.Client;
+import client_group.model.Employee;
+import client_group.model.Machinery;
+import client_group.model.Model;
+import client_group.model.Raw;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// dati di riferimento condivisi da tutte le schermate; restano validi TTL_MILLIS,
+// ma di solito vengono ricaricati prima perché il server manda "referenceChanged" a ogni modifica
+public class ReferenceData {
+
+    static final long TTL_MILLIS = 5 * 60 * 1000;
+
+    public static final String EMPLOYEES = "employees";
+    public static final String MACHINERY = "machinery";
+    public static final String MODELS = "models";
+    public static final String RAWS = "raws";
+    public static final String CLIENTS = "clients";
+
+    private static ReferenceData instance;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "reference-data");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final CachedList<Employee> employees = cache(() -> new EmployeeListService().requestEmployees());
+    private final CachedList<Machinery> machinery = cache(() -> new MachineryService().requestAllMachinery());
+    private final CachedList<Model> models = cache(() -> new ModelService().loadAllModels());
+    private final CachedList<Raw> raws = cache(() -> new RawService().requestAllRaws());
+    private final CachedList<Client> clients = cache(() -> new ClientService().requestAllClients());
+
+    private ReferenceEventListener listener;
+
+    private ReferenceData() {}
+
+    public static synchronized ReferenceData getInstance() {
+        if (instance == null) {
+            instance = new ReferenceData();
+        }
+        instance.listen();
+        return instance;
+    }
+
+    private <T> CachedList<T> cache(CachedList.Loader<T> loader) {
+        return new CachedList<>(loader, TTL_MILLIS, executor);
+    }
+
+    // lo stream si apre solo dopo il login (serve il token) e al primo uso della cache
+    private synchronized void listen() {
+        if (listener == null) {
+            listener = new ReferenceEventListener(ApiClient.url("/api/reference/stream"), this::invalidate, this::invalidateAll);
+            listener.start();
+        }
+    }
+
+    public CachedList<Employee> employees() {
+        return employees;
+    }
+
+    public CachedList<Machinery> machinery() {
+        return machinery;
+    }
+
+    public CachedList<Model> models() {
+        return models;
+    }
+
+    public CachedList<Raw> raws() {
+        return raws;
+    }
+
+    public CachedList<Client> clients() {
+        return clients;
+    }
+
+    // tipi sconosciuti (server più nuovo del client) invalidano tutto
+    public void invalidate(String kind) {
+        switch (kind) {
+            case EMPLOYEES -> employees.invalidate();
+            case MACHINERY -> machinery.invalidate();
+            case MODELS -> models.invalidate();
+            case RAWS -> raws.invalidate();
+            case CLIENTS -> clients.invalidate();
+            default -> invalidateAll();
+        }
+    }
+
+    public void invalidateAll() {
+        for (CachedList<?> list : List.of(employees, machinery, models, raws, clients)) {
+            list.invalidate();
+        }
+    }
+}
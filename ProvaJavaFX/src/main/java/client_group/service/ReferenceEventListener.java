@@ -0,0 +1,137 @@
+package client_group.service;
+
+import client_group.model.Session;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// ascolta /api/reference/stream e invalida la cache dei dati di riferimento;
+// stessa ripresa degli altri stream: attese crescenti e casuali, Last-Event-ID per gli eventi persi.
+// non tocca la UI, quindi niente Platform.runLater
+class ReferenceEventListener {
+    static final long INITIAL_BACKOFF_MILLIS = 1_000;
+    static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    private final String serverUrl;
+    private final Consumer<String> onChanged;
+    private final Runnable onReset;
+    private final long initialBackoffMillis;
+    private Thread listenerThread;
+    private volatile HttpURLConnection connection;
+    private volatile boolean running;
+    private volatile String lastEventId;
+
+    // Permette di fornire uno stream "finto" nei test
+    private final Supplier<InputStream> inputStreamSupplier;
+
+    ReferenceEventListener(String serverUrl, Consumer<String> onChanged, Runnable onReset) {
+        this(serverUrl, onChanged, onReset, null, INITIAL_BACKOFF_MILLIS);
+    }
+
+    // Costruttore usato solo nei test
+    ReferenceEventListener(String serverUrl, Consumer<String> onChanged, Runnable onReset,
+                           Supplier<InputStream> supplier, long initialBackoffMillis) {
+        this.serverUrl = serverUrl;
+        this.onChanged = onChanged;
+        this.onReset = onReset;
+        this.inputStreamSupplier = supplier;
+        this.initialBackoffMillis = initialBackoffMillis;
+    }
+
+    void start() {
+        running = true;
+        listenerThread = new Thread(() -> {
+            int attempt = 0;
+            while (running) {
+                try {
+                    InputStream in = open();
+                    attempt = 0;
+                    read(in);
+                } catch (Exception e) {
+                    // chiusura da stop(): non è un errore
+                    if (!running) {
+                        return;
+                    }
+                    System.err.println("Stream dati di riferimento interrotto: " + e.getMessage());
+                }
+                try {
+                    Thread.sleep(backoff(attempt++));
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "reference-events");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    private InputStream open() throws Exception {
+        if (inputStreamSupplier != null) {
+            return inputStreamSupplier.get();
+        }
+        HttpURLConnection conn = (HttpURLConnection) new URL(serverUrl).openConnection();
+        conn.setRequestMethod("GET");
+        conn.setRequestProperty("Accept", "text/event-stream");
+        conn.setRequestProperty("Authorization", "Bearer " + Session.getInstance().getToken());
+        if (lastEventId != null) {
+            conn.setRequestProperty("Last-Event-ID", lastEventId);
+        }
+        connection = conn;
+        return conn.getInputStream();
+    }
+
+    // id e nome arrivano prima dei dati dell'evento; una riga vuota chiude l'evento
+    private void read(InputStream in) throws Exception {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in))) {
+            String line;
+            String eventId = null;
+            String eventName = null;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("id:")) {
+                    eventId = line.substring(3).trim();
+                } else if (line.startsWith("event:")) {
+                    eventName = line.substring(6).trim();
+                } else if (line.startsWith("data:")) {
+                    if (eventId != null) {
+                        lastEventId = eventId;
+                    }
+                    dispatch(eventName, line.substring(5).trim());
+                } else if (line.isEmpty()) {
+                    eventId = null;
+                    eventName = null;
+                }
+            }
+        }
+    }
+
+    // reset dello stream o evento sconosciuto: non si sa cosa è cambiato, si ricarica tutto
+    private void dispatch(String eventName, String data) {
+        if ("referenceChanged".equals(eventName)) {
+            onChanged.accept(data);
+        } else {
+            onReset.run();
+        }
+    }
+
+    long backoff(int attempt) {
+        long window = Math.min(MAX_BACKOFF_MILLIS, initialBackoffMillis << Math.min(attempt, 20));
+        return window / 2 + ThreadLocalRandom.current().nextLong(window / 2 + 1);
+    }
+
+    void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+        HttpURLConnection conn = connection;
+        if (conn != null) {
+            conn.disconnect();
+        }
+    }
+}
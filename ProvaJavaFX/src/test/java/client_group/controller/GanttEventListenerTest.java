@@ -0,0 +1,137 @@
+package client_group.controller;
+
+import client_group.dto.GanttChangesDTO;
+import javafx.application.Platform;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+class GanttEventListenerTest {
+
+    @BeforeAll
+    static void initToolkit() {
+        try {
+            Platform.startup(() -> {});
+        } catch (IllegalStateException ignored) {
+
+        }
+    }
+
+    @Test
+    void testEventIsParsedAndPassedToHandler() throws Exception {
+        String event = "event:ganttUpdate\n"
+                + "data:{\"version\":7,\"fullReload\":false,"
+                + "\"changed\":[{\"executionId\":3,\"orderId\":10,\"machineryName\":\"CNC\",\"actualStart\":\"2025-03-03\",\"actualEnd\":\"2025-03-04\"}],"
+                + "\"removed\":[4,5]}\n\n";
+
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<GanttChangesDTO> received = new AtomicReference<>();
+        GanttEventListener listener = new GanttEventListener("http://localhost/fake", changes -> {
+            received.set(changes);
+            latch.countDown();
+        }, () -> new ByteArrayInputStream(event.getBytes()));
+
+        listener.start();
+
+        Assertions.assertTrue(latch.await(2, TimeUnit.SECONDS));
+        Assertions.assertEquals(7L, received.get().getVersion());
+        Assertions.assertEquals("CNC", received.get().getChanged().get(0).getMachineryName());
+        Assertions.assertEquals(List.of(4L, 5L), received.get().getRemoved());
+        listener.stop();
+    }
+
+    @Test
+    void testStopWithoutConnection() {
+        GanttEventListener listener = new GanttEventListener("http://localhost/fake", changes -> {},
+                () -> new ByteArrayInputStream(new byte[0]));
+        listener.start();
+
+        Assertions.assertDoesNotThrow(listener::stop);
+    }
+
+    @Test
+    void testReconnectsAndResyncs() throws Exception {
+        Deque<String> streams = new ArrayDeque<>(List.of(
+                "id: gantt-1\nevent: ganttUpdate\ndata: {\"version\":1,\"changed\":[],\"removed\":[1]}\n\n",
+                "id: gantt-2\nevent: ganttUpdate\ndata: {\"version\":2,\"changed\":[],\"removed\":[2]}\n\n"));
+        List<Long> removed = new CopyOnWriteArrayList<>();
+        CountDownLatch resynced = new CountDownLatch(1);
+        CountDownLatch secondEvent = new CountDownLatch(1);
+
+        GanttEventListener listener = new GanttEventListener("http://localhost/fake", new GanttEventListener.GanttUpdateHandler() {
+            @Override
+            public void onPlanChanged(GanttChangesDTO changes) {
+                removed.addAll(changes.getRemoved());
+                if (changes.getRemoved().contains(2L)) {
+                    secondEvent.countDown();
+                }
+            }
+
+            @Override
+            public void onResync() {
+                resynced.countDown();
+            }
+        }, () -> {
+            String next = streams.poll();
+            if (next == null) {
+                throw new IllegalStateException("server giù");
+            }
+            return new ByteArrayInputStream(next.getBytes());
+        }, 10);
+
+        listener.start();
+
+        Assertions.assertTrue(secondEvent.await(2, TimeUnit.SECONDS));
+        Assertions.assertTrue(resynced.await(2, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of(1L, 2L), removed);
+        Assertions.assertEquals("gantt-2", listener.getLastEventId());
+        listener.stop();
+    }
+
+    @Test
+    void testResetAndInvalidDataDoNotStopTheStream() throws Exception {
+        String stream = "id: gantt-7\nevent: streamReset\ndata: reset\n\n"
+                + "event: ganttUpdate\ndata: {non json\n\n"
+                + "event: ganttUpdate\ndata: {\"version\":8,\"changed\":[],\"removed\":[9]}\n\n";
+        CountDownLatch resyncs = new CountDownLatch(2);
+        CountDownLatch changed = new CountDownLatch(1);
+
+        GanttEventListener listener = new GanttEventListener("http://localhost/fake", new GanttEventListener.GanttUpdateHandler() {
+            @Override
+            public void onPlanChanged(GanttChangesDTO changes) {
+                changed.countDown();
+            }
+
+            @Override
+            public void onResync() {
+                resyncs.countDown();
+            }
+        }, () -> new ByteArrayInputStream(stream.getBytes()), 10_000);
+
+        listener.start();
+
+        // il reset e l'evento illeggibile chiedono di riallinearsi, quello dopo arriva lo stesso
+        Assertions.assertTrue(resyncs.await(2, TimeUnit.SECONDS));
+        Assertions.assertTrue(changed.await(2, TimeUnit.SECONDS));
+        listener.stop();
+    }
+
+    @Test
+    void testBackoffGrowsUpToTheLimit() {
+        GanttEventListener listener = new GanttEventListener("http://localhost/fake", changes -> {});
+
+        for (int attempt = 0; attempt < 40; attempt++) {
+            long window = Math.min(GanttEventListener.MAX_BACKOFF_MILLIS,
+                    GanttEventListener.INITIAL_BACKOFF_MILLIS << Math.min(attempt, 20));
+            long delay = listener.backoff(attempt);
+            Assertions.assertTrue(delay >= window / 2 && delay <= window, "attempt " + attempt + ": " + delay);
+        }
+    }
+}
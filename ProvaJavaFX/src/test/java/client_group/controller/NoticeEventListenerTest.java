@@ -3,6 +3,9 @@ package client_group.controller;
 import javafx.application.Platform;
 import org.junit.jupiter.api.*;
 import java.io.ByteArrayInputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -96,4 +99,61 @@ class NoticeEventListenerTest {
         Assertions.assertDoesNotThrow(listener::start);
         listener.stop();
     }
+
+    @Test
+    void testReconnectsAndKeepsLastEventId() throws Exception {
+        Deque<String> streams = new ArrayDeque<>(List.of(
+                "id: abc-1\nevent: noticeUpdate\ndata: first\n\n",
+                "id: abc-2\nevent: noticeUpdate\ndata: second\n\n"));
+
+        NoticeEventListener listener = new NoticeEventListener("http://localhost/fake", handler,
+                () -> new ByteArrayInputStream(streams.isEmpty() ? new byte[0] : streams.poll().getBytes()), 10);
+
+        CountDownLatch latch = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            latch.countDown();
+            return null;
+        }).when(handler).onNoticesUpdated();
+
+        listener.start();
+
+        Assertions.assertTrue(latch.await(2, TimeUnit.SECONDS));
+        Assertions.assertEquals("abc-2", listener.getLastEventId());
+        listener.stop();
+    }
+
+    @Test
+    void testBackoffGrowsUpToTheLimit() {
+        NoticeEventListener listener = new NoticeEventListener("http://localhost/fake", handler);
+
+        for (int attempt = 0; attempt < 40; attempt++) {
+            long window = Math.min(NoticeEventListener.MAX_BACKOFF_MILLIS,
+                    NoticeEventListener.INITIAL_BACKOFF_MILLIS << Math.min(attempt, 20));
+            long delay = listener.backoff(attempt);
+            Assertions.assertTrue(delay >= window / 2 && delay <= window, "attempt " + attempt + ": " + delay);
+        }
+    }
+
+    @Test
+    void testNamedEventsCarryTheChange() throws Exception {
+        String fakeData = "id: abc-1\nevent: noticeCreated\ndata: {\"id\":7,\"subject\":\"Ferie\",\"category\":\"ManagerNotice\"}\n\n" +
+                "id: abc-2\nevent: noticeDeleted\ndata: 3\n\n";
+        ByteArrayInputStream fakeStream = new ByteArrayInputStream(fakeData.getBytes());
+
+        NoticeEventListener listener =
+                new NoticeEventListener("http://localhost/fake", handler, () -> fakeStream);
+
+        CountDownLatch latch = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            latch.countDown();
+            return null;
+        }).when(handler).onNoticeDeleted(3L);
+
+        listener.start();
+
+        Assertions.assertTrue(latch.await(2, TimeUnit.SECONDS));
+        verify(handler).onNoticeCreated(argThat(notice -> notice.getId() == 7L && "Ferie".equals(notice.getSubject())));
+        verify(handler, never()).onNoticesUpdated();
+        listener.stop();
+    }
 }
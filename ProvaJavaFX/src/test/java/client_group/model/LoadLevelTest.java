@@ -0,0 +1,42 @@
+package client_group.model;
+
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+class LoadLevelTest {
+
+    private static final Instant START = LocalDate.of(2025, 3, 1).atStartOfDay().toInstant(ZoneOffset.UTC);
+
+    @Test
+    void testLevelFollowsVisibleDays() {
+        Assertions.assertEquals(LoadLevel.BLOCKS, LoadLevel.forVisible(Duration.ofDays(10)));
+        Assertions.assertEquals(LoadLevel.BLOCKS, LoadLevel.forVisible(Duration.ofDays(60)));
+        Assertions.assertEquals(LoadLevel.DAY, LoadLevel.forVisible(Duration.ofDays(61)));
+        Assertions.assertEquals(LoadLevel.WEEK, LoadLevel.forVisible(Duration.ofDays(101)));
+        Assertions.assertEquals(LoadLevel.WEEK, LoadLevel.forVisible(Duration.ofDays(700)));
+        Assertions.assertEquals(LoadLevel.MONTH, LoadLevel.forVisible(Duration.ofDays(701)));
+    }
+
+    @Test
+    void testWindowAddsHalfTheViewOnEachSide() {
+        LocalDate[] window = LoadLevel.WEEK.window(START, START.plus(200, ChronoUnit.DAYS), ZoneOffset.UTC);
+
+        Assertions.assertEquals(LocalDate.of(2025, 3, 1).minusDays(100), window[0]);
+        Assertions.assertEquals(LocalDate.of(2025, 3, 1).plusDays(300), window[1]);
+    }
+
+    @Test
+    void testWindowStaysUnderServerLimit() {
+        // vent'anni visibili: con metà per lato si chiederebbero più di 400 mesi
+        LocalDate[] window = LoadLevel.MONTH.window(START, START.plus(7300, ChronoUnit.DAYS), ZoneOffset.UTC);
+
+        long months = ChronoUnit.MONTHS.between(window[0], window[1]) + 1;
+        Assertions.assertTrue(months <= LoadLevel.MAX_REQUEST_BUCKETS, "mesi richiesti: " + months);
+        Assertions.assertTrue(window[0].isBefore(LocalDate.of(2025, 3, 1)));
+    }
+}
@@ -0,0 +1,137 @@
+package client_group.service;
+
+import org.junit.jupiter.api.*;
+import org.mockito.ArgumentCaptor;
+
+import java.io.*;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ApiConnectionTest {
+
+    private HttpClient client;
+    private HttpResponse<byte[]> response;
+    private ApiConnection conn;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        client = mock(HttpClient.class);
+        response = mock(HttpResponse.class);
+        when(client.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenAnswer(inv -> response);
+        conn = new ApiConnection(new URL("http://localhost:8080/api/raw"), client);
+    }
+
+    private void respond(int status, byte[] body, Map<String, List<String>> headers) {
+        when(response.statusCode()).thenReturn(status);
+        when(response.body()).thenReturn(body);
+        when(response.headers()).thenReturn(HttpHeaders.of(headers, (k, v) -> true));
+    }
+
+    private HttpRequest sentRequest() throws Exception {
+        ArgumentCaptor<HttpRequest> request = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(client).send(request.capture(), any());
+        return request.getValue();
+    }
+
+    @Test
+    void testPostSendsHeadersAndBodyOnce() throws Exception {
+        respond(201, "{\"id\":1}".getBytes(StandardCharsets.UTF_8), Map.of());
+
+        conn.setRequestMethod("POST");
+        conn.setRequestProperty("Authorization", "Bearer tok");
+        conn.setRequestProperty("Content-Type", "application/json");
+        conn.setDoOutput(true);
+        try (OutputStream os = conn.getOutputStream()) {
+            os.write("{\"shape\":\"tondo\"}".getBytes(StandardCharsets.UTF_8));
+        }
+
+        Assertions.assertEquals(201, conn.getResponseCode());
+        Assertions.assertEquals("{\"id\":1}", new String(conn.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+
+        HttpRequest request = sentRequest();
+        Assertions.assertEquals("POST", request.method());
+        Assertions.assertEquals("Bearer tok", request.headers().firstValue("Authorization").orElse(null));
+        Assertions.assertEquals("gzip", request.headers().firstValue("Accept-Encoding").orElse(null));
+        Assertions.assertEquals(17L, request.bodyPublisher().orElseThrow().contentLength());
+    }
+
+    @Test
+    void testGzipResponseIsDecompressed() throws Exception {
+        ByteArrayOutputStream zipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(zipped)) {
+            gzip.write("[1,2,3]".getBytes(StandardCharsets.UTF_8));
+        }
+        respond(200, zipped.toByteArray(), Map.of("Content-Encoding", List.of("gzip"), "X-Plan-Version", List.of("7")));
+
+        Assertions.assertEquals("[1,2,3]", new String(conn.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        Assertions.assertEquals("7", conn.getHeaderField("X-Plan-Version"));
+    }
+
+    @Test
+    void testErrorStatusUsesErrorStream() throws Exception {
+        respond(400, "Invalid data".getBytes(StandardCharsets.UTF_8), Map.of());
+
+        Assertions.assertEquals(400, conn.getResponseCode());
+        Assertions.assertThrows(IOException.class, () -> conn.getInputStream());
+        Assertions.assertEquals("Invalid data", new String(conn.getErrorStream().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testNotFoundThrowsFileNotFound() throws Exception {
+        respond(404, new byte[0], Map.of());
+
+        Assertions.assertThrows(FileNotFoundException.class, () -> conn.getInputStream());
+        Assertions.assertNull(conn.getErrorStream());
+    }
+
+    @Test
+    void testPatchIsAccepted() throws Exception {
+        respond(204, new byte[0], Map.of());
+
+        conn.setRequestMethod("PATCH");
+
+        Assertions.assertEquals(204, conn.getResponseCode());
+        Assertions.assertEquals("PATCH", sentRequest().method());
+    }
+
+    @Test
+    void testResponseIsReadOnlyOnce() throws Exception {
+        respond(200, "ok".getBytes(StandardCharsets.UTF_8), Map.of());
+
+        conn.getResponseCode();
+        conn.getInputStream();
+        conn.getResponseCode();
+        conn.disconnect();
+
+        verify(client, times(1)).send(any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamedResponseIsReadWhileArriving() throws Exception {
+        HttpResponse<InputStream> streamed = mock(HttpResponse.class);
+        InputStream body = spy(new ByteArrayInputStream("[1,2]".getBytes(StandardCharsets.UTF_8)));
+        when(streamed.statusCode()).thenReturn(200);
+        when(streamed.body()).thenReturn(body);
+        when(streamed.headers()).thenReturn(HttpHeaders.of(Map.of("X-Plan-Version", List.of("3")), (k, v) -> true));
+        when(client.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenAnswer(inv -> streamed);
+
+        ApiClient.streamResponse(conn);
+
+        Assertions.assertEquals("[1,2]", new String(conn.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        Assertions.assertEquals("3", conn.getHeaderField("X-Plan-Version"));
+        // disconnect chiude lo stream così la connessione torna nel pool
+        conn.disconnect();
+        verify(body).close();
+    }
+}
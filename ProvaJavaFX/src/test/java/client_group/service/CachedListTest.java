@@ -0,0 +1,153 @@
+package client_group.service;
+
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedListTest {
+
+    private static final long TTL = 1_000;
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private long now;
+    private ManualExecutor executor;
+    private CachedList<String> list;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ManualExecutor();
+        list = new CachedList<>(() -> List.of("v" + loads.incrementAndGet()), TTL, executor, () -> now);
+    }
+
+    // carica subito sul thread del test
+    private List<String> loadNow() throws IOException {
+        CompletableFuture<List<String>> future = list.getAsync();
+        executor.runAll();
+        return future.join();
+    }
+
+    @Test
+    void testFreshValueIsServedWithoutLoading() throws Exception {
+        loadNow();
+        now += TTL - 1;
+
+        assertEquals(List.of("v1"), list.get());
+        assertEquals(1, loads.get());
+        assertTrue(executor.tasks.isEmpty());
+    }
+
+    @Test
+    void testStaleValueIsServedWhileRefreshing() throws Exception {
+        loadNow();
+        now += TTL;
+
+        assertEquals(List.of("v1"), list.get());
+        assertEquals(1, executor.tasks.size());
+
+        executor.runAll();
+        assertEquals(List.of("v2"), list.get());
+    }
+
+    @Test
+    void testConcurrentRequestsShareOneLoad() {
+        CompletableFuture<List<String>> first = list.getAsync();
+        CompletableFuture<List<String>> second = list.getAsync();
+
+        assertSame(first, second);
+        executor.runAll();
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testInvalidateReloadsInBackground() throws Exception {
+        loadNow();
+
+        list.invalidate();
+        assertEquals(List.of("v1"), list.peek());
+
+        executor.runAll();
+        assertEquals(List.of("v2"), list.peek());
+        assertTrue(executor.tasks.isEmpty());
+    }
+
+    @Test
+    void testInvalidateBeforeFirstLoadDoesNothing() {
+        list.invalidate();
+
+        assertNull(list.peek());
+        assertTrue(executor.tasks.isEmpty());
+    }
+
+    @Test
+    void testInvalidateDuringLoadLoadsAgain() throws Exception {
+        loadNow();
+        now += TTL;
+        list.get();
+
+        // la modifica arriva mentre il caricamento è in corso: il risultato non basta
+        list.invalidate();
+        executor.runNext();
+        assertEquals(List.of("v2"), list.peek());
+        assertEquals(1, executor.tasks.size());
+
+        executor.runAll();
+        assertEquals(List.of("v3"), list.peek());
+    }
+
+    @Test
+    void testFailedLoadKeepsOldValue() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        list = new CachedList<>(() -> {
+            if (calls.incrementAndGet() > 1) {
+                throw new IOException("server giù");
+            }
+            return List.of("ok");
+        }, TTL, executor, () -> now);
+        loadNow();
+
+        list.invalidate();
+        executor.runAll();
+
+        assertEquals(List.of("ok"), list.get());
+    }
+
+    @Test
+    void testFirstLoadErrorIsThrown() {
+        list = new CachedList<>(() -> {
+            throw new IOException("server giù");
+        }, TTL, Runnable::run, () -> now);
+
+        IOException e = assertThrows(IOException.class, () -> list.get());
+        assertEquals("server giù", e.getMessage());
+        assertNull(list.peek());
+    }
+
+    // esegue i task solo quando lo chiede il test
+    private static class ManualExecutor implements Executor {
+        private final Deque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        void runNext() {
+            tasks.poll().run();
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+    }
+}
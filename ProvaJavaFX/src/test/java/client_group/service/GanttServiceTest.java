@@ -1,6 +1,12 @@
 package client_group.service;
 
 import client_group.dto.GanttBlockDTO;
+import client_group.dto.GanttChangesDTO;
+import client_group.dto.GanttOrderFacetDTO;
+import client_group.dto.MachineLoadDTO;
+import client_group.model.GanttPlan;
+import client_group.model.LoadLevel;
+import client_group.model.Session;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.*;
@@ -10,6 +16,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Supplier;
 
@@ -30,6 +37,7 @@ class GanttServiceTest {
 
         mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
+        GanttPlan.getInstance().clear();
     }
 
     @Test
@@ -95,4 +103,161 @@ class GanttServiceTest {
 
         Assertions.assertThrows(Exception.class, () -> service.saveModifiedBlocks(modified));
     }
+
+    @Test
+    void testSaveModifiedBlocksRejectedBlocks() throws Exception {
+        List<GanttBlockDTO> modified = List.of(
+                new GanttBlockDTO(6L, 600L, "Macchina6", "Verniciatura",
+                        LocalDate.now(), LocalDate.now().plusDays(1), 6)
+        );
+
+        when(mockConnection.getOutputStream()).thenReturn(new ByteArrayOutputStream());
+        when(mockConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_BAD_REQUEST);
+        when(mockConnection.getErrorStream()).thenReturn(new ByteArrayInputStream(
+                "[{\"executionId\":6,\"message\":\"Utente non trovato con email: x@y.it\"}]".getBytes()));
+
+        IOException ex = Assertions.assertThrows(IOException.class, () -> service.saveModifiedBlocks(modified));
+        Assertions.assertTrue(ex.getMessage().contains("Utente non trovato con email: x@y.it"));
+    }
+
+    @Test
+    void testLoadPlanFullThenDelta() throws Exception {
+        GanttBlockDTO cut = new GanttBlockDTO(1L, 100L, "Macchina1", "Taglio",
+                LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 4), 1);
+        GanttBlockDTO weld = new GanttBlockDTO(2L, 100L, "Macchina2", "Saldatura",
+                LocalDate.of(2025, 3, 4), LocalDate.of(2025, 3, 5), 2);
+        GanttBlockDTO movedWeld = new GanttBlockDTO(2L, 100L, "Macchina2", "Saldatura",
+                LocalDate.of(2025, 3, 6), LocalDate.of(2025, 3, 7), 2);
+        GanttBlockDTO paint = new GanttBlockDTO(3L, 200L, "Macchina3", "Verniciatura",
+                LocalDate.of(2025, 3, 5), LocalDate.of(2025, 3, 6), 1);
+
+        GanttChangesDTO changes = new GanttChangesDTO();
+        changes.setVersion(12L);
+        changes.setChanged(List.of(movedWeld, paint));
+        changes.setRemoved(List.of(1L));
+
+        when(mockConnection.getInputStream()).thenReturn(
+                new ByteArrayInputStream(mapper.writeValueAsBytes(List.of(cut, weld))),
+                new ByteArrayInputStream(mapper.writeValueAsBytes(changes)));
+        when(mockConnection.getHeaderField("X-Plan-Version")).thenReturn("10");
+
+        List<GanttBlockDTO> first = service.loadPlan();
+        List<GanttBlockDTO> second = service.loadPlan();
+
+        Assertions.assertEquals(List.of(1L, 2L), first.stream().map(GanttBlockDTO::getExecutionId).toList());
+        // il blocco 1 è sparito, il 2 è spostato dopo il nuovo 3
+        Assertions.assertEquals(List.of(3L, 2L), second.stream().map(GanttBlockDTO::getExecutionId).toList());
+        Assertions.assertEquals(LocalDate.of(2025, 3, 6), second.get(1).getScheduledStart());
+        Assertions.assertEquals(12L, GanttPlan.getInstance().getVersion(Session.getInstance().getToken()));
+    }
+
+    @Test
+    void testLoadPlanChangesOnlyAfterAFullLoad() throws Exception {
+        // mai caricato: niente differenze da chiedere, e nessuna richiesta al server
+        Assertions.assertNull(service.loadPlanChanges());
+        verify(mockConnection, never()).getInputStream();
+
+        GanttBlockDTO cut = new GanttBlockDTO(1L, 100L, "Macchina1", "Taglio",
+                LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 4), 1);
+        GanttBlockDTO movedCut = new GanttBlockDTO(1L, 100L, "Macchina1", "Taglio",
+                LocalDate.of(2025, 3, 5), LocalDate.of(2025, 3, 6), 1);
+        GanttChangesDTO changes = new GanttChangesDTO();
+        changes.setVersion(11L);
+        changes.setChanged(List.of(movedCut));
+        changes.setRemoved(List.of());
+        GanttChangesDTO tooOld = new GanttChangesDTO();
+        tooOld.setFullReload(true);
+
+        when(mockConnection.getInputStream()).thenReturn(
+                new ByteArrayInputStream(mapper.writeValueAsBytes(List.of(cut))),
+                new ByteArrayInputStream(mapper.writeValueAsBytes(changes)),
+                new ByteArrayInputStream(mapper.writeValueAsBytes(tooOld)));
+        when(mockConnection.getHeaderField("X-Plan-Version")).thenReturn("10");
+        service.loadPlan();
+
+        GanttChangesDTO delta = service.loadPlanChanges();
+
+        Assertions.assertEquals(List.of(1L), delta.getChanged().stream().map(GanttBlockDTO::getExecutionId).toList());
+        Assertions.assertEquals(11L, GanttPlan.getInstance().getVersion(Session.getInstance().getToken()));
+        // il blocco restituito va sul grafico: trascinarlo non cambia il piano in memoria
+        delta.getChanged().get(0).setActualStart(LocalDate.of(2025, 4, 1));
+        Assertions.assertEquals(LocalDate.of(2025, 3, 5), GanttPlan.getInstance().getBlocks().get(0).getActualStart());
+        // il server non ha più le differenze: tocca a loadPlan() ricaricare tutto
+        Assertions.assertNull(service.loadPlanChanges());
+    }
+
+    @Test
+    void testLoadPlanReturnsCopies() throws Exception {
+        GanttBlockDTO cut = new GanttBlockDTO(1L, 100L, "Macchina1", "Taglio",
+                LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 4), 1);
+        when(mockConnection.getInputStream()).thenReturn(new ByteArrayInputStream(mapper.writeValueAsBytes(List.of(cut))));
+
+        // modifica non confermata sul grafico
+        service.loadPlan().get(0).setActualStart(LocalDate.of(2025, 4, 1));
+
+        Assertions.assertEquals(LocalDate.of(2025, 3, 3), GanttPlan.getInstance().getBlocks().get(0).getActualStart());
+    }
+
+    @Test
+    void testLoadPlanDeliversChunksWhileReading() throws Exception {
+        List<GanttBlockDTO> plan = new ArrayList<>();
+        for (long id = 1; id <= GanttService.CHUNK_SIZE * 2 + 5; id++) {
+            plan.add(new GanttBlockDTO(id, 100L, "Macchina1", "Taglio",
+                    LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 4), 1));
+        }
+        when(mockConnection.getInputStream()).thenReturn(new ByteArrayInputStream(mapper.writeValueAsBytes(plan)));
+
+        List<List<GanttBlockDTO>> chunks = new ArrayList<>();
+        List<GanttBlockDTO> result = service.loadPlan(chunks::add);
+
+        Assertions.assertEquals(List.of(GanttService.CHUNK_SIZE, GanttService.CHUNK_SIZE, 5),
+                chunks.stream().map(List::size).toList());
+        Assertions.assertEquals(plan.size(), result.size());
+        // i pezzi sono copie: trascinare un blocco non cambia il piano in memoria
+        chunks.get(0).get(0).setActualStart(LocalDate.of(2025, 4, 1));
+        Assertions.assertEquals(LocalDate.of(2025, 3, 3), GanttPlan.getInstance().getBlocks().get(0).getActualStart());
+    }
+
+    @Test
+    void testLoadPlanRejectsNonArrayResponse() throws Exception {
+        when(mockConnection.getInputStream()).thenReturn(new ByteArrayInputStream("{\"error\":\"x\"}".getBytes()));
+
+        Assertions.assertThrows(IOException.class, () -> service.loadPlan());
+        Assertions.assertNull(GanttPlan.getInstance().getVersion(Session.getInstance().getToken()));
+    }
+
+    @Test
+    void testGetOrderFacetsAsync() throws Exception {
+        String json = "[{\"orderId\":12,\"clientName\":\"Acme\",\"modelName\":\"Flangia\",\"quantity\":50,"
+                + "\"deadline\":\"2025-03-01\",\"blockCount\":8}]";
+        when(mockConnection.getInputStream()).thenReturn(new ByteArrayInputStream(json.getBytes()));
+
+        List<GanttOrderFacetDTO> facets = service.getOrderFacetsAsync().get();
+
+        Assertions.assertEquals(1, facets.size());
+        Assertions.assertEquals(12L, facets.get(0).getOrderId());
+        Assertions.assertEquals("Acme", facets.get(0).getClientName());
+        Assertions.assertEquals(LocalDate.of(2025, 3, 1), facets.get(0).getDeadline());
+        Assertions.assertEquals(8L, facets.get(0).getBlockCount());
+    }
+
+    @Test
+    void testGetMachineLoadAsync() throws Exception {
+        String json = "[{\"machineryName\":\"Pressa\",\"bucketStart\":\"2025-03-03\",\"bucketEnd\":\"2025-03-10\","
+                + "\"blocks\":4,\"busyMinutes\":3408,\"availableMinutes\":4800,\"capacity\":2,\"load\":0.71}]";
+        when(mockConnection.getInputStream()).thenReturn(new ByteArrayInputStream(json.getBytes()));
+
+        List<MachineLoadDTO> load = service.getMachineLoadAsync(
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 6, 30), LoadLevel.WEEK).get();
+
+        Assertions.assertEquals(1, load.size());
+        Assertions.assertEquals("Pressa", load.get(0).getMachineryName());
+        Assertions.assertEquals(LocalDate.of(2025, 3, 10), load.get(0).getBucketEnd());
+        Assertions.assertEquals(3408, load.get(0).getBusyMinutes());
+        Assertions.assertEquals(4800, load.get(0).getAvailableMinutes());
+        Assertions.assertEquals(2, load.get(0).getCapacity());
+        Assertions.assertEquals(0.71, load.get(0).getLoad(), 1e-9);
+        Assertions.assertEquals("/api/gantt/load?from=2025-03-01&to=2025-06-30&bucket=WEEK",
+                GanttService.machineLoadPath(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 6, 30), LoadLevel.WEEK));
+    }
 }
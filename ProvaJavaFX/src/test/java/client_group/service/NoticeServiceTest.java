@@ -1,10 +1,13 @@
 package client_group.service;
 
 import client_group.dto.NoticeDTO;
+import client_group.dto.NoticePageDTO;
 import org.junit.jupiter.api.*;
 import java.io.*;
 import java.net.HttpURLConnection;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Supplier;
 import static org.mockito.Mockito.*;
@@ -177,4 +180,45 @@ class NoticeServiceTest {
         Assertions.assertFalse(result);
     }
 
+
+    @Test
+    void testFetchPageSuccess() throws Exception {
+        String fakeJson = "{\"items\":[{\"id\":9,\"subject\":\"Ferie\",\"category\":\"DelayNotice\",\"createdAt\":\"2025-04-02T09:30:00\"}],\"nextCursor\":9}";
+        when(mockConnection.getResponseCode()).thenReturn(200);
+        when(mockConnection.getInputStream()).thenReturn(new ByteArrayInputStream(fakeJson.getBytes()));
+
+        NoticePageDTO page = service.fetchPage("user@example.com", "DelayNotice", null, 12);
+
+        Assertions.assertEquals(1, page.getItems().size());
+        Assertions.assertEquals("Ferie", page.getItems().get(0).getSubject());
+        Assertions.assertEquals(LocalDateTime.of(2025, 4, 2, 9, 30), page.getItems().get(0).getCreatedAt());
+        Assertions.assertEquals(9L, page.getNextCursor());
+    }
+
+    @Test
+    void testFetchPageFailureReturnsEmptyPage() throws Exception {
+        when(mockConnection.getResponseCode()).thenReturn(500);
+
+        NoticePageDTO page = service.fetchPage("user@example.com", "DelayNotice", 40L, 12);
+
+        Assertions.assertTrue(page.getItems().isEmpty());
+        Assertions.assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testFetchCountsSuccess() throws Exception {
+        when(mockConnection.getResponseCode()).thenReturn(200);
+        when(mockConnection.getInputStream()).thenReturn(new ByteArrayInputStream("{\"PersonalNotice\":2,\"DelayNotice\":5}".getBytes()));
+
+        Map<String, Long> counts = service.fetchCounts("user@example.com");
+
+        Assertions.assertEquals(Map.of("PersonalNotice", 2L, "DelayNotice", 5L), counts);
+    }
+
+    @Test
+    void testFetchCountsException() throws Exception {
+        when(mockConnection.getResponseCode()).thenThrow(new IOException("Network error"));
+
+        Assertions.assertTrue(service.fetchCounts("user@example.com").isEmpty());
+    }
 }
@@ -0,0 +1,22 @@
+package server_group.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import server_group.dto.GanttBlockDTO;
+import server_group.service.GanttService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// costruzione del gantt completo: lettura delle execution IN_PRODUCTION e mappatura sui blocchi
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GanttBenchmark {
+
+    @Benchmark
+    public List<GanttBlockDTO> allScheduledBlocks(PlantState plant) {
+        return plant.bean(GanttService.class).getAllScheduledGanttBlocks();
+    }
+}
@@ -0,0 +1,22 @@
+package server_group.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import server_group.dto.ModelWithStepsDTO;
+import server_group.service.ModelService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// modelli con i loro processi e le macchine dei gruppi, come li legge lo scheduler
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelMappingBenchmark {
+
+    @Benchmark
+    public List<ModelWithStepsDTO> allModelsWithProcess(PlantState plant) {
+        return plant.bean(ModelService.class).getAllModelsWithProcess();
+    }
+}
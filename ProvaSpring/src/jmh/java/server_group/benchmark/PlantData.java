@@ -0,0 +1,152 @@
+package server_group.benchmark;
+
+import org.springframework.context.ApplicationContext;
+import server_group.model.*;
+import server_group.repository.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// generatore di dati sintetici: N macchine, M modelli con K step ciascuno, O ordini
+// metà degli ordini sono IN_PRODUCTION con lo storico delle execution, gli altri CREATED da pianificare
+// seme fisso: due run con gli stessi parametri lavorano sugli stessi dati
+public class PlantData {
+
+    private final Random random = new Random(42);
+
+    private final int machines;
+    private final int models;
+    private final int steps;
+    private final int orders;
+
+    private final List<Order> createdOrders = new ArrayList<>();
+    private int executionCount;
+
+    public PlantData(int machines, int models, int steps, int orders) {
+        this.machines = machines;
+        this.models = models;
+        this.steps = steps;
+        this.orders = orders;
+    }
+
+    public void seed(ApplicationContext context) {
+        Raw raw = new Raw();
+        raw.setShape("bar");
+        raw.setMaterial("steel");
+        raw.setSize("40");
+        raw = context.getBean(RawRepository.class).save(raw);
+
+        Client client = new Client();
+        client.setPiva("00000000001");
+        client.setCompanyName("Benchmark");
+        client.setEmail("bench@example.com");
+        client.setPhone("0000000");
+        client = context.getBean(ClientRepository.class).save(client);
+
+        // una macchina su cinque ha due corsie, a gruppi di tre macchine intercambiabili
+        List<Machinery> machinery = new ArrayList<>();
+        for (int i = 0; i < machines; i++) {
+            Machinery m = new Machinery();
+            m.setName("M" + i);
+            m.setBuyDate(LocalDate.of(2020, 1, 1));
+            m.setParallelCapacity(i % 5 == 0 ? 2 : 1);
+            m.setMachineGroup("G" + (i / 3));
+            machinery.add(m);
+        }
+        machinery = context.getBean(MachineryRepository.class).saveAll(machinery);
+
+        List<Model> modelList = new ArrayList<>();
+        List<ProcessStep> stepList = new ArrayList<>();
+        for (int i = 0; i < models; i++) {
+            Model model = new Model();
+            model.setName("Model" + i);
+            model.setRaw(raw);
+            model.setPrice(100.0 + i);
+            modelList.add(model);
+            for (int s = 1; s <= steps; s++) {
+                ProcessStep step = new ProcessStep();
+                step.setModel(model);
+                step.setStepOrder(s);
+                step.setMachinery(machinery.get(random.nextInt(machinery.size())));
+                step.setDuration(Duration.ofSeconds(30 + random.nextInt(600)));
+                step.setSemifinishedName("Model" + i + "-S" + s);
+                stepList.add(step);
+            }
+        }
+        context.getBean(ModelRepository.class).saveAll(modelList);
+        context.getBean(ProcessStepRepository.class).saveAll(stepList);
+
+        Map<String, List<ProcessStep>> routing = new HashMap<>();
+        for (ProcessStep step : stepList) {
+            routing.computeIfAbsent(step.getModel().getName(), k -> new ArrayList<>()).add(step);
+        }
+
+        LocalDate today = LocalDate.now();
+        List<Order> orderList = new ArrayList<>();
+        for (int i = 0; i < orders; i++) {
+            Order order = new Order();
+            order.setModel(modelList.get(random.nextInt(modelList.size())));
+            order.setClient(client);
+            order.setQuantity(1 + random.nextInt(400));
+            order.setCreateDate(today.minusDays(60));
+            order.setDeadline(today.plusDays(30 + random.nextInt(60)));
+            order.setStatus(i % 2 == 0 ? OrderStatus.IN_PRODUCTION : OrderStatus.CREATED);
+            if (order.getStatus() == OrderStatus.IN_PRODUCTION) {
+                order.setStartDate(today.minusDays(30 - random.nextInt(30)));
+            }
+            orderList.add(order);
+        }
+        orderList = context.getBean(OrderRepository.class).saveAll(orderList);
+
+        // storico: step in sequenza, ogni macchina lavora un blocco dopo l'altro lasciando qualche buco
+        Map<String, LocalDateTime> machineFree = new HashMap<>();
+        List<ProcessStepExecution> executions = new ArrayList<>();
+        for (Order order : orderList) {
+            if (order.getStatus() != OrderStatus.IN_PRODUCTION) {
+                createdOrders.add(order);
+                continue;
+            }
+            LocalDateTime ready = order.getStartDate().atTime(8, 0);
+            for (ProcessStep step : routing.get(order.getModel().getName())) {
+                String name = step.getMachinery().getName();
+                LocalDateTime start = machineFree.getOrDefault(name, ready);
+                if (start.isBefore(ready)) {
+                    start = ready;
+                }
+                start = start.plusMinutes(random.nextInt(4) == 0 ? 30 + random.nextInt(600) : 0);
+                LocalDateTime end = start.plusMinutes(Math.max(step.getDuration().toSeconds() * order.getQuantity() / 60, 1));
+
+                ProcessStepExecution exec = new ProcessStepExecution();
+                exec.setOrder(order);
+                exec.setMachineryName(name);
+                exec.setLane(0);
+                exec.setStepIndex(step.getStepOrder());
+                exec.setScheduledStartTime(start);
+                exec.setScheduledEndTime(end);
+                exec.setScheduledStart(start.toLocalDate());
+                exec.setScheduledEnd(end.toLocalDate());
+                exec.setActualStartTime(start);
+                exec.setActualEndTime(end);
+                exec.setActualStart(start.toLocalDate());
+                exec.setActualEnd(end.toLocalDate());
+                executions.add(exec);
+
+                machineFree.put(name, end);
+                ready = end;
+            }
+        }
+        context.getBean(ProcessStepExecutionRepository.class).saveAll(executions);
+        executionCount = executions.size();
+    }
+
+    // ordini CREATED, candidati per la pianificazione
+    public List<Order> createdOrders() {
+        return createdOrders;
+    }
+
+    public int executionCount() {
+        return executionCount;
+    }
+}
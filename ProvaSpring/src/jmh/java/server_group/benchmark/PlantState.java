@@ -0,0 +1,61 @@
+package server_group.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import server_group.Server;
+import server_group.service.MachineAvailabilityIndex;
+
+// applicazione completa su H2 in memoria con i dati sintetici, una per trial
+@State(Scope.Benchmark)
+public class PlantState {
+
+    @Param({"20"})
+    public int machines;
+
+    @Param({"30"})
+    public int models;
+
+    @Param({"8"})
+    public int steps;
+
+    @Param({"500", "5000"})
+    public int orders;
+
+    public ConfigurableApplicationContext context;
+    public PlantData data;
+
+    @Setup(Level.Trial)
+    public void start() {
+        // argomenti da riga di comando: a differenza di properties(...) prevalgono su application.properties,
+        // così il benchmark non si collega mai al postgres di sviluppo
+        context = new SpringApplicationBuilder(Server.class)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        // le migrazioni sono scritte per postgres, su h2 lo schema lo crea hibernate
+                        "--spring.flyway.enabled=false",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+
+        data = new PlantData(machines, models, steps, orders);
+        data.seed(context);
+        // l'indice si è caricato all'avvio, quando il db era ancora vuoto
+        context.getBean(MachineAvailabilityIndex.class).reload();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
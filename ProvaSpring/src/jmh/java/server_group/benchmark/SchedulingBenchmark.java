@@ -0,0 +1,61 @@
+package server_group.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import server_group.dto.ModelWithStepsDTO;
+import server_group.dto.SimulationCandidateDTO;
+import server_group.dto.SimulationResultDTO;
+import server_group.model.Order;
+import server_group.service.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// la pianificazione di un ordine come in OrderProductionService.createScheduledExecutions, senza i save,
+// e la simulazione di un gruppo di ordini (compresa la lettura degli ordini dal db)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchedulingBenchmark {
+
+    static final int SIMULATED_ORDERS = 10;
+
+    @State(Scope.Thread)
+    public static class Candidates {
+        List<Order> orders;
+        List<SimulationCandidateDTO> simulation;
+        int next;
+
+        @Setup(Level.Trial)
+        public void prepare(PlantState plant) {
+            orders = plant.data.createdOrders();
+            // copie staccate, lo start è quello che userebbe startProduction
+            orders.forEach(order -> order.setStartDate(LocalDate.now()));
+            simulation = orders.stream().limit(SIMULATED_ORDERS).map(order -> {
+                SimulationCandidateDTO candidate = new SimulationCandidateDTO();
+                candidate.setOrderId(order.getId());
+                return candidate;
+            }).toList();
+        }
+
+        Order nextOrder() {
+            Order order = orders.get(next);
+            next = (next + 1) % orders.size();
+            return order;
+        }
+    }
+
+    @Benchmark
+    public SchedulingResult planOrder(PlantState plant, Candidates candidates) {
+        Order order = candidates.nextOrder();
+        List<ModelWithStepsDTO.ProcessStepDTO> routing = plant.bean(RoutingCache.class).routingOf(order.getModel().getName());
+        return plant.bean(GapFillingScheduler.class).plan(order, routing, plant.bean(MachineAvailabilityIndex.class).newBoard());
+    }
+
+    @Benchmark
+    public SimulationResultDTO simulateOrders(PlantState plant, Candidates candidates) {
+        return plant.bean(ScheduleSimulationService.class).simulate(candidates.simulation);
+    }
+}
@@ -24,8 +24,11 @@ public class AuthController {
     // tolto autowired per usare constructor injection
     private final CustomUserService customUserService;
 
-    public AuthController(CustomUserService customUserService) {
+    private final ReferenceEventPublisher referenceEventPublisher;
+
+    public AuthController(CustomUserService customUserService, ReferenceEventPublisher referenceEventPublisher) {
         this.customUserService = customUserService;
+        this.referenceEventPublisher = referenceEventPublisher;
     }
 
     @PostMapping("/login")
@@ -42,6 +45,7 @@ public class AuthController {
     public ResponseEntity<String> register(@RequestBody RegisterRequestDTO request) {
         boolean success = customUserService.registerUser(request);
         if (success) {
+            referenceEventPublisher.publishChanged(ReferenceEventPublisher.EMPLOYEES);
             return ResponseEntity.ok("User registered successfully!");
         } else {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Email already in use!");
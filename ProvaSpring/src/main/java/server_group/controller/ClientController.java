@@ -19,8 +19,11 @@ public class ClientController {
 
     private final ClientService clientService;
 
-    public ClientController(ClientService clientService) {
+    private final ReferenceEventPublisher referenceEventPublisher;
+
+    public ClientController(ClientService clientService, ReferenceEventPublisher referenceEventPublisher) {
         this.clientService = clientService;
+        this.referenceEventPublisher = referenceEventPublisher;
     }
 
     @PreAuthorize("hasAnyRole('MANAGER', 'ACCOUNTANT')")
@@ -46,6 +49,7 @@ public class ClientController {
     public ResponseEntity<?> createClient(@RequestBody Client client) {
         try {
             Client created = clientService.save(client);
+            referenceEventPublisher.publishChanged(ReferenceEventPublisher.CLIENTS);
             return ResponseEntity.status(HttpStatus.CREATED).body(created);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Failed to create client: " + e.getMessage());
@@ -62,6 +66,7 @@ public class ClientController {
 
         updatedClient.setPiva(piva);
         Client saved = clientService.save(updatedClient);
+        referenceEventPublisher.publishChanged(ReferenceEventPublisher.CLIENTS);
         return ResponseEntity.ok(saved);
     }
 
@@ -74,6 +79,7 @@ public class ClientController {
         }
 
         clientService.deleteByPiva(piva);
+        referenceEventPublisher.publishChanged(ReferenceEventPublisher.CLIENTS);
         return ResponseEntity.ok("Client deleted successfully");
     }
 
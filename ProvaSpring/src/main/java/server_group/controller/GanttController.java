@@ -1,40 +1,111 @@
 package server_group.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import server_group.dto.GanttBlockDTO;
+import server_group.dto.GanttChangesDTO;
+import server_group.dto.GanttOrderFacetDTO;
+import server_group.dto.MachineLoadDTO;
+import server_group.dto.StreamMetricsDTO;
+import server_group.model.LoadBucket;
 import server_group.model.ProcessStepExecution;
 import server_group.service.GanttService;
+import server_group.service.GanttUpdateException;
 import server_group.service.OrderProductionService;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/gantt")
 public class GanttController {
 
+    static final String PLAN_VERSION_HEADER = "X-Plan-Version";
+
     private final GanttService ganttService;
+    private final GanttEventPublisher ganttEventPublisher;
 
-    public GanttController(GanttService ganttService) {
+    public GanttController(GanttService ganttService, GanttEventPublisher ganttEventPublisher) {
         this.ganttService = ganttService;
+        this.ganttEventPublisher = ganttEventPublisher;
     }
 
+    // senza parametri è il gantt completo; altrimenti solo la parte che serve:
+    // finestra di date (from/to, yyyy-MM-dd), macchine (?machinery=A&machinery=B), ordine
     @PreAuthorize("hasAnyRole('MANAGER', 'EMPLOYEE')")
     @GetMapping("/orders/all")
-    public ResponseEntity<List<GanttBlockDTO>> getAllGantt() {
-        List<GanttBlockDTO> scheduledGanttBlock = ganttService.getAllScheduledGanttBlocks();
-        return ResponseEntity.ok(scheduledGanttBlock);
+    public ResponseEntity<?> getAllGantt(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                         @RequestParam(required = false) List<String> machinery,
+                                         @RequestParam(required = false) Long orderId) {
+        try {
+            // versione presa prima della lettura: le modifiche successive arrivano con /changes?since=
+            long version = ganttService.currentPlanVersion();
+            List<GanttBlockDTO> scheduledGanttBlock = ganttService.getScheduledGanttBlocks(from, to, machinery, orderId);
+            return ResponseEntity.ok()
+                    .header(PLAN_VERSION_HEADER, String.valueOf(version))
+                    .body(scheduledGanttBlock);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // ordini presenti nel gantt con cliente, modello e scadenza, per il filtro del client
+    @PreAuthorize("hasAnyRole('MANAGER', 'EMPLOYEE')")
+    @GetMapping("/orders/facets")
+    public ResponseEntity<List<GanttOrderFacetDTO>> getOrderFacets() {
+        return ResponseEntity.ok(ganttService.getOrderFacets());
+    }
+
+    // gantt visto da lontano: carico di ogni macchina a giorni, settimane o mesi invece dei singoli blocchi
+    @PreAuthorize("hasAnyRole('MANAGER', 'EMPLOYEE')")
+    @GetMapping("/load")
+    public ResponseEntity<?> getMachineLoad(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                            @RequestParam(defaultValue = "DAY") LoadBucket bucket) {
+        try {
+            List<MachineLoadDTO> load = ganttService.getMachineLoad(from, to, bucket);
+            return ResponseEntity.ok(load);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // solo i blocchi cambiati dopo la versione since (quella dell'header o della risposta precedente)
+    @PreAuthorize("hasAnyRole('MANAGER', 'EMPLOYEE')")
+    @GetMapping("/changes")
+    public ResponseEntity<GanttChangesDTO> getChanges(@RequestParam long since) {
+        return ResponseEntity.ok(ganttService.getChangesSince(since));
+    }
+
+    // modifiche del piano in tempo reale (stesso formato di /changes)
+    @PreAuthorize("hasAnyRole('MANAGER', 'EMPLOYEE')")
+    @GetMapping(value = "/stream", produces = "text/event-stream")
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return ganttEventPublisher.registerClient(lastEventId);
+    }
+
+    @PreAuthorize("hasAnyRole('MANAGER')")
+    @GetMapping("/stream/metrics")
+    public ResponseEntity<StreamMetricsDTO> streamMetrics() {
+        return ResponseEntity.ok(ganttEventPublisher.metrics());
     }
 
     @PreAuthorize("hasAnyRole('MANAGER')")
     @PostMapping("/update")
     public ResponseEntity<?> updateBlocks(@RequestBody List<GanttBlockDTO> modifiedBlocks) {
         try {
-            ganttService.updateBlocks(modifiedBlocks);
-            return ResponseEntity.ok(modifiedBlocks);
+            // blocchi modificati più quelli spostati a catena
+            List<GanttBlockDTO> changed = ganttService.updateBlocks(modifiedBlocks);
+            return ResponseEntity.ok(changed);
+        } catch (GanttUpdateException e) {
+            // niente è stato salvato: il client riceve il motivo per ogni blocco rifiutato
+            return ResponseEntity.badRequest().body(e.getErrors());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
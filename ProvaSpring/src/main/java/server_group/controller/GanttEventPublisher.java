@@ -0,0 +1,32 @@
+package server_group.controller;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import server_group.dto.GanttChangesDTO;
+import server_group.dto.StreamMetricsDTO;
+
+// come NoticeEventPublisher, ma per il piano: i gantt aperti ricevono i blocchi creati, spostati o tolti
+// gli eventi arrivano da PlanChangeLog dopo il commit di ogni transazione che tocca le execution
+@Component
+public class GanttEventPublisher {
+    private final SseBroadcaster broadcaster;
+
+    public GanttEventPublisher(@Qualifier("ganttBroadcaster") SseBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    public SseEmitter registerClient(String lastEventId) {
+        return broadcaster.register(lastEventId);
+    }
+
+    @EventListener
+    public void publishChanges(GanttChangesDTO changes) {
+        broadcaster.publish("ganttUpdate", changes);
+    }
+
+    public StreamMetricsDTO metrics() {
+        return broadcaster.metrics();
+    }
+}
@@ -18,8 +18,11 @@ public class MachineryController {
 
     private final MachineryService machineryService;
 
-    public MachineryController(MachineryService machineryService) {
+    private final ReferenceEventPublisher referenceEventPublisher;
+
+    public MachineryController(MachineryService machineryService, ReferenceEventPublisher referenceEventPublisher) {
         this.machineryService = machineryService;
+        this.referenceEventPublisher = referenceEventPublisher;
     }
 
     @GetMapping
@@ -48,6 +51,7 @@ public class MachineryController {
     public ResponseEntity<?> createMachinery(@RequestBody Machinery machinery) {
         try {
             Machinery created = machineryService.save(machinery);
+            referenceEventPublisher.publishChanged(ReferenceEventPublisher.MACHINERY);
             return ResponseEntity.status(201).body(created);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Failed to create machinery: " + e.getMessage());
@@ -63,6 +67,7 @@ public class MachineryController {
 
         updatedMachinery.setId(id);
         Machinery saved = machineryService.save(updatedMachinery);
+        referenceEventPublisher.publishChanged(ReferenceEventPublisher.MACHINERY);
         return ResponseEntity.ok(saved);
     }
 
@@ -74,6 +79,7 @@ public class MachineryController {
         }
 
         machineryService.delete(id);
+        referenceEventPublisher.publishChanged(ReferenceEventPublisher.MACHINERY);
         return ResponseEntity.ok("Machinery deleted successfully");
     }
 }
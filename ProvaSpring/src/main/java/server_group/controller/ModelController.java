@@ -19,8 +19,11 @@ public class ModelController {
 
     private final ModelService modelService;
 
-    public ModelController(ModelService modelService) {
+    private final ReferenceEventPublisher referenceEventPublisher;
+
+    public ModelController(ModelService modelService, ReferenceEventPublisher referenceEventPublisher) {
         this.modelService = modelService;
+        this.referenceEventPublisher = referenceEventPublisher;
     }
 
     //tutti i modelli
@@ -51,6 +54,7 @@ public class ModelController {
     @PostMapping
     public ResponseEntity<Model> create(@RequestBody Model model) {
         Model created = modelService.saveModel(model);
+        referenceEventPublisher.publishChanged(ReferenceEventPublisher.MODELS);
         return ResponseEntity.created(URI.create("/api/models/" + created.getName())).body(created);
     }
 
@@ -59,6 +63,9 @@ public class ModelController {
     @PutMapping("/{name}")
     public ResponseEntity<Model> update(@PathVariable String name, @RequestBody Model updatedModel) {
         Optional<Model> updated = modelService.updateModel(name, updatedModel);
+        if (updated.isPresent()) {
+            referenceEventPublisher.publishChanged(ReferenceEventPublisher.MODELS);
+        }
         return updated.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
@@ -67,6 +74,9 @@ public class ModelController {
     @DeleteMapping("/{name}")
     public ResponseEntity<Void> delete(@PathVariable String name) {
         boolean deleted = modelService.deleteModel(name);
+        if (deleted) {
+            referenceEventPublisher.publishChanged(ReferenceEventPublisher.MODELS);
+        }
         return deleted ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
     }
 }
@@ -1,16 +1,20 @@
 package server_group.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import server_group.dto.NoticeDTO;
+import server_group.dto.StreamMetricsDTO;
 import server_group.model.Notice;
+import server_group.repository.NoticeFilter;
 import server_group.repository.NoticeRepository;
 import server_group.service.NoticeService;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -33,6 +37,44 @@ public class NoticeController {
         return ResponseEntity.ok(result);
     }
 
+    // bacheca a pagine (id decrescente): before = nextCursor della pagina precedente
+    // filtri: categoria come la vede userEmail, autore, testo nell'oggetto, parole nella descrizione (q), date yyyy-MM-dd
+    @PreAuthorize("hasAnyRole('MANAGER', 'EMPLOYEE', 'ACCOUNTANT')")
+    @GetMapping
+    public ResponseEntity<?> searchNotices(@RequestParam String userEmail,
+                                           @RequestParam(required = false) String category,
+                                           @RequestParam(required = false) String creator,
+                                           @RequestParam(required = false) String subject,
+                                           @RequestParam(required = false) String q,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                           @RequestParam(required = false) Long before,
+                                           @RequestParam(required = false) Integer size) {
+        try {
+            NoticeFilter filter = NoticeFilter.of(userEmail, category, creator, subject, q, from, to);
+            return ResponseEntity.ok(noticeService.searchNotices(filter, before, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // quanti avvisi ci sono in ogni categoria, con gli stessi filtri: il client riempie le griglie una pagina alla volta
+    @PreAuthorize("hasAnyRole('MANAGER', 'EMPLOYEE', 'ACCOUNTANT')")
+    @GetMapping("/counts")
+    public ResponseEntity<?> countNotices(@RequestParam String userEmail,
+                                          @RequestParam(required = false) String creator,
+                                          @RequestParam(required = false) String subject,
+                                          @RequestParam(required = false) String q,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            NoticeFilter filter = NoticeFilter.of(userEmail, null, creator, subject, q, from, to);
+            return ResponseEntity.ok(noticeService.countNotices(filter));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @PreAuthorize("hasAnyRole('MANAGER', 'EMPLOYEE', 'ACCOUNTANT')")
     @PostMapping("/add")
     public ResponseEntity<NoticeDTO> createNotice(@RequestBody NoticeDTO dto) {
@@ -40,7 +82,8 @@ public class NoticeController {
         NoticeDTO savedDTO = NoticeDTO.fromEntity(saved, dto.getCreatorEmail());
 
         //per observer pattern
-        noticeEventPublisher.publishEvent(savedDTO);
+        // la categoria dell'evento è quella vista dagli altri utenti, il creatore la riconosce come personale
+        noticeEventPublisher.publishCreated(NoticeDTO.fromEntity(saved, null));
 
         return ResponseEntity.status(HttpStatus.CREATED).body(savedDTO);
     }
@@ -51,7 +94,7 @@ public class NoticeController {
         boolean deleted = noticeService.deleteNotice(id);
         if (deleted) {
             //per observer pattern
-            noticeEventPublisher.publishEvent("deleted: " + id);
+            noticeEventPublisher.publishDeleted(id);
             return ResponseEntity.noContent().build();
         } else {
             return ResponseEntity.notFound().build();
@@ -61,8 +104,15 @@ public class NoticeController {
     //per observer pattern
     @PreAuthorize("hasAnyRole('MANAGER', 'EMPLOYEE', 'ACCOUNTANT')")
     @GetMapping(value = "/stream", produces = "text/event-stream")
-    public SseEmitter streamNotices() {
-        return noticeEventPublisher.registerClient();
+    public SseEmitter streamNotices(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return noticeEventPublisher.registerClient(lastEventId);
+    }
+
+    // client collegati allo stream, eventi in coda e persi
+    @PreAuthorize("hasAnyRole('MANAGER')")
+    @GetMapping("/stream/metrics")
+    public ResponseEntity<StreamMetricsDTO> streamMetrics() {
+        return ResponseEntity.ok(noticeEventPublisher.metrics());
     }
 
 
@@ -1,36 +1,34 @@
 package server_group.controller;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import server_group.dto.NoticeDTO;
+import server_group.dto.StreamMetricsDTO;
 
-import java.io.IOException;
-import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
-
+// l'invio vero e proprio è di SseBroadcaster: chi crea o cancella un avviso non aspetta i client
 @Component
 public class NoticeEventPublisher {
-    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final SseBroadcaster broadcaster;
 
-    public SseEmitter registerClient() {
-        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE); // connessione lunga
-        emitters.add(emitter);
+    public NoticeEventPublisher(@Qualifier("noticeBroadcaster") SseBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
 
-        emitter.onCompletion(() -> emitters.remove(emitter));
-        emitter.onTimeout(() -> emitters.remove(emitter));
-        emitter.onError((e) -> emitters.remove(emitter));
+    public SseEmitter registerClient(String lastEventId) {
+        return broadcaster.register(lastEventId);
+    }
+
+    // la bacheca aggiunge o toglie solo quell'avviso, senza ricaricare tutto
+    public void publishCreated(NoticeDTO notice) {
+        broadcaster.publish("noticeCreated", notice);
+    }
 
-        return emitter;
+    public void publishDeleted(Long id) {
+        broadcaster.publish("noticeDeleted", id);
     }
 
-    public void publishEvent(Object data) {
-        for (SseEmitter emitter : emitters) {
-            try {
-                emitter.send(SseEmitter.event()
-                        .name("noticeUpdate")
-                        .data(data));
-            } catch (IOException e) {
-                emitters.remove(emitter);
-            }
-        }
+    public StreamMetricsDTO metrics() {
+        return broadcaster.metrics();
     }
 }
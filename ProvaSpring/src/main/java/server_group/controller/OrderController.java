@@ -4,6 +4,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import server_group.dto.BatchProductionResultDTO;
+import server_group.dto.ProductionResultDTO;
 import server_group.model.Order;
 import server_group.model.OrderStatus;
 import server_group.service.OrderService;
@@ -136,9 +138,17 @@ public class OrderController {
 
     @PreAuthorize("hasAnyRole('MANAGER', 'ACCOUNTANT')")
     @PutMapping("/{id}/in-production")
-    public ResponseEntity<Void> setInProduction(@PathVariable Long id) {
-        orderService.setInProduction(id); // usa lo state pattern
-        return ResponseEntity.ok().build();
+    public ResponseEntity<ProductionResultDTO> setInProduction(@PathVariable Long id) {
+        ProductionResultDTO result = orderService.setInProduction(id); // usa lo state pattern
+        return ResponseEntity.ok(result);
+    }
+
+    // manda in produzione più ordini in un colpo solo, la risposta dice quali sono stati accettati e quali no
+    @PreAuthorize("hasAnyRole('MANAGER', 'ACCOUNTANT')")
+    @PutMapping("/in-production")
+    public ResponseEntity<BatchProductionResultDTO> setInProduction(@RequestBody List<Long> ids) {
+        BatchProductionResultDTO result = orderService.setInProduction(ids);
+        return ResponseEntity.ok(result);
     }
 
     @PreAuthorize("hasAnyRole('MANAGER', 'ACCOUNTANT')")
@@ -11,6 +11,7 @@ import server_group.model.CustomUser;
 import server_group.model.ProcessStepExecution;
 import server_group.repository.CustomUserRepository;
 import server_group.repository.ProcessStepExecutionRepository;
+import server_group.security.TokenRevocations;
 import server_group.service.CustomUserService;
 import server_group.service.ProcessStepExecutionService;
 
@@ -30,10 +31,16 @@ public class ProfileController {
 
     private final ProcessStepExecutionService processStepExecutionService;
 
-    public ProfileController(CustomUserService customUserService, CustomUserRepository customUserRepository, ProcessStepExecutionService processStepExecutionService) {
+    private final TokenRevocations tokenRevocations;
+
+    private final ReferenceEventPublisher referenceEventPublisher;
+
+    public ProfileController(CustomUserService customUserService, CustomUserRepository customUserRepository, ProcessStepExecutionService processStepExecutionService, TokenRevocations tokenRevocations, ReferenceEventPublisher referenceEventPublisher) {
         this.customUserService = customUserService;
         this.customUserRepository = customUserRepository;
         this.processStepExecutionService = processStepExecutionService;
+        this.tokenRevocations = tokenRevocations;
+        this.referenceEventPublisher = referenceEventPublisher;
     }
 
     //profilo per email
@@ -58,6 +65,8 @@ public class ProfileController {
         }
 
         CustomUser existing = existingOpt.get();
+        // il ruolo è scritto nel token: se cambia, i token già emessi non valgono più
+        boolean roleChanged = existing.getRole() != updatedUser.getRole();
 
         existing.setName(updatedUser.getName());
         existing.setSurname(updatedUser.getSurname());
@@ -65,6 +74,10 @@ public class ProfileController {
         existing.setRole(updatedUser.getRole());
 
         CustomUser saved = customUserService.updateUser(existing);
+        if (roleChanged) {
+            tokenRevocations.revoke(email);
+        }
+        referenceEventPublisher.publishChanged(ReferenceEventPublisher.EMPLOYEES);
         return ResponseEntity.ok(new ProfileDTO(saved));
     }
 
@@ -78,6 +91,8 @@ public class ProfileController {
         }
 
         customUserRepository.deleteById(email);
+        tokenRevocations.revoke(email);
+        referenceEventPublisher.publishChanged(ReferenceEventPublisher.EMPLOYEES);
         return ResponseEntity.ok("User deleted successfully");
     }
 
@@ -18,8 +18,11 @@ public class RawController {
 
     private final RawService rawService;
 
-    public RawController(RawService rawService) {
+    private final ReferenceEventPublisher referenceEventPublisher;
+
+    public RawController(RawService rawService, ReferenceEventPublisher referenceEventPublisher) {
         this.rawService = rawService;
+        this.referenceEventPublisher = referenceEventPublisher;
     }
 
     @GetMapping
@@ -43,6 +46,7 @@ public class RawController {
     public ResponseEntity<?> createRaw(@RequestBody Raw raw) {
         try {
             Raw created = rawService.save(raw);
+            referenceEventPublisher.publishChanged(ReferenceEventPublisher.RAWS);
             return ResponseEntity.status(201).body(created);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Failed to create raw: " + e.getMessage());
@@ -58,6 +62,7 @@ public class RawController {
 
         updatedRaw.setId(id);
         Raw saved = rawService.save(updatedRaw);
+        referenceEventPublisher.publishChanged(ReferenceEventPublisher.RAWS);
         return ResponseEntity.ok(saved);
     }
 
@@ -69,6 +74,7 @@ public class RawController {
         }
 
         rawService.delete(id);
+        referenceEventPublisher.publishChanged(ReferenceEventPublisher.RAWS);
         return ResponseEntity.ok("Raw deleted successfully");
     }
 }
@@ -0,0 +1,32 @@
+package server_group.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import server_group.dto.StreamMetricsDTO;
+
+@RestController
+@RequestMapping("/api/reference")
+@CrossOrigin(origins = "*")
+public class ReferenceController {
+
+    private final ReferenceEventPublisher referenceEventPublisher;
+
+    public ReferenceController(ReferenceEventPublisher referenceEventPublisher) {
+        this.referenceEventPublisher = referenceEventPublisher;
+    }
+
+    // avvisa i client quando una lista di riferimento cambia, così svuotano la loro cache
+    @PreAuthorize("hasAnyRole('MANAGER', 'EMPLOYEE', 'ACCOUNTANT')")
+    @GetMapping(value = "/stream", produces = "text/event-stream")
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return referenceEventPublisher.registerClient(lastEventId);
+    }
+
+    @PreAuthorize("hasAnyRole('MANAGER')")
+    @GetMapping("/stream/metrics")
+    public ResponseEntity<StreamMetricsDTO> streamMetrics() {
+        return ResponseEntity.ok(referenceEventPublisher.metrics());
+    }
+}
@@ -0,0 +1,35 @@
+package server_group.controller;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import server_group.dto.StreamMetricsDTO;
+
+// dati di riferimento che il client tiene in cache (dipendenti, macchinari, modelli, grezzi, clienti):
+// l'evento dice solo quale lista è cambiata, il client la riscarica quando gli serve
+@Component
+public class ReferenceEventPublisher {
+    public static final String EMPLOYEES = "employees";
+    public static final String MACHINERY = "machinery";
+    public static final String MODELS = "models";
+    public static final String RAWS = "raws";
+    public static final String CLIENTS = "clients";
+
+    private final SseBroadcaster broadcaster;
+
+    public ReferenceEventPublisher(@Qualifier("referenceBroadcaster") SseBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    public SseEmitter registerClient(String lastEventId) {
+        return broadcaster.register(lastEventId);
+    }
+
+    public void publishChanged(String kind) {
+        broadcaster.publish("referenceChanged", kind);
+    }
+
+    public StreamMetricsDTO metrics() {
+        return broadcaster.metrics();
+    }
+}
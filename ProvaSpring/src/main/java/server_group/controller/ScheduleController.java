@@ -0,0 +1,34 @@
+package server_group.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import server_group.dto.SimulationCandidateDTO;
+import server_group.dto.SimulationResultDTO;
+import server_group.service.ScheduleSimulationService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/schedule")
+@CrossOrigin(origins = "*")
+public class ScheduleController {
+
+    private final ScheduleSimulationService simulationService;
+
+    public ScheduleController(ScheduleSimulationService simulationService) {
+        this.simulationService = simulationService;
+    }
+
+    // anteprima della pianificazione degli ordini candidati, non salva nulla
+    @PreAuthorize("hasAnyRole('MANAGER', 'ACCOUNTANT')")
+    @PostMapping("/simulate")
+    public ResponseEntity<?> simulate(@RequestBody List<SimulationCandidateDTO> candidates) {
+        try {
+            SimulationResultDTO result = simulationService.simulate(candidates);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package server_group.controller;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import server_group.dto.StreamMetricsDTO;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// invio degli eventi SSE di un canale senza bloccare chi pubblica:
+// ogni client ha una coda limitata svuotata da un virtual thread, chi pubblica si limita ad accodare
+// un client con la coda piena (troppo lento) o fermo su un invio da troppo tempo viene scollegato
+// ogni heartbeat manda un commento a tutti, così le connessioni morte vengono scoperte e tolte;
+// le metriche contano gli heartbeat a parte, così published e delivered restano quelli degli eventi veri
+// gli eventi hanno un id "<epoca>-<numero>" e gli ultimi restano in un buffer circolare: un client che si ricollega
+// con Last-Event-ID riceve quelli persi, se non bastano (o il server è ripartito) riceve un evento di reset
+public class SseBroadcaster {
+
+    static final String RESET_EVENT = "streamReset";
+
+    private final String channel;
+    private final int queueCapacity;
+    private final int replaySize;
+    private final long stallNanos;
+    private final ExecutorService sender;
+    private final ScheduledExecutorService heartbeat;
+    private final Duration heartbeatInterval;
+    // sempre lo stesso commento: drain lo riconosce e non lo conta tra i consegnati
+    private final Set<ResponseBodyEmitter.DataWithMediaType> heartbeatEvent = SseEmitter.event().comment("heartbeat").build();
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    // cambia a ogni avvio: un id di un'altra epoca non si può riprendere
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    // sequence e replay sono protetti dal lock su replay, così chi si registra non perde né duplica eventi
+    private final Deque<ReplayEntry> replay = new ArrayDeque<>();
+    private long sequence;
+
+    private record ReplayEntry(long sequence, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+    }
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder heartbeats = new LongAdder();
+
+    public SseBroadcaster(String channel, int queueCapacity, int replaySize, Duration heartbeatInterval, Duration stallTimeout) {
+        this(channel, queueCapacity, replaySize, heartbeatInterval, stallTimeout, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    // senza heartbeat automatico e con l'executor scelto dal chiamante (test)
+    SseBroadcaster(String channel, int queueCapacity, int replaySize, Duration stallTimeout, ExecutorService sender) {
+        this(channel, queueCapacity, replaySize, null, stallTimeout, sender);
+    }
+
+    private SseBroadcaster(String channel, int queueCapacity, int replaySize, Duration heartbeatInterval,
+                           Duration stallTimeout, ExecutorService sender) {
+        this.channel = channel;
+        this.heartbeatInterval = heartbeatInterval;
+        this.queueCapacity = queueCapacity;
+        this.replaySize = replaySize;
+        this.stallNanos = stallTimeout.toNanos();
+        this.sender = sender;
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sse-heartbeat-" + channel);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // gli heartbeat partono quando il bean è pronto, non dal costruttore
+    @PostConstruct
+    public void start() {
+        if (heartbeatInterval != null) {
+            heartbeat.scheduleAtFixedRate(this::heartbeat, heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile long sendingSince; // 0 = nessun invio in corso
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    // lastEventId: header Last-Event-ID del client che si ricollega, null alla prima connessione
+    public SseEmitter register(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(Long.MAX_VALUE); // connessione lunga, la tengono d'occhio gli heartbeat
+        Subscriber subscriber = new Subscriber(emitter);
+        synchronized (replay) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replayTo(subscriber, lastEventId.trim());
+            }
+            subscribers.add(subscriber);
+        }
+        if (!subscriber.queue.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+
+        emitter.onCompletion(() -> drop(subscriber));
+        emitter.onTimeout(() -> drop(subscriber));
+        emitter.onError((e) -> drop(subscriber));
+
+        return emitter;
+    }
+
+    // l'evento viene composto una volta sola e accodato a ogni client, l'invio avviene dopo
+    public void publish(String eventName, Object data) {
+        synchronized (replay) {
+            long id = ++sequence;
+            Set<ResponseBodyEmitter.DataWithMediaType> event =
+                    SseEmitter.event().id(eventId(id)).name(eventName).data(data).build();
+            if (replaySize > 0) {
+                if (replay.size() == replaySize) {
+                    replay.removeFirst();
+                }
+                replay.addLast(new ReplayEntry(id, event));
+            }
+            published.increment();
+            enqueueAll(event);
+        }
+    }
+
+    void heartbeat() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long since = subscriber.sendingSince;
+            if (since != 0 && now - since > stallNanos) {
+                evict(subscriber);
+            }
+        }
+        heartbeats.increment();
+        enqueueAll(heartbeatEvent);
+    }
+
+    // accoda gli eventi successivi a lastEventId; se non sono più tutti nel buffer, il client deve ricaricare
+    private void replayTo(Subscriber subscriber, String lastEventId) {
+        long last = sequenceOf(lastEventId);
+        long firstAvailable = replay.isEmpty() ? sequence + 1 : replay.peekFirst().sequence();
+        if (last < 0 || last > sequence || last + 1 < firstAvailable) {
+            subscriber.queue.offer(resetEvent());
+            return;
+        }
+        for (ReplayEntry entry : replay) {
+            if (entry.sequence() > last && !subscriber.queue.offer(entry.event())) {
+                // più eventi persi di quanti ne stiano in coda: tanto vale ricaricare
+                subscriber.queue.clear();
+                subscriber.queue.offer(resetEvent());
+                return;
+            }
+        }
+    }
+
+    // -1 se l'id non è di questa epoca o non è valido
+    private long sequenceOf(String eventId) {
+        int dash = eventId.lastIndexOf('-');
+        if (dash < 0 || !eventId.substring(0, dash).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // porta l'id corrente, così il client riparte da qui dopo aver ricaricato
+    private Set<ResponseBodyEmitter.DataWithMediaType> resetEvent() {
+        return SseEmitter.event().id(eventId(sequence)).name(RESET_EVENT).data("reset").build();
+    }
+
+    // id dell'ultimo evento pubblicato
+    String currentEventId() {
+        synchronized (replay) {
+            return eventId(sequence);
+        }
+    }
+
+    private String eventId(long id) {
+        return epoch + "-" + id;
+    }
+
+    public StreamMetricsDTO metrics() {
+        int queued = 0;
+        int maxDepth = 0;
+        for (Subscriber subscriber : subscribers) {
+            int depth = subscriber.queue.size();
+            queued += depth;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+        return new StreamMetricsDTO(channel, subscribers.size(), queued, maxDepth,
+                published.sum(), enqueued.sum(), delivered.sum(), dropped.sum(), evicted.sum(), heartbeats.sum());
+    }
+
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        sender.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            close(subscriber);
+        }
+    }
+
+    private void enqueueAll(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        boolean counted = event != heartbeatEvent;
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.queue.offer(event)) {
+                if (counted) {
+                    enqueued.increment();
+                }
+                scheduleDrain(subscriber);
+            } else {
+                // il client non riesce a stare al passo: meglio scollegarlo, al prossimo collegamento riparte pulito
+                if (counted) {
+                    dropped.increment();
+                }
+                evict(subscriber);
+            }
+        }
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                sender.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Set<ResponseBodyEmitter.DataWithMediaType> event;
+            while (!subscriber.closed.get() && (event = subscriber.queue.poll()) != null) {
+                subscriber.sendingSince = System.nanoTime();
+                subscriber.emitter.send(event);
+                subscriber.sendingSince = 0;
+                if (event != heartbeatEvent) {
+                    delivered.increment();
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // connessione chiusa dal client
+            drop(subscriber);
+        } finally {
+            subscriber.sendingSince = 0;
+            subscriber.draining.set(false);
+        }
+        // un evento accodato mentre si usciva dal ciclo non deve restare lì
+        if (!subscriber.closed.get() && !subscriber.queue.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (drop(subscriber)) {
+            evicted.increment();
+        }
+        close(subscriber);
+    }
+
+    // complete() aspetta l'eventuale invio bloccato sullo stesso emitter: lo si fa su un virtual thread
+    private void close(Subscriber subscriber) {
+        drop(subscriber);
+        try {
+            sender.execute(() -> {
+                try {
+                    subscriber.emitter.complete();
+                } catch (Exception ignored) {
+                    // già chiuso
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // in chiusura
+        }
+    }
+
+    // true se il client era ancora collegato
+    private boolean drop(Subscriber subscriber) {
+        subscriber.closed.set(true);
+        subscriber.queue.clear();
+        return subscribers.remove(subscriber);
+    }
+}
@@ -0,0 +1,36 @@
+package server_group.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// un SseBroadcaster per canale, con le impostazioni di sse.* (vedi application.properties)
+@Configuration
+public class SseConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public SseBroadcaster noticeBroadcaster(@Value("${sse.queue-capacity:256}") int queueCapacity,
+                                            @Value("${sse.replay-size:512}") int replaySize,
+                                            @Value("${sse.heartbeat-seconds:15}") long heartbeatSeconds,
+                                            @Value("${sse.stall-timeout-seconds:30}") long stallSeconds) {
+        return new SseBroadcaster("notice", queueCapacity, replaySize, Duration.ofSeconds(heartbeatSeconds), Duration.ofSeconds(stallSeconds));
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public SseBroadcaster ganttBroadcaster(@Value("${sse.queue-capacity:256}") int queueCapacity,
+                                           @Value("${sse.replay-size:512}") int replaySize,
+                                           @Value("${sse.heartbeat-seconds:15}") long heartbeatSeconds,
+                                           @Value("${sse.stall-timeout-seconds:30}") long stallSeconds) {
+        return new SseBroadcaster("gantt", queueCapacity, replaySize, Duration.ofSeconds(heartbeatSeconds), Duration.ofSeconds(stallSeconds));
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public SseBroadcaster referenceBroadcaster(@Value("${sse.queue-capacity:256}") int queueCapacity,
+                                               @Value("${sse.replay-size:512}") int replaySize,
+                                               @Value("${sse.heartbeat-seconds:15}") long heartbeatSeconds,
+                                               @Value("${sse.stall-timeout-seconds:30}") long stallSeconds) {
+        return new SseBroadcaster("reference", queueCapacity, replaySize, Duration.ofSeconds(heartbeatSeconds), Duration.ofSeconds(stallSeconds));
+    }
+}
@@ -0,0 +1,36 @@
+package server_group.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BatchProductionResultDTO {
+    private List<Long> scheduled = new ArrayList<>();       // id degli ordini mandati in produzione, nell'ordine scelto
+    private Map<Long, String> rejected = new LinkedHashMap<>(); // id ordine -> motivo
+    private List<ProductionResultDTO> results = new ArrayList<>(); // fine prevista e utilizzo, uno per ordine mandato in produzione
+
+    public List<Long> getScheduled() {
+        return scheduled;
+    }
+
+    public void setScheduled(List<Long> scheduled) {
+        this.scheduled = scheduled;
+    }
+
+    public Map<Long, String> getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(Map<Long, String> rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<ProductionResultDTO> getResults() {
+        return results;
+    }
+
+    public void setResults(List<ProductionResultDTO> results) {
+        this.results = results;
+    }
+}
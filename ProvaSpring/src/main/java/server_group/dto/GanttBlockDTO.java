@@ -1,17 +1,27 @@
 package server_group.dto;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 public class GanttBlockDTO {
     private Long executionId;        // l'id di ProcessStepExecution
     private Long orderId;
     private String machineryName;
+    private int lane;                 // corsia della macchina (macchine con capacità > 1)
     private String stepName;
     private LocalDate scheduledStart; // start pianificato
     private LocalDate scheduledEnd;   // end pianificato
     private LocalDate actualStart;    // start effettivo (può essere null finché non viene modificato)
     private LocalDate actualEnd;      // end effettivo
+    // stessi intervalli al minuto, null per le execution pianificate a giorni interi prima dei turni
+    private LocalDateTime scheduledStartTime;
+    private LocalDateTime scheduledEndTime;
+    private LocalDateTime actualStartTime;
+    private LocalDateTime actualEndTime;
     private int stepOrder;
+    private Integer lotIndex;         // lotto dello step (0 .. lotCount - 1), null se lo step non è diviso
+    private Integer lotCount;
+    private Integer lotQuantity;      // pezzi del lotto
     private String assignedEmployeeEmail;
     private String assignedEmployeeFullName;
 
@@ -32,6 +42,40 @@ public class GanttBlockDTO {
         this.actualEnd = scheduledEnd;
     }
 
+    // riga del gantt così come esce dalla query (ProcessStepExecutionRepository.findGanttBlocks)
+    // o dall'execution: nome dello step e del dipendente vengono composti qui
+    public GanttBlockDTO(Long executionId, Long orderId, String machineryName, Integer lane, int stepIndex,
+                         Integer lotIndex, Integer lotCount, Integer lotQuantity,
+                         LocalDate scheduledStart, LocalDate scheduledEnd, LocalDate actualStart, LocalDate actualEnd,
+                         LocalDateTime scheduledStartTime, LocalDateTime scheduledEndTime,
+                         LocalDateTime actualStartTime, LocalDateTime actualEndTime,
+                         String assignedEmployeeEmail, String assignedEmployeeName, String assignedEmployeeSurname) {
+        this.executionId = executionId;
+        this.orderId = orderId;
+        this.machineryName = machineryName;
+        this.lane = lane != null ? lane : 0;
+        this.stepOrder = stepIndex;
+        this.stepName = "Step " + stepIndex;
+        if (lotIndex != null) {
+            this.stepName = "Step " + stepIndex + " - lot " + (lotIndex + 1) + "/" + lotCount;
+            this.lotIndex = lotIndex;
+            this.lotCount = lotCount;
+            this.lotQuantity = lotQuantity;
+        }
+        this.scheduledStart = scheduledStart;
+        this.scheduledEnd = scheduledEnd;
+        this.actualStart = actualStart;
+        this.actualEnd = actualEnd;
+        this.scheduledStartTime = scheduledStartTime;
+        this.scheduledEndTime = scheduledEndTime;
+        this.actualStartTime = actualStartTime;
+        this.actualEndTime = actualEndTime;
+        if (assignedEmployeeEmail != null) {
+            this.assignedEmployeeEmail = assignedEmployeeEmail;
+            this.assignedEmployeeFullName = assignedEmployeeName + " " + assignedEmployeeSurname;
+        }
+    }
+
     public Long getExecutionId() {
         return executionId;
     }
@@ -56,6 +100,14 @@ public class GanttBlockDTO {
         this.machineryName = machineryName;
     }
 
+    public int getLane() {
+        return lane;
+    }
+
+    public void setLane(int lane) {
+        this.lane = lane;
+    }
+
     public String getStepName() {
         return stepName;
     }
@@ -96,6 +148,62 @@ public class GanttBlockDTO {
         this.actualEnd = actualEnd;
     }
 
+    public LocalDateTime getScheduledStartTime() {
+        return scheduledStartTime;
+    }
+
+    public void setScheduledStartTime(LocalDateTime scheduledStartTime) {
+        this.scheduledStartTime = scheduledStartTime;
+    }
+
+    public LocalDateTime getScheduledEndTime() {
+        return scheduledEndTime;
+    }
+
+    public void setScheduledEndTime(LocalDateTime scheduledEndTime) {
+        this.scheduledEndTime = scheduledEndTime;
+    }
+
+    public LocalDateTime getActualStartTime() {
+        return actualStartTime;
+    }
+
+    public void setActualStartTime(LocalDateTime actualStartTime) {
+        this.actualStartTime = actualStartTime;
+    }
+
+    public LocalDateTime getActualEndTime() {
+        return actualEndTime;
+    }
+
+    public void setActualEndTime(LocalDateTime actualEndTime) {
+        this.actualEndTime = actualEndTime;
+    }
+
+    public Integer getLotIndex() {
+        return lotIndex;
+    }
+
+    public void setLotIndex(Integer lotIndex) {
+        this.lotIndex = lotIndex;
+    }
+
+    public Integer getLotCount() {
+        return lotCount;
+    }
+
+    public void setLotCount(Integer lotCount) {
+        this.lotCount = lotCount;
+    }
+
+    public Integer getLotQuantity() {
+        return lotQuantity;
+    }
+
+    public void setLotQuantity(Integer lotQuantity) {
+        this.lotQuantity = lotQuantity;
+    }
+
     public int getStepOrder() {
         return stepOrder;
     }
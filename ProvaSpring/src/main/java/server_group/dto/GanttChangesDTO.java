@@ -0,0 +1,54 @@
+package server_group.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// differenze del gantt rispetto a una versione del piano già vista dal client
+public class GanttChangesDTO {
+    private long version;             // versione da passare come "since" alla richiesta successiva
+    private boolean fullReload;       // il client è troppo indietro (o il server è stato riavviato): ricaricare tutto
+    private List<GanttBlockDTO> changed = new ArrayList<>();   // blocchi nuovi o modificati
+    private List<Long> removed = new ArrayList<>();            // executionId dei blocchi da togliere
+
+    public GanttChangesDTO() {
+    }
+
+    public GanttChangesDTO(long version, boolean fullReload, List<GanttBlockDTO> changed, List<Long> removed) {
+        this.version = version;
+        this.fullReload = fullReload;
+        this.changed = changed;
+        this.removed = removed;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public boolean isFullReload() {
+        return fullReload;
+    }
+
+    public void setFullReload(boolean fullReload) {
+        this.fullReload = fullReload;
+    }
+
+    public List<GanttBlockDTO> getChanged() {
+        return changed;
+    }
+
+    public void setChanged(List<GanttBlockDTO> changed) {
+        this.changed = changed;
+    }
+
+    public List<Long> getRemoved() {
+        return removed;
+    }
+
+    public void setRemoved(List<Long> removed) {
+        this.removed = removed;
+    }
+}
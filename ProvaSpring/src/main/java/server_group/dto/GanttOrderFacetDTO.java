@@ -0,0 +1,94 @@
+package server_group.dto;
+
+import java.time.LocalDate;
+
+// ordine presente nel gantt, con i dati che servono al filtro del client (senza scaricare i blocchi)
+public class GanttOrderFacetDTO {
+    private Long orderId;
+    private String clientPiva;
+    private String clientName;
+    private String modelName;
+    private int quantity;
+    private LocalDate startDate;
+    private LocalDate deadline;
+    private long blockCount;          // blocchi dell'ordine nel gantt
+
+    public GanttOrderFacetDTO() {
+    }
+
+    public GanttOrderFacetDTO(Long orderId, String clientPiva, String clientName, String modelName, int quantity,
+                              LocalDate startDate, LocalDate deadline, long blockCount) {
+        this.orderId = orderId;
+        this.clientPiva = clientPiva;
+        this.clientName = clientName;
+        this.modelName = modelName;
+        this.quantity = quantity;
+        this.startDate = startDate;
+        this.deadline = deadline;
+        this.blockCount = blockCount;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getClientPiva() {
+        return clientPiva;
+    }
+
+    public void setClientPiva(String clientPiva) {
+        this.clientPiva = clientPiva;
+    }
+
+    public String getClientName() {
+        return clientName;
+    }
+
+    public void setClientName(String clientName) {
+        this.clientName = clientName;
+    }
+
+    public String getModelName() {
+        return modelName;
+    }
+
+    public void setModelName(String modelName) {
+        this.modelName = modelName;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(LocalDate deadline) {
+        this.deadline = deadline;
+    }
+
+    public long getBlockCount() {
+        return blockCount;
+    }
+
+    public void setBlockCount(long blockCount) {
+        this.blockCount = blockCount;
+    }
+}
@@ -0,0 +1,31 @@
+package server_group.dto;
+
+// motivo per cui un blocco del gantt non può essere salvato
+public class GanttUpdateErrorDTO {
+    private Long executionId;
+    private String message;
+
+    public GanttUpdateErrorDTO() {
+    }
+
+    public GanttUpdateErrorDTO(Long executionId, String message) {
+        this.executionId = executionId;
+        this.message = message;
+    }
+
+    public Long getExecutionId() {
+        return executionId;
+    }
+
+    public void setExecutionId(Long executionId) {
+        this.executionId = executionId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
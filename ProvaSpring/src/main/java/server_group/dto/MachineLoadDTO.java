@@ -0,0 +1,94 @@
+package server_group.dto;
+
+import java.time.LocalDate;
+
+// carico di una macchina in un giorno, settimana o mese: quanti blocchi ci cadono e quanto è piena
+public class MachineLoadDTO {
+    private String machineryName;
+    private LocalDate bucketStart;
+    private LocalDate bucketEnd;      // escluso, come la fine dei blocchi del gantt
+    private long blocks;              // blocchi che toccano il gruppo
+    private long busyMinutes;         // minuti lavorativi occupati dentro il gruppo, sommati su tutti i blocchi
+    private long availableMinutes;    // minuti lavorativi del gruppo nella finestra per il numero di corsie
+    private int capacity;             // corsie della macchina
+    private double load;              // busyMinutes / availableMinutes, oltre 1 = sovraccarico
+
+    public MachineLoadDTO() {
+    }
+
+    public MachineLoadDTO(String machineryName, LocalDate bucketStart, LocalDate bucketEnd,
+                          long blocks, long busyMinutes, long availableMinutes, int capacity, double load) {
+        this.machineryName = machineryName;
+        this.bucketStart = bucketStart;
+        this.bucketEnd = bucketEnd;
+        this.blocks = blocks;
+        this.busyMinutes = busyMinutes;
+        this.availableMinutes = availableMinutes;
+        this.capacity = capacity;
+        this.load = load;
+    }
+
+    public String getMachineryName() {
+        return machineryName;
+    }
+
+    public void setMachineryName(String machineryName) {
+        this.machineryName = machineryName;
+    }
+
+    public LocalDate getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDate bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public LocalDate getBucketEnd() {
+        return bucketEnd;
+    }
+
+    public void setBucketEnd(LocalDate bucketEnd) {
+        this.bucketEnd = bucketEnd;
+    }
+
+    public long getBlocks() {
+        return blocks;
+    }
+
+    public void setBlocks(long blocks) {
+        this.blocks = blocks;
+    }
+
+    public long getBusyMinutes() {
+        return busyMinutes;
+    }
+
+    public void setBusyMinutes(long busyMinutes) {
+        this.busyMinutes = busyMinutes;
+    }
+
+    public long getAvailableMinutes() {
+        return availableMinutes;
+    }
+
+    public void setAvailableMinutes(long availableMinutes) {
+        this.availableMinutes = availableMinutes;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public double getLoad() {
+        return load;
+    }
+
+    public void setLoad(double load) {
+        this.load = load;
+    }
+}
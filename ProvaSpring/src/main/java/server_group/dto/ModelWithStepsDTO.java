@@ -77,6 +77,7 @@ public class ModelWithStepsDTO {
         private Duration duration;
         private String semifinishedName;
         private MachineryDTO machinery;
+        private List<MachineryDTO> groupMachinery; // macchine dello stesso gruppo (compresa la sua), null se nessun gruppo
 
         public Long getId() {
             return id;
@@ -117,10 +118,20 @@ public class ModelWithStepsDTO {
         public void setMachinery(MachineryDTO machinery) {
             this.machinery = machinery;
         }
+
+        public List<MachineryDTO> getGroupMachinery() {
+            return groupMachinery;
+        }
+
+        public void setGroupMachinery(List<MachineryDTO> groupMachinery) {
+            this.groupMachinery = groupMachinery;
+        }
     }
 
     public static class MachineryDTO {
         private String name;
+        private int parallelCapacity = 1;
+        private String machineGroup;
 
         public String getName() {
             return name;
@@ -129,5 +140,21 @@ public class ModelWithStepsDTO {
         public void setName(String name) {
             this.name = name;
         }
+
+        public int getParallelCapacity() {
+            return parallelCapacity;
+        }
+
+        public void setParallelCapacity(int parallelCapacity) {
+            this.parallelCapacity = parallelCapacity;
+        }
+
+        public String getMachineGroup() {
+            return machineGroup;
+        }
+
+        public void setMachineGroup(String machineGroup) {
+            this.machineGroup = machineGroup;
+        }
     }
 }
@@ -3,6 +3,8 @@ package server_group.dto;
 
 import server_group.model.Notice;
 
+import java.time.LocalDateTime;
+
 public class NoticeDTO {
     private Long id;
     private String creatorEmail;
@@ -10,6 +12,22 @@ public class NoticeDTO {
     private String subject;
     private String description;
     private String category; // uno tra: MyNotice, DelayNotice, EmployeesNotice, etc.
+    private LocalDateTime createdAt;
+
+    public NoticeDTO() {
+    }
+
+    // riga della ricerca paginata, categoria già calcolata per chi guarda
+    public NoticeDTO(Long id, String creatorEmail, String creatorName, String creatorSurname,
+                     String subject, String description, String category, LocalDateTime createdAt) {
+        this.id = id;
+        this.creatorEmail = creatorEmail;
+        this.creatorFullName = creatorName + " " + creatorSurname;
+        this.subject = subject;
+        this.description = description;
+        this.category = category;
+        this.createdAt = createdAt;
+    }
 
     public static NoticeDTO fromEntity(Notice notice, String currentUserEmail) {
         NoticeDTO dto = new NoticeDTO();
@@ -19,19 +37,12 @@ public class NoticeDTO {
         dto.subject = notice.getSubject();
         dto.description = notice.getDescription();
 
-        // calcolo categoria
-        if (notice.getSubject().contains("Delay")) {
-            dto.category = "DelayNotice";
-        } else if (notice.getCreator().getEmail().equals(currentUserEmail)) {
-            dto.category = "PersonalNotice";
-        } else {
-            switch (notice.getCreator().getRole().name()) {
-                case "EMPLOYEE" -> dto.category = "EmployeeNotice";
-                case "MANAGER" -> dto.category = "ManagerNotice";
-                case "ACCOUNTANT" -> dto.category = "AccountantNotice";
-                default -> dto.category = "Other";
-            }
-        }
+        // categoria salvata con l'avviso; quelli scritti da chi guarda sono personali (tranne i ritardi)
+        String category = notice.getCategory() != null ? notice.getCategory()
+                : Notice.categoryOf(notice.getSubject(), notice.getCreator().getRole());
+        dto.category = !Notice.DELAY.equals(category) && notice.getCreator().getEmail().equals(currentUserEmail)
+                ? Notice.PERSONAL : category;
+        dto.createdAt = notice.getCreatedAt();
 
         return dto;
     }
@@ -83,4 +94,12 @@ public class NoticeDTO {
     public void setCategory(String category) {
         this.category = category;
     }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
 }
@@ -0,0 +1,33 @@
+package server_group.dto;
+
+import java.util.List;
+
+// una pagina della bacheca; nextCursor va passato come before per la pagina dopo, null se era l'ultima
+public class NoticePageDTO {
+    private List<NoticeDTO> items;
+    private Long nextCursor;
+
+    public NoticePageDTO() {
+    }
+
+    public NoticePageDTO(List<NoticeDTO> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<NoticeDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<NoticeDTO> items) {
+        this.items = items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
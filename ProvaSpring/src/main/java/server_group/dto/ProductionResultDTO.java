@@ -0,0 +1,57 @@
+package server_group.dto;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// esito di un ordine mandato in produzione: fine prevista e utilizzo delle macchine usate,
+// misurato da inizio a fine dell'ordine su tutte le corsie
+public class ProductionResultDTO {
+    private Long orderId;
+    private LocalDateTime completionTime;
+    private Map<String, Double> utilizationBefore = new LinkedHashMap<>(); // macchina -> utilizzo senza l'ordine
+    private Map<String, Double> utilizationAfter = new LinkedHashMap<>();  // macchina -> utilizzo con l'ordine
+
+    public ProductionResultDTO() {
+    }
+
+    public ProductionResultDTO(Long orderId, LocalDateTime completionTime,
+                               Map<String, Double> utilizationBefore, Map<String, Double> utilizationAfter) {
+        this.orderId = orderId;
+        this.completionTime = completionTime;
+        this.utilizationBefore = utilizationBefore;
+        this.utilizationAfter = utilizationAfter;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public LocalDateTime getCompletionTime() {
+        return completionTime;
+    }
+
+    public void setCompletionTime(LocalDateTime completionTime) {
+        this.completionTime = completionTime;
+    }
+
+    public Map<String, Double> getUtilizationBefore() {
+        return utilizationBefore;
+    }
+
+    public void setUtilizationBefore(Map<String, Double> utilizationBefore) {
+        this.utilizationBefore = utilizationBefore;
+    }
+
+    public Map<String, Double> getUtilizationAfter() {
+        return utilizationAfter;
+    }
+
+    public void setUtilizationAfter(Map<String, Double> utilizationAfter) {
+        this.utilizationAfter = utilizationAfter;
+    }
+}
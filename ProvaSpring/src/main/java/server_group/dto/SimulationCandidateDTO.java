@@ -0,0 +1,52 @@
+package server_group.dto;
+
+import java.time.LocalDate;
+
+// ordine da provare nella simulazione: un ordine esistente (orderId) oppure uno ipotetico (modello, quantità, deadline)
+public class SimulationCandidateDTO {
+    private Long orderId;
+    private String modelName;
+    private Integer quantity;
+    private LocalDate deadline;
+
+    public SimulationCandidateDTO() {
+    }
+
+    public SimulationCandidateDTO(String modelName, Integer quantity, LocalDate deadline) {
+        this.modelName = modelName;
+        this.quantity = quantity;
+        this.deadline = deadline;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getModelName() {
+        return modelName;
+    }
+
+    public void setModelName(String modelName) {
+        this.modelName = modelName;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public LocalDate getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(LocalDate deadline) {
+        this.deadline = deadline;
+    }
+}
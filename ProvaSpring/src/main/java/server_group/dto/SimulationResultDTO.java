@@ -0,0 +1,107 @@
+package server_group.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// esito di una simulazione: niente viene salvato
+// gli ordini ipotetici non hanno id, nei blocchi compaiono con orderId = -(posizione nella richiesta + 1)
+public class SimulationResultDTO {
+    private List<GanttBlockDTO> blocks = new ArrayList<>();               // blocchi previsti dei soli candidati
+    private List<CandidateOutcome> orders = new ArrayList<>();            // uno per candidato, nell'ordine della richiesta
+    private List<CandidateOutcome> deadlineViolations = new ArrayList<>(); // i candidati che finirebbero dopo la deadline
+    private Map<String, Double> utilizationBefore = new LinkedHashMap<>(); // macchina -> utilizzo senza i candidati
+    private Map<String, Double> utilizationAfter = new LinkedHashMap<>();  // macchina -> utilizzo con i candidati
+
+    public static class CandidateOutcome {
+        private Long orderId;
+        private LocalDate deadline;
+        private LocalDateTime projectedCompletion;
+        private boolean meetsDeadline;
+
+        public CandidateOutcome() {
+        }
+
+        public CandidateOutcome(Long orderId, LocalDate deadline, LocalDateTime projectedCompletion, boolean meetsDeadline) {
+            this.orderId = orderId;
+            this.deadline = deadline;
+            this.projectedCompletion = projectedCompletion;
+            this.meetsDeadline = meetsDeadline;
+        }
+
+        public Long getOrderId() {
+            return orderId;
+        }
+
+        public void setOrderId(Long orderId) {
+            this.orderId = orderId;
+        }
+
+        public LocalDate getDeadline() {
+            return deadline;
+        }
+
+        public void setDeadline(LocalDate deadline) {
+            this.deadline = deadline;
+        }
+
+        public LocalDateTime getProjectedCompletion() {
+            return projectedCompletion;
+        }
+
+        public void setProjectedCompletion(LocalDateTime projectedCompletion) {
+            this.projectedCompletion = projectedCompletion;
+        }
+
+        public boolean isMeetsDeadline() {
+            return meetsDeadline;
+        }
+
+        public void setMeetsDeadline(boolean meetsDeadline) {
+            this.meetsDeadline = meetsDeadline;
+        }
+    }
+
+    public List<GanttBlockDTO> getBlocks() {
+        return blocks;
+    }
+
+    public void setBlocks(List<GanttBlockDTO> blocks) {
+        this.blocks = blocks;
+    }
+
+    public List<CandidateOutcome> getOrders() {
+        return orders;
+    }
+
+    public void setOrders(List<CandidateOutcome> orders) {
+        this.orders = orders;
+    }
+
+    public List<CandidateOutcome> getDeadlineViolations() {
+        return deadlineViolations;
+    }
+
+    public void setDeadlineViolations(List<CandidateOutcome> deadlineViolations) {
+        this.deadlineViolations = deadlineViolations;
+    }
+
+    public Map<String, Double> getUtilizationBefore() {
+        return utilizationBefore;
+    }
+
+    public void setUtilizationBefore(Map<String, Double> utilizationBefore) {
+        this.utilizationBefore = utilizationBefore;
+    }
+
+    public Map<String, Double> getUtilizationAfter() {
+        return utilizationAfter;
+    }
+
+    public void setUtilizationAfter(Map<String, Double> utilizationAfter) {
+        this.utilizationAfter = utilizationAfter;
+    }
+}
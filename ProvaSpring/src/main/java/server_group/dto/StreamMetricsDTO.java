@@ -0,0 +1,122 @@
+package server_group.dto;
+
+// stato di un canale SSE (notice, gantt): client collegati, eventi in coda e quanti se ne sono persi
+public class StreamMetricsDTO {
+    private String channel;
+    private int subscribers;
+    private int queuedEvents;     // eventi in coda, sommati su tutti i client
+    private int maxQueueDepth;    // coda del client più indietro
+    private long published;       // eventi pubblicati sul canale (uno per publish, senza heartbeat)
+    private long enqueued;        // eventi messi nelle code dei client (uno per client)
+    private long delivered;       // eventi inviati ai client, senza heartbeat
+    private long dropped;         // eventi persi perché la coda del client era piena
+    private long evicted;         // client scollegati perché lenti, bloccati o irraggiungibili
+    private long heartbeats;      // giri di heartbeat
+    private double dropRate;      // dropped / (enqueued + dropped)
+
+    public StreamMetricsDTO() {
+    }
+
+    public StreamMetricsDTO(String channel, int subscribers, int queuedEvents, int maxQueueDepth,
+                            long published, long enqueued, long delivered, long dropped, long evicted, long heartbeats) {
+        this.channel = channel;
+        this.subscribers = subscribers;
+        this.queuedEvents = queuedEvents;
+        this.maxQueueDepth = maxQueueDepth;
+        this.published = published;
+        this.enqueued = enqueued;
+        this.delivered = delivered;
+        this.dropped = dropped;
+        this.evicted = evicted;
+        this.heartbeats = heartbeats;
+        this.dropRate = enqueued + dropped > 0 ? (double) dropped / (enqueued + dropped) : 0;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public void setChannel(String channel) {
+        this.channel = channel;
+    }
+
+    public int getSubscribers() {
+        return subscribers;
+    }
+
+    public void setSubscribers(int subscribers) {
+        this.subscribers = subscribers;
+    }
+
+    public int getQueuedEvents() {
+        return queuedEvents;
+    }
+
+    public void setQueuedEvents(int queuedEvents) {
+        this.queuedEvents = queuedEvents;
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    public void setMaxQueueDepth(int maxQueueDepth) {
+        this.maxQueueDepth = maxQueueDepth;
+    }
+
+    public long getPublished() {
+        return published;
+    }
+
+    public void setPublished(long published) {
+        this.published = published;
+    }
+
+    public long getEnqueued() {
+        return enqueued;
+    }
+
+    public void setEnqueued(long enqueued) {
+        this.enqueued = enqueued;
+    }
+
+    public long getDelivered() {
+        return delivered;
+    }
+
+    public void setDelivered(long delivered) {
+        this.delivered = delivered;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public void setDropped(long dropped) {
+        this.dropped = dropped;
+    }
+
+    public long getEvicted() {
+        return evicted;
+    }
+
+    public void setEvicted(long evicted) {
+        this.evicted = evicted;
+    }
+
+    public long getHeartbeats() {
+        return heartbeats;
+    }
+
+    public void setHeartbeats(long heartbeats) {
+        this.heartbeats = heartbeats;
+    }
+
+    public double getDropRate() {
+        return dropRate;
+    }
+
+    public void setDropRate(double dropRate) {
+        this.dropRate = dropRate;
+    }
+}
@@ -0,0 +1,63 @@
+package server_group.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// traccia di un'execution cancellata (ordine completato o annullato): serve ai client che si aggiornano
+// con le sole differenze (GET /api/gantt/changes) per togliere il blocco; viene eliminata dopo qualche giorno
+@Entity
+public class GanttRemoval {
+    @Id
+    private Long executionId;
+
+    private Long orderId;
+
+    @Column(nullable = false)
+    private long planVersion;
+
+    @Column(nullable = false)
+    private LocalDateTime removedAt;
+
+    public GanttRemoval() {
+    }
+
+    public GanttRemoval(Long executionId, Long orderId, long planVersion, LocalDateTime removedAt) {
+        this.executionId = executionId;
+        this.orderId = orderId;
+        this.planVersion = planVersion;
+        this.removedAt = removedAt;
+    }
+
+    public Long getExecutionId() {
+        return executionId;
+    }
+
+    public void setExecutionId(Long executionId) {
+        this.executionId = executionId;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public long getPlanVersion() {
+        return planVersion;
+    }
+
+    public void setPlanVersion(long planVersion) {
+        this.planVersion = planVersion;
+    }
+
+    public LocalDateTime getRemovedAt() {
+        return removedAt;
+    }
+
+    public void setRemovedAt(LocalDateTime removedAt) {
+        this.removedAt = removedAt;
+    }
+}
@@ -0,0 +1,30 @@
+package server_group.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+// ampiezza dei gruppi del carico macchine (gantt visto da lontano)
+public enum LoadBucket {
+    DAY,
+    WEEK,
+    MONTH;
+
+    // primo giorno del gruppo che contiene date (le settimane partono dal lunedì)
+    public LocalDate start(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    // primo giorno del gruppo successivo
+    public LocalDate next(LocalDate start) {
+        return switch (this) {
+            case DAY -> start.plusDays(1);
+            case WEEK -> start.plusWeeks(1);
+            case MONTH -> start.plusMonths(1);
+        };
+    }
+}
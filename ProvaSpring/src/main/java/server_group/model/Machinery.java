@@ -14,6 +14,10 @@ public class Machinery {
     private LocalDate buyDate;
     private String yearManufacture;
     private String capacity;
+    // quante execution la macchina può lavorare in parallelo (multi-mandrino, forni a lotti), null = 1
+    private Integer parallelCapacity;
+    // macchine identiche con lo stesso gruppo possono dividersi i lotti di uno step
+    private String machineGroup;
 
     public Long getId() {
         return id;
@@ -54,5 +58,21 @@ public class Machinery {
     public void setCapacity(String capacity) {
         this.capacity = capacity;
     }
+
+    public Integer getParallelCapacity() {
+        return parallelCapacity;
+    }
+
+    public void setParallelCapacity(Integer parallelCapacity) {
+        this.parallelCapacity = parallelCapacity;
+    }
+
+    public String getMachineGroup() {
+        return machineGroup;
+    }
+
+    public void setMachineGroup(String machineGroup) {
+        this.machineGroup = machineGroup;
+    }
 }
 
@@ -1,9 +1,16 @@
 package server_group.model;
 
 import jakarta.persistence.*;
+import server_group.security.Role;
+
+import java.time.LocalDateTime;
 
 @Entity
 public class Notice {
+    // categorie come le vedono gli utenti diversi dal creatore; "PersonalNotice" dipende da chi guarda e non si salva
+    public static final String DELAY = "DelayNotice";
+    public static final String PERSONAL = "PersonalNotice";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -17,6 +24,36 @@ public class Notice {
     @Column(columnDefinition = "TEXT")
     private String description;
 
+    // calcolata al salvataggio, così la bacheca può filtrare e contare per categoria nel database
+    @Column(length = 32)
+    private String category;
+
+    private LocalDateTime createdAt;
+
+    public static String categoryOf(String subject, Role creatorRole) {
+        if (subject != null && subject.contains("Delay")) {
+            return DELAY;
+        }
+        if (creatorRole == null) {
+            return "Other";
+        }
+        return switch (creatorRole) {
+            case EMPLOYEE -> "EmployeeNotice";
+            case MANAGER -> "ManagerNotice";
+            case ACCOUNTANT -> "AccountantNotice";
+        };
+    }
+
+    @PrePersist
+    void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (category == null) {
+            category = categoryOf(subject, creator != null ? creator.getRole() : null);
+        }
+    }
+
     public Long getId() {
         return id;
     }
@@ -48,4 +85,20 @@ public class Notice {
     public void setDescription(String description) {
         this.description = description;
     }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
 }
@@ -1,8 +1,10 @@
 package server_group.model;
 
+import server_group.service.SchedulingResult;
+
 public class OrderCompletedState implements OrderState{
     @Override
-    public void startProduction(Order order) {
+    public SchedulingResult startProduction(Order order) {
         throw new IllegalStateException("The order is already completed!");
     }
 
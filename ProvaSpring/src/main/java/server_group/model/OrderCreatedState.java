@@ -1,6 +1,7 @@
 package server_group.model;
 
 import server_group.service.OrderProductionService;
+import server_group.service.SchedulingResult;
 
 import java.time.LocalDate;
 
@@ -12,15 +13,16 @@ public class OrderCreatedState implements OrderState{
     }
 
     @Override
-    public void startProduction(Order order) {
+    public SchedulingResult startProduction(Order order) {
         // scheduling
-        productionService.startProduction(order);
+        SchedulingResult result = productionService.startProduction(order);
 
         //va messo dopo in modo che venga cambiato lo stato SOLO se va a buon fire lo scheduling
         order.setStatus(OrderStatus.IN_PRODUCTION);
         order.setStartDate(LocalDate.now());
         order.setState(new OrderInProductionState(productionService));
         System.out.println("Order set in production!");
+        return result;
     }
 
     @Override
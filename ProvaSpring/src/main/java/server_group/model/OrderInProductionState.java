@@ -1,6 +1,7 @@
 package server_group.model;
 
 import server_group.service.OrderProductionService;
+import server_group.service.SchedulingResult;
 
 public class OrderInProductionState implements OrderState{
     private final OrderProductionService productionService;
@@ -10,7 +11,7 @@ public class OrderInProductionState implements OrderState{
     }
 
     @Override
-    public void startProduction(Order order) {
+    public SchedulingResult startProduction(Order order) {
         throw new IllegalStateException("The order is already in production!");
     }
 
@@ -1,7 +1,9 @@
 package server_group.model;
 
+import server_group.service.SchedulingResult;
+
 public interface OrderState {
-    void startProduction(Order order);
+    SchedulingResult startProduction(Order order);
     void complete(Order order);
     void cancel(Order order);
     String getName();
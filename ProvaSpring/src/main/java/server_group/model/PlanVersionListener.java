@@ -0,0 +1,35 @@
+package server_group.model;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import server_group.service.PlanChangeLog;
+
+// ogni execution inserita o modificata prende una nuova versione del piano, qualunque sia il servizio che la salva
+// (hibernate crea il listener tramite spring, per questo è un @Component; @Lazy perché PlanChangeLog usa i repository,
+// che a loro volta aspettano hibernate)
+@Component
+public class PlanVersionListener {
+
+    private final PlanChangeLog changeLog;
+
+    public PlanVersionListener(@Lazy PlanChangeLog changeLog) {
+        this.changeLog = changeLog;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void stamp(ProcessStepExecution execution) {
+        execution.setPlanVersion(changeLog.next());
+    }
+
+    // a scrittura avvenuta (id già assegnato): entra tra le modifiche da pubblicare dopo il commit
+    @PostPersist
+    @PostUpdate
+    public void changed(ProcessStepExecution execution) {
+        changeLog.changed(execution);
+    }
+}
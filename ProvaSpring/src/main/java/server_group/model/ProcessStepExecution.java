@@ -3,8 +3,10 @@ package server_group.model;
 import jakarta.persistence.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(PlanVersionListener.class)
 public class ProcessStepExecution {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -16,18 +18,36 @@ public class ProcessStepExecution {
 
     private String machineryName;
 
+    // corsia della macchina su cui gira (0 .. capacità - 1), null per le execution precedenti = 0
+    private Integer lane;
+
     private int stepIndex;
 
+    // lotto dello step quando l'ordine è diviso su più macchine (null = step intero)
+    private Integer lotIndex;
+    private Integer lotCount;
+    private Integer lotQuantity;
+
     private LocalDate scheduledStart;
     private LocalDate scheduledEnd;
 
     private LocalDate actualStart;
     private LocalDate actualEnd;
 
+    // stessi intervalli al minuto (schedulazione sui turni), le date sopra restano per i client
+    private LocalDateTime scheduledStartTime;
+    private LocalDateTime scheduledEndTime;
+
+    private LocalDateTime actualStartTime;
+    private LocalDateTime actualEndTime;
+
     @ManyToOne
     @JoinColumn(name = "assigned_employee_id")
     private CustomUser assignedEmployee;
 
+    // versione del piano all'ultimo inserimento / modifica, assegnata da PlanVersionListener
+    private Long planVersion;
+
     public Long getId() {
         return id;
     }
@@ -52,6 +72,14 @@ public class ProcessStepExecution {
         this.machineryName = machineryName;
     }
 
+    public Integer getLane() {
+        return lane;
+    }
+
+    public void setLane(Integer lane) {
+        this.lane = lane;
+    }
+
     public int getStepIndex() {
         return stepIndex;
     }
@@ -60,6 +88,30 @@ public class ProcessStepExecution {
         this.stepIndex = stepIndex;
     }
 
+    public Integer getLotIndex() {
+        return lotIndex;
+    }
+
+    public void setLotIndex(Integer lotIndex) {
+        this.lotIndex = lotIndex;
+    }
+
+    public Integer getLotCount() {
+        return lotCount;
+    }
+
+    public void setLotCount(Integer lotCount) {
+        this.lotCount = lotCount;
+    }
+
+    public Integer getLotQuantity() {
+        return lotQuantity;
+    }
+
+    public void setLotQuantity(Integer lotQuantity) {
+        this.lotQuantity = lotQuantity;
+    }
+
     public LocalDate getScheduledStart() {
         return scheduledStart;
     }
@@ -92,6 +144,38 @@ public class ProcessStepExecution {
         this.actualEnd = actualEnd;
     }
 
+    public LocalDateTime getScheduledStartTime() {
+        return scheduledStartTime;
+    }
+
+    public void setScheduledStartTime(LocalDateTime scheduledStartTime) {
+        this.scheduledStartTime = scheduledStartTime;
+    }
+
+    public LocalDateTime getScheduledEndTime() {
+        return scheduledEndTime;
+    }
+
+    public void setScheduledEndTime(LocalDateTime scheduledEndTime) {
+        this.scheduledEndTime = scheduledEndTime;
+    }
+
+    public LocalDateTime getActualStartTime() {
+        return actualStartTime;
+    }
+
+    public void setActualStartTime(LocalDateTime actualStartTime) {
+        this.actualStartTime = actualStartTime;
+    }
+
+    public LocalDateTime getActualEndTime() {
+        return actualEndTime;
+    }
+
+    public void setActualEndTime(LocalDateTime actualEndTime) {
+        this.actualEndTime = actualEndTime;
+    }
+
     public CustomUser getAssignedEmployee() {
         return assignedEmployee;
     }
@@ -99,4 +183,12 @@ public class ProcessStepExecution {
     public void setAssignedEmployee(CustomUser assignedEmployee) {
         this.assignedEmployee = assignedEmployee;
     }
-}
\ No newline at end of file
+
+    public Long getPlanVersion() {
+        return planVersion;
+    }
+
+    public void setPlanVersion(Long planVersion) {
+        this.planVersion = planVersion;
+    }
+}
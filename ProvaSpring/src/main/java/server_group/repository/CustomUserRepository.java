@@ -6,6 +6,7 @@ import server_group.model.CustomUser;
 import server_group.model.CustomUserDetails;
 import server_group.security.Role;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +15,9 @@ public interface CustomUserRepository extends JpaRepository<CustomUser, String>
     Optional<CustomUser> findByEmail(String email);
     boolean existsByEmail(String email);
 
+    // più utenti in una sola query (assegnazioni del gantt salvate insieme)
+    List<CustomUser> findByEmailIn(Collection<String> emails);
+
     List<CustomUser> findByRole(Role role);
 
 }
@@ -0,0 +1,17 @@
+package server_group.repository;
+
+import server_group.model.OrderStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface GanttLoadRepository {
+
+    // intervallo occupato da un blocco: gli orari al minuto se ci sono, altrimenti solo le date
+    record LoadInterval(String machineryName, LocalDate start, LocalDate end,
+                        LocalDateTime startTime, LocalDateTime endTime, int lanes) {}
+
+    // blocchi che toccano [from, to], con le corsie della loro macchina: solo i campi che servono al carico
+    List<LoadInterval> findLoadIntervals(OrderStatus status, LocalDate from, LocalDate to);
+}
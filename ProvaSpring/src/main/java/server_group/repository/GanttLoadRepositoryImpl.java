@@ -0,0 +1,62 @@
+package server_group.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import server_group.model.OrderStatus;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// query nativa perché le corsie arrivano da machinery unita per nome; il raggruppamento per giorno/settimana/mese
+// si fa in MachineLoadAggregator, che conosce i turni del calendario lavorativo
+public class GanttLoadRepositoryImpl implements GanttLoadRepository {
+
+    private final EntityManager entityManager;
+
+    public GanttLoadRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<LoadInterval> findLoadIntervals(OrderStatus status, LocalDate from, LocalDate to) {
+        String sql = "select e.machinery_name, e.actual_start, e.actual_end, e.actual_start_time, e.actual_end_time,"
+                + " coalesce(m.lanes, 1)"
+                + " from process_step_execution e"
+                + " join orders o on o.id = e.order_id"
+                + " left join (select name, max(parallel_capacity) as lanes from machinery group by name) m"
+                + " on m.name = e.machinery_name"
+                // stessa condizione di findGanttBlocksInWindow, usa idx_execution_actual_window
+                + " where o.status = :status and e.actual_start <= :to and e.actual_end >= :from";
+
+        Query query = entityManager.createNativeQuery(sql);
+        query.setParameter("status", status.name());
+        query.setParameter("from", from);
+        query.setParameter("to", to);
+
+        List<LoadInterval> intervals = new ArrayList<>();
+        for (Object row : query.getResultList()) {
+            Object[] columns = (Object[]) row;
+            intervals.add(new LoadInterval((String) columns[0], toLocalDate(columns[1]), toLocalDate(columns[2]),
+                    toLocalDateTime(columns[3]), toLocalDateTime(columns[4]), ((Number) columns[5]).intValue()));
+        }
+        return intervals;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof Date date) {
+            return date.toLocalDate();
+        }
+        return (LocalDate) value;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+}
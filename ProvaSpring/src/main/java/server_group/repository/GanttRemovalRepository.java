@@ -0,0 +1,30 @@
+package server_group.repository;
+
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import server_group.model.GanttRemoval;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface GanttRemovalRepository extends JpaRepository<GanttRemoval, Long> {
+
+    @Query("SELECT r.executionId FROM GanttRemoval r WHERE r.planVersion > :since")
+    List<Long> findExecutionIdsRemovedSince(@Param("since") long since);
+
+    @Query("SELECT COALESCE(MAX(r.planVersion), 0) FROM GanttRemoval r")
+    long findMaxPlanVersion();
+
+    @Query("SELECT MAX(r.planVersion) FROM GanttRemoval r WHERE r.removedAt < :cutoff")
+    Long findMaxPlanVersionRemovedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM GanttRemoval r WHERE r.removedAt < :cutoff")
+    int deleteRemovedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -4,9 +4,15 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import server_group.model.Machinery;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface MachineryRepository extends JpaRepository<Machinery, Long> {
     Optional<Machinery> findByName(String name);
+
+    List<Machinery> findByMachineGroup(String machineGroup);
+
+    List<Machinery> findByMachineGroupIn(Collection<String> machineGroups);
 }
@@ -0,0 +1,26 @@
+package server_group.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// filtri della bacheca, null = non filtrare
+// viewerEmail serve per la categoria "PersonalNotice", che dipende da chi guarda
+public record NoticeFilter(String viewerEmail, String category, String creatorEmail, String subject,
+                           String text, LocalDateTime from, LocalDateTime to) {
+
+    // dai parametri della richiesta: stringhe vuote ignorate, date intere (to compreso)
+    public static NoticeFilter of(String viewerEmail, String category, String creatorEmail, String subject,
+                                  String text, LocalDate from, LocalDate to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        return new NoticeFilter(blankToNull(viewerEmail), blankToNull(category), blankToNull(creatorEmail),
+                blankToNull(subject), blankToNull(text),
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
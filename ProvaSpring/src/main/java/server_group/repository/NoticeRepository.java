@@ -7,7 +7,7 @@ import server_group.model.Notice;
 import java.util.List;
 
 @Repository
-public interface NoticeRepository extends JpaRepository<Notice, Long> {
+public interface NoticeRepository extends JpaRepository<Notice, Long>, NoticeSearchRepository {
     List<Notice> findByCreatorRole(String role);
     List<Notice> findAll();
 }
@@ -0,0 +1,15 @@
+package server_group.repository;
+
+import server_group.dto.NoticeDTO;
+
+import java.util.List;
+import java.util.Map;
+
+public interface NoticeSearchRepository {
+
+    // avvisi per id decrescente, solo quelli con id < before (se c'è): la pagina successiva parte dall'ultimo id
+    List<NoticeDTO> searchNotices(NoticeFilter filter, Long before, int limit);
+
+    // numero di avvisi per categoria (come la vede chi guarda), con gli stessi filtri tranne la categoria
+    Map<String, Long> countNoticesByCategory(NoticeFilter filter);
+}
@@ -0,0 +1,134 @@
+package server_group.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import server_group.dto.NoticeDTO;
+import server_group.model.Notice;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// query native costruite con i soli filtri presenti: così ogni filtro usa il suo indice (V4__notice_search.sql)
+// e la ricerca a testo libero può usare l'operatore @@ di postgres, che JPQL non conosce
+public class NoticeSearchRepositoryImpl implements NoticeSearchRepository {
+
+    // deve restare uguale all'espressione dell'indice idx_notice_description_fts
+    static final String DESCRIPTION_TSVECTOR = "to_tsvector('simple', coalesce(n.description, ''))";
+
+    private final EntityManager entityManager;
+
+    public NoticeSearchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<NoticeDTO> searchNotices(NoticeFilter filter, Long before, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        List<String> where = conditions(filter, true, params);
+        if (before != null) {
+            where.add("n.id < :before");
+            params.put("before", before);
+        }
+        String sql = "select n.id, u.email, u.name, u.surname, n.subject, n.description, "
+                + viewerCategory(filter, params) + ", n.created_at"
+                + " from notice n join custom_user u on u.email = n.creator_email"
+                + whereClause(where)
+                + " order by n.id desc";
+
+        Query query = entityManager.createNativeQuery(sql);
+        params.forEach(query::setParameter);
+        query.setMaxResults(limit);
+
+        List<NoticeDTO> notices = new ArrayList<>();
+        for (Object row : query.getResultList()) {
+            Object[] columns = (Object[]) row;
+            notices.add(new NoticeDTO(((Number) columns[0]).longValue(), (String) columns[1], (String) columns[2],
+                    (String) columns[3], (String) columns[4], (String) columns[5], (String) columns[6],
+                    toLocalDateTime(columns[7])));
+        }
+        return notices;
+    }
+
+    @Override
+    public Map<String, Long> countNoticesByCategory(NoticeFilter filter) {
+        Map<String, Object> params = new HashMap<>();
+        List<String> where = conditions(filter, false, params);
+        String sql = "select " + viewerCategory(filter, params) + ", count(*) from notice n"
+                + whereClause(where)
+                + " group by 1";
+
+        Query query = entityManager.createNativeQuery(sql);
+        params.forEach(query::setParameter);
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Object row : query.getResultList()) {
+            Object[] columns = (Object[]) row;
+            counts.put((String) columns[0], ((Number) columns[1]).longValue());
+        }
+        return counts;
+    }
+
+    private List<String> conditions(NoticeFilter filter, boolean withCategory, Map<String, Object> params) {
+        List<String> where = new ArrayList<>();
+        if (withCategory && filter.category() != null) {
+            if (Notice.PERSONAL.equals(filter.category())) {
+                where.add("n.creator_email = :viewer and n.category <> '" + Notice.DELAY + "'");
+                params.put("viewer", filter.viewerEmail());
+            } else {
+                where.add("n.category = :category");
+                params.put("category", filter.category());
+                // gli avvisi di chi guarda stanno tra i personali, tranne i ritardi
+                if (filter.viewerEmail() != null && !Notice.DELAY.equals(filter.category())) {
+                    where.add("n.creator_email <> :viewer");
+                    params.put("viewer", filter.viewerEmail());
+                }
+            }
+        }
+        if (filter.creatorEmail() != null) {
+            where.add("n.creator_email = :creator");
+            params.put("creator", filter.creatorEmail());
+        }
+        if (filter.subject() != null) {
+            where.add("lower(n.subject) like :subject escape '\\'");
+            params.put("subject", "%" + escapeLike(filter.subject().toLowerCase(Locale.ROOT)) + "%");
+        }
+        if (filter.text() != null) {
+            where.add(DESCRIPTION_TSVECTOR + " @@ plainto_tsquery('simple', :text)");
+            params.put("text", filter.text());
+        }
+        if (filter.from() != null) {
+            where.add("n.created_at >= :from");
+            params.put("from", filter.from());
+        }
+        if (filter.to() != null) {
+            where.add("n.created_at < :to");
+            params.put("to", filter.to());
+        }
+        return where;
+    }
+
+    private String viewerCategory(NoticeFilter filter, Map<String, Object> params) {
+        if (filter.viewerEmail() == null) {
+            return "n.category";
+        }
+        params.put("viewer", filter.viewerEmail());
+        return "case when n.category <> '" + Notice.DELAY + "' and n.creator_email = :viewer then '"
+                + Notice.PERSONAL + "' else n.category end";
+    }
+
+    private static String whereClause(List<String> where) {
+        return where.isEmpty() ? "" : " where " + String.join(" and ", where);
+    }
+
+    static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+}
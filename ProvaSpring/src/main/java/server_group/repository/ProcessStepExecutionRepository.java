@@ -6,15 +6,18 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import server_group.dto.GanttBlockDTO;
+import server_group.dto.GanttOrderFacetDTO;
 import server_group.model.CustomUser;
 import server_group.model.OrderStatus;
 import server_group.model.ProcessStepExecution;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface ProcessStepExecutionRepository extends JpaRepository<ProcessStepExecution, Long> {
+public interface ProcessStepExecutionRepository extends JpaRepository<ProcessStepExecution, Long>, GanttLoadRepository {
     List<ProcessStepExecution> findByOrderIdOrderByStepIndex(Long orderId);
 
     @Query("""
@@ -26,6 +29,109 @@ public interface ProcessStepExecutionRepository extends JpaRepository<ProcessSte
 
     List<ProcessStepExecution> findByOrderId(Long orderId);
 
+    // blocchi del gantt in una sola query: solo le colonne che servono, niente entity da caricare
+    @Query("""
+        SELECT new server_group.dto.GanttBlockDTO(
+            e.id, o.id, e.machineryName, e.lane, e.stepIndex,
+            e.lotIndex, e.lotCount, e.lotQuantity,
+            e.scheduledStart, e.scheduledEnd, e.actualStart, e.actualEnd,
+            e.scheduledStartTime, e.scheduledEndTime, e.actualStartTime, e.actualEndTime,
+            u.email, u.name, u.surname)
+        FROM ProcessStepExecution e
+        JOIN e.order o
+        LEFT JOIN e.assignedEmployee u
+        WHERE o.status = :status
+        ORDER BY e.scheduledStart, e.scheduledStartTime NULLS FIRST, e.id
+        """)
+    List<GanttBlockDTO> findGanttBlocks(@Param("status") OrderStatus status);
+
+    // blocchi che si sovrappongono alla finestra [from, to] (indice su actual_start, actual_end)
+    @Query("""
+        SELECT new server_group.dto.GanttBlockDTO(
+            e.id, o.id, e.machineryName, e.lane, e.stepIndex,
+            e.lotIndex, e.lotCount, e.lotQuantity,
+            e.scheduledStart, e.scheduledEnd, e.actualStart, e.actualEnd,
+            e.scheduledStartTime, e.scheduledEndTime, e.actualStartTime, e.actualEndTime,
+            u.email, u.name, u.surname)
+        FROM ProcessStepExecution e
+        JOIN e.order o
+        LEFT JOIN e.assignedEmployee u
+        WHERE o.status = :status
+        AND e.actualStart <= :to AND e.actualEnd >= :from
+        ORDER BY e.scheduledStart, e.scheduledStartTime NULLS FIRST, e.id
+        """)
+    List<GanttBlockDTO> findGanttBlocksInWindow(@Param("status") OrderStatus status,
+                                                @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // come sopra ma solo per alcune macchine (indice su machinery_name, actual_start, actual_end)
+    @Query("""
+        SELECT new server_group.dto.GanttBlockDTO(
+            e.id, o.id, e.machineryName, e.lane, e.stepIndex,
+            e.lotIndex, e.lotCount, e.lotQuantity,
+            e.scheduledStart, e.scheduledEnd, e.actualStart, e.actualEnd,
+            e.scheduledStartTime, e.scheduledEndTime, e.actualStartTime, e.actualEndTime,
+            u.email, u.name, u.surname)
+        FROM ProcessStepExecution e
+        JOIN e.order o
+        LEFT JOIN e.assignedEmployee u
+        WHERE o.status = :status
+        AND e.machineryName IN :machinery
+        AND e.actualStart <= :to AND e.actualEnd >= :from
+        ORDER BY e.scheduledStart, e.scheduledStartTime NULLS FIRST, e.id
+        """)
+    List<GanttBlockDTO> findGanttBlocksInWindowForMachinery(@Param("status") OrderStatus status,
+                                                            @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                                            @Param("machinery") Collection<String> machinery);
+
+    // tutti i blocchi di un ordine (indice su order_id, step_index)
+    @Query("""
+        SELECT new server_group.dto.GanttBlockDTO(
+            e.id, o.id, e.machineryName, e.lane, e.stepIndex,
+            e.lotIndex, e.lotCount, e.lotQuantity,
+            e.scheduledStart, e.scheduledEnd, e.actualStart, e.actualEnd,
+            e.scheduledStartTime, e.scheduledEndTime, e.actualStartTime, e.actualEndTime,
+            u.email, u.name, u.surname)
+        FROM ProcessStepExecution e
+        JOIN e.order o
+        LEFT JOIN e.assignedEmployee u
+        WHERE o.status = :status AND o.id = :orderId
+        ORDER BY e.scheduledStart, e.scheduledStartTime NULLS FIRST, e.id
+        """)
+    List<GanttBlockDTO> findGanttBlocksForOrder(@Param("status") OrderStatus status, @Param("orderId") Long orderId);
+
+    // ordini che hanno blocchi nel gantt, con cliente e modello: una riga per ordine invece di tutti i blocchi
+    @Query("""
+        SELECT new server_group.dto.GanttOrderFacetDTO(
+            o.id, c.piva, c.companyName, m.name, o.quantity, o.startDate, o.deadline, COUNT(e))
+        FROM ProcessStepExecution e
+        JOIN e.order o
+        LEFT JOIN o.client c
+        LEFT JOIN o.model m
+        WHERE o.status = :status
+        GROUP BY o.id, c.piva, c.companyName, m.name, o.quantity, o.startDate, o.deadline
+        ORDER BY o.deadline, o.id
+        """)
+    List<GanttOrderFacetDTO> findGanttOrderFacets(@Param("status") OrderStatus status);
+
+    // blocchi inseriti o modificati dopo la versione del piano "since" (indice su plan_version)
+    @Query("""
+        SELECT new server_group.dto.GanttBlockDTO(
+            e.id, o.id, e.machineryName, e.lane, e.stepIndex,
+            e.lotIndex, e.lotCount, e.lotQuantity,
+            e.scheduledStart, e.scheduledEnd, e.actualStart, e.actualEnd,
+            e.scheduledStartTime, e.scheduledEndTime, e.actualStartTime, e.actualEndTime,
+            u.email, u.name, u.surname)
+        FROM ProcessStepExecution e
+        JOIN e.order o
+        LEFT JOIN e.assignedEmployee u
+        WHERE o.status = :status AND e.planVersion > :since
+        ORDER BY e.scheduledStart, e.scheduledStartTime NULLS FIRST, e.id
+        """)
+    List<GanttBlockDTO> findGanttBlocksChangedSince(@Param("status") OrderStatus status, @Param("since") long since);
+
+    @Query("SELECT COALESCE(MAX(e.planVersion), 0) FROM ProcessStepExecution e")
+    long findMaxPlanVersion();
+
     /*
     @Transactional
     @Modifying
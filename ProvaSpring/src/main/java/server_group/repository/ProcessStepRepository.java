@@ -1,6 +1,8 @@
 package server_group.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import server_group.model.Model;
 import server_group.model.ProcessStep;
@@ -16,4 +18,15 @@ public interface ProcessStepRepository extends JpaRepository<ProcessStep, Long>
     void deleteById(Long id);
     List<ProcessStep> findByModelAndStepOrderGreaterThanEqualOrderByStepOrderDesc(Model model, int order);
 
+    // step del modello con macchina, modello e grezzo in un'unica query
+    @Query("""
+        SELECT s FROM ProcessStep s
+        JOIN FETCH s.machinery
+        JOIN FETCH s.model m
+        LEFT JOIN FETCH m.raw
+        WHERE m.name = :modelName
+        ORDER BY s.stepOrder
+        """)
+    List<ProcessStep> findRoutingByModelName(@Param("modelName") String modelName);
+
 }
@@ -0,0 +1,21 @@
+package server_group.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.List;
+
+// utente autenticato come lo descrive il token, senza passare dal database
+public record JwtPrincipal(String email, String role, String fullName, Instant issuedAt, Instant expiresAt) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+}
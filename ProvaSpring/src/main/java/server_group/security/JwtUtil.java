@@ -1,47 +1,107 @@
 package server_group.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import server_group.model.CustomUserDetails;
 
-
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+// il token porta email, ruolo e nome: chi lo verifica non ha bisogno di leggere l'utente dal database
+// chiave e parser sono creati una volta sola, i token già verificati restano in una piccola cache LRU
 @Component
 public class JwtUtil {
 
     private final String SECRET = "12345678901234567890123456789012"; // andrebbe messo in application.properties ma per ora lo lascio qui. inoltre mi serve almeno lunga 32 caratteri
 
-    private final long EXPIRATION = 1000 * 60 * 60; // 1 ora
+    static final long EXPIRATION = 1000 * 60 * 60 * 10; // 10 ore
+    static final int CACHE_SIZE = 1024;
 
-    public String generateToken(UserDetails userDetails) {
-        Key key = Keys.hmacShaKeyFor(SECRET.getBytes());
+    static final String ROLE_CLAIM = "role";
+    static final String NAME_CLAIM = "name";
+
+    private final Key key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
 
-        return Jwts.builder()
+    // token -> utente già verificato; accesso in ordine di uso, il meno usato esce per primo
+    private final Map<String, JwtPrincipal> verified = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, JwtPrincipal> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    public String generateToken(UserDetails userDetails) {
+        long now = System.currentTimeMillis();
+        var builder = Jwts.builder()
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10)) // 10h
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
+                .claim(ROLE_CLAIM, roleOf(userDetails))
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + EXPIRATION))
+                .signWith(key, SignatureAlgorithm.HS256);
+        if (userDetails instanceof CustomUserDetails custom) {
+            builder.claim(NAME_CLAIM, custom.getUser().getName() + " " + custom.getUser().getSurname());
+        }
+        return builder.compact();
+    }
+
+    // una sola verifica della firma per token, poi basta la cache finché non scade
+    // JwtException se il token non è valido, scaduto o senza ruolo (emesso prima dei claim)
+    public JwtPrincipal verify(String token) {
+        JwtPrincipal principal;
+        synchronized (verified) {
+            principal = verified.get(token);
+        }
+        if (principal != null) {
+            if (principal.expiresAt().isAfter(Instant.now())) {
+                return principal;
+            }
+            synchronized (verified) {
+                verified.remove(token);
+            }
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (role == null || claims.getIssuedAt() == null) {
+            throw new JwtException("Token without role claim");
+        }
+        principal = new JwtPrincipal(claims.getSubject(), role, claims.get(NAME_CLAIM, String.class),
+                claims.getIssuedAt().toInstant(), claims.getExpiration().toInstant());
+        synchronized (verified) {
+            verified.put(token, principal);
+        }
+        return principal;
     }
 
     public String extractUsername(String token) {
-        Key key = Keys.hmacShaKeyFor(SECRET.getBytes()); // SECRET come stringa lunga
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();
+        return verify(token).getName();
+    }
+
+    int cachedTokens() {
+        synchronized (verified) {
+            return verified.size();
+        }
     }
 
-    public boolean validateToken(String token, UserDetails userDetails) {
-        String username = extractUsername(token);
-        return username.equals(userDetails.getUsername());
+    private static String roleOf(UserDetails userDetails) {
+        for (GrantedAuthority authority : userDetails.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name.startsWith("ROLE_")) {
+                return name.substring(5);
+            }
+        }
+        throw new IllegalArgumentException("User " + userDetails.getUsername() + " has no role");
     }
 }
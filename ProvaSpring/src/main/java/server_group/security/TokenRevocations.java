@@ -0,0 +1,31 @@
+package server_group.security;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// i token sono validi fino alla scadenza anche se l'utente cambia ruolo o viene eliminato:
+// qui si segna da quando i token di un utente non valgono più, chi rientra ne riceve uno nuovo
+// solo in memoria: dopo un riavvio restano validi i token non scaduti (al massimo JwtUtil.EXPIRATION)
+@Component
+public class TokenRevocations {
+
+    private final Map<String, Instant> revokedBefore = new ConcurrentHashMap<>();
+
+    public void revoke(String email) {
+        Instant now = Instant.now();
+        // issuedAt nel token è al secondo
+        revokedBefore.put(email, now.truncatedTo(ChronoUnit.SECONDS));
+        // oltre la durata di un token la revoca non serve più
+        Instant expired = now.minusMillis(JwtUtil.EXPIRATION);
+        revokedBefore.values().removeIf(at -> at.isBefore(expired));
+    }
+
+    public boolean isRevoked(JwtPrincipal principal) {
+        Instant at = revokedBefore.get(principal.email());
+        return at != null && principal.issuedAt().isBefore(at);
+    }
+}
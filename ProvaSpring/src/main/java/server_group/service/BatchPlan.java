@@ -0,0 +1,45 @@
+package server_group.service;
+
+import server_group.model.Order;
+
+import java.util.List;
+
+// pianificazione di un gruppo di ordini in una certa sequenza
+public class BatchPlan {
+
+    private final List<Order> sequence;
+    private final List<SchedulingResult> accepted;
+    private final List<SchedulingResult> late;
+
+    public BatchPlan(List<Order> sequence, List<SchedulingResult> accepted, List<SchedulingResult> late) {
+        this.sequence = sequence;
+        this.accepted = accepted;
+        this.late = late;
+    }
+
+    public List<Order> getSequence() {
+        return sequence;
+    }
+
+    public List<SchedulingResult> getAccepted() {
+        return accepted;
+    }
+
+    // ordini che in questa sequenza non rientrano nella deadline
+    public List<SchedulingResult> getLate() {
+        return late;
+    }
+
+    // somma degli istanti di fine degli ordini accettati (in minuti), più è bassa prima si libera il reparto
+    public long getTotalCompletion() {
+        return accepted.stream().mapToLong(r -> MachineTimeline.tick(r.getCompletionTime())).sum();
+    }
+
+    // prima conta il numero di ordini che rientrano nella deadline, poi quanto presto finiscono
+    public boolean isBetterThan(BatchPlan other) {
+        if (accepted.size() != other.accepted.size()) {
+            return accepted.size() > other.accepted.size();
+        }
+        return getTotalCompletion() < other.getTotalCompletion();
+    }
+}
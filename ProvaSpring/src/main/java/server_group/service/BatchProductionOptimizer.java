@@ -0,0 +1,75 @@
+package server_group.service;
+
+import org.springframework.stereotype.Component;
+import server_group.dto.ModelWithStepsDTO;
+import server_group.model.Order;
+
+import java.util.*;
+import java.util.function.Function;
+
+// pianifica insieme più ordini: sequenza iniziale earliest-deadline-first,
+// poi ricerca locale scambiando coppie di ordini finché la pianificazione migliora
+@Component
+public class BatchProductionOptimizer {
+
+    // limite al numero di pianificazioni complete provate dalla ricerca locale
+    static final int MAX_EVALUATIONS = 500;
+
+    static final Comparator<Order> EARLIEST_DEADLINE_FIRST = Comparator
+            .comparing(Order::getDeadline, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Order::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final GapFillingScheduler scheduler;
+
+    public BatchProductionOptimizer(GapFillingScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    public BatchPlan optimize(List<Order> orders, Function<Order, List<ModelWithStepsDTO.ProcessStepDTO>> routing, PlanningBoard board) {
+        List<Order> sequence = new ArrayList<>(orders);
+        sequence.sort(EARLIEST_DEADLINE_FIRST);
+
+        BatchPlan best = evaluate(sequence, routing, board);
+        int evaluations = 1;
+
+        boolean improved = true;
+        while (improved && evaluations < MAX_EVALUATIONS) {
+            improved = false;
+            for (int i = 0; i < sequence.size() - 1 && !improved && evaluations < MAX_EVALUATIONS; i++) {
+                for (int j = i + 1; j < sequence.size() && evaluations < MAX_EVALUATIONS; j++) {
+                    Collections.swap(sequence, i, j);
+                    BatchPlan candidate = evaluate(sequence, routing, board);
+                    evaluations++;
+                    if (candidate.isBetterThan(best)) {
+                        best = candidate;
+                        improved = true;
+                        break;
+                    }
+                    Collections.swap(sequence, i, j);
+                }
+            }
+        }
+        return best;
+    }
+
+    // pianifica la sequenza sulla board e poi la riporta allo stato iniziale
+    BatchPlan evaluate(List<Order> sequence, Function<Order, List<ModelWithStepsDTO.ProcessStepDTO>> routing, PlanningBoard board) {
+        List<SchedulingResult> accepted = new ArrayList<>();
+        List<SchedulingResult> late = new ArrayList<>();
+
+        for (Order order : sequence) {
+            SchedulingResult result = scheduler.plan(order, routing.apply(order), board);
+            if (result.meetsDeadline()) {
+                accepted.add(result);
+            } else {
+                // un ordine in ritardo viene rifiutato e non occupa le macchine per quelli dopo
+                board.release(result.getReservations());
+                late.add(result);
+            }
+        }
+        for (SchedulingResult result : accepted) {
+            board.release(result.getReservations());
+        }
+        return new BatchPlan(List.copyOf(sequence), accepted, late);
+    }
+}
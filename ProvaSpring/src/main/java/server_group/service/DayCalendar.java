@@ -0,0 +1,33 @@
+package server_group.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// comportamento storico: ogni step inizia a mezzanotte e occupa giorni interi da 8 ore lavorative,
+// anche se dura pochi minuti; weekend e festivi non vengono considerati
+public class DayCalendar implements WorkingCalendar {
+
+    static final long WORKING_MINUTES_PER_DAY = 8 * 60;
+
+    @Override
+    public LocalDateTime nextWorkingTime(LocalDateTime time) {
+        LocalDateTime midnight = time.toLocalDate().atStartOfDay();
+        return midnight.equals(time) ? time : midnight.plusDays(1);
+    }
+
+    @Override
+    public LocalDateTime addWorkingMinutes(LocalDateTime start, long workMinutes) {
+        long days = (workMinutes + WORKING_MINUTES_PER_DAY - 1) / WORKING_MINUTES_PER_DAY;
+        return start.plusDays(Math.max(days, 1));
+    }
+
+    // ogni giorno iniziato vale una giornata lavorativa
+    @Override
+    public long workingMinutesBetween(LocalDateTime from, LocalDateTime to) {
+        long minutes = Duration.between(from, to).toMinutes();
+        if (minutes <= 0) {
+            return 0;
+        }
+        return (minutes + 24 * 60 - 1) / (24 * 60) * WORKING_MINUTES_PER_DAY;
+    }
+}
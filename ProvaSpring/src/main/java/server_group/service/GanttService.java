@@ -1,9 +1,15 @@
 package server_group.service;
 
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import server_group.dto.GanttBlockDTO;
+import server_group.dto.GanttChangesDTO;
+import server_group.dto.GanttOrderFacetDTO;
+import server_group.dto.GanttUpdateErrorDTO;
+import server_group.dto.MachineLoadDTO;
 import server_group.dto.ModelWithStepsDTO;
+import server_group.model.LoadBucket;
 import server_group.model.Order;
 import server_group.model.OrderStatus;
 import server_group.model.ProcessStep;
@@ -13,6 +19,7 @@ import server_group.repository.CustomUserRepository;
 import server_group.repository.OrderRepository;
 import server_group.repository.ProcessStepExecutionRepository;
 import server_group.repository.ProcessStepRepository;
+import server_group.security.Role;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -23,10 +30,18 @@ public class GanttService {
 
     private final ProcessStepExecutionRepository executionRepository;
     private final CustomUserRepository customUserRepository;
+    private final MachineAvailabilityIndex availabilityIndex;
+    private final ReschedulePropagator reschedulePropagator;
+    private final PlanChangeLog changeLog;
+    private final WorkingCalendar calendar;
 
-    public GanttService(ProcessStepExecutionRepository executionRepository, CustomUserRepository customUserRepository) {
+    public GanttService(ProcessStepExecutionRepository executionRepository, CustomUserRepository customUserRepository, MachineAvailabilityIndex availabilityIndex, ReschedulePropagator reschedulePropagator, PlanChangeLog changeLog, WorkingCalendar calendar) {
         this.executionRepository = executionRepository;
         this.customUserRepository = customUserRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.reschedulePropagator = reschedulePropagator;
+        this.changeLog = changeLog;
+        this.calendar = calendar;
     }
 
     /*
@@ -86,36 +101,97 @@ public class GanttService {
         return calculateGanttFromOrder(order, modelDto);
     }*/
 
+    // estremi usati quando la finestra è aperta da un lato (LocalDate.MIN/MAX non stanno in una colonna date)
+    static final LocalDate OPEN_FROM = LocalDate.of(1970, 1, 1);
+    static final LocalDate OPEN_TO = LocalDate.of(9999, 12, 31);
+    // gruppi per macchina in una richiesta di carico: oltre serve un gruppo più largo
+    static final int MAX_LOAD_BUCKETS = 400;
+
+    // ordinati per inizio pianificato direttamente dalla query
     public List<GanttBlockDTO> getAllScheduledGanttBlocks() {
-        List<ProcessStepExecution> executions = executionRepository.findByOrderStatus(OrderStatus.IN_PRODUCTION);
-        List<GanttBlockDTO> blocks = new ArrayList<>();
+        return executionRepository.findGanttBlocks(OrderStatus.IN_PRODUCTION);
+    }
 
-        // ordina per data di inizio
-        executions.sort(Comparator.comparing(ProcessStepExecution::getScheduledStart));
+    // ordini del gantt per il filtro del client, in ordine di scadenza
+    public List<GanttOrderFacetDTO> getOrderFacets() {
+        return executionRepository.findGanttOrderFacets(OrderStatus.IN_PRODUCTION);
+    }
 
-        for (ProcessStepExecution exec : executions) {
-            GanttBlockDTO block = new GanttBlockDTO();
-            block.setExecutionId(exec.getId());
-            block.setOrderId(exec.getOrder().getId());
-            block.setMachineryName(exec.getMachineryName());
-            block.setStepName("Step " + exec.getStepIndex());
-            block.setScheduledStart(exec.getScheduledStart());
-            block.setScheduledEnd(exec.getScheduledEnd());
-            // inizialmente actual = scheduled
-            block.setActualStart(exec.getActualStart());
-            block.setActualEnd(exec.getActualEnd());
-            block.setStepOrder(exec.getStepIndex());
-
-            CustomUser assigned = exec.getAssignedEmployee();
-            if (assigned != null) {
-                block.setAssignedEmployeeEmail(assigned.getEmail());
-                block.setAssignedEmployeeFullName(assigned.getName() + " " + assigned.getSurname());
+    // carico delle macchine nella finestra [from, to] a gruppi di giorni, settimane o mesi (gantt visto da lontano);
+    // il limite sul numero di gruppi tiene piccola la risposta qualunque sia lo zoom del client
+    public List<MachineLoadDTO> getMachineLoad(LocalDate from, LocalDate to, LoadBucket bucket) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("from and to are required");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        LoadBucket unit = bucket != null ? bucket : LoadBucket.DAY;
+        int buckets = 0;
+        for (LocalDate start = unit.start(from); !start.isAfter(to); start = unit.next(start)) {
+            if (++buckets > MAX_LOAD_BUCKETS) {
+                throw new IllegalArgumentException("window too wide for " + unit + " buckets");
             }
+        }
+        return MachineLoadAggregator.aggregate(executionRepository.findLoadIntervals(OrderStatus.IN_PRODUCTION, from, to),
+                from, to, unit, calendar);
+    }
 
-            blocks.add(block);
+    // blocchi visibili nella finestra [from, to], eventualmente solo di alcune macchine o di un ordine
+    // tutti i filtri sono opzionali: senza filtri è il gantt completo
+    public List<GanttBlockDTO> getScheduledGanttBlocks(LocalDate from, LocalDate to, List<String> machinery, Long orderId) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        boolean byMachinery = machinery != null && !machinery.isEmpty();
+
+        if (orderId != null) {
+            // un ordine ha pochi blocchi: gli altri filtri si applicano qui
+            return executionRepository.findGanttBlocksForOrder(OrderStatus.IN_PRODUCTION, orderId).stream()
+                    .filter(block -> !byMachinery || machinery.contains(block.getMachineryName()))
+                    .filter(block -> from == null || block.getActualEnd() == null || !block.getActualEnd().isBefore(from))
+                    .filter(block -> to == null || block.getActualStart() == null || !block.getActualStart().isAfter(to))
+                    .toList();
+        }
+        if (from == null && to == null && !byMachinery) {
+            return getAllScheduledGanttBlocks();
         }
 
-        return blocks;
+        LocalDate windowFrom = from != null ? from : OPEN_FROM;
+        LocalDate windowTo = to != null ? to : OPEN_TO;
+        return byMachinery
+                ? executionRepository.findGanttBlocksInWindowForMachinery(OrderStatus.IN_PRODUCTION, windowFrom, windowTo, machinery)
+                : executionRepository.findGanttBlocksInWindow(OrderStatus.IN_PRODUCTION, windowFrom, windowTo);
+    }
+
+    // versione del piano da leggere prima di caricare il gantt: è il "since" per la prima richiesta di differenze
+    public long currentPlanVersion() {
+        return changeLog.stableVersion();
+    }
+
+    // solo i blocchi inseriti, modificati o cancellati dopo la versione since
+    public GanttChangesDTO getChangesSince(long since) {
+        long version = changeLog.stableVersion();
+        if (since < changeLog.prunedThrough() || since > version) {
+            // cancellazioni non più note, oppure versione di un altro avvio del server
+            return new GanttChangesDTO(version, true, List.of(), List.of());
+        }
+        return new GanttChangesDTO(version, false,
+                executionRepository.findGanttBlocksChangedSince(OrderStatus.IN_PRODUCTION, since),
+                changeLog.removedSince(since));
+    }
+
+    // usato anche dalla simulazione e dopo le modifiche, per execution già in memoria
+    static GanttBlockDTO toBlock(ProcessStepExecution exec) {
+        CustomUser assigned = exec.getAssignedEmployee();
+        return new GanttBlockDTO(exec.getId(), exec.getOrder() != null ? exec.getOrder().getId() : null,
+                exec.getMachineryName(), exec.getLane(), exec.getStepIndex(),
+                exec.getLotIndex(), exec.getLotCount(), exec.getLotQuantity(),
+                exec.getScheduledStart(), exec.getScheduledEnd(), exec.getActualStart(), exec.getActualEnd(),
+                exec.getScheduledStartTime(), exec.getScheduledEndTime(), exec.getActualStartTime(), exec.getActualEndTime(),
+                assigned != null ? assigned.getEmail() : null,
+                assigned != null ? assigned.getName() : null,
+                assigned != null ? assigned.getSurname() : null);
     }
 
     /* //non dovrebbe più servire in quanto è spostato in OrderProductionService
@@ -164,34 +240,99 @@ public class GanttService {
         return allBlocks;
     }*/
 
-    public void updateBlocks(List<GanttBlockDTO> modifiedBlocks) {
+    // salva i blocchi modificati e sposta a catena quelli che ne dipendono
+    // ritorna i blocchi modificati seguiti da quelli spostati dalla propagazione
+    // tutto in una transazione: execution e utenti letti con una query ciascuno, prima si controllano tutti i blocchi
+    // e se anche uno solo non va bene non si salva niente (GanttUpdateException con l'errore di ogni blocco)
+    @Transactional
+    public List<GanttBlockDTO> updateBlocks(List<GanttBlockDTO> modifiedBlocks) {
+        Set<Long> ids = modifiedBlocks.stream()
+                .map(GanttBlockDTO::getExecutionId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ProcessStepExecution> executions = ids.isEmpty() ? Map.of() : executionRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(ProcessStepExecution::getId, e -> e));
+
+        Set<String> emails = modifiedBlocks.stream()
+                .map(GanttBlockDTO::getAssignedEmployeeEmail)
+                .filter(email -> email != null && !email.isBlank())
+                .collect(Collectors.toSet());
+        Map<String, CustomUser> users = emails.isEmpty() ? Map.of() : customUserRepository.findByEmailIn(emails).stream()
+                .collect(Collectors.toMap(CustomUser::getEmail, u -> u));
+
+        List<GanttUpdateErrorDTO> errors = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (GanttBlockDTO dto : modifiedBlocks) {
+            String error = validate(dto, executions, users, seen);
+            if (error != null) {
+                errors.add(new GanttUpdateErrorDTO(dto.getExecutionId(), error));
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new GanttUpdateException(errors);
+        }
+
+        List<ProcessStepExecution> edited = new ArrayList<>();
         for (GanttBlockDTO dto : modifiedBlocks) {
-            Optional<ProcessStepExecution> optExecution = executionRepository.findById(dto.getExecutionId());
-            if (optExecution.isPresent()) {
-                ProcessStepExecution execution = optExecution.get();
+            ProcessStepExecution execution = executions.get(dto.getExecutionId());
+            // i client che mandano gli orari li usano, altrimenti valgono le date (inizio giornata)
+            if (dto.getActualStartTime() != null && dto.getActualEndTime() != null) {
+                execution.setActualStartTime(dto.getActualStartTime());
+                execution.setActualEndTime(dto.getActualEndTime());
+                execution.setActualStart(dto.getActualStartTime().toLocalDate());
+                execution.setActualEnd(dto.getActualEndTime().toLocalDate());
+            } else {
                 execution.setActualStart(dto.getActualStart());
                 execution.setActualEnd(dto.getActualEnd());
+                execution.setActualStartTime(dto.getActualStart() != null ? dto.getActualStart().atStartOfDay() : null);
+                execution.setActualEndTime(dto.getActualEnd() != null ? dto.getActualEnd().atStartOfDay() : null);
+            }
+            // senza email l'assegnazione viene rimossa
+            String email = dto.getAssignedEmployeeEmail();
+            execution.setAssignedEmployee(email != null && !email.isBlank() ? users.get(email) : null);
+            edited.add(execution);
+        }
 
-                // assegnazione dell'employee se presente
-                if (dto.getAssignedEmployeeEmail() != null && !dto.getAssignedEmployeeEmail().isBlank()) {
-                    Optional<CustomUser> userOpt = customUserRepository.findByEmail(dto.getAssignedEmployeeEmail());
-                    if (userOpt.isPresent()) {
-                        CustomUser user = userOpt.get();
-                        if ("Employee".equalsIgnoreCase(user.getRole().name())) {
-                            execution.setAssignedEmployee(user);
-                        } else {
-                            throw new RuntimeException("L'utente " + user.getEmail() + " non è un Employee.");
-                        }
-                    } else {
-                        throw new RuntimeException("Utente non trovato con email: " + dto.getAssignedEmployeeEmail());
-                    }
-                } else {
-                    execution.setAssignedEmployee(null); // eventualmente rimuove l’assegnazione
-                }
-                executionRepository.save(execution);
-            } else {
-                throw new RuntimeException("Step non trovato per ID: " + dto.getExecutionId());
+        List<GanttBlockDTO> changed = new ArrayList<>();
+        // come per la schedulazione, propagazione e aggiornamento dell'indice insieme
+        // (l'indice si ricarica da solo se la transazione fallisce)
+        synchronized (availabilityIndex) {
+            List<ProcessStepExecution> shifted = reschedulePropagator.propagate(edited);
+            List<ProcessStepExecution> toSave = new ArrayList<>(edited);
+            toSave.addAll(shifted);
+            // gli update partono insieme al commit, raggruppati (hibernate.jdbc.batch_size)
+            executionRepository.saveAll(toSave);
+            for (ProcessStepExecution execution : toSave) {
+                availabilityIndex.update(execution);
+                changed.add(toBlock(execution));
+            }
+        }
+        return changed;
+    }
+
+    // null se il blocco si può salvare, altrimenti il motivo
+    private static String validate(GanttBlockDTO dto, Map<Long, ProcessStepExecution> executions, Map<String, CustomUser> users, Set<Long> seen) {
+        if (dto.getExecutionId() == null || !executions.containsKey(dto.getExecutionId())) {
+            return "Step non trovato per ID: " + dto.getExecutionId();
+        }
+        if (!seen.add(dto.getExecutionId())) {
+            return "Step " + dto.getExecutionId() + " inviato più volte";
+        }
+        boolean withTimes = dto.getActualStartTime() != null && dto.getActualEndTime() != null;
+        if (withTimes ? dto.getActualEndTime().isBefore(dto.getActualStartTime())
+                : dto.getActualStart() != null && dto.getActualEnd() != null && dto.getActualEnd().isBefore(dto.getActualStart())) {
+            return "Step " + dto.getExecutionId() + ": la fine è prima dell'inizio";
+        }
+        String email = dto.getAssignedEmployeeEmail();
+        if (email != null && !email.isBlank()) {
+            CustomUser user = users.get(email);
+            if (user == null) {
+                return "Utente non trovato con email: " + email;
+            }
+            if (user.getRole() != Role.EMPLOYEE) {
+                return "L'utente " + user.getEmail() + " non è un Employee.";
             }
         }
+        return null;
     }
 }
@@ -0,0 +1,24 @@
+package server_group.service;
+
+import server_group.dto.GanttUpdateErrorDTO;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// blocchi rifiutati da GanttService.updateBlocks, uno per blocco: in quel caso non viene salvato niente
+public class GanttUpdateException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    // serve solo per la risposta http, non viene serializzata col resto dell'eccezione
+    private final transient List<GanttUpdateErrorDTO> errors;
+
+    public GanttUpdateException(List<GanttUpdateErrorDTO> errors) {
+        super(errors.stream().map(GanttUpdateErrorDTO::getMessage).collect(Collectors.joining("; ")));
+        this.errors = List.copyOf(errors);
+    }
+
+    public List<GanttUpdateErrorDTO> getErrors() {
+        return errors;
+    }
+}
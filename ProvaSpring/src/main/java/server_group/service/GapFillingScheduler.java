@@ -0,0 +1,153 @@
+package server_group.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import server_group.dto.ModelWithStepsDTO;
+import server_group.model.Order;
+import server_group.model.ProcessStepExecution;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+// motore di schedulazione: ogni step va nel primo buco libero della sua macchina abbastanza lungo,
+// anche se è prima dell'ultimo lavoro già pianificato, rispettando l'ordine degli step dell'ordine
+// le durate sono in minuti lavorativi, il calendario decide come diventano intervalli reali (giorni interi o turni)
+// una macchina con capacità k ha k corsie: lo step va sulla corsia dove può iniziare prima
+// gli ordini grandi vengono divisi in lotti: ogni lotto può andare su una macchina diversa dello stesso gruppo
+// e passa allo step successivo appena finito, senza aspettare il resto dell'ordine
+@Component
+public class GapFillingScheduler {
+
+    static final int DEFAULT_MIN_LOT_SIZE = 100;
+    static final int DEFAULT_MAX_LOTS = 4;
+
+    private final WorkingCalendar calendar;
+    private final int minLotSize;
+    private final int maxLots;
+
+    // di default il comportamento storico a giorni interi
+    public GapFillingScheduler() {
+        this(new DayCalendar());
+    }
+
+    public GapFillingScheduler(WorkingCalendar calendar) {
+        this(calendar, DEFAULT_MIN_LOT_SIZE, DEFAULT_MAX_LOTS);
+    }
+
+    @Autowired
+    public GapFillingScheduler(WorkingCalendar calendar,
+                               @Value("${scheduling.lots.min-size:" + DEFAULT_MIN_LOT_SIZE + "}") int minLotSize,
+                               @Value("${scheduling.lots.max-count:" + DEFAULT_MAX_LOTS + "}") int maxLots) {
+        this.calendar = calendar;
+        this.minLotSize = Math.max(minLotSize, 1);
+        this.maxLots = Math.max(maxLots, 1);
+    }
+
+    public SchedulingResult plan(Order order, List<ModelWithStepsDTO.ProcessStepDTO> steps, PlanningBoard board) {
+        LocalDateTime orderStart = order.getStartDate().atStartOfDay();
+        int[] lots = lotQuantities(order.getQuantity());
+
+        // ogni lotto ha la sua catena di step: il lotto i dello step s+1 aspetta solo il lotto i dello step s
+        LocalDateTime[] lotReady = new LocalDateTime[lots.length];
+        Arrays.fill(lotReady, orderStart);
+        LocalDateTime completion = orderStart;
+
+        List<ProcessStepExecution> executions = new ArrayList<>();
+        Map<String, Long> placedTicks = new LinkedHashMap<>();
+        Map<String, Integer> capacities = new HashMap<>();
+        List<PlanningBoard.Reservation> reservations = new ArrayList<>();
+
+        for (ModelWithStepsDTO.ProcessStepDTO step : steps) {
+            List<ModelWithStepsDTO.MachineryDTO> machines = machinesFor(step);
+
+            for (int lot = 0; lot < lots.length; lot++) {
+                long totalSeconds = step.getDuration().toSeconds() * lots[lot];
+                long workMinutes = Math.max((totalSeconds + 59) / 60, 1);
+
+                // corsia (fra tutte le macchine del gruppo) dove il lotto può iniziare prima
+                MachineLane lane = null;
+                long start = Long.MAX_VALUE;
+                for (ModelWithStepsDTO.MachineryDTO machine : machines) {
+                    for (int i = 0; i < capacityOf(machine); i++) {
+                        MachineLane candidate = new MachineLane(machine.getName(), i);
+                        long candidateStart = board.timeline(candidate).earliestStart(MachineTimeline.tick(lotReady[lot]),
+                                t -> MachineTimeline.tick(calendar.nextWorkingTime(MachineTimeline.time(t))),
+                                t -> MachineTimeline.tick(calendar.addWorkingMinutes(MachineTimeline.time(t), workMinutes)));
+                        if (candidateStart < start) {
+                            start = candidateStart;
+                            lane = candidate;
+                        }
+                    }
+                    capacities.put(machine.getName(), capacityOf(machine));
+                }
+                LocalDateTime actualStart = MachineTimeline.time(start);
+                LocalDateTime actualEnd = calendar.addWorkingMinutes(actualStart, workMinutes);
+                long end = MachineTimeline.tick(actualEnd);
+                reservations.add(board.reserve(lane, new MachineTimeline.Slot(null, order.getId(), start, end)));
+
+                ProcessStepExecution exec = new ProcessStepExecution();
+                exec.setOrder(order);
+                exec.setMachineryName(lane.machineryName());
+                exec.setLane(lane.index());
+                exec.setStepIndex(step.getStepOrder());
+                if (lots.length > 1) {
+                    exec.setLotIndex(lot);
+                    exec.setLotCount(lots.length);
+                    exec.setLotQuantity(lots[lot]);
+                }
+                exec.setScheduledStartTime(actualStart);
+                exec.setScheduledEndTime(actualEnd);
+                exec.setScheduledStart(actualStart.toLocalDate());
+                exec.setScheduledEnd(actualEnd.toLocalDate());
+                // actualStart/End vengono impostati uguali agli scheduled e modificati dall'utente
+                exec.setActualStartTime(actualStart);
+                exec.setActualEndTime(actualEnd);
+                exec.setActualStart(actualStart.toLocalDate());
+                exec.setActualEnd(actualEnd.toLocalDate());
+                executions.add(exec);
+
+                placedTicks.merge(lane.machineryName(), end - start, Long::sum);
+                lotReady[lot] = actualEnd;
+                if (actualEnd.isAfter(completion)) {
+                    completion = actualEnd;
+                }
+            }
+        }
+
+        // utilizzo delle macchine usate, misurato sull'orizzonte dell'ordine [inizio, fine) su tutte le corsie
+        Map<String, Double> before = new LinkedHashMap<>();
+        Map<String, Double> after = new LinkedHashMap<>();
+        board.utilization(placedTicks, capacities, MachineTimeline.tick(orderStart), MachineTimeline.tick(completion), before, after);
+
+        return new SchedulingResult(order, executions, completion, before, after, reservations);
+    }
+
+    // divide la quantità in lotti quasi uguali, ognuno di almeno minLotSize pezzi
+    int[] lotQuantities(int quantity) {
+        int count = Math.max(Math.min(maxLots, quantity / minLotSize), 1);
+        int[] lots = new int[count];
+        for (int i = 0; i < count; i++) {
+            lots[i] = quantity / count + (i < quantity % count ? 1 : 0);
+        }
+        return lots;
+    }
+
+    // la macchina dello step per prima, poi le altre dello stesso gruppo
+    private static List<ModelWithStepsDTO.MachineryDTO> machinesFor(ModelWithStepsDTO.ProcessStepDTO step) {
+        List<ModelWithStepsDTO.MachineryDTO> machines = new ArrayList<>();
+        machines.add(step.getMachinery());
+        if (step.getGroupMachinery() != null) {
+            for (ModelWithStepsDTO.MachineryDTO other : step.getGroupMachinery()) {
+                if (!other.getName().equals(step.getMachinery().getName())) {
+                    machines.add(other);
+                }
+            }
+        }
+        return machines;
+    }
+
+    private static int capacityOf(ModelWithStepsDTO.MachineryDTO machine) {
+        return Math.max(machine.getParallelCapacity(), 1);
+    }
+}
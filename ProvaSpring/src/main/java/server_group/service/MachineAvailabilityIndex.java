@@ -0,0 +1,175 @@
+package server_group.service;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import server_group.model.OrderStatus;
+import server_group.model.ProcessStepExecution;
+import server_group.repository.ProcessStepExecutionRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// indice in memoria dell'occupazione delle macchine: una timeline ordinata per ogni corsia di ogni macchinario
+// viene caricato una volta all'avvio e poi aggiornato ad ogni schedulazione / modifica / chiusura ordine,
+// così lo scheduler non deve più rileggere tutta la tabella delle execution
+@Component
+public class MachineAvailabilityIndex {
+
+    private final ProcessStepExecutionRepository executionRepository;
+
+    private final Map<MachineLane, MachineTimeline> timelines = new HashMap<>();
+    private final Map<Long, MachineLane> laneByExecution = new HashMap<>();
+    private final Map<Long, Set<Long>> executionsByOrder = new HashMap<>();
+
+    public MachineAvailabilityIndex(ProcessStepExecutionRepository executionRepository) {
+        this.executionRepository = executionRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    // le execution esistono solo per gli ordini IN_PRODUCTION (vengono cancellate a complete/cancel)
+    public synchronized void reload() {
+        timelines.clear();
+        laneByExecution.clear();
+        executionsByOrder.clear();
+        for (ProcessStepExecution exec : executionRepository.findByOrderStatus(OrderStatus.IN_PRODUCTION)) {
+            put(exec);
+        }
+    }
+
+    public synchronized void add(ProcessStepExecution exec) {
+        reloadOnRollback();
+        put(exec);
+    }
+
+    // da chiamare dopo aver modificato le date di un'execution già indicizzata
+    public synchronized void update(ProcessStepExecution exec) {
+        reloadOnRollback();
+        if (exec.getId() != null) {
+            drop(exec.getId());
+        }
+        put(exec);
+    }
+
+    public synchronized void removeOrder(Long orderId) {
+        reloadOnRollback();
+        Set<Long> executionIds = executionsByOrder.remove(orderId);
+        if (executionIds == null) {
+            return;
+        }
+        for (Long executionId : executionIds) {
+            MachineLane lane = laneByExecution.remove(executionId);
+            MachineTimeline timeline = timelines.get(lane);
+            if (timeline != null) {
+                timeline.remove(executionId);
+            }
+        }
+    }
+
+    // istante da cui tutte le corsie della macchina sono libere, vuoto se la macchina non ha nulla in carico
+    public synchronized Optional<LocalDateTime> availableFrom(String machineryName) {
+        OptionalLong latestEnd = timelines.entrySet().stream()
+                .filter(e -> e.getKey().machineryName().equals(machineryName))
+                .map(e -> e.getValue().latestEnd())
+                .filter(OptionalLong::isPresent)
+                .mapToLong(OptionalLong::getAsLong)
+                .max();
+        return latestEnd.isPresent() ? Optional.of(MachineTimeline.time(latestEnd.getAsLong())) : Optional.empty();
+    }
+
+    // tavola di pianificazione che copia le timeline di questo indice al primo utilizzo
+    public PlanningBoard newBoard() {
+        return new PlanningBoard(this::copyOf);
+    }
+
+    public synchronized MachineTimeline copyOf(MachineLane lane) {
+        MachineTimeline timeline = timelines.get(lane);
+        return timeline != null ? timeline.copy() : new MachineTimeline();
+    }
+
+    public synchronized int size() {
+        return timelines.values().stream().mapToInt(MachineTimeline::size).sum();
+    }
+
+    private void put(ProcessStepExecution exec) {
+        LocalDateTime start = startOf(exec);
+        LocalDateTime end = endOf(exec);
+        if (start == null || end == null || exec.getMachineryName() == null) {
+            return;
+        }
+        Long orderId = exec.getOrder() != null ? exec.getOrder().getId() : null;
+        MachineLane lane = laneOf(exec);
+
+        timelines.computeIfAbsent(lane, k -> new MachineTimeline())
+                .add(new MachineTimeline.Slot(exec.getId(), orderId, MachineTimeline.tick(start), MachineTimeline.tick(end)));
+
+        if (exec.getId() != null) {
+            laneByExecution.put(exec.getId(), lane);
+            if (orderId != null) {
+                executionsByOrder.computeIfAbsent(orderId, k -> new HashSet<>()).add(exec.getId());
+            }
+        }
+    }
+
+    static MachineLane laneOf(ProcessStepExecution exec) {
+        return new MachineLane(exec.getMachineryName(), exec.getLane() != null ? exec.getLane() : 0);
+    }
+
+    // intervallo effettivo dell'execution, quello che occupa la macchina
+    static LocalDateTime startOf(ProcessStepExecution exec) {
+        return firstNonNull(exec.getActualStartTime(), exec.getActualStart(),
+                exec.getScheduledStartTime(), exec.getScheduledStart());
+    }
+
+    static LocalDateTime endOf(ProcessStepExecution exec) {
+        return firstNonNull(exec.getActualEndTime(), exec.getActualEnd(),
+                exec.getScheduledEndTime(), exec.getScheduledEnd());
+    }
+
+    // le execution create prima della schedulazione al minuto hanno solo le date (inizio giornata)
+    private static LocalDateTime firstNonNull(LocalDateTime actualTime, LocalDate actualDate,
+                                              LocalDateTime scheduledTime, LocalDate scheduledDate) {
+        if (actualTime != null) return actualTime;
+        if (actualDate != null) return actualDate.atStartOfDay();
+        if (scheduledTime != null) return scheduledTime;
+        return scheduledDate != null ? scheduledDate.atStartOfDay() : null;
+    }
+
+    private void drop(Long executionId) {
+        MachineLane lane = laneByExecution.remove(executionId);
+        if (lane == null) {
+            return;
+        }
+        timelines.get(lane).remove(executionId).ifPresent(slot -> {
+            Set<Long> ids = executionsByOrder.get(slot.orderId());
+            if (ids != null) {
+                ids.remove(executionId);
+            }
+        });
+    }
+
+    // l'indice viene aggiornato prima del commit: se la transazione fallisce lo ricarico dal db
+    private void reloadOnRollback() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(MachineAvailabilityIndex.this);
+                if (status == STATUS_ROLLED_BACK) {
+                    reload();
+                }
+            }
+        });
+    }
+}
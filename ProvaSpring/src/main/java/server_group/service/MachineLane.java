@@ -0,0 +1,6 @@
+package server_group.service;
+
+// una corsia di una macchina: una macchina con capacità k ha le corsie 0 .. k-1,
+// ognuna lavora un'execution alla volta
+public record MachineLane(String machineryName, int index) {
+}
@@ -0,0 +1,87 @@
+package server_group.service;
+
+import server_group.dto.MachineLoadDTO;
+import server_group.model.LoadBucket;
+import server_group.repository.GanttLoadRepository.LoadInterval;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// carico delle macchine per giorno, settimana o mese: minuti lavorativi occupati dai blocchi dentro il gruppo,
+// diviso i minuti lavorativi del gruppo (solo la parte nella finestra) per le corsie della macchina.
+// i minuti li conta il calendario dello scheduler, quindi pause, weekend e festivi non pesano né sopra né sotto
+final class MachineLoadAggregator {
+
+    private MachineLoadAggregator() {
+    }
+
+    static List<MachineLoadDTO> aggregate(List<LoadInterval> intervals, LocalDate from, LocalDate to,
+                                          LoadBucket bucket, WorkingCalendar calendar) {
+        LocalDateTime windowStart = from.atStartOfDay();
+        LocalDateTime windowEnd = to.plusDays(1).atStartOfDay();
+
+        // macchina -> inizio gruppo -> [blocchi, minuti occupati]
+        Map<String, TreeMap<LocalDate, long[]>> busy = new TreeMap<>();
+        Map<String, Integer> lanes = new HashMap<>();
+        for (LoadInterval interval : intervals) {
+            LocalDateTime start = max(startOf(interval), windowStart);
+            LocalDateTime end = min(endOf(interval), windowEnd);
+            if (!end.isAfter(start)) {
+                continue;
+            }
+            lanes.merge(interval.machineryName(), Math.max(1, interval.lanes()), Math::max);
+            TreeMap<LocalDate, long[]> buckets = busy.computeIfAbsent(interval.machineryName(), name -> new TreeMap<>());
+            for (LocalDate bucketStart = bucket.start(start.toLocalDate()); bucketStart.atStartOfDay().isBefore(end);
+                 bucketStart = bucket.next(bucketStart)) {
+                long minutes = calendar.workingMinutesBetween(max(start, bucketStart.atStartOfDay()),
+                        min(end, bucket.next(bucketStart).atStartOfDay()));
+                if (minutes > 0) {
+                    long[] totals = buckets.computeIfAbsent(bucketStart, key -> new long[2]);
+                    totals[0]++;
+                    totals[1] += minutes;
+                }
+            }
+        }
+
+        // minuti lavorativi di ogni gruppo, uguali per tutte le macchine
+        Map<LocalDate, Long> available = new HashMap<>();
+        List<MachineLoadDTO> loads = new ArrayList<>();
+        for (Map.Entry<String, TreeMap<LocalDate, long[]>> machine : busy.entrySet()) {
+            int capacity = lanes.get(machine.getKey());
+            for (Map.Entry<LocalDate, long[]> entry : machine.getValue().entrySet()) {
+                LocalDate start = entry.getKey();
+                LocalDate end = bucket.next(start);
+                long bucketMinutes = available.computeIfAbsent(start, key -> calendar.workingMinutesBetween(
+                        max(key.atStartOfDay(), windowStart), min(end.atStartOfDay(), windowEnd)));
+                long busyMinutes = entry.getValue()[1];
+                long availableMinutes = bucketMinutes * capacity;
+                loads.add(new MachineLoadDTO(machine.getKey(), start, end, entry.getValue()[0], busyMinutes,
+                        availableMinutes, capacity, (double) busyMinutes / availableMinutes));
+            }
+        }
+        return loads;
+    }
+
+    // righe senza orari (pianificate a giorni): dalla mezzanotte del primo giorno,
+    // la fine è esclusa come nel gantt e un blocco con inizio = fine occupa il suo giorno
+    private static LocalDateTime startOf(LoadInterval interval) {
+        return interval.startTime() != null ? interval.startTime() : interval.start().atStartOfDay();
+    }
+
+    private static LocalDateTime endOf(LoadInterval interval) {
+        if (interval.endTime() != null) {
+            return interval.endTime();
+        }
+        LocalDate end = interval.end().isAfter(interval.start()) ? interval.end() : interval.start().plusDays(1);
+        return end.atStartOfDay();
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,167 @@
+package server_group.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.LongUnaryOperator;
+
+// intervalli occupati di una singola macchina, ordinati per inizio
+// i tempi sono "tick" interi (minuti dall'epoch), gli intervalli sono [start, end)
+public class MachineTimeline {
+
+    public static long tick(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    public static LocalDateTime time(long tick) {
+        return LocalDateTime.ofEpochSecond(tick * 60, 0, ZoneOffset.UTC);
+    }
+
+    public record Slot(Long executionId, Long orderId, long start, long end) {
+        public long length() {
+            return end - start;
+        }
+    }
+
+    private static final Comparator<Slot> BY_START = Comparator
+            .comparingLong(Slot::start)
+            .thenComparingLong(Slot::end)
+            .thenComparing(Slot::executionId, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Slot::orderId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final TreeSet<Slot> slots = new TreeSet<>(BY_START);
+    // multiset delle fine, serve per avere la fine massima in O(log n) anche dopo le rimozioni
+    private final TreeMap<Long, Integer> ends = new TreeMap<>();
+    // multiset delle lunghezze: un intervallo che si sovrappone a t inizia al più maxLength prima di t
+    private final TreeMap<Long, Integer> lengths = new TreeMap<>();
+    private final Map<Long, Slot> byExecution = new HashMap<>();
+
+    public MachineTimeline copy() {
+        MachineTimeline copy = new MachineTimeline();
+        copy.slots.addAll(slots);
+        copy.ends.putAll(ends);
+        copy.lengths.putAll(lengths);
+        copy.byExecution.putAll(byExecution);
+        return copy;
+    }
+
+    public void add(Slot slot) {
+        if (slot.executionId() != null) {
+            remove(slot.executionId());
+            byExecution.put(slot.executionId(), slot);
+        }
+        if (slots.add(slot)) {
+            ends.merge(slot.end(), 1, Integer::sum);
+            lengths.merge(slot.length(), 1, Integer::sum);
+        }
+    }
+
+    public Optional<Slot> remove(Long executionId) {
+        Slot slot = byExecution.remove(executionId);
+        if (slot == null) {
+            return Optional.empty();
+        }
+        unlink(slot);
+        return Optional.of(slot);
+    }
+
+    // rimozione di uno slot preciso, serve anche per quelli pianificati e non ancora salvati (senza id)
+    public boolean remove(Slot slot) {
+        if (slot.executionId() != null) {
+            return remove(slot.executionId()).isPresent();
+        }
+        return unlink(slot);
+    }
+
+    public Optional<Slot> get(Long executionId) {
+        return Optional.ofNullable(byExecution.get(executionId));
+    }
+
+    // fine dell'ultimo intervallo occupato (la macchina è libera da qui in poi)
+    public OptionalLong latestEnd() {
+        return ends.isEmpty() ? OptionalLong.empty() : OptionalLong.of(ends.lastKey());
+    }
+
+    // primo istante >= from in cui c'è un buco libero lungo almeno length
+    // scorre solo gli intervalli che possono toccare la finestra: O(log n + k)
+    public long earliestStart(long from, long length) {
+        return earliestStart(from, t -> t, t -> t + length);
+    }
+
+    // come sopra, ma la durata dipende da dove cade l'inizio (turni, notti, weekend):
+    // align porta un istante al primo momento lavorativo, endOf dà la fine di un lavoro che inizia lì
+    // entrambe devono essere crescenti, così saltare alla fine di un intervallo in conflitto non perde buchi
+    public long earliestStart(long from, LongUnaryOperator align, LongUnaryOperator endOf) {
+        long candidate = align.applyAsLong(from);
+        long end = endOf.applyAsLong(candidate);
+        for (Slot slot : candidates(candidate)) {
+            if (slot.start() >= end) {
+                break;
+            }
+            if (slot.end() > candidate) {
+                candidate = align.applyAsLong(slot.end());
+                end = endOf.applyAsLong(candidate);
+            }
+        }
+        return candidate;
+    }
+
+    // tempo occupato dentro [from, to), gli intervalli sovrapposti contano una volta sola
+    public long busyTime(long from, long to) {
+        long busy = 0;
+        long coveredUntil = from;
+        for (Slot slot : candidates(from)) {
+            if (slot.start() >= to) {
+                break;
+            }
+            long start = Math.max(slot.start(), coveredUntil);
+            long end = Math.min(slot.end(), to);
+            if (end > start) {
+                busy += end - start;
+                coveredUntil = end;
+            }
+        }
+        return busy;
+    }
+
+    // intervalli che si sovrappongono a [from, to), in ordine di inizio
+    public List<Slot> overlapping(long from, long to) {
+        List<Slot> result = new ArrayList<>();
+        for (Slot slot : candidates(from)) {
+            if (slot.start() >= to) {
+                break;
+            }
+            if (slot.end() > from) {
+                result.add(slot);
+            }
+        }
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return slots.isEmpty();
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    public NavigableSet<Slot> slots() {
+        return Collections.unmodifiableNavigableSet(slots);
+    }
+
+    private boolean unlink(Slot slot) {
+        if (!slots.remove(slot)) {
+            return false;
+        }
+        ends.computeIfPresent(slot.end(), (k, count) -> count == 1 ? null : count - 1);
+        lengths.computeIfPresent(slot.length(), (k, count) -> count == 1 ? null : count - 1);
+        return true;
+    }
+
+    private NavigableSet<Slot> candidates(long from) {
+        long maxLength = lengths.isEmpty() ? 0 : lengths.lastKey();
+        Slot probe = new Slot(null, null, from - maxLength, Long.MIN_VALUE);
+        return slots.tailSet(probe, true);
+    }
+}
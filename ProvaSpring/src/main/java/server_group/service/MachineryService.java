@@ -12,9 +12,11 @@ import java.util.Optional;
 public class MachineryService {
 
     private final MachineryRepository machineryRepository;
+    private final RoutingCache routingCache;
 
-    public MachineryService(MachineryRepository machineryRepository) {
+    public MachineryService(MachineryRepository machineryRepository, RoutingCache routingCache) {
         this.machineryRepository = machineryRepository;
+        this.routingCache = routingCache;
     }
 
     public List<Machinery> findAll() {
@@ -30,10 +32,14 @@ public class MachineryService {
     }
 
     public Machinery save(Machinery machinery) {
-        return machineryRepository.save(machinery);
+        Machinery saved = machineryRepository.save(machinery);
+        // nome, capacità e gruppo finiscono nei percorsi dei modelli
+        routingCache.invalidateAll();
+        return saved;
     }
 
     public void delete(Long id) {
         machineryRepository.deleteById(id);
+        routingCache.invalidateAll();
     }
 }
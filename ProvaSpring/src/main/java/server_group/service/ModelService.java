@@ -7,12 +7,15 @@ import server_group.model.Machinery;
 import server_group.model.Model;
 import server_group.model.ProcessStep;
 import server_group.model.Raw;
+import server_group.repository.MachineryRepository;
 import server_group.repository.ModelRepository;
 import server_group.repository.ProcessStepRepository;
 import server_group.repository.RawRepository;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -20,11 +23,15 @@ public class ModelService {
     private final ModelRepository modelRepository;
     private final ProcessStepRepository processStepRepository;
     private final RawRepository rawRepository; // Necessario per associare il Raw tramite ID
+    private final MachineryRepository machineryRepository;
+    private final RoutingCache routingCache;
 
-    public ModelService(ModelRepository modelRepository, ProcessStepRepository processStepRepository, RawRepository rawRepository) {
+    public ModelService(ModelRepository modelRepository, ProcessStepRepository processStepRepository, RawRepository rawRepository, MachineryRepository machineryRepository, RoutingCache routingCache) {
         this.modelRepository = modelRepository;
         this.processStepRepository = processStepRepository;
         this.rawRepository = rawRepository;
+        this.machineryRepository = machineryRepository;
+        this.routingCache = routingCache;
     }
 
     public List<Model> getAllModels() {
@@ -34,6 +41,8 @@ public class ModelService {
     public List<ModelWithStepsDTO> getAllModelsWithProcess() {
         List<Model> models = modelRepository.findAll();
         List<ModelWithStepsDTO> dtoList = new ArrayList<>();
+        // macchine per gruppo, lette una volta sola per gruppo
+        Map<String, List<ModelWithStepsDTO.MachineryDTO>> groups = new HashMap<>();
 
         for (Model model : models) {
             ModelWithStepsDTO dto = new ModelWithStepsDTO();
@@ -60,9 +69,12 @@ public class ModelService {
                 stepDTO.setSemifinishedName(step.getSemifinishedName());
 
                 Machinery machinery = step.getMachinery();
-                ModelWithStepsDTO.MachineryDTO machineryDTO = new ModelWithStepsDTO.MachineryDTO();
-                machineryDTO.setName(machinery.getName());
-                stepDTO.setMachinery(machineryDTO);
+                stepDTO.setMachinery(toMachineryDTO(machinery));
+                String group = machinery.getMachineGroup();
+                if (group != null && !group.isBlank()) {
+                    stepDTO.setGroupMachinery(groups.computeIfAbsent(group, g ->
+                            machineryRepository.findByMachineGroup(g).stream().map(ModelService::toMachineryDTO).toList()));
+                }
 
                 stepDTOs.add(stepDTO);
             }
@@ -74,6 +86,16 @@ public class ModelService {
         return dtoList;
     }
 
+    static ModelWithStepsDTO.MachineryDTO toMachineryDTO(Machinery machinery) {
+        ModelWithStepsDTO.MachineryDTO machineryDTO = new ModelWithStepsDTO.MachineryDTO();
+        machineryDTO.setName(machinery.getName());
+        machineryDTO.setMachineGroup(machinery.getMachineGroup());
+        if (machinery.getParallelCapacity() != null && machinery.getParallelCapacity() > 1) {
+            machineryDTO.setParallelCapacity(machinery.getParallelCapacity());
+        }
+        return machineryDTO;
+    }
+
     // GET
     public Optional<Model> getModelByName(String name) {
         return modelRepository.findById(name);
@@ -86,7 +108,10 @@ public class ModelService {
                     .orElseThrow(() -> new IllegalArgumentException("Raw not found with ID: " + model.getRaw().getId()));
             model.setRaw(raw);
         }
-        return modelRepository.save(model);
+        Model saved = modelRepository.save(model);
+        // un modello appena creato potrebbe essere in cache come "senza processo"
+        routingCache.invalidate(saved.getName());
+        return saved;
     }
 
     // UPDATE
@@ -100,7 +125,9 @@ public class ModelService {
                 existing.setRaw(raw);
             }
 
-            return modelRepository.save(existing);
+            Model saved = modelRepository.save(existing);
+            routingCache.invalidate(name);
+            return saved;
         });
     }
 
@@ -108,6 +135,7 @@ public class ModelService {
     public boolean deleteModel(String name) {
         if (modelRepository.existsById(name)) {
             modelRepository.deleteById(name);
+            routingCache.invalidate(name);
             return true;
         }
         return false;
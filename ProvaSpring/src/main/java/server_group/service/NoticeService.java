@@ -5,16 +5,22 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 import server_group.dto.NoticeDTO;
+import server_group.dto.NoticePageDTO;
 import server_group.model.CustomUser;
 import server_group.model.Notice;
 import server_group.repository.CustomUserRepository;
+import server_group.repository.NoticeFilter;
 import server_group.repository.NoticeRepository;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class NoticeService {
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
     private final NoticeRepository noticeRepository;
     private final CustomUserRepository customUserRepository;
 
@@ -30,6 +36,21 @@ public class NoticeService {
                 .toList();
     }
 
+    // una riga in più per sapere se c'è una pagina successiva senza contare tutto
+    public NoticePageDTO searchNotices(NoticeFilter filter, Long before, Integer size) {
+        int limit = size == null ? DEFAULT_PAGE_SIZE : Math.clamp(size, 1, MAX_PAGE_SIZE);
+        List<NoticeDTO> rows = noticeRepository.searchNotices(filter, before, limit + 1);
+        if (rows.size() <= limit) {
+            return new NoticePageDTO(rows, null);
+        }
+        List<NoticeDTO> page = rows.subList(0, limit);
+        return new NoticePageDTO(List.copyOf(page), page.get(limit - 1).getId());
+    }
+
+    public Map<String, Long> countNotices(NoticeFilter filter) {
+        return noticeRepository.countNoticesByCategory(filter);
+    }
+
     public Notice saveNotice(Notice notice) {
         return noticeRepository.save(notice);
     }
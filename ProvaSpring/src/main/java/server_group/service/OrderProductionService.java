@@ -18,17 +18,25 @@ import java.util.Map;
 public class OrderProductionService {
 
     private final OrderRepository orderRepository;
-    private final ModelService modelService;
+    private final RoutingCache routingCache;
     private final ProcessStepExecutionRepository executionRepository;
+    private final MachineAvailabilityIndex availabilityIndex;
+    private final GapFillingScheduler scheduler;
+    private final BatchProductionOptimizer batchOptimizer;
+    private final PlanChangeLog changeLog;
 
-    public OrderProductionService(OrderRepository orderRepository, ModelService modelService, ProcessStepExecutionRepository executionRepository) {
+    public OrderProductionService(OrderRepository orderRepository, RoutingCache routingCache, ProcessStepExecutionRepository executionRepository, MachineAvailabilityIndex availabilityIndex, GapFillingScheduler scheduler, BatchProductionOptimizer batchOptimizer, PlanChangeLog changeLog) {
         this.orderRepository = orderRepository;
-        this.modelService = modelService;
+        this.routingCache = routingCache;
         this.executionRepository = executionRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.scheduler = scheduler;
+        this.batchOptimizer = batchOptimizer;
+        this.changeLog = changeLog;
     }
 
     // questo è il punto in cui mando in produzione l'ordine
-    public void startProduction(Order order) {
+    public SchedulingResult startProduction(Order order) {
         if (order.getStatus() == OrderStatus.IN_PRODUCTION) {
             throw new IllegalStateException("Order already in production");
         }else if(order.getStatus() == OrderStatus.COMPLETED) {
@@ -41,69 +49,87 @@ public class OrderProductionService {
         orderRepository.save(order);
 
         // genero gli execution schedulati
-        createScheduledExecutions(order);
+        return createScheduledExecutions(order);
     }
 
-    private void createScheduledExecutions(Order order) {
-        // recupera modello e steps
-        ModelWithStepsDTO modelDto = modelService.getAllModelsWithProcess().stream()
-                .filter(m -> m.getName().equals(order.getModel().getName()))
-                .findFirst()
-                .orElseThrow();
-
-        LocalDate stepStartDate = order.getStartDate();
-        int quantity = order.getQuantity();
-
-        // tiene traccia disponibilità macchine globalmente per evitare conflitti tra più ordini già in produzione
-        Map<String, LocalDate> machineAvailability = new HashMap<>();
-        // carica disponibilità attuale da esecuzioni esistenti di altri ordini IN_PRODUCTION
-        List<ProcessStepExecution> existing = executionRepository.findAll();
-        for (ProcessStepExecution e : existing) {
-            LocalDate end = e.getScheduledEnd();
-            machineAvailability.merge(e.getMachineryName(), end, (old, neu) -> old.isAfter(neu) ? old : neu);
+    private SchedulingResult createScheduledExecutions(Order order) {
+        // percorso del modello, dalla cache
+        List<ModelWithStepsDTO.ProcessStepDTO> routing = routingCache.routingOf(order.getModel().getName());
+        if (routing.isEmpty()) {
+            throw new IllegalStateException("Model " + order.getModel().getName() + " has no process");
         }
 
-        for (ModelWithStepsDTO.ProcessStepDTO step : modelDto.getProcessSteps()) {
-            long totalSeconds = step.getDuration().toSeconds() * quantity;
-            long daysNeeded = (long) Math.ceil(totalSeconds / 28800.0);
-            if (daysNeeded < 1) daysNeeded = 1;
+        SchedulingResult result;
+        // pianificazione e aggiornamento dell'indice insieme, così due ordini non prendono lo stesso buco
+        synchronized (availabilityIndex) {
+            result = scheduler.plan(order, routing, availabilityIndex.newBoard());
 
-            String machineryName = step.getMachinery().getName();
+            if (!result.meetsDeadline()) {
+                throw new RuntimeException("Cannot schedule order " + order.getId() + " before deadline.");
+            }
 
-            LocalDate machineAvailableFrom = machineAvailability.getOrDefault(machineryName, LocalDate.MIN);
-            LocalDate actualStart = machineAvailableFrom.isAfter(stepStartDate) ? machineAvailableFrom : stepStartDate;
-            LocalDate actualEnd = actualStart.plusDays(daysNeeded);
+            // salvo solo quando tutti gli step rientrano nella deadline
+            for (ProcessStepExecution exec : result.getExecutions()) {
+                executionRepository.save(exec);
+                availabilityIndex.add(exec);
+            }
+        }
 
-            if (actualEnd.isAfter(order.getDeadline())) {
-                throw new RuntimeException("Cannot schedule order " + order.getId() + " before deadline.");
+        return result;
+    }
+
+    // manda in produzione più ordini insieme (tutti in stato CREATED): la sequenza viene scelta dall'ottimizzatore,
+    // gli ordini che non rientrano nella deadline (o senza processo) restano CREATED e non compaiono nel piano
+    public BatchPlan startProduction(List<Order> orders) {
+        orders = orders.stream()
+                .filter(o -> o.getModel() != null && !routingCache.routingOf(o.getModel().getName()).isEmpty())
+                .toList();
+
+        LocalDate today = LocalDate.now();
+        Map<Order, LocalDate> previousStart = new HashMap<>();
+        for (Order order : orders) {
+            previousStart.put(order, order.getStartDate());
+            order.setStartDate(today);
+        }
+
+        BatchPlan plan;
+        synchronized (availabilityIndex) {
+            plan = batchOptimizer.optimize(orders,
+                    order -> routingCache.routingOf(order.getModel().getName()),
+                    availabilityIndex.newBoard());
+
+            for (SchedulingResult result : plan.getAccepted()) {
+                Order order = result.getOrder();
+                order.setStatus(OrderStatus.IN_PRODUCTION);
+                orderRepository.save(order);
+                for (ProcessStepExecution exec : result.getExecutions()) {
+                    executionRepository.save(exec);
+                    availabilityIndex.add(exec);
+                }
             }
+        }
 
-            ProcessStepExecution exec = new ProcessStepExecution();
-            exec.setOrder(order);
-            exec.setMachineryName(machineryName);
-            exec.setStepIndex(step.getStepOrder());
-            exec.setScheduledStart(actualStart);
-            exec.setScheduledEnd(actualEnd);
-            // actualStart/End vengono impostati uguali agli scheduled e modificati dall'utente
-            exec.setActualStart(actualStart);
-            exec.setActualEnd(actualEnd);
-            executionRepository.save(exec);
-
-            // aggiorna stato
-            machineAvailability.put(machineryName, actualEnd);
-            stepStartDate = actualEnd;
+        for (SchedulingResult result : plan.getLate()) {
+            result.getOrder().setStartDate(previousStart.get(result.getOrder()));
         }
+        return plan;
     }
 
     public void updateExecutionDates(Long executionId, LocalDate actualStart, LocalDate actualEnd) {
         ProcessStepExecution exec = executionRepository.findById(executionId).orElseThrow();
         exec.setActualStart(actualStart);
         exec.setActualEnd(actualEnd);
+        exec.setActualStartTime(actualStart.atStartOfDay());
+        exec.setActualEndTime(actualEnd.atStartOfDay());
         executionRepository.save(exec);
+        availabilityIndex.update(exec);
     }
 
     public void deleteAllExecutions(Order order) {
+        // i client aggiornati a differenze devono sapere quali blocchi sparire
+        changeLog.recordRemovals(executionRepository.findByOrderId(order.getId()));
         executionRepository.deleteByOrderId(order.getId());
+        availabilityIndex.removeOrder(order.getId());
         order.setEndDate(LocalDate.now());
         orderRepository.save(order);
     }
@@ -4,23 +4,27 @@ import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import server_group.dto.BatchProductionResultDTO;
+import server_group.dto.ProductionResultDTO;
 import server_group.model.Order;
 import server_group.model.OrderState;
 import server_group.model.OrderStateFactory;
 import server_group.repository.OrderRepository;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
 
     private final OrderRepository orderRepository;
     private final OrderStateFactory stateFactory;
+    private final OrderProductionService productionService;
 
-    public OrderService(OrderRepository orderRepository, OrderStateFactory stateFactory) {
+    public OrderService(OrderRepository orderRepository, OrderStateFactory stateFactory, OrderProductionService productionService) {
         this.orderRepository = orderRepository;
         this.stateFactory = stateFactory;
+        this.productionService = productionService;
     }
 
     public List<Order> findAll() {
@@ -40,12 +44,56 @@ public class OrderService {
     }
 
     @Transactional
-    public void setInProduction(Long orderId) {
+    public ProductionResultDTO setInProduction(Long orderId) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new EntityNotFoundException("Order not found with id: " + orderId));
         OrderState state = stateFactory.createState(order);
-        state.startProduction(order);
+        SchedulingResult result = state.startProduction(order);
         orderRepository.save(order);
+        return toResult(result);
+    }
+
+    // versione batch: tutti gli ordini vengono pianificati insieme in un'unica transazione
+    @Transactional
+    public BatchProductionResultDTO setInProduction(List<Long> orderIds) {
+        BatchProductionResultDTO response = new BatchProductionResultDTO();
+        Map<Long, Order> found = orderRepository.findAllById(orderIds).stream()
+                .collect(Collectors.toMap(Order::getId, o -> o));
+
+        List<Order> candidates = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(orderIds)) {
+            Order order = found.get(id);
+            if (order == null) {
+                response.getRejected().put(id, "Order not found with id: " + id);
+                continue;
+            }
+            OrderState state = stateFactory.createState(order);
+            if (!"CREATED".equals(state.getName())) {
+                response.getRejected().put(id, "The order is " + state.getName() + "!");
+                continue;
+            }
+            candidates.add(order);
+        }
+
+        BatchPlan plan = productionService.startProduction(candidates);
+        for (SchedulingResult result : plan.getAccepted()) {
+            response.getScheduled().add(result.getOrder().getId());
+            response.getResults().add(toResult(result));
+        }
+        for (SchedulingResult result : plan.getLate()) {
+            response.getRejected().put(result.getOrder().getId(), "Cannot schedule order " + result.getOrder().getId() + " before deadline.");
+        }
+        for (Order order : candidates) {
+            if (!response.getScheduled().contains(order.getId()) && !response.getRejected().containsKey(order.getId())) {
+                response.getRejected().put(order.getId(), "No process defined for model of order " + order.getId());
+            }
+        }
+        return response;
+    }
+
+    static ProductionResultDTO toResult(SchedulingResult result) {
+        return new ProductionResultDTO(result.getOrder().getId(), result.getCompletionTime(),
+                result.getUtilizationBefore(), result.getUtilizationAfter());
     }
 
     @Transactional
@@ -0,0 +1,173 @@
+package server_group.service;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import server_group.dto.GanttBlockDTO;
+import server_group.dto.GanttChangesDTO;
+import server_group.model.GanttRemoval;
+import server_group.model.ProcessStepExecution;
+import server_group.repository.GanttRemovalRepository;
+import server_group.repository.ProcessStepExecutionRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// versione del piano di produzione: cresce ad ogni execution inserita, modificata o cancellata
+// i client ricordano l'ultima versione vista e chiedono solo quello che è cambiato dopo (GanttService.getChangesSince)
+// le modifiche di ogni transazione vengono anche pubblicate, dopo il commit, come GanttChangesDTO (push ai client aperti)
+@Component
+public class PlanChangeLog {
+
+    // le tracce delle execution cancellate restano per questo tempo, poi chi è rimasto indietro ricarica tutto
+    static final Duration REMOVAL_RETENTION = Duration.ofDays(7);
+
+    private final ProcessStepExecutionRepository executionRepository;
+    private final GanttRemovalRepository removalRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private long current;
+    // versioni assegnate in transazioni non ancora chiuse: i loro dati potrebbero non essere ancora visibili
+    private final TreeSet<Long> pending = new TreeSet<>();
+    // chi chiede le modifiche da una versione precedente a questa ha perso delle cancellazioni
+    private long prunedThrough;
+
+    public PlanChangeLog(ProcessStepExecutionRepository executionRepository, GanttRemovalRepository removalRepository, ApplicationEventPublisher eventPublisher) {
+        this.executionRepository = executionRepository;
+        this.removalRepository = removalRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // le tracce eliminate prima del riavvio non si conoscono più: i client di prima del riavvio ricaricano tutto
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        current = Math.max(executionRepository.findMaxPlanVersion(), removalRepository.findMaxPlanVersion());
+        prunedThrough = current;
+        pending.clear();
+    }
+
+    public synchronized long next() {
+        long version = ++current;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending.add(version);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    release(version);
+                }
+            });
+        }
+        return version;
+    }
+
+    // ultima versione fino alla quale tutte le modifiche sono già salvate (o annullate):
+    // leggere le modifiche dopo averla presa non perde niente, al massimo qualche blocco arriva due volte
+    public synchronized long stableVersion() {
+        return pending.isEmpty() ? current : pending.first() - 1;
+    }
+
+    public synchronized long prunedThrough() {
+        return prunedThrough;
+    }
+
+    // da chiamare prima di cancellare le execution, nella stessa transazione
+    public void recordRemovals(List<ProcessStepExecution> executions) {
+        if (executions.isEmpty()) {
+            return;
+        }
+        long version = next();
+        LocalDateTime now = LocalDateTime.now();
+        removalRepository.saveAll(executions.stream()
+                .map(e -> new GanttRemoval(e.getId(), e.getOrder() != null ? e.getOrder().getId() : null, version, now))
+                .toList());
+        prune(now.minus(REMOVAL_RETENTION));
+
+        TransactionChanges changes = currentChanges();
+        for (ProcessStepExecution execution : executions) {
+            changes.changed.remove(execution.getId());
+            changes.removed.add(execution.getId());
+        }
+        changes.version = Math.max(changes.version, version);
+        publishIfOutsideTransaction(changes);
+    }
+
+    // execution appena inserita o modificata (PlanVersionListener, a versione già assegnata)
+    public void changed(ProcessStepExecution execution) {
+        TransactionChanges changes = currentChanges();
+        changes.changed.put(execution.getId(), execution);
+        if (execution.getPlanVersion() != null) {
+            changes.version = Math.max(changes.version, execution.getPlanVersion());
+        }
+        publishIfOutsideTransaction(changes);
+    }
+
+    public List<Long> removedSince(long since) {
+        return removalRepository.findExecutionIdsRemovedSince(since);
+    }
+
+    private void prune(LocalDateTime cutoff) {
+        Long pruned = removalRepository.findMaxPlanVersionRemovedBefore(cutoff);
+        if (pruned != null) {
+            removalRepository.deleteRemovedBefore(cutoff);
+            synchronized (this) {
+                prunedThrough = Math.max(prunedThrough, pruned);
+            }
+        }
+    }
+
+    private synchronized void release(long version) {
+        pending.remove(version);
+    }
+
+    // modifiche raccolte nella transazione in corso: se fallisce non si pubblica niente
+    private static class TransactionChanges {
+        private final Map<Long, ProcessStepExecution> changed = new LinkedHashMap<>();
+        private final Set<Long> removed = new LinkedHashSet<>();
+        private long version;
+    }
+
+    private TransactionChanges currentChanges() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new TransactionChanges();
+        }
+        TransactionChanges changes = (TransactionChanges) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            TransactionChanges bound = new TransactionChanges();
+            TransactionSynchronizationManager.bindResource(this, bound);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(bound);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PlanChangeLog.this);
+                }
+            });
+            changes = bound;
+        }
+        return changes;
+    }
+
+    private void publishIfOutsideTransaction(TransactionChanges changes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(changes);
+        }
+    }
+
+    // i blocchi vengono composti qui, con lo stato finale delle execution
+    private void publish(TransactionChanges changes) {
+        if (changes.changed.isEmpty() && changes.removed.isEmpty()) {
+            return;
+        }
+        List<GanttBlockDTO> blocks = changes.changed.values().stream()
+                .map(GanttService::toBlock)
+                .toList();
+        eventPublisher.publishEvent(new GanttChangesDTO(changes.version, false, blocks, List.copyOf(changes.removed)));
+    }
+}
@@ -0,0 +1,65 @@
+package server_group.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// copia di lavoro delle timeline usata durante una pianificazione
+// le corsie vengono copiate dall'indice solo quando servono, l'indice vero non viene toccato
+public class PlanningBoard {
+
+    public record Reservation(MachineLane lane, MachineTimeline.Slot slot) {}
+
+    private final Function<MachineLane, MachineTimeline> source;
+    private final Map<MachineLane, MachineTimeline> timelines = new HashMap<>();
+
+    public PlanningBoard(Function<MachineLane, MachineTimeline> source) {
+        this.source = source;
+    }
+
+    // prima corsia, l'unica per le macchine a capacità 1
+    public MachineTimeline timeline(String machineryName) {
+        return timeline(new MachineLane(machineryName, 0));
+    }
+
+    public MachineTimeline timeline(MachineLane lane) {
+        return timelines.computeIfAbsent(lane, source);
+    }
+
+    public Reservation reserve(MachineLane lane, MachineTimeline.Slot slot) {
+        timeline(lane).add(slot);
+        return new Reservation(lane, slot);
+    }
+
+    // annulla le prenotazioni di una pianificazione scartata
+    public void release(List<Reservation> reservations) {
+        for (Reservation reservation : reservations) {
+            timeline(reservation.lane()).remove(reservation.slot());
+        }
+    }
+
+    public Set<MachineLane> lanes() {
+        return timelines.keySet();
+    }
+
+    // utilizzo delle macchine in [from, to) su tutte le corsie, con e senza i tick appena prenotati (placedTicks);
+    // i blocchi nuovi non si sovrappongono a nulla nella loro corsia, quindi prima = dopo - nuovi
+    public void utilization(Map<String, Long> placedTicks, Map<String, Integer> capacities, long from, long to,
+                            Map<String, Double> before, Map<String, Double> after) {
+        if (to <= from) {
+            return;
+        }
+        for (Map.Entry<String, Long> entry : placedTicks.entrySet()) {
+            int capacity = capacities.getOrDefault(entry.getKey(), 1);
+            long busy = 0;
+            for (int lane = 0; lane < capacity; lane++) {
+                busy += timeline(new MachineLane(entry.getKey(), lane)).busyTime(from, to);
+            }
+            long available = (to - from) * capacity;
+            before.put(entry.getKey(), (double) (busy - entry.getValue()) / available);
+            after.put(entry.getKey(), (double) busy / available);
+        }
+    }
+}
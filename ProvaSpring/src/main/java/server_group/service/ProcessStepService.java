@@ -20,11 +20,13 @@ public class ProcessStepService {
     private final ProcessStepRepository processStepRepository;
     private final ModelRepository modelRepository;
     private final MachineryRepository machineryRepository;
+    private final RoutingCache routingCache;
 
-    public ProcessStepService(ProcessStepRepository processStepRepository, ModelRepository modelRepository, MachineryRepository machineryRepository) {
+    public ProcessStepService(ProcessStepRepository processStepRepository, ModelRepository modelRepository, MachineryRepository machineryRepository, RoutingCache routingCache) {
         this.processStepRepository = processStepRepository;
         this.modelRepository = modelRepository;
         this.machineryRepository = machineryRepository;
+        this.routingCache = routingCache;
     }
 
     public List<ProcessStep> findAll() { return processStepRepository.findAll(); }
@@ -54,6 +56,7 @@ public class ProcessStepService {
                         s.setStepOrder(s.getStepOrder() - 1);
                         processStepRepository.save(s);
                     });
+            routingCache.invalidate(modelName);
 
         } else {
             throw new EntityNotFoundException("Step non trovato con id: " + id);
@@ -69,6 +72,9 @@ public class ProcessStepService {
         step.setMachinery(updatedStep.getMachinery());
 
         processStepRepository.save(step);
+        if (step.getModel() != null) {
+            routingCache.invalidate(step.getModel().getName());
+        }
     }
 
     public ProcessStep addStepToModel(String modelName, Duration duration, String semifinishedName, String machineryName, int insertAfterOrder) {
@@ -93,7 +99,9 @@ public class ProcessStepService {
         newStep.setSemifinishedName(semifinishedName);
         newStep.setMachinery(machinery);
 
-        return processStepRepository.save(newStep);
+        ProcessStep saved = processStepRepository.save(newStep);
+        routingCache.invalidate(modelName);
+        return saved;
 
     }
 }
@@ -0,0 +1,167 @@
+package server_group.service;
+
+import org.springframework.stereotype.Component;
+import server_group.model.ProcessStepExecution;
+import server_group.repository.ProcessStepExecutionRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// propaga lo spostamento manuale di uno o più blocchi del gantt: gli step successivi dello stesso ordine
+// e i blocchi della stessa macchina che ora si sovrappongono vengono spinti in avanti, a catena
+// tocca solo i blocchi coinvolti, non ripianifica tutto
+@Component
+public class ReschedulePropagator {
+
+    // protezione contro piani incoerenti che continuerebbero a spingersi a vicenda
+    static final int MAX_MOVES = 10_000;
+
+    private final ProcessStepExecutionRepository executionRepository;
+    private final MachineAvailabilityIndex availabilityIndex;
+    private final WorkingCalendar calendar;
+
+    public ReschedulePropagator(ProcessStepExecutionRepository executionRepository, MachineAvailabilityIndex availabilityIndex, WorkingCalendar calendar) {
+        this.executionRepository = executionRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.calendar = calendar;
+    }
+
+    // edited: execution con le nuove date già impostate (non ancora nell'indice), restano ferme dove le ha messe l'utente
+    // ritorna le altre execution spostate, con le date aggiornate ma non salvate
+    public List<ProcessStepExecution> propagate(List<ProcessStepExecution> edited) {
+        Propagation propagation = new Propagation(edited);
+        propagation.run();
+        return propagation.shifted();
+    }
+
+    private class Propagation {
+        private final PlanningBoard board = availabilityIndex.newBoard();
+        private final Map<Long, ProcessStepExecution> loaded = new HashMap<>();
+        private final Map<Long, List<ProcessStepExecution>> orderSteps = new HashMap<>();
+        private final Set<Long> pinned = new HashSet<>();
+        private final Set<Long> shifted = new LinkedHashSet<>();
+        private final Deque<ProcessStepExecution> queue = new ArrayDeque<>();
+        private int moves;
+
+        Propagation(List<ProcessStepExecution> edited) {
+            for (ProcessStepExecution exec : edited) {
+                loaded.put(exec.getId(), exec);
+                pinned.add(exec.getId());
+                board.timeline(MachineAvailabilityIndex.laneOf(exec)).add(slotOf(exec));
+                queue.add(exec);
+            }
+        }
+
+        void run() {
+            while (!queue.isEmpty()) {
+                ProcessStepExecution exec = queue.poll();
+                if (resolveMachineConflicts(exec)) {
+                    pushSuccessors(exec);
+                }
+            }
+        }
+
+        List<ProcessStepExecution> shifted() {
+            return shifted.stream().map(loaded::get).toList();
+        }
+
+        // i blocchi non fissati che si sovrappongono vanno dopo; se è exec a cadere su un blocco fissato, si sposta lei
+        // ritorna false se exec è stata rimessa in coda
+        private boolean resolveMachineConflicts(ProcessStepExecution exec) {
+            MachineTimeline.Slot slot = slotOf(exec);
+            MachineTimeline timeline = board.timeline(MachineAvailabilityIndex.laneOf(exec));
+            for (MachineTimeline.Slot other : timeline.overlapping(slot.start(), slot.end())) {
+                if (other.executionId() == null || other.executionId().equals(exec.getId())) {
+                    continue;
+                }
+                ProcessStepExecution follower = load(other.executionId());
+                if (pinned.contains(follower.getId())) {
+                    if (!pinned.contains(exec.getId())) {
+                        moveAfter(exec, MachineTimeline.time(other.end()));
+                        return false;
+                    }
+                    // due blocchi spostati dall'utente che si sovrappongono: scelta sua
+                    continue;
+                }
+                moveAfter(follower, MachineTimeline.time(slot.end()));
+            }
+            return true;
+        }
+
+        private void pushSuccessors(ProcessStepExecution exec) {
+            LocalDateTime end = MachineAvailabilityIndex.endOf(exec);
+            for (ProcessStepExecution next : successorsOf(exec)) {
+                if (!pinned.contains(next.getId()) && MachineAvailabilityIndex.startOf(next).isBefore(end)) {
+                    moveAfter(next, end);
+                }
+            }
+        }
+
+        // step successivo dello stesso ordine; con i lotti solo quello dello stesso lotto
+        private List<ProcessStepExecution> successorsOf(ProcessStepExecution exec) {
+            if (exec.getOrder() == null || exec.getOrder().getId() == null) {
+                return List.of();
+            }
+            List<ProcessStepExecution> steps = orderSteps.computeIfAbsent(exec.getOrder().getId(), orderId ->
+                    executionRepository.findByOrderIdOrderByStepIndex(orderId).stream()
+                            .map(e -> loaded.computeIfAbsent(e.getId(), id -> e))
+                            .toList());
+            int nextStep = Integer.MAX_VALUE;
+            for (ProcessStepExecution other : steps) {
+                if (other.getStepIndex() > exec.getStepIndex() && sameLot(exec, other)) {
+                    nextStep = Math.min(nextStep, other.getStepIndex());
+                }
+            }
+            List<ProcessStepExecution> successors = new ArrayList<>();
+            for (ProcessStepExecution other : steps) {
+                if (other.getStepIndex() == nextStep && sameLot(exec, other)) {
+                    successors.add(other);
+                }
+            }
+            return successors;
+        }
+
+        private boolean sameLot(ProcessStepExecution a, ProcessStepExecution b) {
+            return a.getLotIndex() == null || b.getLotIndex() == null || a.getLotIndex().equals(b.getLotIndex());
+        }
+
+        // sposta il blocco al primo istante lavorativo da notBefore, mantenendo il lavoro che conteneva
+        private void moveAfter(ProcessStepExecution exec, LocalDateTime notBefore) {
+            if (++moves > MAX_MOVES) {
+                throw new IllegalStateException("Rescheduling did not converge after " + MAX_MOVES + " moves");
+            }
+            LocalDateTime oldStart = MachineAvailabilityIndex.startOf(exec);
+            LocalDateTime oldEnd = MachineAvailabilityIndex.endOf(exec);
+            long workMinutes = calendar.workingMinutesBetween(oldStart, oldEnd);
+
+            LocalDateTime start = calendar.nextWorkingTime(notBefore);
+            LocalDateTime end = workMinutes > 0
+                    ? calendar.addWorkingMinutes(start, workMinutes)
+                    : start.plus(Duration.between(oldStart, oldEnd));
+
+            exec.setActualStartTime(start);
+            exec.setActualEndTime(end);
+            exec.setActualStart(start.toLocalDate());
+            exec.setActualEnd(end.toLocalDate());
+            board.timeline(MachineAvailabilityIndex.laneOf(exec)).add(slotOf(exec));
+
+            if (!pinned.contains(exec.getId())) {
+                shifted.add(exec.getId());
+            }
+            queue.add(exec);
+        }
+
+        private ProcessStepExecution load(Long executionId) {
+            return loaded.computeIfAbsent(executionId, id -> executionRepository.findById(id)
+                    .orElseThrow(() -> new IllegalStateException("Execution " + id + " is indexed but not found")));
+        }
+
+        private MachineTimeline.Slot slotOf(ProcessStepExecution exec) {
+            Long orderId = exec.getOrder() != null ? exec.getOrder().getId() : null;
+            return new MachineTimeline.Slot(exec.getId(), orderId,
+                    MachineTimeline.tick(MachineAvailabilityIndex.startOf(exec)),
+                    MachineTimeline.tick(MachineAvailabilityIndex.endOf(exec)));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package server_group.service;
+
+import org.springframework.stereotype.Component;
+import server_group.dto.ModelWithStepsDTO;
+import server_group.model.Machinery;
+import server_group.model.ProcessStep;
+import server_group.repository.MachineryRepository;
+import server_group.repository.ProcessStepRepository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// percorso di lavorazione di un modello (step ordinati con macchina e macchine del gruppo), come lo usa lo scheduler
+// letto con una query sola al primo utilizzo e tenuto in memoria finché un modello, uno step o una macchina non cambia
+@Component
+public class RoutingCache {
+
+    private final ProcessStepRepository processStepRepository;
+    private final MachineryRepository machineryRepository;
+
+    private final Map<String, List<ModelWithStepsDTO.ProcessStepDTO>> routings = new ConcurrentHashMap<>();
+
+    public RoutingCache(ProcessStepRepository processStepRepository, MachineryRepository machineryRepository) {
+        this.processStepRepository = processStepRepository;
+        this.machineryRepository = machineryRepository;
+    }
+
+    // lista vuota se il modello non esiste o non ha ancora un processo
+    public List<ModelWithStepsDTO.ProcessStepDTO> routingOf(String modelName) {
+        return routings.computeIfAbsent(modelName, this::load);
+    }
+
+    // da chiamare dopo ogni modifica al modello o ai suoi step
+    public void invalidate(String modelName) {
+        routings.remove(modelName);
+    }
+
+    // le macchine compaiono nei percorsi di più modelli (anche tramite il gruppo)
+    public void invalidateAll() {
+        routings.clear();
+    }
+
+    private List<ModelWithStepsDTO.ProcessStepDTO> load(String modelName) {
+        List<ProcessStep> steps = processStepRepository.findRoutingByModelName(modelName);
+
+        Set<String> groups = steps.stream()
+                .map(step -> step.getMachinery().getMachineGroup())
+                .filter(group -> group != null && !group.isBlank())
+                .collect(Collectors.toSet());
+        Map<String, List<ModelWithStepsDTO.MachineryDTO>> groupMachinery = groups.isEmpty() ? Map.of()
+                : machineryRepository.findByMachineGroupIn(groups).stream()
+                        .collect(Collectors.groupingBy(Machinery::getMachineGroup,
+                                Collectors.mapping(ModelService::toMachineryDTO, Collectors.toUnmodifiableList())));
+
+        List<ModelWithStepsDTO.ProcessStepDTO> routing = new ArrayList<>();
+        for (ProcessStep step : steps) {
+            ModelWithStepsDTO.ProcessStepDTO stepDTO = new ModelWithStepsDTO.ProcessStepDTO();
+            stepDTO.setId(step.getId());
+            stepDTO.setStepOrder(step.getStepOrder());
+            stepDTO.setDuration(step.getDuration());
+            stepDTO.setSemifinishedName(step.getSemifinishedName());
+            stepDTO.setMachinery(ModelService.toMachineryDTO(step.getMachinery()));
+            stepDTO.setGroupMachinery(groupMachinery.get(step.getMachinery().getMachineGroup()));
+            routing.add(stepDTO);
+        }
+        return List.copyOf(routing);
+    }
+}
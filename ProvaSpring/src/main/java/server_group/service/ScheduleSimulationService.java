@@ -0,0 +1,127 @@
+package server_group.service;
+
+import org.springframework.stereotype.Service;
+import server_group.dto.ModelWithStepsDTO;
+import server_group.dto.SimulationCandidateDTO;
+import server_group.dto.SimulationResultDTO;
+import server_group.model.Model;
+import server_group.model.Order;
+import server_group.model.OrderStatus;
+import server_group.model.ProcessStepExecution;
+import server_group.repository.OrderRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// "cosa succederebbe se": pianifica gli ordini candidati con lo stesso scheduler di OrderProductionService,
+// ma su una copia dell'indice delle macchine, senza salvare nulla e senza toccare gli ordini veri
+// lo scheduler riempie i buchi liberi e non sposta i blocchi esistenti, quindi il piano attuale resta com'è
+@Service
+public class ScheduleSimulationService {
+
+    private final OrderRepository orderRepository;
+    private final RoutingCache routingCache;
+    private final MachineAvailabilityIndex availabilityIndex;
+    private final GapFillingScheduler scheduler;
+
+    public ScheduleSimulationService(OrderRepository orderRepository, RoutingCache routingCache, MachineAvailabilityIndex availabilityIndex, GapFillingScheduler scheduler) {
+        this.orderRepository = orderRepository;
+        this.routingCache = routingCache;
+        this.availabilityIndex = availabilityIndex;
+        this.scheduler = scheduler;
+    }
+
+    // i candidati vengono pianificati uno dopo l'altro nell'ordine della richiesta, ognuno vede quelli prima
+    public SimulationResultDTO simulate(List<SimulationCandidateDTO> candidates) {
+        List<Long> orderIds = candidates.stream()
+                .map(SimulationCandidateDTO::getOrderId)
+                .filter(Objects::nonNull)
+                .toList();
+        Map<Long, Order> existing = orderIds.isEmpty() ? Map.of() : orderRepository.findAllById(orderIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+        LocalDate today = LocalDate.now();
+        PlanningBoard board = availabilityIndex.newBoard();
+        SimulationResultDTO response = new SimulationResultDTO();
+        Map<String, Integer> capacities = new LinkedHashMap<>();
+        Map<String, Long> placedTicks = new HashMap<>();
+        LocalDateTime horizonEnd = today.atStartOfDay();
+
+        for (int i = 0; i < candidates.size(); i++) {
+            Order order = toOrder(candidates.get(i), -(i + 1L), existing, today);
+            List<ModelWithStepsDTO.ProcessStepDTO> routing = routingCache.routingOf(order.getModel().getName());
+            if (routing.isEmpty()) {
+                throw new IllegalArgumentException("Model " + order.getModel().getName() + " has no process");
+            }
+            for (ModelWithStepsDTO.ProcessStepDTO step : routing) {
+                putCapacity(capacities, step.getMachinery());
+                if (step.getGroupMachinery() != null) {
+                    step.getGroupMachinery().forEach(machine -> putCapacity(capacities, machine));
+                }
+            }
+
+            // le prenotazioni restano sulla board: il candidato successivo le trova occupate
+            SchedulingResult result = scheduler.plan(order, routing, board);
+            for (ProcessStepExecution exec : result.getExecutions()) {
+                response.getBlocks().add(GanttService.toBlock(exec));
+            }
+            for (PlanningBoard.Reservation reservation : result.getReservations()) {
+                placedTicks.merge(reservation.lane().machineryName(),
+                        reservation.slot().end() - reservation.slot().start(), Long::sum);
+            }
+
+            SimulationResultDTO.CandidateOutcome outcome = new SimulationResultDTO.CandidateOutcome(
+                    order.getId(), order.getDeadline(), result.getCompletionTime(), result.meetsDeadline());
+            response.getOrders().add(outcome);
+            if (!outcome.isMeetsDeadline()) {
+                response.getDeadlineViolations().add(outcome);
+            }
+            if (result.getCompletionTime().isAfter(horizonEnd)) {
+                horizonEnd = result.getCompletionTime();
+            }
+        }
+
+        // utilizzo delle macchine usate dai candidati, da oggi alla fine dell'ultimo candidato, su tutte le corsie
+        board.utilization(placedTicks, capacities, MachineTimeline.tick(today.atStartOfDay()), MachineTimeline.tick(horizonEnd),
+                response.getUtilizationBefore(), response.getUtilizationAfter());
+        return response;
+    }
+
+    // copia staccata dall'entity: lo scheduler non deve modificare gli ordini veri
+    private Order toOrder(SimulationCandidateDTO candidate, Long placeholderId, Map<Long, Order> existing, LocalDate today) {
+        Order order = new Order();
+        order.setStartDate(today);
+        if (candidate.getOrderId() != null) {
+            Order source = existing.get(candidate.getOrderId());
+            if (source == null) {
+                throw new IllegalArgumentException("Order " + candidate.getOrderId() + " not found");
+            }
+            if (source.getStatus() != OrderStatus.CREATED) {
+                throw new IllegalArgumentException("Order " + source.getId() + " is " + source.getStatus() + ", only CREATED orders can be simulated");
+            }
+            order.setId(source.getId());
+            order.setModel(source.getModel());
+            order.setQuantity(source.getQuantity());
+            order.setDeadline(source.getDeadline());
+            return order;
+        }
+
+        if (candidate.getModelName() == null || candidate.getQuantity() == null || candidate.getQuantity() <= 0) {
+            throw new IllegalArgumentException("A simulated order needs an orderId or a model name and a positive quantity");
+        }
+        Model model = new Model();
+        model.setName(candidate.getModelName());
+        order.setId(placeholderId);
+        order.setModel(model);
+        order.setQuantity(candidate.getQuantity());
+        order.setDeadline(candidate.getDeadline());
+        return order;
+    }
+
+    private static void putCapacity(Map<String, Integer> capacities, ModelWithStepsDTO.MachineryDTO machine) {
+        capacities.put(machine.getName(), Math.max(machine.getParallelCapacity(), 1));
+    }
+}
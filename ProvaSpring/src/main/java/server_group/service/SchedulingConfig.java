@@ -0,0 +1,59 @@
+package server_group.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+
+// sceglie il calendario dello scheduler in base a scheduling.mode (vedi application.properties)
+@Configuration
+public class SchedulingConfig {
+
+    @Bean
+    public WorkingCalendar workingCalendar(@Value("${scheduling.mode:DAYS}") String mode,
+                                           @Value("${scheduling.calendar.shifts:08:00-12:00,13:00-17:00}") List<String> shifts,
+                                           @Value("${scheduling.calendar.working-days:MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY}") List<String> workingDays,
+                                           @Value("${scheduling.calendar.holidays:}") List<String> holidays) {
+        if ("DAYS".equalsIgnoreCase(mode)) {
+            return new DayCalendar();
+        }
+        if (!"MINUTES".equalsIgnoreCase(mode)) {
+            throw new IllegalStateException("Unknown scheduling.mode: " + mode + " (use DAYS or MINUTES)");
+        }
+        return new ShiftCalendar(parseShifts(shifts), parseDays(workingDays), parseHolidays(holidays));
+    }
+
+    static List<ShiftCalendar.Shift> parseShifts(List<String> values) {
+        List<ShiftCalendar.Shift> shifts = new ArrayList<>();
+        for (String value : values) {
+            String[] bounds = value.trim().split("-");
+            if (bounds.length != 2) {
+                throw new IllegalStateException("Invalid shift '" + value + "', expected HH:mm-HH:mm");
+            }
+            shifts.add(new ShiftCalendar.Shift(LocalTime.parse(bounds[0].trim()), LocalTime.parse(bounds[1].trim())));
+        }
+        return shifts;
+    }
+
+    static Set<DayOfWeek> parseDays(List<String> values) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (String value : values) {
+            days.add(DayOfWeek.valueOf(value.trim().toUpperCase()));
+        }
+        return days;
+    }
+
+    static Set<LocalDate> parseHolidays(List<String> values) {
+        Set<LocalDate> holidays = new HashSet<>();
+        for (String value : values) {
+            if (!value.isBlank()) {
+                holidays.add(LocalDate.parse(value.trim()));
+            }
+        }
+        return holidays;
+    }
+}
@@ -0,0 +1,65 @@
+package server_group.service;
+
+import server_group.model.Order;
+import server_group.model.ProcessStepExecution;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// risultato della pianificazione di un ordine: execution (non ancora salvate) e utilizzo delle macchine
+public class SchedulingResult {
+
+    private final Order order;
+    private final List<ProcessStepExecution> executions;
+    private final LocalDateTime completionTime;
+    private final Map<String, Double> utilizationBefore;
+    private final Map<String, Double> utilizationAfter;
+    private final List<PlanningBoard.Reservation> reservations;
+
+    public SchedulingResult(Order order, List<ProcessStepExecution> executions, LocalDateTime completionTime,
+                            Map<String, Double> utilizationBefore, Map<String, Double> utilizationAfter,
+                            List<PlanningBoard.Reservation> reservations) {
+        this.order = order;
+        this.executions = executions;
+        this.completionTime = completionTime;
+        this.utilizationBefore = utilizationBefore;
+        this.utilizationAfter = utilizationAfter;
+        this.reservations = reservations;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public List<ProcessStepExecution> getExecutions() {
+        return executions;
+    }
+
+    public LocalDateTime getCompletionTime() {
+        return completionTime;
+    }
+
+    public LocalDate getCompletionDate() {
+        return completionTime.toLocalDate();
+    }
+
+    // la deadline è un giorno: basta finire entro quel giorno
+    public boolean meetsDeadline() {
+        return order.getDeadline() == null || !getCompletionDate().isAfter(order.getDeadline());
+    }
+
+    public Map<String, Double> getUtilizationBefore() {
+        return utilizationBefore;
+    }
+
+    public Map<String, Double> getUtilizationAfter() {
+        return utilizationAfter;
+    }
+
+    // slot occupati sulla board durante la pianificazione
+    public List<PlanningBoard.Reservation> getReservations() {
+        return reservations;
+    }
+}
@@ -0,0 +1,102 @@
+package server_group.service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+
+// calendario a turni: le macchine lavorano solo dentro i turni dei giorni lavorativi, esclusi i festivi
+// i lavori vengono schedulati al minuto e un lavoro che non finisce in un turno continua nel turno successivo
+public class ShiftCalendar implements WorkingCalendar {
+
+    public record Shift(LocalTime start, LocalTime end) {
+        public Shift {
+            if (!end.isAfter(start)) {
+                throw new IllegalArgumentException("Shift must end after it starts: " + start + "-" + end);
+            }
+        }
+    }
+
+    private final List<Shift> shifts;
+    private final Set<DayOfWeek> workingDays;
+    private final Set<LocalDate> holidays;
+
+    public ShiftCalendar(List<Shift> shifts, Set<DayOfWeek> workingDays, Set<LocalDate> holidays) {
+        if (shifts.isEmpty() || workingDays.isEmpty()) {
+            throw new IllegalArgumentException("Working calendar needs at least one shift and one working day");
+        }
+        List<Shift> sorted = new ArrayList<>(shifts);
+        sorted.sort(Comparator.comparing(Shift::start));
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).start().isBefore(sorted.get(i - 1).end())) {
+                throw new IllegalArgumentException("Overlapping shifts: " + sorted.get(i - 1) + " and " + sorted.get(i));
+            }
+        }
+        this.shifts = List.copyOf(sorted);
+        this.workingDays = EnumSet.copyOf(workingDays);
+        this.holidays = Set.copyOf(holidays);
+    }
+
+    public boolean isWorkingDay(LocalDate date) {
+        return workingDays.contains(date.getDayOfWeek()) && !holidays.contains(date);
+    }
+
+    @Override
+    public LocalDateTime nextWorkingTime(LocalDateTime time) {
+        LocalDate date = time.toLocalDate();
+        LocalTime clock = time.toLocalTime();
+        // i festivi sono un insieme finito, quindi prima o poi si trova un giorno lavorativo
+        while (true) {
+            if (isWorkingDay(date)) {
+                for (Shift shift : shifts) {
+                    if (clock.isBefore(shift.end())) {
+                        return date.atTime(clock.isAfter(shift.start()) ? clock : shift.start());
+                    }
+                }
+            }
+            date = date.plusDays(1);
+            clock = LocalTime.MIDNIGHT;
+        }
+    }
+
+    @Override
+    public LocalDateTime addWorkingMinutes(LocalDateTime start, long workMinutes) {
+        LocalDateTime time = nextWorkingTime(start);
+        long remaining = workMinutes;
+        while (remaining > 0) {
+            LocalDateTime shiftEnd = time.toLocalDate().atTime(currentShift(time.toLocalTime()).end());
+            long available = Duration.between(time, shiftEnd).toMinutes();
+            if (remaining <= available) {
+                return time.plusMinutes(remaining);
+            }
+            remaining -= available;
+            time = nextWorkingTime(shiftEnd);
+        }
+        return time;
+    }
+
+    @Override
+    public long workingMinutesBetween(LocalDateTime from, LocalDateTime to) {
+        long minutes = 0;
+        LocalDateTime time = nextWorkingTime(from);
+        while (time.isBefore(to)) {
+            LocalDateTime shiftEnd = time.toLocalDate().atTime(currentShift(time.toLocalTime()).end());
+            LocalDateTime until = shiftEnd.isBefore(to) ? shiftEnd : to;
+            minutes += Duration.between(time, until).toMinutes();
+            time = nextWorkingTime(shiftEnd);
+        }
+        return minutes;
+    }
+
+    // turno che contiene un orario già allineato da nextWorkingTime
+    private Shift currentShift(LocalTime clock) {
+        for (Shift shift : shifts) {
+            if (!clock.isBefore(shift.start()) && clock.isBefore(shift.end())) {
+                return shift;
+            }
+        }
+        throw new IllegalStateException("Not a working time: " + clock);
+    }
+}
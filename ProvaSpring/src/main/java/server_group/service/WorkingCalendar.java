@@ -0,0 +1,17 @@
+package server_group.service;
+
+import java.time.LocalDateTime;
+
+// calendario lavorativo usato dallo scheduler: dice quando una macchina può lavorare
+// e quando finisce un lavoro di una certa durata (in minuti lavorativi)
+public interface WorkingCalendar {
+
+    // primo istante lavorativo >= time
+    LocalDateTime nextWorkingTime(LocalDateTime time);
+
+    // fine di un lavoro lungo workMinutes minuti lavorativi che inizia in start (già allineato)
+    LocalDateTime addWorkingMinutes(LocalDateTime start, long workMinutes);
+
+    // minuti lavorativi dentro [from, to), serve per spostare un blocco mantenendo il lavoro che contiene
+    long workingMinutesBetween(LocalDateTime from, LocalDateTime to);
+}
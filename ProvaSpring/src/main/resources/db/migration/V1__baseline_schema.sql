@@ -0,0 +1,100 @@
+-- schema di partenza, uguale a quello che creava hibernate con ddl-auto=update sulle entity della prima versione
+-- sui db già esistenti non viene eseguito (baseline-on-migrate li marca alla versione 1):
+-- le colonne aggiunte dopo arrivano dalle migrazioni successive
+
+create table raw (
+    id bigint generated by default as identity,
+    casting_number varchar(255),
+    material varchar(255),
+    shape varchar(255),
+    size varchar(255),
+    thickness varchar(255),
+    primary key (id)
+);
+
+create table client (
+    piva varchar(255) not null,
+    company_name varchar(255),
+    email varchar(255),
+    phone varchar(255),
+    primary key (piva)
+);
+
+create table custom_user (
+    email varchar(255) not null,
+    name varchar(255),
+    password varchar(255),
+    phone varchar(255),
+    role varchar(255) check (role in ('MANAGER', 'EMPLOYEE', 'ACCOUNTANT')),
+    surname varchar(255),
+    primary key (email)
+);
+
+create table machinery (
+    id bigint generated by default as identity,
+    buy_date date,
+    capacity varchar(255),
+    name varchar(255),
+    year_manufacture varchar(255),
+    primary key (id)
+);
+
+create table model (
+    name varchar(255) not null,
+    price float(53),
+    id_raw bigint,
+    primary key (name)
+);
+
+create table orders (
+    id bigint generated by default as identity,
+    create_date date,
+    deadline date,
+    end_date date,
+    quantity integer not null,
+    start_date date,
+    status varchar(255) check (status in ('CREATED', 'IN_PRODUCTION', 'COMPLETED', 'CANCELLED')),
+    client_piva varchar(255),
+    model_name varchar(255),
+    primary key (id)
+);
+
+create table process_step (
+    id bigint generated by default as identity,
+    duration numeric(21, 0),
+    semifinished_name varchar(255),
+    step_order integer not null,
+    machinery_id bigint,
+    model_name varchar(255),
+    primary key (id)
+);
+
+create table process_step_execution (
+    id bigint generated by default as identity,
+    actual_end date,
+    actual_start date,
+    machinery_name varchar(255),
+    scheduled_end date,
+    scheduled_start date,
+    step_index integer not null,
+    assigned_employee_id varchar(255),
+    order_id bigint not null,
+    primary key (id)
+);
+
+create table notice (
+    id bigint generated by default as identity,
+    description text,
+    subject varchar(255),
+    creator_email varchar(255) not null,
+    primary key (id)
+);
+
+alter table model add constraint fk_model_raw foreign key (id_raw) references raw;
+alter table orders add constraint fk_orders_client foreign key (client_piva) references client;
+alter table orders add constraint fk_orders_model foreign key (model_name) references model;
+alter table process_step add constraint fk_process_step_machinery foreign key (machinery_id) references machinery;
+alter table process_step add constraint fk_process_step_model foreign key (model_name) references model;
+alter table process_step_execution add constraint fk_execution_employee foreign key (assigned_employee_id) references custom_user;
+alter table process_step_execution add constraint fk_execution_order foreign key (order_id) references orders;
+alter table notice add constraint fk_notice_creator foreign key (creator_email) references custom_user;
@@ -0,0 +1,17 @@
+-- indici per le letture del gantt e della schedulazione
+
+-- gantt per finestra di date e per macchina (findGanttBlocksInWindow*, overlap actual_start <= to and actual_end >= from)
+create index if not exists idx_execution_actual_window on process_step_execution (actual_start, actual_end);
+create index if not exists idx_execution_machinery_window on process_step_execution (machinery_name, actual_start, actual_end);
+
+-- execution di un ordine nell'ordine degli step (findByOrderIdOrderByStepIndex, findGanttBlocksForOrder, propagazione)
+create index if not exists idx_execution_order_step on process_step_execution (order_id, step_index);
+
+-- compiti di un dipendente
+create index if not exists idx_execution_employee on process_step_execution (assigned_employee_id, actual_start);
+
+-- ordini in produzione (tutte le query del gantt partono da qui)
+create index if not exists idx_orders_status on orders (status);
+
+-- percorso di un modello (RoutingCache)
+create index if not exists idx_process_step_model_order on process_step (model_name, step_order);
@@ -0,0 +1,17 @@
+-- versione del piano per il gantt a differenze (GET /api/gantt/changes)
+
+-- versione dell'ultimo inserimento / modifica di ogni execution; le execution di prima restano null
+-- e arrivano ai client solo con il caricamento completo
+alter table process_step_execution add column plan_version bigint;
+create index if not exists idx_execution_plan_version on process_step_execution (plan_version);
+
+-- execution cancellate, per togliere i blocchi dai client che si aggiornano a differenze
+create table gantt_removal (
+    execution_id bigint not null,
+    order_id bigint,
+    plan_version bigint not null,
+    removed_at timestamp(6) not null,
+    primary key (execution_id)
+);
+create index if not exists idx_gantt_removal_version on gantt_removal (plan_version);
+create index if not exists idx_gantt_removal_removed_at on gantt_removal (removed_at);
@@ -0,0 +1,24 @@
+-- bacheca paginata e filtrabile (GET /api/notice)
+
+-- categoria calcolata al salvataggio, come la vedono gli utenti diversi dal creatore
+alter table notice add column category varchar(32);
+alter table notice add column created_at timestamp(6);
+
+update notice n set category = case
+        when n.subject like '%Delay%' then 'DelayNotice'
+        when u.role = 'EMPLOYEE' then 'EmployeeNotice'
+        when u.role = 'MANAGER' then 'ManagerNotice'
+        when u.role = 'ACCOUNTANT' then 'AccountantNotice'
+        else 'Other'
+    end
+from custom_user u
+where u.email = n.creator_email;
+-- la data degli avvisi già presenti non è nota
+update notice set created_at = now() where created_at is null;
+
+-- pagine per id decrescente, per categoria o per autore
+create index if not exists idx_notice_category_id on notice (category, id);
+create index if not exists idx_notice_creator_id on notice (creator_email, id);
+create index if not exists idx_notice_created_at on notice (created_at);
+-- ricerca a testo libero nella descrizione; l'espressione deve restare uguale a quella di NoticeSearchRepositoryImpl
+create index if not exists idx_notice_description_fts on notice using gin (to_tsvector('simple', coalesce(description, '')));
@@ -0,0 +1,18 @@
+-- colonne della schedulazione a minuti, delle macchine parallele e dei lotti
+-- "if not exists" perché i db rimasti su ddl-auto=update potrebbero averle già
+
+-- macchine con più unità uguali (una corsia per unità) e gruppi di macchine intercambiabili
+alter table machinery add column if not exists parallel_capacity integer;
+alter table machinery add column if not exists machine_group varchar(255);
+
+-- orari al minuto dentro i turni; le date restano per le query a giorni
+alter table process_step_execution add column if not exists scheduled_start_time timestamp(6);
+alter table process_step_execution add column if not exists scheduled_end_time timestamp(6);
+alter table process_step_execution add column if not exists actual_start_time timestamp(6);
+alter table process_step_execution add column if not exists actual_end_time timestamp(6);
+
+-- corsia della macchina e lotto dell'ordine
+alter table process_step_execution add column if not exists lane integer;
+alter table process_step_execution add column if not exists lot_index integer;
+alter table process_step_execution add column if not exists lot_count integer;
+alter table process_step_execution add column if not exists lot_quantity integer;
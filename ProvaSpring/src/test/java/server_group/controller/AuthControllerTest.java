@@ -21,6 +21,9 @@ class AuthControllerTest {
     @Mock
     private CustomUserService customUserService;
 
+    @Mock
+    private ReferenceEventPublisher referenceEventPublisher;
+
     @InjectMocks
     private AuthController authController;
 
@@ -75,6 +78,7 @@ class AuthControllerTest {
         // Assert
         assertEquals(HttpStatus.OK, result.getStatusCode());
         assertEquals("User registered successfully!", result.getBody());
+        verify(referenceEventPublisher).publishChanged(ReferenceEventPublisher.EMPLOYEES);
     }
 
     @Test
@@ -89,5 +93,6 @@ class AuthControllerTest {
         // Assert
         assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
         assertEquals("Email already in use!", result.getBody());
+        verify(referenceEventPublisher, never()).publishChanged(anyString());
     }
 }
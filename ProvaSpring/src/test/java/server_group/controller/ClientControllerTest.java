@@ -22,6 +22,9 @@ class ClientControllerTest {
     @Mock
     private ClientService clientService;
 
+    @Mock
+    private ReferenceEventPublisher referenceEventPublisher;
+
     @InjectMocks
     private ClientController clientController;
 
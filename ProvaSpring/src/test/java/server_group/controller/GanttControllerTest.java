@@ -7,13 +7,23 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import server_group.dto.GanttBlockDTO;
+import server_group.dto.GanttChangesDTO;
+import server_group.dto.GanttOrderFacetDTO;
+import server_group.dto.GanttUpdateErrorDTO;
+import server_group.dto.MachineLoadDTO;
+import server_group.dto.StreamMetricsDTO;
+import server_group.model.LoadBucket;
 import server_group.service.GanttService;
+import server_group.service.GanttUpdateException;
 
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.*;
 
 class GanttControllerTest {
@@ -21,6 +31,9 @@ class GanttControllerTest {
     @Mock
     private GanttService ganttService;
 
+    @Mock
+    private GanttEventPublisher ganttEventPublisher;
+
     @InjectMocks
     private GanttController ganttController;
 
@@ -37,15 +50,42 @@ class GanttControllerTest {
         GanttBlockDTO block2 = new GanttBlockDTO();
         List<GanttBlockDTO> blocks = Arrays.asList(block1, block2);
 
-        when(ganttService.getAllScheduledGanttBlocks()).thenReturn(blocks);
+        when(ganttService.getScheduledGanttBlocks(null, null, null, null)).thenReturn(blocks);
+        when(ganttService.currentPlanVersion()).thenReturn(17L);
 
         // Act
-        ResponseEntity<List<GanttBlockDTO>> result = ganttController.getAllGantt();
+        ResponseEntity<?> result = ganttController.getAllGantt(null, null, null, null);
 
         // Assert
         assertEquals(HttpStatus.OK, result.getStatusCode());
         assertEquals(blocks, result.getBody());
-        verify(ganttService, times(1)).getAllScheduledGanttBlocks();
+        assertEquals("17", result.getHeaders().getFirst(GanttController.PLAN_VERSION_HEADER));
+        verify(ganttService, times(1)).getScheduledGanttBlocks(null, null, null, null);
+    }
+
+    @Test
+    void getAllGantt_withWindowAndMachinery() {
+        LocalDate from = LocalDate.of(2025, 3, 1);
+        LocalDate to = LocalDate.of(2025, 3, 21);
+        List<GanttBlockDTO> blocks = List.of(new GanttBlockDTO());
+        when(ganttService.getScheduledGanttBlocks(from, to, List.of("CNC"), null)).thenReturn(blocks);
+
+        ResponseEntity<?> result = ganttController.getAllGantt(from, to, List.of("CNC"), null);
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(blocks, result.getBody());
+    }
+
+    @Test
+    void getAllGantt_invalidWindow_badRequest() {
+        LocalDate from = LocalDate.of(2025, 3, 21);
+        LocalDate to = LocalDate.of(2025, 3, 1);
+        when(ganttService.getScheduledGanttBlocks(from, to, null, null))
+                .thenThrow(new IllegalArgumentException("from must not be after to"));
+
+        ResponseEntity<?> result = ganttController.getAllGantt(from, to, null, null);
+
+        assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
     }
 
     // --- TEST UPDATE BLOCKS ---
@@ -56,14 +96,17 @@ class GanttControllerTest {
         GanttBlockDTO block2 = new GanttBlockDTO();
         List<GanttBlockDTO> modifiedBlocks = Arrays.asList(block1, block2);
 
-        doNothing().when(ganttService).updateBlocks(modifiedBlocks);
+        // il servizio ritorna anche i blocchi spostati a catena
+        GanttBlockDTO shifted = new GanttBlockDTO();
+        List<GanttBlockDTO> changed = Arrays.asList(block1, block2, shifted);
+        when(ganttService.updateBlocks(modifiedBlocks)).thenReturn(changed);
 
         // Act
         ResponseEntity<?> result = ganttController.updateBlocks(modifiedBlocks);
 
         // Assert
         assertEquals(HttpStatus.OK, result.getStatusCode());
-        assertEquals(modifiedBlocks, result.getBody());
+        assertEquals(changed, result.getBody());
         verify(ganttService, times(1)).updateBlocks(modifiedBlocks);
     }
 
@@ -79,4 +122,82 @@ class GanttControllerTest {
         // Assert
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, result.getStatusCode());
     }
+
+    @Test
+    void updateBlocks_invalidBlocks_badRequestWithErrors() {
+        List<GanttBlockDTO> modifiedBlocks = Arrays.asList(new GanttBlockDTO());
+        List<GanttUpdateErrorDTO> errors = List.of(new GanttUpdateErrorDTO(7L, "Step non trovato per ID: 7"));
+        doThrow(new GanttUpdateException(errors)).when(ganttService).updateBlocks(modifiedBlocks);
+
+        ResponseEntity<?> result = ganttController.updateBlocks(modifiedBlocks);
+
+        assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
+        assertEquals(errors, result.getBody());
+    }
+
+    @Test
+    void getChanges_returnsDelta() {
+        GanttChangesDTO changes = new GanttChangesDTO(20L, false, List.of(new GanttBlockDTO()), List.of(3L));
+        when(ganttService.getChangesSince(17L)).thenReturn(changes);
+
+        ResponseEntity<GanttChangesDTO> result = ganttController.getChanges(17L);
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(changes, result.getBody());
+    }
+
+    @Test
+    void getOrderFacets_returnsOrders() {
+        List<GanttOrderFacetDTO> facets = List.of(new GanttOrderFacetDTO(10L, "IT123", "Acme", "Flangia", 50,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 1), 12));
+        when(ganttService.getOrderFacets()).thenReturn(facets);
+
+        ResponseEntity<List<GanttOrderFacetDTO>> result = ganttController.getOrderFacets();
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(facets, result.getBody());
+    }
+
+    @Test
+    void getMachineLoad_returnsBuckets() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 3, 31);
+        List<MachineLoadDTO> load = List.of(new MachineLoadDTO("CNC", from, from.plusDays(7), 4, 1440, 2400, 1, 0.6));
+        when(ganttService.getMachineLoad(from, to, LoadBucket.WEEK)).thenReturn(load);
+
+        ResponseEntity<?> result = ganttController.getMachineLoad(from, to, LoadBucket.WEEK);
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(load, result.getBody());
+    }
+
+    @Test
+    void getMachineLoad_invalidWindow_badRequest() {
+        LocalDate from = LocalDate.of(2025, 3, 31);
+        LocalDate to = LocalDate.of(2025, 1, 1);
+        when(ganttService.getMachineLoad(from, to, LoadBucket.DAY)).thenThrow(new IllegalArgumentException("from must not be after to"));
+
+        ResponseEntity<?> result = ganttController.getMachineLoad(from, to, LoadBucket.DAY);
+
+        assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
+    }
+
+    @Test
+    void streamChanges_registersClient() {
+        SseEmitter emitter = new SseEmitter();
+        when(ganttEventPublisher.registerClient("abc-4")).thenReturn(emitter);
+
+        assertSame(emitter, ganttController.streamChanges("abc-4"));
+    }
+
+    @Test
+    void streamMetrics_returnsBroadcasterMetrics() {
+        StreamMetricsDTO metrics = new StreamMetricsDTO("gantt", 2, 3, 2, 5, 10, 7, 0, 0, 1);
+        when(ganttEventPublisher.metrics()).thenReturn(metrics);
+
+        ResponseEntity<StreamMetricsDTO> result = ganttController.streamMetrics();
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertSame(metrics, result.getBody());
+    }
 }
@@ -0,0 +1,39 @@
+package server_group.controller;
+
+import org.junit.jupiter.api.Test;
+import server_group.dto.GanttBlockDTO;
+import server_group.dto.GanttChangesDTO;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GanttEventPublisherTest {
+
+    private final GanttEventPublisher publisher = new GanttEventPublisher(new SseBroadcaster("gantt", 16, 16,
+            Duration.ofSeconds(30), Executors.newVirtualThreadPerTaskExecutor()));
+
+    private final GanttChangesDTO changes = new GanttChangesDTO(5L, false, List.of(new GanttBlockDTO()), List.of(9L));
+
+    // --- TEST REGISTER CLIENT ---
+    @Test
+    void registerClient_shouldAddEmitter() {
+        assertNotNull(publisher.registerClient(null));
+    }
+
+    // --- TEST PUBLISH EVENT WITH ACTIVE EMITTER ---
+    @Test
+    void publishChanges_withActiveEmitter_shouldSendEvent() {
+        publisher.registerClient(null);
+
+        assertDoesNotThrow(() -> publisher.publishChanges(changes));
+    }
+
+    // --- TEST PUBLISH EVENT WITHOUT CLIENTS ---
+    @Test
+    void publishChanges_withoutClients_doesNothing() {
+        assertDoesNotThrow(() -> publisher.publishChanges(changes));
+    }
+}
@@ -22,6 +22,9 @@ class MachineryControllerTest {
     @Mock
     private MachineryService machineryService;
 
+    @Mock
+    private ReferenceEventPublisher referenceEventPublisher;
+
     @InjectMocks
     private MachineryController machineryController;
 
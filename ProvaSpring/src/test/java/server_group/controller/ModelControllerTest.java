@@ -24,6 +24,9 @@ class ModelControllerTest {
     @Mock
     private ModelService modelService;
 
+    @Mock
+    private ReferenceEventPublisher referenceEventPublisher;
+
     @InjectMocks
     private ModelController modelController;
 
@@ -112,6 +115,7 @@ class ModelControllerTest {
         assertEquals(model, result.getBody());
         assertEquals(URI.create("/api/models/NewModel"), result.getHeaders().getLocation());
         verify(modelService, times(1)).saveModel(model);
+        verify(referenceEventPublisher).publishChanged(ReferenceEventPublisher.MODELS);
     }
 
     // --- TEST UPDATE ---
@@ -167,5 +171,6 @@ class ModelControllerTest {
 
         // Assert
         assertEquals(HttpStatus.NOT_FOUND, result.getStatusCode());
+        verify(referenceEventPublisher, never()).publishChanged(anyString());
     }
 }
@@ -2,6 +2,7 @@ package server_group.controller;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -9,13 +10,18 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import server_group.dto.NoticeDTO;
+import server_group.dto.NoticePageDTO;
+import server_group.dto.StreamMetricsDTO;
 import server_group.model.CustomUser;
 import server_group.model.Notice;
+import server_group.repository.NoticeFilter;
 import server_group.security.Role;
 import server_group.service.NoticeService;
 
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -54,6 +60,43 @@ class NoticeControllerTest {
         verify(noticeService, times(1)).getAllNoticesFlat("user@test.com");
     }
 
+    // --- TEST SEARCH NOTICES ---
+    @Test
+    void searchNotices_successful() {
+        // Arrange
+        NoticePageDTO page = new NoticePageDTO(List.of(new NoticeDTO()), 12L);
+        NoticeFilter filter = NoticeFilter.of("user@test.com", "DelayNotice", null, null, "ritardo", null, null);
+        when(noticeService.searchNotices(filter, 20L, 10)).thenReturn(page);
+
+        // Act
+        ResponseEntity<?> result = noticeController.searchNotices("user@test.com", "DelayNotice", null, null, "ritardo",
+                null, null, 20L, 10);
+
+        // Assert
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(page, result.getBody());
+    }
+
+    @Test
+    void searchNotices_invalidDates_badRequest() {
+        ResponseEntity<?> result = noticeController.searchNotices("user@test.com", null, null, null, null,
+                LocalDate.of(2025, 5, 2), LocalDate.of(2025, 5, 1), null, null);
+
+        assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
+        verify(noticeService, never()).searchNotices(any(), any(), any());
+    }
+
+    @Test
+    void countNotices_successful() {
+        NoticeFilter filter = NoticeFilter.of("user@test.com", null, null, null, null, null, null);
+        when(noticeService.countNotices(filter)).thenReturn(Map.of("PersonalNotice", 2L));
+
+        ResponseEntity<?> result = noticeController.countNotices("user@test.com", null, null, null, null, null);
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(Map.of("PersonalNotice", 2L), result.getBody());
+    }
+
     // --- TEST CREATE NOTICE ---
     @Test
     void createNotice_successful() {
@@ -90,7 +133,10 @@ class NoticeControllerTest {
         assertEquals("PersonalNotice", result.getBody().getCategory()); // perché creatorEmail == currentUserEmail
 
         verify(noticeService, times(1)).saveFromDto(inputDto);
-        verify(noticeEventPublisher, times(1)).publishEvent(any(NoticeDTO.class));
+        ArgumentCaptor<NoticeDTO> published = ArgumentCaptor.forClass(NoticeDTO.class);
+        verify(noticeEventPublisher, times(1)).publishCreated(published.capture());
+        assertEquals("Test Subject", published.getValue().getSubject());
+        assertEquals("EmployeeNotice", published.getValue().getCategory()); // come lo vedono gli altri utenti
     }
 
 
@@ -106,7 +152,7 @@ class NoticeControllerTest {
         // Assert
         assertEquals(HttpStatus.NO_CONTENT, result.getStatusCode());
         verify(noticeService, times(1)).deleteNotice(1L);
-        verify(noticeEventPublisher, times(1)).publishEvent("deleted: 1");
+        verify(noticeEventPublisher, times(1)).publishDeleted(1L);
     }
 
     @Test
@@ -120,7 +166,7 @@ class NoticeControllerTest {
         // Assert
         assertEquals(HttpStatus.NOT_FOUND, result.getStatusCode());
         verify(noticeService, times(1)).deleteNotice(99L);
-        verify(noticeEventPublisher, never()).publishEvent(any());
+        verify(noticeEventPublisher, never()).publishDeleted(any());
     }
 
     // --- TEST STREAM NOTICES ---
@@ -128,14 +174,29 @@ class NoticeControllerTest {
     void streamNotices_successful() {
         // Arrange
         SseEmitter emitter = new SseEmitter();
-        when(noticeEventPublisher.registerClient()).thenReturn(emitter);
+        when(noticeEventPublisher.registerClient(null)).thenReturn(emitter);
 
         // Act
-        SseEmitter result = noticeController.streamNotices();
+        SseEmitter result = noticeController.streamNotices(null);
 
         // Assert
         assertNotNull(result);
         assertEquals(emitter, result);
-        verify(noticeEventPublisher, times(1)).registerClient();
+        verify(noticeEventPublisher, times(1)).registerClient(null);
+    }
+
+    // --- TEST STREAM METRICS ---
+    @Test
+    void streamMetrics_successful() {
+        // Arrange
+        StreamMetricsDTO metrics = new StreamMetricsDTO("notice", 1, 0, 0, 4, 4, 4, 0, 0, 0);
+        when(noticeEventPublisher.metrics()).thenReturn(metrics);
+
+        // Act
+        ResponseEntity<StreamMetricsDTO> result = noticeController.streamMetrics();
+
+        // Assert
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(metrics, result.getBody());
     }
 }
@@ -2,30 +2,29 @@ package server_group.controller;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
-import org.mockito.MockitoAnnotations;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import server_group.dto.NoticeDTO;
 
-import java.io.IOException;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.time.Duration;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class NoticeEventPublisherTest {
 
-    @InjectMocks
     private NoticeEventPublisher noticeEventPublisher;
 
     @BeforeEach
     void setUp() {
-        MockitoAnnotations.openMocks(this);
+        noticeEventPublisher = new NoticeEventPublisher(new SseBroadcaster("notice", 16, 16, Duration.ofSeconds(30),
+                Executors.newVirtualThreadPerTaskExecutor()));
     }
 
     // --- TEST REGISTER CLIENT ---
     @Test
     void registerClient_shouldAddEmitter() {
         // Act
-        SseEmitter emitter = noticeEventPublisher.registerClient();
+        SseEmitter emitter = noticeEventPublisher.registerClient(null);
 
         // Assert
         assertNotNull(emitter);
@@ -33,11 +32,32 @@ class NoticeEventPublisherTest {
 
     // --- TEST PUBLISH EVENT WITH ACTIVE EMITTER ---
     @Test
-    void publishEvent_withActiveEmitter_shouldSendEvent() {
+    void publishCreated_withActiveEmitter_shouldSendEvent() {
         // Arrange
-        SseEmitter emitter = noticeEventPublisher.registerClient();
+        SseEmitter emitter = noticeEventPublisher.registerClient(null);
 
         // Act & Assert (no eccezione = successo)
-        assertDoesNotThrow(() -> noticeEventPublisher.publishEvent("Test notice"));
+        assertDoesNotThrow(() -> noticeEventPublisher.publishCreated(new NoticeDTO()));
+    }
+
+    @Test
+    void publishDeleted_withActiveEmitter_shouldSendEvent() {
+        noticeEventPublisher.registerClient(null);
+
+        assertDoesNotThrow(() -> noticeEventPublisher.publishDeleted(4L));
+    }
+
+    // --- TEST METRICS ---
+    @Test
+    void metrics_countSubscribersAndEvents() {
+        noticeEventPublisher.registerClient(null);
+        noticeEventPublisher.registerClient(null);
+
+        noticeEventPublisher.publishDeleted(4L);
+
+        assertEquals("notice", noticeEventPublisher.metrics().getChannel());
+        assertEquals(2, noticeEventPublisher.metrics().getSubscribers());
+        assertEquals(1, noticeEventPublisher.metrics().getPublished());
+        assertEquals(2, noticeEventPublisher.metrics().getEnqueued());
     }
 }
@@ -10,11 +10,15 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import server_group.dto.BatchProductionResultDTO;
+import server_group.dto.ProductionResultDTO;
 import server_group.model.Order;
 import server_group.model.OrderStatus;
 import server_group.service.OrderService;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -177,12 +181,35 @@ class OrderControllerTest {
 
     @Test
     void testSetInProduction() throws Exception {
+        when(orderService.setInProduction(1L))
+                .thenReturn(new ProductionResultDTO(1L, null, Map.of("MachineA", 0.25), Map.of("MachineA", 0.75)));
+
         mockMvc.perform(put("/api/orders/1/in-production"))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderId").value(1))
+                .andExpect(jsonPath("$.utilizationBefore.MachineA").value(0.25))
+                .andExpect(jsonPath("$.utilizationAfter.MachineA").value(0.75));
 
         verify(orderService, times(1)).setInProduction(1L);
     }
 
+    @Test
+    void testSetInProductionBatch() throws Exception {
+        BatchProductionResultDTO result = new BatchProductionResultDTO();
+        result.getScheduled().add(2L);
+        result.getRejected().put(1L, "Cannot schedule order 1 before deadline.");
+        when(orderService.setInProduction(List.of(1L, 2L))).thenReturn(result);
+
+        mockMvc.perform(put("/api/orders/in-production")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.scheduled[0]").value(2))
+                .andExpect(jsonPath("$.rejected['1']").value("Cannot schedule order 1 before deadline."));
+
+        verify(orderService, times(1)).setInProduction(List.of(1L, 2L));
+    }
+
     @Test
     void testComplete() throws Exception {
         mockMvc.perform(put("/api/orders/1/complete"))
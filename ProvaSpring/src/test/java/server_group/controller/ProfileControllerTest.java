@@ -12,6 +12,7 @@ import server_group.dto.ProfileDTO;
 import server_group.model.CustomUser;
 import server_group.repository.CustomUserRepository;
 import server_group.security.Role;
+import server_group.security.TokenRevocations;
 import server_group.service.CustomUserService;
 import server_group.service.ProcessStepExecutionService;
 
@@ -33,6 +34,12 @@ class ProfileControllerTest {
     @Mock
     private ProcessStepExecutionService processStepExecutionService;
 
+    @Mock
+    private TokenRevocations tokenRevocations;
+
+    @Mock
+    private ReferenceEventPublisher referenceEventPublisher;
+
     @InjectMocks
     private ProfileController profileController;
 
@@ -97,6 +104,25 @@ class ProfileControllerTest {
         assertTrue(result.getBody() instanceof ProfileDTO);
         verify(customUserRepository, times(1)).findByEmail("email@test.com");
         verify(customUserService, times(1)).updateUser(existing);
+        verify(tokenRevocations).revoke("email@test.com");
+    }
+
+    @Test
+    void updateProfile_sameRole_keepsTokens() {
+        CustomUser existing = new CustomUser();
+        existing.setEmail("email@test.com");
+        existing.setRole(Role.EMPLOYEE);
+
+        CustomUser updated = new CustomUser();
+        updated.setName("John");
+        updated.setRole(Role.EMPLOYEE);
+
+        when(customUserRepository.findByEmail("email@test.com")).thenReturn(Optional.of(existing));
+        when(customUserService.updateUser(any(CustomUser.class))).thenReturn(existing);
+
+        profileController.updateProfile("email@test.com", updated);
+
+        verify(tokenRevocations, never()).revoke(anyString());
     }
 
     @Test
@@ -127,6 +153,8 @@ class ProfileControllerTest {
         assertEquals(HttpStatus.OK, result.getStatusCode());
         assertEquals("User deleted successfully", result.getBody());
         verify(customUserRepository, times(1)).deleteById("email@test.com");
+        verify(tokenRevocations).revoke("email@test.com");
+        verify(referenceEventPublisher).publishChanged(ReferenceEventPublisher.EMPLOYEES);
     }
 
     @Test
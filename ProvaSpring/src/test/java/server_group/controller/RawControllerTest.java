@@ -29,6 +29,9 @@ class RawControllerTest {
     @Mock
     private RawService rawService;
 
+    @Mock
+    private ReferenceEventPublisher referenceEventPublisher;
+
     @InjectMocks
     private RawController rawController;
 
@@ -163,6 +166,7 @@ class RawControllerTest {
 
         verify(rawService, times(1)).findById(1L);
         verify(rawService, times(1)).delete(1L);
+        verify(referenceEventPublisher).publishChanged(ReferenceEventPublisher.RAWS);
     }
 
     @Test
@@ -175,5 +179,6 @@ class RawControllerTest {
 
         verify(rawService, times(1)).findById(1L);
         verify(rawService, times(0)).delete(anyLong());
+        verify(referenceEventPublisher, never()).publishChanged(anyString());
     }
 }
@@ -0,0 +1,38 @@
+package server_group.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReferenceEventPublisherTest {
+
+    private ReferenceEventPublisher referenceEventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        referenceEventPublisher = new ReferenceEventPublisher(new SseBroadcaster("reference", 16, 16, Duration.ofSeconds(30),
+                Executors.newVirtualThreadPerTaskExecutor()));
+    }
+
+    @Test
+    void publishChanged_reachesEverySubscriber() {
+        referenceEventPublisher.registerClient(null);
+        referenceEventPublisher.registerClient(null);
+
+        referenceEventPublisher.publishChanged(ReferenceEventPublisher.RAWS);
+
+        // un evento pubblicato, in coda a ogni client
+        assertEquals(1, referenceEventPublisher.metrics().getPublished());
+        assertEquals(2, referenceEventPublisher.metrics().getEnqueued());
+        assertEquals(2, referenceEventPublisher.metrics().getSubscribers());
+    }
+
+    @Test
+    void publishChanged_withoutSubscribers_doesNotThrow() {
+        assertDoesNotThrow(() -> referenceEventPublisher.publishChanged(ReferenceEventPublisher.EMPLOYEES));
+    }
+}
@@ -0,0 +1,55 @@
+package server_group.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import server_group.dto.SimulationCandidateDTO;
+import server_group.dto.SimulationResultDTO;
+import server_group.service.ScheduleSimulationService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class ScheduleControllerTest {
+
+    @Mock
+    private ScheduleSimulationService simulationService;
+
+    @InjectMocks
+    private ScheduleController scheduleController;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    // --- TEST SIMULATE ---
+    @Test
+    void simulate_successful() {
+        List<SimulationCandidateDTO> candidates = List.of(new SimulationCandidateDTO("ModelX", 10, null));
+        SimulationResultDTO simulation = new SimulationResultDTO();
+        when(simulationService.simulate(candidates)).thenReturn(simulation);
+
+        ResponseEntity<?> result = scheduleController.simulate(candidates);
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(simulation, result.getBody());
+    }
+
+    @Test
+    void simulate_badCandidate_returnsBadRequest() {
+        List<SimulationCandidateDTO> candidates = List.of(new SimulationCandidateDTO());
+        when(simulationService.simulate(candidates)).thenThrow(new IllegalArgumentException("bad"));
+
+        ResponseEntity<?> result = scheduleController.simulate(candidates);
+
+        assertEquals(HttpStatus.BAD_REQUEST, result.getStatusCode());
+        assertEquals("bad", result.getBody());
+    }
+}
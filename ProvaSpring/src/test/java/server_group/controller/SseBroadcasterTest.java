@@ -0,0 +1,230 @@
+package server_group.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server_group.dto.StreamMetricsDTO;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SseBroadcasterTest {
+
+    private ManualExecutor sender;
+    private SseBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        sender = new ManualExecutor();
+        broadcaster = new SseBroadcaster("notice", 2, 4, Duration.ofSeconds(30), sender);
+    }
+
+    // --- accodamento ---
+    @Test
+    void publish_onlyEnqueues_untilTheSenderRuns() {
+        broadcaster.register(null);
+        broadcaster.register(null);
+
+        broadcaster.publish("noticeUpdate", "hello");
+
+        StreamMetricsDTO metrics = broadcaster.metrics();
+        assertEquals(2, metrics.getSubscribers());
+        assertEquals(2, metrics.getQueuedEvents());
+        assertEquals(1, metrics.getMaxQueueDepth());
+        assertEquals(0, metrics.getDelivered());
+
+        sender.runAll();
+
+        metrics = broadcaster.metrics();
+        assertEquals(0, metrics.getQueuedEvents());
+        assertEquals(2, metrics.getDelivered());
+    }
+
+    @Test
+    void publish_schedulesOneDrainPerSubscriber() {
+        broadcaster.register(null);
+
+        broadcaster.publish("noticeUpdate", "a");
+        broadcaster.publish("noticeUpdate", "b");
+
+        assertEquals(1, sender.tasks.size());
+        sender.runAll();
+        assertEquals(2, broadcaster.metrics().getDelivered());
+    }
+
+    // --- client lenti ---
+    @Test
+    void publish_fullQueue_evictsTheSubscriber() {
+        broadcaster.register(null);
+
+        broadcaster.publish("noticeUpdate", "a");
+        broadcaster.publish("noticeUpdate", "b");
+        broadcaster.publish("noticeUpdate", "c");
+
+        StreamMetricsDTO metrics = broadcaster.metrics();
+        assertEquals(0, metrics.getSubscribers());
+        assertEquals(3, metrics.getPublished());
+        assertEquals(2, metrics.getEnqueued());
+        assertEquals(1, metrics.getDropped());
+        assertEquals(1, metrics.getEvicted());
+        assertEquals(1.0 / 3, metrics.getDropRate(), 1e-9);
+
+        // gli eventi ancora in coda del client scollegato non partono più
+        sender.runAll();
+        assertEquals(0, broadcaster.metrics().getDelivered());
+    }
+
+    @Test
+    void publish_slowSubscriber_doesNotAffectTheOthers() {
+        broadcaster.register(null);
+        broadcaster.publish("noticeUpdate", "a");
+        broadcaster.publish("noticeUpdate", "b");
+        broadcaster.register(null);
+
+        broadcaster.publish("noticeUpdate", "c");
+        sender.runAll();
+
+        StreamMetricsDTO metrics = broadcaster.metrics();
+        assertEquals(1, metrics.getSubscribers());
+        assertEquals(1, metrics.getDelivered());
+    }
+
+    // --- heartbeat ---
+    @Test
+    void heartbeat_isSentToEverySubscriber() {
+        broadcaster.register(null);
+
+        broadcaster.heartbeat();
+
+        assertEquals(1, broadcaster.metrics().getQueuedEvents());
+        sender.runAll();
+        // inviato, ma contato a parte: published e delivered restano quelli degli eventi
+        StreamMetricsDTO metrics = broadcaster.metrics();
+        assertEquals(1, metrics.getHeartbeats());
+        assertEquals(0, metrics.getPublished());
+        assertEquals(0, metrics.getDelivered());
+    }
+
+    @Test
+    void shutdown_disconnectsEverySubscriber() {
+        broadcaster.register(null);
+        broadcaster.register(null);
+
+        broadcaster.shutdown();
+
+        assertEquals(0, broadcaster.metrics().getSubscribers());
+    }
+
+    // --- ripresa con Last-Event-ID ---
+    @Test
+    void register_withLastEventId_replaysMissedEvents() {
+        broadcaster = new SseBroadcaster("notice", 8, 4, Duration.ofSeconds(30), sender);
+        broadcaster.publish("noticeUpdate", "a");
+        String seen = broadcaster.currentEventId();
+        broadcaster.publish("noticeUpdate", "b");
+        broadcaster.publish("noticeUpdate", "c");
+
+        broadcaster.register(seen);
+
+        assertEquals(2, broadcaster.metrics().getQueuedEvents());
+        sender.runAll();
+        assertEquals(2, broadcaster.metrics().getDelivered());
+    }
+
+    @Test
+    void register_upToDate_replaysNothing() {
+        broadcaster.publish("noticeUpdate", "a");
+
+        broadcaster.register(broadcaster.currentEventId());
+
+        assertEquals(0, broadcaster.metrics().getQueuedEvents());
+        assertTrue(sender.tasks.isEmpty());
+    }
+
+    @Test
+    void register_eventsNoLongerBuffered_getsOnlyAReset() {
+        broadcaster = new SseBroadcaster("notice", 8, 4, Duration.ofSeconds(30), sender);
+        broadcaster.publish("noticeUpdate", "a");
+        String seen = broadcaster.currentEventId();
+        for (int i = 0; i < 5; i++) {
+            broadcaster.publish("noticeUpdate", "b" + i);
+        }
+
+        broadcaster.register(seen);
+
+        assertEquals(1, broadcaster.metrics().getQueuedEvents());
+    }
+
+    @Test
+    void register_idFromAnotherServerStart_getsAReset() {
+        broadcaster.publish("noticeUpdate", "a");
+
+        broadcaster.register("zzz-1");
+
+        assertEquals(1, broadcaster.metrics().getQueuedEvents());
+    }
+
+    @Test
+    void register_moreMissedEventsThanTheQueue_getsOnlyAReset() {
+        broadcaster.publish("noticeUpdate", "a");
+        String seen = broadcaster.currentEventId();
+        broadcaster.publish("noticeUpdate", "b");
+        broadcaster.publish("noticeUpdate", "c");
+        broadcaster.publish("noticeUpdate", "d");
+
+        broadcaster.register(seen);
+
+        assertEquals(1, broadcaster.metrics().getQueuedEvents());
+    }
+
+    // esegue i task solo quando lo chiede il test
+    private static class ManualExecutor extends AbstractExecutorService {
+        private final Deque<Runnable> tasks = new ArrayDeque<>();
+        private boolean shutdown;
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            List<Runnable> pending = List.copyOf(tasks);
+            tasks.clear();
+            return pending;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown && tasks.isEmpty();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return isTerminated();
+        }
+    }
+}
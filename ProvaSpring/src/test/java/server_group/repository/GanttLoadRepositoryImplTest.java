@@ -0,0 +1,79 @@
+package server_group.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import server_group.model.OrderStatus;
+import server_group.repository.GanttLoadRepository.LoadInterval;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class GanttLoadRepositoryImplTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Query query;
+
+    private GanttLoadRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        repository = new GanttLoadRepositoryImpl(entityManager);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+    }
+
+    private String sql() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(entityManager).createNativeQuery(sql.capture());
+        return sql.getValue();
+    }
+
+    @Test
+    void findLoadIntervals_readsOnlyTheBlocksInTheWindow() {
+        when(query.getResultList()).thenReturn(List.of());
+        LocalDate from = LocalDate.of(2025, 3, 1);
+        LocalDate to = LocalDate.of(2025, 3, 31);
+
+        repository.findLoadIntervals(OrderStatus.IN_PRODUCTION, from, to);
+
+        String sql = sql();
+        assertTrue(sql.contains("e.actual_start_time, e.actual_end_time"));
+        assertTrue(sql.contains("max(parallel_capacity)"));
+        assertTrue(sql.endsWith("e.actual_start <= :to and e.actual_end >= :from"));
+        verify(query).setParameter("status", "IN_PRODUCTION");
+        verify(query).setParameter("from", from);
+        verify(query).setParameter("to", to);
+    }
+
+    @Test
+    void findLoadIntervals_mapsJdbcTypes() {
+        Object[] timed = {"CNC", Date.valueOf(LocalDate.of(2025, 3, 3)), Date.valueOf(LocalDate.of(2025, 3, 4)),
+                Timestamp.valueOf(LocalDateTime.of(2025, 3, 3, 9, 0)), Timestamp.valueOf(LocalDateTime.of(2025, 3, 4, 11, 0)), 2};
+        // righe pianificate a giorni: niente orari
+        Object[] daily = {"Saldatrice", LocalDate.of(2025, 3, 5), LocalDate.of(2025, 3, 6), null, null, 1L};
+        when(query.getResultList()).thenReturn(List.<Object>of(timed, daily));
+
+        List<LoadInterval> intervals = repository.findLoadIntervals(OrderStatus.IN_PRODUCTION,
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31));
+
+        assertEquals(new LoadInterval("CNC", LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 4),
+                LocalDateTime.of(2025, 3, 3, 9, 0), LocalDateTime.of(2025, 3, 4, 11, 0), 2), intervals.get(0));
+        assertEquals(new LoadInterval("Saldatrice", LocalDate.of(2025, 3, 5), LocalDate.of(2025, 3, 6),
+                null, null, 1), intervals.get(1));
+    }
+}
@@ -0,0 +1,120 @@
+package server_group.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import server_group.dto.NoticeDTO;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class NoticeSearchRepositoryImplTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Query query;
+
+    private NoticeSearchRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        repository = new NoticeSearchRepositoryImpl(entityManager);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+    }
+
+    private String sql() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(entityManager).createNativeQuery(sql.capture());
+        return sql.getValue();
+    }
+
+    // --- ricerca ---
+    @Test
+    void searchNotices_noFilters_onlyViewerCategory() {
+        when(query.getResultList()).thenReturn(List.of());
+
+        repository.searchNotices(NoticeFilter.of("me@test.com", null, null, null, null, null, null), null, 51);
+
+        String sql = sql();
+        assertFalse(sql.contains(" where "));
+        assertTrue(sql.endsWith("order by n.id desc"));
+        verify(query).setParameter("viewer", "me@test.com");
+        verify(query).setMaxResults(51);
+    }
+
+    @Test
+    void searchNotices_allFilters_useKeysetAndFullText() {
+        when(query.getResultList()).thenReturn(List.of());
+        NoticeFilter filter = NoticeFilter.of("me@test.com", "ManagerNotice", "boss@test.com", "50%_off", "ferie agosto",
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+
+        repository.searchNotices(filter, 40L, 11);
+
+        String sql = sql();
+        assertTrue(sql.contains("n.category = :category"));
+        assertTrue(sql.contains("n.creator_email <> :viewer"));
+        assertTrue(sql.contains("n.creator_email = :creator"));
+        assertTrue(sql.contains(NoticeSearchRepositoryImpl.DESCRIPTION_TSVECTOR + " @@ plainto_tsquery('simple', :text)"));
+        assertTrue(sql.contains("n.id < :before"));
+        verify(query).setParameter("subject", "%50\\%\\_off%");
+        verify(query).setParameter("text", "ferie agosto");
+        verify(query).setParameter("from", LocalDateTime.of(2025, 1, 1, 0, 0));
+        verify(query).setParameter("to", LocalDateTime.of(2025, 2, 1, 0, 0));
+        verify(query).setParameter("before", 40L);
+    }
+
+    @Test
+    void searchNotices_personalCategory_filtersOnViewer() {
+        when(query.getResultList()).thenReturn(List.of());
+
+        repository.searchNotices(NoticeFilter.of("me@test.com", "PersonalNotice", null, null, null, null, null), null, 10);
+
+        String sql = sql();
+        assertTrue(sql.contains("n.creator_email = :viewer and n.category <> 'DelayNotice'"));
+        assertFalse(sql.contains(":category"));
+    }
+
+    @Test
+    void searchNotices_mapsRows() {
+        LocalDateTime created = LocalDateTime.of(2025, 4, 2, 9, 30);
+        Object[] row = {7L, "boss@test.com", "Anna", "Bianchi", "Ferie", "Chiusura ad agosto", "ManagerNotice", Timestamp.valueOf(created)};
+        when(query.getResultList()).thenReturn(List.<Object>of((Object) row));
+
+        List<NoticeDTO> notices = repository.searchNotices(NoticeFilter.of("me@test.com", null, null, null, null, null, null), null, 10);
+
+        assertEquals(1, notices.size());
+        assertEquals(7L, notices.get(0).getId());
+        assertEquals("Anna Bianchi", notices.get(0).getCreatorFullName());
+        assertEquals("ManagerNotice", notices.get(0).getCategory());
+        assertEquals(created, notices.get(0).getCreatedAt());
+    }
+
+    // --- conteggi ---
+    @Test
+    void countNoticesByCategory_oneGroupedQuery_ignoresCategory() {
+        when(query.getResultList()).thenReturn(List.<Object>of(
+                new Object[]{"PersonalNotice", 2L}, new Object[]{"DelayNotice", 5L}));
+
+        Map<String, Long> counts = repository.countNoticesByCategory(
+                new NoticeFilter("me@test.com", "DelayNotice", null, null, "ferie", null, null));
+
+        String sql = sql();
+        assertTrue(sql.endsWith("group by 1"));
+        assertFalse(sql.contains(":category"));
+        assertEquals(Map.of("PersonalNotice", 2L, "DelayNotice", 5L), counts);
+    }
+}
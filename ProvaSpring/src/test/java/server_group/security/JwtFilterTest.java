@@ -0,0 +1,111 @@
+package server_group.security;
+
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtFilterTest {
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private FilterChain chain;
+
+    private TokenRevocations revocations;
+    private JwtFilter filter;
+
+    private final JwtPrincipal principal = new JwtPrincipal("anna@test.com", "ACCOUNTANT", "Anna Bianchi",
+            Instant.now().minus(1, ChronoUnit.MINUTES), Instant.now().plus(1, ChronoUnit.HOURS));
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        revocations = new TokenRevocations();
+        filter = new JwtFilter(jwtUtil, revocations);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletRequest request(String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        return request;
+    }
+
+    // --- autenticazione ---
+    @Test
+    void validToken_authenticatesFromClaims() throws Exception {
+        when(jwtUtil.verify("tok")).thenReturn(principal);
+        MockHttpServletRequest request = request("Bearer tok");
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertSame(principal, auth.getPrincipal());
+        assertEquals("ROLE_ACCOUNTANT", auth.getAuthorities().iterator().next().getAuthority());
+        verify(chain).doFilter(eq(request), any());
+    }
+
+    @Test
+    void noHeader_staysAnonymous() throws Exception {
+        filter.doFilter(request(null), new MockHttpServletResponse(), chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(jwtUtil);
+        verify(chain).doFilter(any(), any());
+    }
+
+    @Test
+    void invalidToken_staysAnonymous() throws Exception {
+        when(jwtUtil.verify("bad")).thenThrow(new JwtException("bad signature"));
+
+        filter.doFilter(request("Bearer bad"), new MockHttpServletResponse(), chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(chain).doFilter(any(), any());
+    }
+
+    // --- revoca ---
+    @Test
+    void revokedUser_oldTokenIsRejected() throws Exception {
+        when(jwtUtil.verify("tok")).thenReturn(principal);
+        revocations.revoke("anna@test.com");
+
+        filter.doFilter(request("Bearer tok"), new MockHttpServletResponse(), chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(chain).doFilter(any(), any());
+    }
+
+    @Test
+    void revokedUser_tokenIssuedAfterIsAccepted() throws Exception {
+        revocations.revoke("anna@test.com");
+        JwtPrincipal fresh = new JwtPrincipal("anna@test.com", "EMPLOYEE", null,
+                Instant.now().plus(1, ChronoUnit.SECONDS), Instant.now().plus(1, ChronoUnit.HOURS));
+        when(jwtUtil.verify("new")).thenReturn(fresh);
+
+        filter.doFilter(request("Bearer new"), new MockHttpServletResponse(), chain);
+
+        assertSame(fresh, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+    }
+}
@@ -0,0 +1,103 @@
+package server_group.security;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import server_group.model.CustomUser;
+import server_group.model.CustomUserDetails;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+    }
+
+    private CustomUserDetails details(Role role) {
+        CustomUser user = new CustomUser();
+        user.setEmail("anna@test.com");
+        user.setName("Anna");
+        user.setSurname("Bianchi");
+        user.setRole(role);
+        return new CustomUserDetails(user);
+    }
+
+    // --- claim ---
+    @Test
+    void generateToken_carriesRoleAndName() {
+        String token = jwtUtil.generateToken(details(Role.MANAGER));
+
+        JwtPrincipal principal = jwtUtil.verify(token);
+
+        assertEquals("anna@test.com", principal.getName());
+        assertEquals("MANAGER", principal.role());
+        assertEquals("Anna Bianchi", principal.fullName());
+        assertEquals("ROLE_MANAGER", principal.authorities().get(0).getAuthority());
+        assertTrue(principal.expiresAt().isAfter(principal.issuedAt()));
+    }
+
+    @Test
+    void generateToken_plainUserDetails_hasNoName() {
+        String token = jwtUtil.generateToken(User.withUsername("x@test.com").password("p").roles("EMPLOYEE").build());
+
+        JwtPrincipal principal = jwtUtil.verify(token);
+
+        assertEquals("EMPLOYEE", principal.role());
+        assertNull(principal.fullName());
+        assertEquals("x@test.com", jwtUtil.extractUsername(token));
+    }
+
+    // --- verifica ---
+    @Test
+    void verify_sameToken_isParsedOnce() {
+        String token = jwtUtil.generateToken(details(Role.EMPLOYEE));
+
+        JwtPrincipal first = jwtUtil.verify(token);
+        JwtPrincipal second = jwtUtil.verify(token);
+
+        assertSame(first, second);
+        assertEquals(1, jwtUtil.cachedTokens());
+    }
+
+    @Test
+    void verify_tamperedToken_throws() {
+        String token = jwtUtil.generateToken(details(Role.EMPLOYEE));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(tampered));
+        assertEquals(0, jwtUtil.cachedTokens());
+    }
+
+    @Test
+    void verify_tokenWithoutRole_throws() {
+        // token emesso prima dei claim: bisogna rifare il login
+        String old = Jwts.builder()
+                .setSubject("anna@test.com")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor("12345678901234567890123456789012".getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(old));
+    }
+
+    @Test
+    void verify_cacheIsBounded() {
+        for (int i = 0; i < JwtUtil.CACHE_SIZE + 10; i++) {
+            jwtUtil.verify(jwtUtil.generateToken(User.withUsername("u" + i + "@test.com").password("p").roles("EMPLOYEE").build()));
+        }
+
+        assertEquals(JwtUtil.CACHE_SIZE, jwtUtil.cachedTokens());
+    }
+}
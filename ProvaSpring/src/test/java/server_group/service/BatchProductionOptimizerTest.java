@@ -0,0 +1,85 @@
+package server_group.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server_group.dto.ModelWithStepsDTO;
+import server_group.model.Order;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchProductionOptimizerTest {
+
+    private final BatchProductionOptimizer optimizer = new BatchProductionOptimizer(new GapFillingScheduler());
+
+    private final LocalDate day0 = LocalDate.of(2025, 3, 3);
+    private final Map<Order, List<ModelWithStepsDTO.ProcessStepDTO>> routing = new HashMap<>();
+    private MachineTimeline cnc;
+
+    @BeforeEach
+    void setUp() {
+        cnc = new MachineTimeline();
+    }
+
+    private Order order(long id, int days, int deadlineDay) {
+        Order order = new Order();
+        order.setId(id);
+        order.setQuantity(days);
+        order.setStartDate(day0);
+        order.setDeadline(day0.plusDays(deadlineDay));
+
+        ModelWithStepsDTO.ProcessStepDTO step = new ModelWithStepsDTO.ProcessStepDTO();
+        step.setStepOrder(1);
+        step.setDuration(Duration.ofHours(8)); // un giorno per pezzo
+        ModelWithStepsDTO.MachineryDTO mach = new ModelWithStepsDTO.MachineryDTO();
+        mach.setName("CNC");
+        step.setMachinery(mach);
+        routing.put(order, List.of(step));
+        return order;
+    }
+
+    private PlanningBoard board() {
+        return new PlanningBoard(m -> cnc.copy());
+    }
+
+    @Test
+    void optimize_localSearchImprovesOnEarliestDeadlineFirst() {
+        Order longFirst = order(1L, 5, 10);
+        Order shortLater = order(2L, 1, 11);
+
+        BatchPlan plan = optimizer.optimize(List.of(longFirst, shortLater), routing::get, board());
+
+        // EDF metterebbe prima l'ordine lungo (fine 5 + 6), lo scambio finisce prima (1 + 6)
+        assertEquals(List.of(shortLater, longFirst), plan.getSequence());
+        assertEquals(2, plan.getAccepted().size());
+        assertEquals(MachineTimeline.tick(day0.plusDays(1).atStartOfDay()) + MachineTimeline.tick(day0.plusDays(6).atStartOfDay()),
+                plan.getTotalCompletion());
+    }
+
+    @Test
+    void optimize_lateOrderIsRejectedWithoutBlockingOthers() {
+        Order impossible = order(1L, 20, 5);
+        Order fine = order(2L, 2, 6);
+
+        BatchPlan plan = optimizer.optimize(List.of(impossible, fine), routing::get, board());
+
+        assertEquals(1, plan.getAccepted().size());
+        assertSame(fine, plan.getAccepted().get(0).getOrder());
+        assertEquals(day0, plan.getAccepted().get(0).getExecutions().get(0).getScheduledStart());
+        assertEquals(1, plan.getLate().size());
+        assertSame(impossible, plan.getLate().get(0).getOrder());
+    }
+
+    @Test
+    void optimize_leavesBoardUnchanged() {
+        cnc.add(new MachineTimeline.Slot(50L, 50L, MachineTimeline.tick(day0.atStartOfDay()), MachineTimeline.tick(day0.plusDays(1).atStartOfDay())));
+        PlanningBoard board = board();
+
+        optimizer.optimize(List.of(order(1L, 2, 10), order(2L, 3, 10)), routing::get, board);
+
+        assertEquals(1, board.timeline("CNC").size());
+    }
+}
@@ -6,6 +6,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import server_group.dto.GanttBlockDTO;
+import server_group.dto.GanttChangesDTO;
+import server_group.dto.GanttOrderFacetDTO;
+import server_group.dto.GanttUpdateErrorDTO;
 import server_group.model.*;
 import server_group.repository.CustomUserRepository;
 import server_group.repository.ProcessStepExecutionRepository;
@@ -15,6 +18,8 @@ import java.time.LocalDate;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 public class GanttServiceTest {
@@ -25,6 +30,15 @@ public class GanttServiceTest {
     @Mock
     private CustomUserRepository customUserRepository;
 
+    @Mock
+    private MachineAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private ReschedulePropagator reschedulePropagator;
+
+    @Mock
+    private PlanChangeLog changeLog;
+
     @InjectMocks
     private GanttService ganttService;
 
@@ -36,10 +50,151 @@ public class GanttServiceTest {
     // --- getAllScheduledGanttBlocks ---
     @Test
     void getAllScheduledGanttBlocks_success() {
+        GanttBlockDTO row = new GanttBlockDTO(1L, 10L, "CNC", 1, 1, null, null, null,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2), LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2),
+                null, null, null, null, "emp@test.com", "Mario", "Rossi");
+        when(executionRepository.findGanttBlocks(OrderStatus.IN_PRODUCTION)).thenReturn(List.of(row));
+
+        List<GanttBlockDTO> blocks = ganttService.getAllScheduledGanttBlocks();
+
+        assertEquals(List.of(row), blocks);
+        verify(executionRepository, times(1)).findGanttBlocks(OrderStatus.IN_PRODUCTION);
+        // niente entity caricate
+        verify(executionRepository, never()).findByOrderStatus(any());
+    }
+
+    // --- getOrderFacets ---
+    @Test
+    void getOrderFacets_onlyOrdersInProduction() {
+        GanttOrderFacetDTO facet = new GanttOrderFacetDTO(10L, "IT123", "Acme", "Flangia", 50,
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 1), 12);
+        when(executionRepository.findGanttOrderFacets(OrderStatus.IN_PRODUCTION)).thenReturn(List.of(facet));
+
+        assertEquals(List.of(facet), ganttService.getOrderFacets());
+        verify(executionRepository, never()).findGanttBlocks(any());
+    }
+
+    // --- getMachineLoad ---
+    @Test
+    void getMachineLoad_readsOnlyTheLoadIntervals() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 6, 30);
+        when(executionRepository.findLoadIntervals(OrderStatus.IN_PRODUCTION, from, to)).thenReturn(List.of());
+
+        assertTrue(ganttService.getMachineLoad(from, to, LoadBucket.WEEK).isEmpty());
+
+        verify(executionRepository).findLoadIntervals(OrderStatus.IN_PRODUCTION, from, to);
+        verify(executionRepository, never()).findGanttBlocksInWindow(any(), any(), any());
+    }
+
+    @Test
+    void getMachineLoad_tooManyBuckets_isRejected() {
+        LocalDate from = LocalDate.of(2020, 1, 1);
+        LocalDate to = LocalDate.of(2025, 1, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> ganttService.getMachineLoad(from, to, LoadBucket.DAY));
+        // la stessa finestra a mesi va bene
+        ganttService.getMachineLoad(from, to, LoadBucket.MONTH);
+        verify(executionRepository).findLoadIntervals(OrderStatus.IN_PRODUCTION, from, to);
+    }
+
+    @Test
+    void getMachineLoad_invalidWindow_isRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ganttService.getMachineLoad(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1), LoadBucket.DAY));
+        assertThrows(IllegalArgumentException.class, () -> ganttService.getMachineLoad(null, LocalDate.of(2025, 1, 1), null));
+    }
+
+    // --- getScheduledGanttBlocks ---
+    @Test
+    void getScheduledGanttBlocks_noFilters_isTheWholeGantt() {
+        when(executionRepository.findGanttBlocks(OrderStatus.IN_PRODUCTION)).thenReturn(List.of());
+
+        ganttService.getScheduledGanttBlocks(null, null, null, null);
+
+        verify(executionRepository).findGanttBlocks(OrderStatus.IN_PRODUCTION);
+    }
+
+    @Test
+    void getScheduledGanttBlocks_window_usesRangeQuery() {
+        LocalDate from = LocalDate.of(2025, 3, 1);
+        LocalDate to = LocalDate.of(2025, 3, 21);
+        List<GanttBlockDTO> rows = List.of(new GanttBlockDTO());
+        when(executionRepository.findGanttBlocksInWindow(OrderStatus.IN_PRODUCTION, from, to)).thenReturn(rows);
+
+        assertEquals(rows, ganttService.getScheduledGanttBlocks(from, to, null, null));
+        verify(executionRepository, never()).findGanttBlocks(any());
+    }
+
+    @Test
+    void getScheduledGanttBlocks_machineryOnly_opensTheWindow() {
+        List<String> machinery = List.of("CNC");
+
+        ganttService.getScheduledGanttBlocks(null, null, machinery, null);
+
+        verify(executionRepository).findGanttBlocksInWindowForMachinery(OrderStatus.IN_PRODUCTION,
+                GanttService.OPEN_FROM, GanttService.OPEN_TO, machinery);
+    }
+
+    @Test
+    void getScheduledGanttBlocks_order_filtersItsBlocks() {
+        GanttBlockDTO early = new GanttBlockDTO(1L, 10L, "CNC", "Step 1", LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 3), 1);
+        GanttBlockDTO inWindow = new GanttBlockDTO(2L, 10L, "CNC", "Step 2", LocalDate.of(2025, 3, 2), LocalDate.of(2025, 3, 4), 2);
+        GanttBlockDTO otherMachine = new GanttBlockDTO(3L, 10L, "Lathe", "Step 3", LocalDate.of(2025, 3, 4), LocalDate.of(2025, 3, 5), 3);
+        when(executionRepository.findGanttBlocksForOrder(OrderStatus.IN_PRODUCTION, 10L))
+                .thenReturn(List.of(early, inWindow, otherMachine));
+
+        List<GanttBlockDTO> blocks = ganttService.getScheduledGanttBlocks(LocalDate.of(2025, 3, 1), null, List.of("CNC"), 10L);
+
+        assertEquals(List.of(inWindow), blocks);
+    }
+
+    @Test
+    void getScheduledGanttBlocks_fromAfterTo_throws() {
+        assertThrows(IllegalArgumentException.class, () -> ganttService.getScheduledGanttBlocks(
+                LocalDate.of(2025, 3, 2), LocalDate.of(2025, 3, 1), null, null));
+    }
+
+    // --- toBlock ---
+    // --- getChangesSince ---
+    @Test
+    void getChangesSince_returnsChangedAndRemovedBlocks() {
+        GanttBlockDTO moved = new GanttBlockDTO();
+        moved.setExecutionId(5L);
+        when(changeLog.stableVersion()).thenReturn(42L);
+        when(changeLog.prunedThrough()).thenReturn(10L);
+        when(executionRepository.findGanttBlocksChangedSince(OrderStatus.IN_PRODUCTION, 30L)).thenReturn(List.of(moved));
+        when(changeLog.removedSince(30L)).thenReturn(List.of(7L, 8L));
+
+        GanttChangesDTO changes = ganttService.getChangesSince(30L);
+
+        assertEquals(42L, changes.getVersion());
+        assertFalse(changes.isFullReload());
+        assertEquals(List.of(moved), changes.getChanged());
+        assertEquals(List.of(7L, 8L), changes.getRemoved());
+    }
+
+    @Test
+    void getChangesSince_tooOldOrFromAnotherRun_asksForFullReload() {
+        when(changeLog.stableVersion()).thenReturn(42L);
+        when(changeLog.prunedThrough()).thenReturn(10L);
+
+        GanttChangesDTO tooOld = ganttService.getChangesSince(9L);
+        GanttChangesDTO ahead = ganttService.getChangesSince(50L);
+
+        assertTrue(tooOld.isFullReload());
+        assertTrue(ahead.isFullReload());
+        assertEquals(42L, ahead.getVersion());
+        verify(executionRepository, never()).findGanttBlocksChangedSince(any(), anyLong());
+    }
+
+    @Test
+    void toBlock_mapsExecution() {
         ProcessStepExecution exec = new ProcessStepExecution();
         exec.setId(1L);
         exec.setOrder(new Order());
         exec.setMachineryName("CNC");
+        exec.setLane(1);
         exec.setStepIndex(1);
         exec.setScheduledStart(LocalDate.of(2025, 1, 1));
         exec.setScheduledEnd(LocalDate.of(2025, 1, 2));
@@ -53,20 +208,34 @@ public class GanttServiceTest {
         employee.setRole(Role.EMPLOYEE);
         exec.setAssignedEmployee(employee);
 
-        when(executionRepository.findByOrderStatus(OrderStatus.IN_PRODUCTION))
-                .thenReturn(Collections.singletonList(exec));
-
-        List<GanttBlockDTO> blocks = ganttService.getAllScheduledGanttBlocks();
+        GanttBlockDTO block = GanttService.toBlock(exec);
 
-        assertEquals(1, blocks.size());
-        GanttBlockDTO block = blocks.get(0);
         assertEquals(1L, block.getExecutionId());
+        assertNull(block.getOrderId());
         assertEquals("CNC", block.getMachineryName());
+        assertEquals(1, block.getLane());
         assertEquals("Step 1", block.getStepName());
+        assertEquals(LocalDate.of(2025, 1, 2), block.getActualEnd());
         assertEquals("emp@test.com", block.getAssignedEmployeeEmail());
         assertEquals("Mario Rossi", block.getAssignedEmployeeFullName());
+    }
 
-        verify(executionRepository, times(1)).findByOrderStatus(OrderStatus.IN_PRODUCTION);
+    @Test
+    void toBlock_lotAndNoEmployee() {
+        ProcessStepExecution exec = new ProcessStepExecution();
+        exec.setId(2L);
+        exec.setStepIndex(3);
+        exec.setLotIndex(0);
+        exec.setLotCount(2);
+        exec.setLotQuantity(150);
+
+        GanttBlockDTO block = GanttService.toBlock(exec);
+
+        assertEquals("Step 3 - lot 1/2", block.getStepName());
+        assertEquals(0, block.getLane());
+        assertEquals(150, block.getLotQuantity());
+        assertNull(block.getAssignedEmployeeEmail());
+        assertNull(block.getAssignedEmployeeFullName());
     }
 
     // --- updateBlocks con Employee ---
@@ -85,8 +254,8 @@ public class GanttServiceTest {
         employee.setEmail("emp@test.com");
         employee.setRole(Role.EMPLOYEE);
 
-        when(executionRepository.findById(1L)).thenReturn(Optional.of(exec));
-        when(customUserRepository.findByEmail("emp@test.com")).thenReturn(Optional.of(employee));
+        when(executionRepository.findAllById(Set.of(1L))).thenReturn(List.of(exec));
+        when(customUserRepository.findByEmailIn(Set.of("emp@test.com"))).thenReturn(List.of(employee));
 
         ganttService.updateBlocks(Collections.singletonList(dto));
 
@@ -94,7 +263,38 @@ public class GanttServiceTest {
         assertEquals(LocalDate.of(2025, 2, 1), exec.getActualStart());
         assertEquals(LocalDate.of(2025, 2, 2), exec.getActualEnd());
 
-        verify(executionRepository).save(exec);
+        verify(executionRepository).saveAll(List.of(exec));
+        verify(availabilityIndex).update(exec);
+    }
+
+    // --- updateBlocks con propagazione ---
+    @Test
+    void updateBlocks_savesAndReturnsShiftedBlocks() {
+        GanttBlockDTO dto = new GanttBlockDTO();
+        dto.setExecutionId(1L);
+        dto.setActualStart(LocalDate.of(2025, 2, 3));
+        dto.setActualEnd(LocalDate.of(2025, 2, 5));
+
+        Order order = new Order();
+        order.setId(10L);
+        ProcessStepExecution exec = new ProcessStepExecution();
+        exec.setId(1L);
+        exec.setOrder(order);
+        ProcessStepExecution next = new ProcessStepExecution();
+        next.setId(2L);
+        next.setOrder(order);
+        next.setActualStart(LocalDate.of(2025, 2, 5));
+        next.setActualEnd(LocalDate.of(2025, 2, 6));
+
+        when(executionRepository.findAllById(Set.of(1L))).thenReturn(List.of(exec));
+        when(reschedulePropagator.propagate(List.of(exec))).thenReturn(List.of(next));
+
+        List<GanttBlockDTO> changed = ganttService.updateBlocks(List.of(dto));
+
+        assertEquals(List.of(1L, 2L), changed.stream().map(GanttBlockDTO::getExecutionId).toList());
+        assertEquals(LocalDate.of(2025, 2, 5), changed.get(1).getActualStart());
+        verify(executionRepository).saveAll(List.of(exec, next));
+        verify(availabilityIndex).update(next);
     }
 
     // --- updateBlocks senza assegnazione ---
@@ -107,12 +307,12 @@ public class GanttServiceTest {
         exec.setId(2L);
         exec.setAssignedEmployee(new CustomUser()); // prima aveva un dipendente
 
-        when(executionRepository.findById(2L)).thenReturn(Optional.of(exec));
+        when(executionRepository.findAllById(Set.of(2L))).thenReturn(List.of(exec));
 
         ganttService.updateBlocks(Collections.singletonList(dto));
 
         assertNull(exec.getAssignedEmployee());
-        verify(executionRepository).save(exec);
+        verify(executionRepository).saveAll(List.of(exec));
     }
 
     // --- updateBlocks: execution non trovato ---
@@ -121,7 +321,7 @@ public class GanttServiceTest {
         GanttBlockDTO dto = new GanttBlockDTO();
         dto.setExecutionId(99L);
 
-        when(executionRepository.findById(99L)).thenReturn(Optional.empty());
+        when(executionRepository.findAllById(Set.of(99L))).thenReturn(List.of());
 
         RuntimeException ex = assertThrows(RuntimeException.class, () ->
                 ganttService.updateBlocks(Collections.singletonList(dto)));
@@ -139,8 +339,8 @@ public class GanttServiceTest {
         ProcessStepExecution exec = new ProcessStepExecution();
         exec.setId(3L);
 
-        when(executionRepository.findById(3L)).thenReturn(Optional.of(exec));
-        when(customUserRepository.findByEmail("missing@test.com")).thenReturn(Optional.empty());
+        when(executionRepository.findAllById(Set.of(3L))).thenReturn(List.of(exec));
+        when(customUserRepository.findByEmailIn(Set.of("missing@test.com"))).thenReturn(List.of());
 
         RuntimeException ex = assertThrows(RuntimeException.class, () ->
                 ganttService.updateBlocks(Collections.singletonList(dto)));
@@ -162,12 +362,79 @@ public class GanttServiceTest {
         manager.setEmail("manager@test.com");
         manager.setRole(Role.MANAGER);
 
-        when(executionRepository.findById(4L)).thenReturn(Optional.of(exec));
-        when(customUserRepository.findByEmail("manager@test.com")).thenReturn(Optional.of(manager));
+        when(executionRepository.findAllById(Set.of(4L))).thenReturn(List.of(exec));
+        when(customUserRepository.findByEmailIn(Set.of("manager@test.com"))).thenReturn(List.of(manager));
 
         RuntimeException ex = assertThrows(RuntimeException.class, () ->
                 ganttService.updateBlocks(Collections.singletonList(dto)));
 
         assertTrue(ex.getMessage().contains("non è un Employee"));
     }
+
+    // --- updateBlocks: più blocchi insieme ---
+    @Test
+    void updateBlocks_loadsExecutionsAndUsersOnce() {
+        CustomUser employee = new CustomUser();
+        employee.setEmail("emp@test.com");
+        employee.setRole(Role.EMPLOYEE);
+        List<GanttBlockDTO> dtos = new ArrayList<>();
+        List<ProcessStepExecution> execs = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            GanttBlockDTO dto = new GanttBlockDTO();
+            dto.setExecutionId(id);
+            dto.setActualStart(LocalDate.of(2025, 2, 1));
+            dto.setActualEnd(LocalDate.of(2025, 2, 2));
+            dto.setAssignedEmployeeEmail("emp@test.com");
+            dtos.add(dto);
+            ProcessStepExecution exec = new ProcessStepExecution();
+            exec.setId(id);
+            execs.add(exec);
+        }
+        when(executionRepository.findAllById(Set.of(1L, 2L, 3L))).thenReturn(execs);
+        when(customUserRepository.findByEmailIn(Set.of("emp@test.com"))).thenReturn(List.of(employee));
+        when(reschedulePropagator.propagate(any())).thenReturn(List.of());
+
+        List<GanttBlockDTO> changed = ganttService.updateBlocks(dtos);
+
+        assertEquals(3, changed.size());
+        execs.forEach(exec -> assertEquals(employee, exec.getAssignedEmployee()));
+        verify(executionRepository, times(1)).findAllById(any());
+        verify(customUserRepository, times(1)).findByEmailIn(any());
+        verify(customUserRepository, never()).findByEmail(any());
+        verify(executionRepository).saveAll(execs);
+    }
+
+    // --- updateBlocks: errori per blocco, nessun salvataggio ---
+    @Test
+    void updateBlocks_reportsEveryInvalidBlockAndSavesNothing() {
+        GanttBlockDTO ok = new GanttBlockDTO();
+        ok.setExecutionId(1L);
+        ok.setActualStart(LocalDate.of(2025, 2, 1));
+        ok.setActualEnd(LocalDate.of(2025, 2, 2));
+        GanttBlockDTO backwards = new GanttBlockDTO();
+        backwards.setExecutionId(2L);
+        backwards.setActualStart(LocalDate.of(2025, 2, 5));
+        backwards.setActualEnd(LocalDate.of(2025, 2, 3));
+        GanttBlockDTO missing = new GanttBlockDTO();
+        missing.setExecutionId(99L);
+        GanttBlockDTO duplicate = new GanttBlockDTO();
+        duplicate.setExecutionId(1L);
+
+        ProcessStepExecution exec1 = new ProcessStepExecution();
+        exec1.setId(1L);
+        ProcessStepExecution exec2 = new ProcessStepExecution();
+        exec2.setId(2L);
+        when(executionRepository.findAllById(Set.of(1L, 2L, 99L))).thenReturn(List.of(exec1, exec2));
+
+        GanttUpdateException ex = assertThrows(GanttUpdateException.class, () ->
+                ganttService.updateBlocks(List.of(ok, backwards, missing, duplicate)));
+
+        assertEquals(List.of(2L, 99L, 1L), ex.getErrors().stream().map(GanttUpdateErrorDTO::getExecutionId).toList());
+        assertTrue(ex.getErrors().get(0).getMessage().contains("la fine è prima dell'inizio"));
+        assertTrue(ex.getErrors().get(2).getMessage().contains("inviato più volte"));
+        assertNull(exec1.getActualStart());
+        verify(reschedulePropagator, never()).propagate(any());
+        verify(executionRepository, never()).saveAll(any());
+        verifyNoInteractions(availabilityIndex);
+    }
 }
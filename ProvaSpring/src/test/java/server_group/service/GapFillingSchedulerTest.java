@@ -0,0 +1,262 @@
+package server_group.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import server_group.dto.ModelWithStepsDTO;
+import server_group.model.Order;
+import server_group.model.ProcessStepExecution;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GapFillingSchedulerTest {
+
+    private final GapFillingScheduler scheduler = new GapFillingScheduler();
+
+    private final LocalDate day0 = LocalDate.of(2025, 3, 3);
+    private Map<String, MachineTimeline> timelines;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        timelines = new HashMap<>();
+        order = new Order();
+        order.setId(1L);
+        order.setQuantity(1);
+        order.setStartDate(day0);
+        order.setDeadline(day0.plusDays(30));
+    }
+
+    private ModelWithStepsDTO.ProcessStepDTO step(int order, String machinery, long hours) {
+        return step(order, machinery, Duration.ofHours(hours));
+    }
+
+    private ModelWithStepsDTO.ProcessStepDTO step(int order, String machinery, Duration duration) {
+        return step(order, machinery, duration, 1);
+    }
+
+    private ModelWithStepsDTO.ProcessStepDTO step(int order, String machinery, Duration duration, int capacity) {
+        ModelWithStepsDTO.ProcessStepDTO step = new ModelWithStepsDTO.ProcessStepDTO();
+        step.setStepOrder(order);
+        step.setDuration(duration);
+        ModelWithStepsDTO.MachineryDTO mach = new ModelWithStepsDTO.MachineryDTO();
+        mach.setName(machinery);
+        mach.setParallelCapacity(capacity);
+        step.setMachinery(mach);
+        return step;
+    }
+
+    private void busy(String machinery, int fromDay, int toDay) {
+        timelines.computeIfAbsent(machinery, m -> new MachineTimeline())
+                .add(new MachineTimeline.Slot((long) (machinery.hashCode() + fromDay), 99L,
+                        MachineTimeline.tick(day0.plusDays(fromDay).atStartOfDay()),
+                        MachineTimeline.tick(day0.plusDays(toDay).atStartOfDay())));
+    }
+
+    private PlanningBoard board() {
+        return new PlanningBoard(lane -> lane.index() == 0
+                ? timelines.getOrDefault(lane.machineryName(), new MachineTimeline()).copy()
+                : new MachineTimeline());
+    }
+
+    // --- gap filling ---
+    @Test
+    void plan_fillsEarliestGapLongEnough() {
+        // buco di 1 giorno [2,3) troppo corto, buco di 3 giorni [5,8) sufficiente
+        busy("CNC", 0, 2);
+        busy("CNC", 3, 5);
+        busy("CNC", 8, 20);
+
+        SchedulingResult result = scheduler.plan(order, List.of(step(1, "CNC", 16)), board());
+
+        ProcessStepExecution exec = result.getExecutions().get(0);
+        assertEquals(day0.plusDays(5), exec.getScheduledStart());
+        assertEquals(day0.plusDays(7), exec.getScheduledEnd());
+        assertEquals(exec.getScheduledStart(), exec.getActualStart());
+    }
+
+    @Test
+    void plan_overlappingManualEdits_areRespected() {
+        // blocco lungo spostato a mano che copre blocchi più corti
+        busy("CNC", 0, 10);
+        busy("CNC", 1, 2);
+
+        SchedulingResult result = scheduler.plan(order, List.of(step(1, "CNC", 8)), board());
+
+        assertEquals(day0.plusDays(10), result.getExecutions().get(0).getScheduledStart());
+    }
+
+    // --- capacità ---
+    @Test
+    void plan_parallelMachine_usesFreeLane() {
+        // il forno ha 2 corsie, la prima è occupata: lo step parte subito sulla seconda
+        busy("Oven", 0, 5);
+
+        SchedulingResult result = scheduler.plan(order, List.of(step(1, "Oven", Duration.ofHours(8), 2)), board());
+
+        ProcessStepExecution exec = result.getExecutions().get(0);
+        assertEquals(day0, exec.getScheduledStart());
+        assertEquals(1, exec.getLane());
+        // orizzonte di 1 giorno su 2 corsie, entrambe occupate
+        assertEquals(0.5, result.getUtilizationBefore().get("Oven"), 1e-9);
+        assertEquals(1.0, result.getUtilizationAfter().get("Oven"), 1e-9);
+    }
+
+    @Test
+    void plan_parallelMachine_runsOverlappingSteps() {
+        PlanningBoard board = board();
+        Order other = new Order();
+        other.setId(2L);
+        other.setQuantity(1);
+        other.setStartDate(day0);
+
+        SchedulingResult first = scheduler.plan(order, List.of(step(1, "Oven", Duration.ofHours(16), 2)), board);
+        SchedulingResult second = scheduler.plan(other, List.of(step(1, "Oven", Duration.ofHours(16), 2)), board);
+        SchedulingResult third = scheduler.plan(other, List.of(step(1, "Oven", Duration.ofHours(8), 2)), board);
+
+        assertEquals(day0, first.getExecutions().get(0).getScheduledStart());
+        assertEquals(0, first.getExecutions().get(0).getLane());
+        assertEquals(day0, second.getExecutions().get(0).getScheduledStart());
+        assertEquals(1, second.getExecutions().get(0).getLane());
+        // la terza deve aspettare che si liberi una corsia
+        assertEquals(day0.plusDays(2), third.getExecutions().get(0).getScheduledStart());
+    }
+
+    // --- lotti ---
+    @Test
+    void lotQuantities_splitsEvenlyWithinLimits() {
+        assertArrayEquals(new int[]{50}, scheduler.lotQuantities(50));
+        assertArrayEquals(new int[]{125, 125}, scheduler.lotQuantities(250));
+        assertArrayEquals(new int[]{2501, 2500, 2500, 2500}, scheduler.lotQuantities(10_001));
+    }
+
+    @Test
+    void plan_largeOrder_spreadsLotsOverMachineGroup() {
+        // 400 pezzi da 1 minuto e 12 secondi = 1 giorno per lotto da 100
+        order.setQuantity(400);
+        ModelWithStepsDTO.ProcessStepDTO turning = step(1, "Lathe 1", Duration.ofSeconds(72));
+        ModelWithStepsDTO.MachineryDTO lathe2 = new ModelWithStepsDTO.MachineryDTO();
+        lathe2.setName("Lathe 2");
+        turning.setGroupMachinery(List.of(turning.getMachinery(), lathe2));
+
+        SchedulingResult result = scheduler.plan(order, List.of(turning), board());
+
+        List<ProcessStepExecution> executions = result.getExecutions();
+        assertEquals(4, executions.size());
+        assertEquals(List.of("Lathe 1", "Lathe 2", "Lathe 1", "Lathe 2"),
+                executions.stream().map(ProcessStepExecution::getMachineryName).toList());
+        assertEquals(List.of(day0, day0, day0.plusDays(1), day0.plusDays(1)),
+                executions.stream().map(ProcessStepExecution::getScheduledStart).toList());
+        assertEquals(List.of(0, 1, 2, 3), executions.stream().map(ProcessStepExecution::getLotIndex).toList());
+        assertEquals(4, executions.get(0).getLotCount());
+        assertEquals(100, executions.get(0).getLotQuantity());
+        // su una macchina sola sarebbero 4 giorni
+        assertEquals(day0.plusDays(2), result.getCompletionDate());
+    }
+
+    @Test
+    void plan_lots_flowToNextStepAsSoonAsTheyFinish() {
+        order.setQuantity(200);
+
+        SchedulingResult result = scheduler.plan(order,
+                List.of(step(1, "Saw", Duration.ofSeconds(144)), step(2, "Mill", Duration.ofSeconds(144))), board());
+
+        List<ProcessStepExecution> executions = result.getExecutions();
+        assertEquals(4, executions.size());
+        // il primo lotto arriva alla fresa dopo 1 giorno, mentre la sega lavora il secondo
+        assertEquals(day0.plusDays(1), executions.get(2).getScheduledStart());
+        assertEquals("Mill", executions.get(2).getMachineryName());
+        assertEquals(day0.plusDays(2), executions.get(3).getScheduledStart());
+        assertEquals(day0.plusDays(3), result.getCompletionDate());
+    }
+
+    // --- precedenza ---
+    @Test
+    void plan_respectsStepPrecedence() {
+        busy("Lathe", 0, 4);
+
+        SchedulingResult result = scheduler.plan(order,
+                List.of(step(1, "Lathe", 8), step(2, "CNC", 8), step(3, "Lathe", 8)), board());
+
+        List<ProcessStepExecution> executions = result.getExecutions();
+        assertEquals(day0.plusDays(4), executions.get(0).getScheduledStart());
+        assertEquals(day0.plusDays(5), executions.get(1).getScheduledStart());
+        assertEquals(day0.plusDays(6), executions.get(2).getScheduledStart());
+        assertEquals(day0.plusDays(7), result.getCompletionDate());
+        assertTrue(result.meetsDeadline());
+    }
+
+    @Test
+    void plan_doesNotModifySourceTimelines() {
+        busy("CNC", 0, 1);
+
+        scheduler.plan(order, List.of(step(1, "CNC", 8)), board());
+
+        assertEquals(1, timelines.get("CNC").size());
+    }
+
+    // --- deadline e utilizzo ---
+    @Test
+    void plan_lateOrder_isReported() {
+        order.setDeadline(day0.plusDays(2));
+        busy("CNC", 0, 5);
+
+        SchedulingResult result = scheduler.plan(order, List.of(step(1, "CNC", 8)), board());
+
+        assertFalse(result.meetsDeadline());
+    }
+
+    @Test
+    void plan_reportsUtilizationBeforeAndAfter() {
+        busy("CNC", 0, 2);
+        busy("CNC", 3, 4);
+
+        SchedulingResult result = scheduler.plan(order, List.of(step(1, "CNC", 8)), board());
+
+        // orizzonte [0,3): prima 2 giorni occupati, dopo 3
+        assertEquals(2.0 / 3, result.getUtilizationBefore().get("CNC"), 1e-9);
+        assertEquals(1.0, result.getUtilizationAfter().get("CNC"), 1e-9);
+    }
+
+    // --- calendario a turni ---
+    private final GapFillingScheduler shiftScheduler = new GapFillingScheduler(new ShiftCalendar(
+            List.of(new ShiftCalendar.Shift(LocalTime.of(8, 0), LocalTime.of(12, 0)),
+                    new ShiftCalendar.Shift(LocalTime.of(13, 0), LocalTime.of(17, 0))),
+            EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), Set.of()));
+
+    @Test
+    void plan_shiftCalendar_shortStepsShareOneMachineDay() {
+        order.setQuantity(2);
+
+        SchedulingResult result = shiftScheduler.plan(order,
+                List.of(step(1, "CNC", Duration.ofMinutes(5)), step(2, "CNC", Duration.ofMinutes(5))), board());
+
+        List<ProcessStepExecution> executions = result.getExecutions();
+        assertEquals(day0.atTime(8, 0), executions.get(0).getScheduledStartTime());
+        assertEquals(day0.atTime(8, 10), executions.get(0).getScheduledEndTime());
+        assertEquals(day0.atTime(8, 10), executions.get(1).getScheduledStartTime());
+        assertEquals(day0.atTime(8, 20), executions.get(1).getActualEndTime());
+        assertEquals(day0, executions.get(1).getScheduledEnd());
+        assertEquals(day0, result.getCompletionDate());
+    }
+
+    @Test
+    void plan_shiftCalendar_fillsGapInsideTheDay() {
+        timelines.computeIfAbsent("CNC", m -> new MachineTimeline()).add(new MachineTimeline.Slot(7L, 99L,
+                MachineTimeline.tick(day0.atTime(9, 0)), MachineTimeline.tick(day0.atTime(16, 0))));
+
+        SchedulingResult result = shiftScheduler.plan(order,
+                List.of(step(1, "CNC", Duration.ofMinutes(45)), step(2, "CNC", Duration.ofMinutes(90))), board());
+
+        List<ProcessStepExecution> executions = result.getExecutions();
+        // 45 minuti stanno prima delle 9, 90 no: partono alle 16 e finiscono la mattina dopo
+        assertEquals(day0.atTime(8, 0), executions.get(0).getScheduledStartTime());
+        assertEquals(day0.atTime(16, 0), executions.get(1).getScheduledStartTime());
+        assertEquals(day0.plusDays(1).atTime(8, 30), executions.get(1).getScheduledEndTime());
+    }
+}
@@ -0,0 +1,124 @@
+package server_group.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import server_group.model.Order;
+import server_group.model.OrderStatus;
+import server_group.model.ProcessStepExecution;
+import server_group.repository.ProcessStepExecutionRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MachineAvailabilityIndexTest {
+
+    @Mock
+    private ProcessStepExecutionRepository executionRepository;
+
+    @InjectMocks
+    private MachineAvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private ProcessStepExecution execution(Long id, Long orderId, String machinery, LocalDate start, LocalDate end) {
+        Order order = new Order();
+        order.setId(orderId);
+
+        ProcessStepExecution exec = new ProcessStepExecution();
+        exec.setId(id);
+        exec.setOrder(order);
+        exec.setMachineryName(machinery);
+        exec.setScheduledStart(start);
+        exec.setScheduledEnd(end);
+        exec.setActualStart(start);
+        exec.setActualEnd(end);
+        return exec;
+    }
+
+    // --- reload ---
+    @Test
+    void reload_loadsInProductionExecutions() {
+        when(executionRepository.findByOrderStatus(OrderStatus.IN_PRODUCTION)).thenReturn(List.of(
+                execution(1L, 10L, "CNC", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 3)),
+                execution(2L, 11L, "CNC", LocalDate.of(2025, 1, 3), LocalDate.of(2025, 1, 8))));
+
+        index.reload();
+
+        assertEquals(2, index.size());
+        assertEquals(Optional.of(LocalDate.of(2025, 1, 8).atStartOfDay()), index.availableFrom("CNC"));
+        assertEquals(Optional.empty(), index.availableFrom("Lathe"));
+        verify(executionRepository, never()).findAll();
+    }
+
+    // --- add / update ---
+    @Test
+    void update_movesExecution() {
+        ProcessStepExecution exec = execution(1L, 10L, "CNC", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 3));
+        index.add(exec);
+
+        exec.setActualStart(LocalDate.of(2025, 1, 10));
+        exec.setActualEnd(LocalDate.of(2025, 1, 12));
+        index.update(exec);
+
+        assertEquals(1, index.size());
+        assertEquals(Optional.of(LocalDate.of(2025, 1, 12).atStartOfDay()), index.availableFrom("CNC"));
+    }
+
+    @Test
+    void update_shorterLastExecution_lowersAvailability() {
+        index.add(execution(1L, 10L, "CNC", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 5)));
+        ProcessStepExecution last = execution(2L, 11L, "CNC", LocalDate.of(2025, 1, 5), LocalDate.of(2025, 1, 9));
+        index.add(last);
+
+        last.setActualEnd(LocalDate.of(2025, 1, 6));
+        index.update(last);
+
+        assertEquals(Optional.of(LocalDate.of(2025, 1, 6).atStartOfDay()), index.availableFrom("CNC"));
+    }
+
+    @Test
+    void add_separatesLanesOfTheSameMachine() {
+        ProcessStepExecution first = execution(1L, 10L, "Oven", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 3));
+        ProcessStepExecution second = execution(2L, 11L, "Oven", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 5));
+        second.setLane(1);
+        index.add(first);
+        index.add(second);
+
+        assertEquals(1, index.copyOf(new MachineLane("Oven", 0)).size());
+        assertEquals(1, index.copyOf(new MachineLane("Oven", 1)).size());
+        assertEquals(Optional.of(LocalDate.of(2025, 1, 5).atStartOfDay()), index.availableFrom("Oven"));
+
+        index.removeOrder(11L);
+
+        assertEquals(0, index.copyOf(new MachineLane("Oven", 1)).size());
+        assertEquals(Optional.of(LocalDate.of(2025, 1, 3).atStartOfDay()), index.availableFrom("Oven"));
+    }
+
+    // --- removeOrder ---
+    @Test
+    void removeOrder_freesMachines() {
+        index.add(execution(1L, 10L, "CNC", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 3)));
+        index.add(execution(2L, 10L, "Lathe", LocalDate.of(2025, 1, 3), LocalDate.of(2025, 1, 4)));
+        index.add(execution(3L, 11L, "CNC", LocalDate.of(2025, 1, 3), LocalDate.of(2025, 1, 6)));
+
+        index.removeOrder(11L);
+
+        assertEquals(2, index.size());
+        assertEquals(Optional.of(LocalDate.of(2025, 1, 3).atStartOfDay()), index.availableFrom("CNC"));
+
+        index.removeOrder(10L);
+
+        assertEquals(0, index.size());
+        assertEquals(Optional.empty(), index.availableFrom("Lathe"));
+    }
+}
@@ -0,0 +1,107 @@
+package server_group.service;
+
+import org.junit.jupiter.api.Test;
+import server_group.dto.MachineLoadDTO;
+import server_group.model.LoadBucket;
+import server_group.repository.GanttLoadRepository.LoadInterval;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MachineLoadAggregatorTest {
+
+    // 08-12 e 13-17: 480 minuti al giorno, dal lunedì al venerdì
+    private final WorkingCalendar calendar = new ShiftCalendar(
+            List.of(new ShiftCalendar.Shift(LocalTime.of(8, 0), LocalTime.of(12, 0)),
+                    new ShiftCalendar.Shift(LocalTime.of(13, 0), LocalTime.of(17, 0))),
+            EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), Set.of());
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 3, 3);
+
+    private static LoadInterval block(String machine, LocalDateTime start, LocalDateTime end, int lanes) {
+        return new LoadInterval(machine, start.toLocalDate(), end.toLocalDate(), start, end, lanes);
+    }
+
+    @Test
+    void aggregate_sameDayBlocksCountTheirMinutes() {
+        // quattro blocchi da un'ora sulla stessa corsia: 4 ore su 8, non 4 giorni
+        List<LoadInterval> intervals = List.of(
+                block("CNC", MONDAY.atTime(8, 0), MONDAY.atTime(9, 0), 1),
+                block("CNC", MONDAY.atTime(9, 0), MONDAY.atTime(10, 0), 1),
+                block("CNC", MONDAY.atTime(10, 0), MONDAY.atTime(11, 0), 1),
+                block("CNC", MONDAY.atTime(14, 0), MONDAY.atTime(15, 0), 1));
+
+        List<MachineLoadDTO> loads = MachineLoadAggregator.aggregate(intervals, MONDAY, MONDAY.plusDays(6), LoadBucket.DAY, calendar);
+
+        assertEquals(1, loads.size());
+        assertEquals(MONDAY, loads.get(0).getBucketStart());
+        assertEquals(4, loads.get(0).getBlocks());
+        assertEquals(240, loads.get(0).getBusyMinutes());
+        assertEquals(480, loads.get(0).getAvailableMinutes());
+        assertEquals(0.5, loads.get(0).getLoad(), 1e-9);
+    }
+
+    @Test
+    void aggregate_multiDayBlockIsSplitOverItsDays() {
+        // lunedì 09:00 - martedì 11:00: 7 ore il lunedì (pausa esclusa) e 3 il martedì
+        List<LoadInterval> intervals = List.of(block("CNC", MONDAY.atTime(9, 0), MONDAY.plusDays(1).atTime(11, 0), 1));
+
+        List<MachineLoadDTO> days = MachineLoadAggregator.aggregate(intervals, MONDAY, MONDAY.plusDays(6), LoadBucket.DAY, calendar);
+
+        assertEquals(2, days.size());
+        assertEquals(420, days.get(0).getBusyMinutes());
+        assertEquals(7.0 / 8, days.get(0).getLoad(), 1e-9);
+        assertEquals(MONDAY.plusDays(1), days.get(1).getBucketStart());
+        assertEquals(180, days.get(1).getBusyMinutes());
+        assertEquals(3.0 / 8, days.get(1).getLoad(), 1e-9);
+
+        // a settimane: 10 ore su 5 giorni da 8, il weekend non conta
+        List<MachineLoadDTO> weeks = MachineLoadAggregator.aggregate(intervals, MONDAY, MONDAY.plusDays(6), LoadBucket.WEEK, calendar);
+        assertEquals(1, weeks.size());
+        assertEquals(2400, weeks.get(0).getAvailableMinutes());
+        assertEquals(600.0 / 2400, weeks.get(0).getLoad(), 1e-9);
+    }
+
+    @Test
+    void aggregate_capacityIsPerLaneAndWindowClipsTheBucket() {
+        // due corsie piene il mercoledì; la finestra parte mercoledì, quindi la settimana vale 3 giorni
+        LocalDate wednesday = MONDAY.plusDays(2);
+        List<LoadInterval> intervals = List.of(
+                block("Pressa", wednesday.atTime(8, 0), wednesday.atTime(17, 0), 2),
+                block("Pressa", wednesday.atTime(8, 0), wednesday.atTime(17, 0), 2),
+                block("Pressa", MONDAY.atTime(8, 0), MONDAY.atTime(17, 0), 2));
+
+        List<MachineLoadDTO> loads = MachineLoadAggregator.aggregate(intervals, wednesday, MONDAY.plusDays(6), LoadBucket.WEEK, calendar);
+
+        assertEquals(1, loads.size());
+        assertEquals(2, loads.get(0).getCapacity());
+        assertEquals(2, loads.get(0).getBlocks());
+        assertEquals(960, loads.get(0).getBusyMinutes());
+        assertEquals(3 * 480 * 2, loads.get(0).getAvailableMinutes());
+        assertEquals(960.0 / 2880, loads.get(0).getLoad(), 1e-9);
+    }
+
+    @Test
+    void aggregate_rowsWithoutTimesUseWholeDays() {
+        // pianificazione a giorni: fine esclusa, inizio = fine occupa comunque il suo giorno
+        List<LoadInterval> intervals = List.of(
+                new LoadInterval("CNC", MONDAY, MONDAY.plusDays(2), null, null, 1),
+                new LoadInterval("Saldatrice", MONDAY, MONDAY, null, null, 1));
+
+        List<MachineLoadDTO> loads = MachineLoadAggregator.aggregate(intervals, MONDAY, MONDAY.plusDays(6), LoadBucket.DAY, calendar);
+
+        assertEquals(3, loads.size());
+        assertEquals("CNC", loads.get(0).getMachineryName());
+        assertEquals(1.0, loads.get(0).getLoad(), 1e-9);
+        assertEquals(MONDAY.plusDays(1), loads.get(1).getBucketStart());
+        assertEquals("Saldatrice", loads.get(2).getMachineryName());
+        assertEquals(1.0, loads.get(2).getLoad(), 1e-9);
+    }
+}
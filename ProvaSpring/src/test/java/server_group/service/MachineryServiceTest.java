@@ -20,6 +20,9 @@ class MachineryServiceTest {
     @Mock
     private MachineryRepository machineryRepository;
 
+    @Mock
+    private RoutingCache routingCache;
+
     @InjectMocks
     private MachineryService machineryService;
 
@@ -112,6 +115,7 @@ class MachineryServiceTest {
 
         assertEquals("Robot", saved.getName());
         verify(machineryRepository).save(m);
+        verify(routingCache).invalidateAll();
     }
 
     // --- delete ---
@@ -119,5 +123,6 @@ class MachineryServiceTest {
     void delete_success() {
         machineryService.delete(10L);
         verify(machineryRepository, times(1)).deleteById(10L);
+        verify(routingCache).invalidateAll();
     }
 }
@@ -10,6 +10,7 @@ import server_group.model.Machinery;
 import server_group.model.Model;
 import server_group.model.ProcessStep;
 import server_group.model.Raw;
+import server_group.repository.MachineryRepository;
 import server_group.repository.ModelRepository;
 import server_group.repository.ProcessStepRepository;
 import server_group.repository.RawRepository;
@@ -31,6 +32,12 @@ class ModelServiceTest {
     @Mock
     private RawRepository rawRepository;
 
+    @Mock
+    private MachineryRepository machineryRepository;
+
+    @Mock
+    private RoutingCache routingCache;
+
     @InjectMocks
     private ModelService modelService;
 
@@ -93,8 +100,47 @@ class ModelServiceTest {
         assertEquals(1, dto.getProcessSteps().size());
         assertEquals("CNC", dto.getProcessSteps().get(0).getMachinery().getName());
 
+        assertNull(dto.getProcessSteps().get(0).getGroupMachinery());
+
         verify(modelRepository).findAll();
         verify(processStepRepository).findByModelNameOrderByStepOrder("ModelX");
+        verify(machineryRepository, never()).findByMachineGroup(any());
+    }
+
+    @Test
+    void getAllModelsWithProcess_groupedMachinery_listsWholeGroupOnce() {
+        Raw raw = new Raw();
+        Model model = new Model();
+        model.setName("ModelX");
+        model.setPrice(10.0);
+        model.setRaw(raw);
+
+        Machinery lathe1 = new Machinery();
+        lathe1.setName("Lathe 1");
+        lathe1.setMachineGroup("LATHE");
+        Machinery lathe2 = new Machinery();
+        lathe2.setName("Lathe 2");
+        lathe2.setMachineGroup("LATHE");
+        lathe2.setParallelCapacity(2);
+
+        ProcessStep rough = new ProcessStep();
+        rough.setStepOrder(1);
+        rough.setMachinery(lathe1);
+        ProcessStep finish = new ProcessStep();
+        finish.setStepOrder(2);
+        finish.setMachinery(lathe2);
+
+        when(modelRepository.findAll()).thenReturn(List.of(model));
+        when(processStepRepository.findByModelNameOrderByStepOrder("ModelX")).thenReturn(List.of(rough, finish));
+        when(machineryRepository.findByMachineGroup("LATHE")).thenReturn(List.of(lathe1, lathe2));
+
+        List<ModelWithStepsDTO.ProcessStepDTO> steps = modelService.getAllModelsWithProcess().get(0).getProcessSteps();
+
+        assertEquals(List.of("Lathe 1", "Lathe 2"),
+                steps.get(0).getGroupMachinery().stream().map(ModelWithStepsDTO.MachineryDTO::getName).toList());
+        assertEquals(2, steps.get(0).getGroupMachinery().get(1).getParallelCapacity());
+        assertEquals(2, steps.get(1).getMachinery().getParallelCapacity());
+        verify(machineryRepository, times(1)).findByMachineGroup("LATHE");
     }
 
     // --- getModelByName ---
@@ -164,6 +210,7 @@ class ModelServiceTest {
 
         assertEquals("NoRaw", saved.getName());
         verify(modelRepository).save(model);
+        verify(routingCache).invalidate("NoRaw");
     }
 
     // --- updateModel ---
@@ -190,6 +237,7 @@ class ModelServiceTest {
         assertTrue(result.isPresent());
         assertEquals(75.0, result.get().getPrice());
         assertEquals("Wood", result.get().getRaw().getMaterial());
+        verify(routingCache).invalidate("M");
     }
 
     @Test
@@ -229,6 +277,7 @@ class ModelServiceTest {
 
         assertTrue(result);
         verify(modelRepository).deleteById("M");
+        verify(routingCache).invalidate("M");
     }
 
     @Test
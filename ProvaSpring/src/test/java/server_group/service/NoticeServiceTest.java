@@ -8,15 +8,22 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 import server_group.dto.NoticeDTO;
+import server_group.dto.NoticePageDTO;
 import server_group.model.CustomUser;
 import server_group.model.Notice;
 import server_group.repository.CustomUserRepository;
+import server_group.repository.NoticeFilter;
 import server_group.repository.NoticeRepository;
+import server_group.security.Role;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 class NoticeServiceTest {
@@ -56,6 +63,98 @@ class NoticeServiceTest {
         verify(noticeRepository).findAll();
     }
 
+    @Test
+    void getAllNoticesFlat_usesStoredCategory_ownNoticesArePersonal() {
+        CustomUser user = new CustomUser();
+        user.setEmail("creator@test.com");
+        user.setRole(Role.MANAGER);
+
+        Notice notice = new Notice();
+        notice.setId(1L);
+        notice.setSubject("Ferie");
+        notice.setCreator(user);
+        notice.setCategory("ManagerNotice");
+
+        when(noticeRepository.findAll()).thenReturn(List.of(notice));
+
+        assertEquals("ManagerNotice", noticeService.getAllNoticesFlat("other@test.com").get(0).getCategory());
+        assertEquals("PersonalNotice", noticeService.getAllNoticesFlat("creator@test.com").get(0).getCategory());
+    }
+
+    // --- searchNotices ---
+    private List<NoticeDTO> rows(long... ids) {
+        List<NoticeDTO> rows = new ArrayList<>();
+        for (long id : ids) {
+            NoticeDTO dto = new NoticeDTO();
+            dto.setId(id);
+            rows.add(dto);
+        }
+        return rows;
+    }
+
+    @Test
+    void searchNotices_morePages_returnsCursorOfLastItem() {
+        NoticeFilter filter = NoticeFilter.of("me@test.com", null, null, null, null, null, null);
+        when(noticeRepository.searchNotices(filter, null, 4)).thenReturn(rows(9, 8, 7, 6));
+
+        NoticePageDTO page = noticeService.searchNotices(filter, null, 3);
+
+        assertEquals(3, page.getItems().size());
+        assertEquals(7L, page.getNextCursor());
+    }
+
+    @Test
+    void searchNotices_lastPage_hasNoCursor() {
+        NoticeFilter filter = NoticeFilter.of("me@test.com", "DelayNotice", null, null, null, null, null);
+        when(noticeRepository.searchNotices(filter, 7L, 4)).thenReturn(rows(5, 2));
+
+        NoticePageDTO page = noticeService.searchNotices(filter, 7L, 3);
+
+        assertEquals(2, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void searchNotices_pageSize_defaultAndClamped() {
+        NoticeFilter filter = NoticeFilter.of("me@test.com", null, null, null, null, null, null);
+        when(noticeRepository.searchNotices(any(), any(), anyInt())).thenReturn(List.of());
+
+        noticeService.searchNotices(filter, null, null);
+        noticeService.searchNotices(filter, null, 10_000);
+        noticeService.searchNotices(filter, null, 0);
+
+        verify(noticeRepository).searchNotices(filter, null, NoticeService.DEFAULT_PAGE_SIZE + 1);
+        verify(noticeRepository).searchNotices(filter, null, NoticeService.MAX_PAGE_SIZE + 1);
+        verify(noticeRepository).searchNotices(filter, null, 2);
+    }
+
+    @Test
+    void countNotices_delegatesToTheGroupedQuery() {
+        NoticeFilter filter = NoticeFilter.of("me@test.com", null, null, null, "ferie", null, null);
+        when(noticeRepository.countNoticesByCategory(filter)).thenReturn(Map.of("DelayNotice", 3L));
+
+        assertEquals(Map.of("DelayNotice", 3L), noticeService.countNotices(filter));
+    }
+
+    // --- filtri ---
+    @Test
+    void noticeFilter_blankValuesIgnored_datesAsWholeDays() {
+        NoticeFilter filter = NoticeFilter.of("me@test.com", " ", "", " ferie ", null,
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31));
+
+        assertNull(filter.category());
+        assertNull(filter.creatorEmail());
+        assertEquals("ferie", filter.subject());
+        assertEquals(LocalDate.of(2025, 3, 1).atStartOfDay(), filter.from());
+        assertEquals(LocalDate.of(2025, 4, 1).atStartOfDay(), filter.to());
+    }
+
+    @Test
+    void noticeFilter_toBeforeFrom_throws() {
+        assertThrows(IllegalArgumentException.class, () -> NoticeFilter.of("me@test.com", null, null, null, null,
+                LocalDate.of(2025, 3, 2), LocalDate.of(2025, 3, 1)));
+    }
+
     // --- saveNotice ---
     @Test
     void saveNotice_success() {
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import server_group.dto.ModelWithStepsDTO;
 import server_group.model.*;
 import server_group.repository.OrderRepository;
@@ -24,11 +25,22 @@ class OrderProductionServiceTest {
     private OrderRepository orderRepository;
 
     @Mock
-    private ModelService modelService;
+    private RoutingCache routingCache;
 
     @Mock
     private ProcessStepExecutionRepository executionRepository;
 
+    @Mock
+    private MachineAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private PlanChangeLog changeLog;
+
+    @Spy
+    private GapFillingScheduler scheduler;
+
+    private MachineTimeline machineA;
+
     @InjectMocks
     private OrderProductionService service;
 
@@ -62,13 +74,19 @@ class OrderProductionServiceTest {
         modelDto.setName("ModelX");
         modelDto.setPrice(100.0);
         modelDto.setProcessSteps(List.of(step));
+
+        machineA = new MachineTimeline();
+        when(availabilityIndex.newBoard()).thenAnswer(inv -> new PlanningBoard(lane -> lane.equals(new MachineLane("MachineA", 0)) ? machineA.copy() : new MachineTimeline()));
+    }
+
+    private void busy(LocalDate from, LocalDate to) {
+        machineA.add(new MachineTimeline.Slot(99L, 99L, MachineTimeline.tick(from.atStartOfDay()), MachineTimeline.tick(to.atStartOfDay())));
     }
 
     // --- startProduction ---
     @Test
     void startProduction_success() {
-        when(modelService.getAllModelsWithProcess()).thenReturn(List.of(modelDto));
-        when(executionRepository.findAll()).thenReturn(List.of());
+        when(routingCache.routingOf("ModelX")).thenReturn(modelDto.getProcessSteps());
 
         service.startProduction(order);
 
@@ -76,6 +94,45 @@ class OrderProductionServiceTest {
         assertNotNull(order.getStartDate());
         verify(orderRepository).save(order);
         verify(executionRepository).save(any(ProcessStepExecution.class));
+        verify(availabilityIndex).add(any(ProcessStepExecution.class));
+        verify(executionRepository, never()).findAll();
+    }
+
+    @Test
+    void startProduction_machineBusy_startsAfterIndexedEnd() {
+        LocalDate busyUntil = LocalDate.now().plusDays(3);
+        busy(LocalDate.now().minusDays(1), busyUntil);
+        when(routingCache.routingOf("ModelX")).thenReturn(modelDto.getProcessSteps());
+
+        service.startProduction(order);
+
+        verify(executionRepository).save(argThat((ProcessStepExecution exec) -> busyUntil.equals(exec.getScheduledStart())
+                && busyUntil.plusDays(1).equals(exec.getScheduledEnd())));
+    }
+
+    @Test
+    void startProduction_idleGap_isBackfilled() {
+        busy(LocalDate.now().plusDays(1), LocalDate.now().plusDays(8));
+        when(routingCache.routingOf("ModelX")).thenReturn(modelDto.getProcessSteps());
+
+        SchedulingResult result = service.startProduction(order);
+
+        verify(executionRepository).save(argThat((ProcessStepExecution exec) -> LocalDate.now().equals(exec.getScheduledStart())
+                && LocalDate.now().plusDays(1).equals(exec.getScheduledEnd())));
+        assertEquals(0.0, result.getUtilizationBefore().get("MachineA"));
+        assertEquals(1.0, result.getUtilizationAfter().get("MachineA"));
+    }
+
+    @Test
+    void startProduction_deadlineMissed_savesNothing() {
+        order.setDeadline(LocalDate.now().plusDays(2));
+        busy(LocalDate.now(), LocalDate.now().plusDays(5));
+        when(routingCache.routingOf("ModelX")).thenReturn(modelDto.getProcessSteps());
+
+        assertThrows(RuntimeException.class, () -> service.startProduction(order));
+
+        verify(executionRepository, never()).save(any(ProcessStepExecution.class));
+        verify(availabilityIndex, never()).add(any(ProcessStepExecution.class));
     }
 
     @Test
@@ -95,6 +152,32 @@ class OrderProductionServiceTest {
         order.setStatus(OrderStatus.CANCELLED);
         assertThrows(IllegalStateException.class, () -> service.startProduction(order));
     }
+    // --- startProduction batch ---
+    @Test
+    void startProductionBatch_savesAcceptedAndRestoresLate() {
+        OrderProductionService batchService = new OrderProductionService(orderRepository, routingCache,
+                executionRepository, availabilityIndex, scheduler, new BatchProductionOptimizer(scheduler), changeLog);
+        Order late = new Order();
+        late.setId(2L);
+        late.setModel(model);
+        late.setQuantity(40); // 10 giorni, oltre la deadline
+        late.setStatus(OrderStatus.CREATED);
+        late.setDeadline(LocalDate.now().plusDays(3));
+        when(routingCache.routingOf("ModelX")).thenReturn(modelDto.getProcessSteps());
+
+        BatchPlan plan = batchService.startProduction(List.of(order, late));
+
+        assertEquals(1, plan.getAccepted().size());
+        assertEquals(OrderStatus.IN_PRODUCTION, order.getStatus());
+        assertEquals(LocalDate.now(), order.getStartDate());
+        assertEquals(OrderStatus.CREATED, late.getStatus());
+        assertNull(late.getStartDate());
+        verify(orderRepository).save(order);
+        verify(orderRepository, never()).save(late);
+        verify(executionRepository, times(1)).save(any(ProcessStepExecution.class));
+        verify(availabilityIndex, times(1)).add(any(ProcessStepExecution.class));
+    }
+
     // --- updateExecutionDates ---
     @Test
     void updateExecutionDates_success() {
@@ -111,17 +194,26 @@ class OrderProductionServiceTest {
         assertEquals(start, exec.getActualStart());
         assertEquals(end, exec.getActualEnd());
         verify(executionRepository).save(exec);
+        verify(availabilityIndex).update(exec);
     }
 
     // --- deleteAllExecutions ---
     @Test
     void deleteAllExecutions_success() {
         order.setStatus(OrderStatus.IN_PRODUCTION);
+        ProcessStepExecution exec = new ProcessStepExecution();
+        exec.setId(100L);
+        exec.setOrder(order);
+        when(executionRepository.findByOrderId(order.getId())).thenReturn(List.of(exec));
 
         service.deleteAllExecutions(order);
 
         assertNotNull(order.getEndDate());
-        verify(executionRepository).deleteByOrderId(order.getId());
+        // traccia delle cancellazioni per i client a differenze, prima di cancellare
+        var inOrder = inOrder(changeLog, executionRepository);
+        inOrder.verify(changeLog).recordRemovals(List.of(exec));
+        inOrder.verify(executionRepository).deleteByOrderId(order.getId());
+        verify(availabilityIndex).removeOrder(order.getId());
         verify(orderRepository).save(order);
     }
 }
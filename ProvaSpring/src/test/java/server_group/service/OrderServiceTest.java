@@ -6,12 +6,16 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import server_group.dto.BatchProductionResultDTO;
+import server_group.dto.ProductionResultDTO;
 import server_group.model.Order;
 import server_group.model.OrderState;
 import server_group.model.OrderStateFactory;
 import server_group.repository.OrderRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,6 +32,9 @@ class OrderServiceTest {
     @Mock
     private OrderState orderState;  // mock dello stato
 
+    @Mock
+    private OrderProductionService productionService;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -83,11 +90,19 @@ class OrderServiceTest {
     void setInProduction_success() {
         when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
         when(stateFactory.createState(order)).thenReturn(orderState);
+        LocalDateTime completion = LocalDateTime.of(2025, 3, 4, 12, 0);
+        when(orderState.startProduction(order)).thenReturn(new SchedulingResult(order, List.of(), completion,
+                Map.of("MachineA", 0.25), Map.of("MachineA", 0.75), List.of()));
 
-        orderService.setInProduction(1L);
+        ProductionResultDTO result = orderService.setInProduction(1L);
 
         verify(orderState).startProduction(order);
         verify(orderRepository).save(order);
+        // l'utilizzo calcolato dallo scheduler arriva nella risposta
+        assertEquals(order.getId(), result.getOrderId());
+        assertEquals(completion, result.getCompletionTime());
+        assertEquals(0.25, result.getUtilizationBefore().get("MachineA"));
+        assertEquals(0.75, result.getUtilizationAfter().get("MachineA"));
     }
 
     @Test
@@ -97,6 +112,39 @@ class OrderServiceTest {
         assertThrows(EntityNotFoundException.class, () -> orderService.setInProduction(1L));
     }
 
+    // --- setInProduction batch ---
+    @Test
+    void setInProductionBatch_reportsScheduledAndRejected() {
+        Order late = new Order();
+        late.setId(2L);
+        Order running = new Order();
+        running.setId(3L);
+
+        OrderState runningState = mock(OrderState.class);
+        when(orderRepository.findAllById(List.of(1L, 2L, 3L, 4L))).thenReturn(List.of(order, late, running));
+        when(stateFactory.createState(order)).thenReturn(orderState);
+        when(stateFactory.createState(late)).thenReturn(orderState);
+        when(stateFactory.createState(running)).thenReturn(runningState);
+        when(orderState.getName()).thenReturn("CREATED");
+        when(runningState.getName()).thenReturn("IN_PRODUCTION");
+
+        SchedulingResult ok = new SchedulingResult(order, List.of(), null, Map.of("MachineA", 0.0), Map.of("MachineA", 0.5), List.of());
+        SchedulingResult ko = new SchedulingResult(late, List.of(), null, Map.of(), Map.of(), List.of());
+        when(productionService.startProduction(List.of(order, late)))
+                .thenReturn(new BatchPlan(List.of(order, late), List.of(ok), List.of(ko)));
+
+        BatchProductionResultDTO result = orderService.setInProduction(List.of(1L, 2L, 3L, 4L));
+
+        assertEquals(List.of(1L), result.getScheduled());
+        assertEquals(1, result.getResults().size());
+        assertEquals(0.5, result.getResults().get(0).getUtilizationAfter().get("MachineA"));
+        assertEquals(3, result.getRejected().size());
+        assertTrue(result.getRejected().get(2L).contains("before deadline"));
+        assertTrue(result.getRejected().get(3L).contains("IN_PRODUCTION"));
+        assertTrue(result.getRejected().get(4L).contains("not found"));
+        verify(orderState, never()).startProduction(any());
+    }
+
     // --- complete ---
     @Test
     void complete_success() {
@@ -0,0 +1,161 @@
+package server_group.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import server_group.dto.GanttChangesDTO;
+import server_group.model.GanttRemoval;
+import server_group.model.Order;
+import server_group.model.ProcessStepExecution;
+import server_group.repository.GanttRemovalRepository;
+import server_group.repository.ProcessStepExecutionRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PlanChangeLogTest {
+
+    @Mock
+    private ProcessStepExecutionRepository executionRepository;
+
+    @Mock
+    private GanttRemovalRepository removalRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private PlanChangeLog changeLog;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(executionRepository.findMaxPlanVersion()).thenReturn(40L);
+        when(removalRepository.findMaxPlanVersion()).thenReturn(45L);
+        changeLog = new PlanChangeLog(executionRepository, removalRepository, eventPublisher);
+        changeLog.load();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(changeLog);
+    }
+
+    // --- avvio ---
+    @Test
+    void load_continuesFromTheHighestStoredVersion() {
+        assertEquals(45L, changeLog.stableVersion());
+        // le cancellazioni di prima del riavvio non sono più garantite
+        assertEquals(45L, changeLog.prunedThrough());
+        assertEquals(46L, changeLog.next());
+    }
+
+    // --- transazioni aperte ---
+    @Test
+    void stableVersion_stopsBeforeOpenTransactions() {
+        TransactionSynchronizationManager.initSynchronization();
+        long first = changeLog.next();
+        changeLog.next();
+        List<TransactionSynchronization> open = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals(first - 1, changeLog.stableVersion());
+
+        open.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertEquals(first + 1, changeLog.stableVersion());
+    }
+
+    // --- cancellazioni ---
+    @Test
+    void recordRemovals_savesOneTombstonePerExecutionAndPrunes() {
+        Order order = new Order();
+        order.setId(10L);
+        ProcessStepExecution a = new ProcessStepExecution();
+        a.setId(1L);
+        a.setOrder(order);
+        ProcessStepExecution b = new ProcessStepExecution();
+        b.setId(2L);
+        b.setOrder(order);
+        when(removalRepository.findMaxPlanVersionRemovedBefore(any())).thenReturn(60L);
+
+        changeLog.recordRemovals(List.of(a, b));
+
+        verify(removalRepository).saveAll(argThat((List<GanttRemoval> removals) ->
+                removals.size() == 2 && removals.stream().allMatch(r -> r.getPlanVersion() == 46L && r.getOrderId() == 10L)));
+        verify(removalRepository).deleteRemovedBefore(any());
+        assertEquals(60L, changeLog.prunedThrough());
+    }
+
+    @Test
+    void recordRemovals_nothingToRemove_noVersion() {
+        changeLog.recordRemovals(List.of());
+
+        verify(removalRepository, never()).saveAll(any());
+        verify(removalRepository, never()).deleteRemovedBefore(any());
+        assertEquals(46L, changeLog.next());
+    }
+
+    private ProcessStepExecution saved(long id, long version) {
+        Order order = new Order();
+        order.setId(10L);
+        ProcessStepExecution exec = new ProcessStepExecution();
+        exec.setId(id);
+        exec.setOrder(order);
+        exec.setMachineryName("CNC");
+        exec.setPlanVersion(version);
+        return exec;
+    }
+
+    // --- pubblicazione delle modifiche ---
+    @Test
+    void changed_outsideTransaction_isPublishedRightAway() {
+        changeLog.changed(saved(1L, 46L));
+
+        verify(eventPublisher).publishEvent(argThat((GanttChangesDTO changes) ->
+                changes.getVersion() == 46L && changes.getChanged().get(0).getExecutionId() == 1L && changes.getRemoved().isEmpty()));
+    }
+
+    @Test
+    void changed_insideTransaction_isPublishedOnceAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        ProcessStepExecution moved = saved(1L, 46L);
+        changeLog.changed(moved);
+        moved.setPlanVersion(47L);
+        changeLog.changed(moved);
+        changeLog.changed(saved(2L, 48L));
+        changeLog.recordRemovals(List.of(saved(2L, 48L), saved(3L, 30L)));
+
+        verify(eventPublisher, never()).publishEvent(any());
+
+        List<TransactionSynchronization> syncs = TransactionSynchronizationManager.getSynchronizations();
+        syncs.forEach(TransactionSynchronization::afterCommit);
+        syncs.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // l'execution 2 è stata cancellata nella stessa transazione: resta solo tra le rimosse
+        verify(eventPublisher, times(1)).publishEvent(argThat((GanttChangesDTO changes) ->
+                changes.getChanged().size() == 1 && changes.getChanged().get(0).getExecutionId() == 1L
+                        && changes.getRemoved().equals(List.of(2L, 3L)) && changes.getVersion() == 48L));
+        assertNull(TransactionSynchronizationManager.getResource(changeLog));
+    }
+
+    @Test
+    void changed_rolledBack_isNotPublished() {
+        TransactionSynchronizationManager.initSynchronization();
+        changeLog.changed(saved(1L, 46L));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+}
@@ -31,6 +31,9 @@ class ProcessStepServiceTest {
     @Mock
     private MachineryRepository machineryRepository;
 
+    @Mock
+    private RoutingCache routingCache;
+
     @InjectMocks
     private ProcessStepService service;
 
@@ -96,6 +99,7 @@ class ProcessStepServiceTest {
         verify(processStepRepository).deleteById(1L);
         assertEquals(1, step2.getStepOrder()); // reorder fatto
         verify(processStepRepository).save(step2);
+        verify(routingCache).invalidate("ModelX");
     }
 
     @Test
@@ -121,6 +125,7 @@ class ProcessStepServiceTest {
         assertEquals("SemiUpdated", step.getSemifinishedName());
         assertEquals(machinery, step.getMachinery());
         verify(processStepRepository).save(step);
+        verify(routingCache).invalidate("ModelX");
     }
 
     @Test
@@ -153,6 +158,7 @@ class ProcessStepServiceTest {
         assertEquals("Semi2", result.getSemifinishedName());
         assertEquals(machinery, result.getMachinery());
         verify(processStepRepository).saveAll(List.of(existing));
+        verify(routingCache).invalidate("ModelX");
     }
 
     @Test
@@ -0,0 +1,160 @@
+package server_group.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import server_group.model.Order;
+import server_group.model.ProcessStepExecution;
+import server_group.repository.ProcessStepExecutionRepository;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class ReschedulePropagatorTest {
+
+    @Mock
+    private ProcessStepExecutionRepository executionRepository;
+
+    private MachineAvailabilityIndex index;
+    private ReschedulePropagator propagator;
+
+    private final LocalDate day0 = LocalDate.of(2025, 3, 3);
+    private final Map<Long, List<ProcessStepExecution>> byOrder = new HashMap<>();
+    private final Map<Long, ProcessStepExecution> byId = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        index = new MachineAvailabilityIndex(executionRepository);
+        propagator = new ReschedulePropagator(executionRepository, index, new DayCalendar());
+        when(executionRepository.findByOrderIdOrderByStepIndex(anyLong()))
+                .thenAnswer(inv -> byOrder.getOrDefault(inv.<Long>getArgument(0), List.of()));
+        when(executionRepository.findById(anyLong()))
+                .thenAnswer(inv -> Optional.ofNullable(byId.get(inv.<Long>getArgument(0))));
+    }
+
+    // execution già salvata e indicizzata, a giorni interi
+    private ProcessStepExecution execution(long id, long orderId, int step, String machinery, int fromDay, int toDay) {
+        Order order = new Order();
+        order.setId(orderId);
+        ProcessStepExecution exec = new ProcessStepExecution();
+        exec.setId(id);
+        exec.setOrder(order);
+        exec.setStepIndex(step);
+        exec.setMachineryName(machinery);
+        move(exec, fromDay, toDay);
+        index.add(exec);
+        byId.put(id, exec);
+        byOrder.computeIfAbsent(orderId, k -> new ArrayList<>()).add(exec);
+        return exec;
+    }
+
+    private void move(ProcessStepExecution exec, int fromDay, int toDay) {
+        exec.setActualStart(day0.plusDays(fromDay));
+        exec.setActualEnd(day0.plusDays(toDay));
+        exec.setActualStartTime(day0.plusDays(fromDay).atStartOfDay());
+        exec.setActualEndTime(day0.plusDays(toDay).atStartOfDay());
+    }
+
+    // --- successori dello stesso ordine ---
+    @Test
+    void propagate_pushesLaterStepsOfTheOrder() {
+        ProcessStepExecution cut = execution(1L, 10L, 1, "CNC", 0, 2);
+        ProcessStepExecution turn = execution(2L, 10L, 2, "Lathe", 2, 3);
+        ProcessStepExecution pack = execution(3L, 10L, 3, "Pack", 5, 6);
+
+        move(cut, 1, 3);
+        List<ProcessStepExecution> shifted = propagator.propagate(List.of(cut));
+
+        assertEquals(List.of(turn), shifted);
+        assertEquals(day0.plusDays(3), turn.getActualStart());
+        assertEquals(day0.plusDays(4), turn.getActualEnd());
+        // c'era già margine: lo step 3 resta dov'è
+        assertEquals(day0.plusDays(5), pack.getActualStart());
+    }
+
+    // --- blocchi della stessa macchina ---
+    @Test
+    void propagate_pushesOverlappedBlocksOnTheMachineAndTheirOrders() {
+        ProcessStepExecution first = execution(1L, 10L, 1, "CNC", 0, 2);
+        ProcessStepExecution other = execution(2L, 20L, 1, "CNC", 2, 4);
+        ProcessStepExecution otherNext = execution(3L, 20L, 2, "Lathe", 4, 5);
+        ProcessStepExecution unrelated = execution(4L, 30L, 1, "Mill", 0, 9);
+
+        move(first, 1, 3);
+        List<ProcessStepExecution> shifted = propagator.propagate(List.of(first));
+
+        assertEquals(List.of(other, otherNext), shifted);
+        assertEquals(day0.plusDays(3), other.getActualStart());
+        assertEquals(day0.plusDays(5), other.getActualEnd());
+        assertEquals(day0.plusDays(5), otherNext.getActualStart());
+        assertEquals(day0, unrelated.getActualStart());
+        // le execution di ordini non toccati non vengono nemmeno lette
+        verify(executionRepository, never()).findByOrderIdOrderByStepIndex(30L);
+    }
+
+    @Test
+    void propagate_pushedBlockSkipsPastBlocksMovedByTheUser() {
+        ProcessStepExecution cut = execution(1L, 10L, 1, "CNC", 0, 1);
+        ProcessStepExecution turn = execution(2L, 10L, 2, "Lathe", 1, 2);
+        ProcessStepExecution manual = execution(3L, 20L, 1, "Lathe", 4, 5);
+
+        move(cut, 0, 2);
+        move(manual, 2, 3);
+        List<ProcessStepExecution> shifted = propagator.propagate(List.of(cut, manual));
+
+        assertEquals(List.of(turn), shifted);
+        assertEquals(day0.plusDays(3), turn.getActualStart());
+        assertEquals(day0.plusDays(2), manual.getActualStart());
+    }
+
+    @Test
+    void propagate_lots_onlyPushTheirOwnChain() {
+        ProcessStepExecution cut0 = execution(1L, 10L, 1, "Saw", 0, 1);
+        ProcessStepExecution cut1 = execution(2L, 10L, 1, "Saw", 1, 2);
+        ProcessStepExecution mill0 = execution(3L, 10L, 2, "Mill", 1, 2);
+        ProcessStepExecution mill1 = execution(4L, 10L, 2, "Mill 2", 2, 3);
+        cut0.setLotIndex(0);
+        cut1.setLotIndex(1);
+        mill0.setLotIndex(0);
+        mill1.setLotIndex(1);
+
+        move(cut1, 2, 3);
+        List<ProcessStepExecution> shifted = propagator.propagate(List.of(cut1));
+
+        assertEquals(List.of(mill1), shifted);
+        assertEquals(day0.plusDays(3), mill1.getActualStart());
+        assertEquals(day0.plusDays(1), mill0.getActualStart());
+    }
+
+    // --- calendario a turni ---
+    @Test
+    void propagate_shiftCalendar_keepsWorkingMinutes() {
+        propagator = new ReschedulePropagator(executionRepository, index, new ShiftCalendar(
+                List.of(new ShiftCalendar.Shift(LocalTime.of(8, 0), LocalTime.of(12, 0)),
+                        new ShiftCalendar.Shift(LocalTime.of(13, 0), LocalTime.of(17, 0))),
+                EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), Set.of()));
+        ProcessStepExecution cut = execution(1L, 10L, 1, "CNC", 0, 0);
+        ProcessStepExecution turn = execution(2L, 10L, 2, "Lathe", 0, 0);
+        cut.setActualStartTime(day0.atTime(8, 0));
+        cut.setActualEndTime(day0.atTime(11, 0));
+        // 2 ore di lavoro: dalle 15 alle 17
+        turn.setActualStartTime(day0.atTime(15, 0));
+        turn.setActualEndTime(day0.atTime(17, 0));
+
+        cut.setActualEndTime(day0.atTime(16, 30));
+        propagator.propagate(List.of(cut));
+
+        // mezz'ora il lunedì e il resto il martedì mattina
+        assertEquals(day0.atTime(16, 30), turn.getActualStartTime());
+        assertEquals(day0.plusDays(1).atTime(9, 30), turn.getActualEndTime());
+        assertEquals(day0.plusDays(1), turn.getActualEnd());
+    }
+}
@@ -0,0 +1,124 @@
+package server_group.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import server_group.dto.ModelWithStepsDTO;
+import server_group.model.Machinery;
+import server_group.model.Model;
+import server_group.model.ProcessStep;
+import server_group.repository.MachineryRepository;
+import server_group.repository.ProcessStepRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RoutingCacheTest {
+
+    @Mock
+    private ProcessStepRepository processStepRepository;
+
+    @Mock
+    private MachineryRepository machineryRepository;
+
+    @InjectMocks
+    private RoutingCache routingCache;
+
+    private Machinery lathe1;
+    private Machinery lathe2;
+    private Machinery press;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        lathe1 = machinery("Lathe 1", "LATHE", 1);
+        lathe2 = machinery("Lathe 2", "LATHE", 2);
+        press = machinery("Press", null, null);
+
+        Model model = new Model();
+        model.setName("ModelX");
+        when(processStepRepository.findRoutingByModelName("ModelX"))
+                .thenReturn(List.of(step(model, 1, lathe1), step(model, 2, press)));
+        when(machineryRepository.findByMachineGroupIn(Set.of("LATHE"))).thenReturn(List.of(lathe1, lathe2));
+    }
+
+    private Machinery machinery(String name, String group, Integer capacity) {
+        Machinery machinery = new Machinery();
+        machinery.setName(name);
+        machinery.setMachineGroup(group);
+        machinery.setParallelCapacity(capacity);
+        return machinery;
+    }
+
+    private ProcessStep step(Model model, int order, Machinery machinery) {
+        ProcessStep step = new ProcessStep();
+        step.setId((long) order);
+        step.setModel(model);
+        step.setStepOrder(order);
+        step.setDuration(Duration.ofMinutes(order * 10L));
+        step.setMachinery(machinery);
+        return step;
+    }
+
+    @Test
+    void routingOf_mapsStepsWithGroupMachinery() {
+        List<ModelWithStepsDTO.ProcessStepDTO> routing = routingCache.routingOf("ModelX");
+
+        assertEquals(2, routing.size());
+        assertEquals("Lathe 1", routing.get(0).getMachinery().getName());
+        assertEquals(List.of("Lathe 1", "Lathe 2"),
+                routing.get(0).getGroupMachinery().stream().map(ModelWithStepsDTO.MachineryDTO::getName).toList());
+        assertEquals(2, routing.get(0).getGroupMachinery().get(1).getParallelCapacity());
+        assertNull(routing.get(1).getGroupMachinery());
+        assertEquals(Duration.ofMinutes(20), routing.get(1).getDuration());
+    }
+
+    @Test
+    void routingOf_secondLookup_hitsTheCache() {
+        routingCache.routingOf("ModelX");
+        routingCache.routingOf("ModelX");
+
+        verify(processStepRepository, times(1)).findRoutingByModelName("ModelX");
+        verify(machineryRepository, times(1)).findByMachineGroupIn(any());
+    }
+
+    @Test
+    void routingOf_unknownModel_isEmpty() {
+        when(processStepRepository.findRoutingByModelName("Nope")).thenReturn(List.of());
+
+        assertTrue(routingCache.routingOf("Nope").isEmpty());
+        verify(machineryRepository, never()).findByMachineGroupIn(any());
+    }
+
+    @Test
+    void invalidate_reloadsOnlyThatModel() {
+        when(processStepRepository.findRoutingByModelName("ModelY")).thenReturn(List.of());
+        routingCache.routingOf("ModelX");
+        routingCache.routingOf("ModelY");
+
+        routingCache.invalidate("ModelX");
+        routingCache.routingOf("ModelX");
+        routingCache.routingOf("ModelY");
+
+        verify(processStepRepository, times(2)).findRoutingByModelName("ModelX");
+        verify(processStepRepository, times(1)).findRoutingByModelName("ModelY");
+    }
+
+    @Test
+    void invalidateAll_reloadsEverything() {
+        routingCache.routingOf("ModelX");
+
+        routingCache.invalidateAll();
+        routingCache.routingOf("ModelX");
+
+        verify(processStepRepository, times(2)).findRoutingByModelName("ModelX");
+    }
+}
@@ -0,0 +1,131 @@
+package server_group.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import server_group.dto.ModelWithStepsDTO;
+import server_group.dto.SimulationCandidateDTO;
+import server_group.dto.SimulationResultDTO;
+import server_group.model.Model;
+import server_group.model.Order;
+import server_group.model.OrderStatus;
+import server_group.repository.OrderRepository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ScheduleSimulationServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private RoutingCache routingCache;
+
+    @Mock
+    private MachineAvailabilityIndex availabilityIndex;
+
+    @Spy
+    private GapFillingScheduler scheduler;
+
+    @InjectMocks
+    private ScheduleSimulationService service;
+
+    private final LocalDate today = LocalDate.now();
+    private MachineTimeline machineA;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        // un pezzo = una giornata sulla MachineA
+        ModelWithStepsDTO.ProcessStepDTO step = new ModelWithStepsDTO.ProcessStepDTO();
+        step.setStepOrder(1);
+        step.setDuration(Duration.ofHours(8));
+        ModelWithStepsDTO.MachineryDTO mach = new ModelWithStepsDTO.MachineryDTO();
+        mach.setName("MachineA");
+        step.setMachinery(mach);
+
+        when(routingCache.routingOf("ModelX")).thenReturn(List.of(step));
+        when(routingCache.routingOf("Nope")).thenReturn(List.of());
+
+        machineA = new MachineTimeline();
+        // il primo giorno la macchina è già occupata
+        machineA.add(new MachineTimeline.Slot(99L, 99L, MachineTimeline.tick(today.atStartOfDay()), MachineTimeline.tick(today.plusDays(1).atStartOfDay())));
+        when(availabilityIndex.newBoard()).thenAnswer(inv -> new PlanningBoard(lane -> lane.equals(new MachineLane("MachineA", 0)) ? machineA.copy() : new MachineTimeline()));
+    }
+
+    @Test
+    void simulate_candidatesQueueBehindEachOtherAndTheCurrentPlan() {
+        SimulationResultDTO result = service.simulate(List.of(
+                new SimulationCandidateDTO("ModelX", 2, today.plusDays(10)),
+                new SimulationCandidateDTO("ModelX", 1, today.plusDays(3))));
+
+        assertEquals(2, result.getBlocks().size());
+        assertEquals(-1L, result.getBlocks().get(0).getOrderId());
+        assertEquals(today.plusDays(1), result.getBlocks().get(0).getScheduledStart());
+        assertEquals(today.plusDays(3), result.getBlocks().get(1).getScheduledStart());
+
+        assertEquals(today.plusDays(3).atStartOfDay(), result.getOrders().get(0).getProjectedCompletion());
+        // il secondo finirebbe il giorno 4, dopo la deadline
+        assertEquals(1, result.getDeadlineViolations().size());
+        assertEquals(-2L, result.getDeadlineViolations().get(0).getOrderId());
+
+        // 4 giorni di orizzonte: 1 occupato prima, tutti e 4 dopo
+        assertEquals(0.25, result.getUtilizationBefore().get("MachineA"), 1e-9);
+        assertEquals(1.0, result.getUtilizationAfter().get("MachineA"), 1e-9);
+    }
+
+    @Test
+    void simulate_existingOrder_isNeitherModifiedNorSaved() {
+        Model model = new Model();
+        model.setName("ModelX");
+        Order order = new Order();
+        order.setId(7L);
+        order.setModel(model);
+        order.setQuantity(1);
+        order.setStatus(OrderStatus.CREATED);
+        order.setDeadline(today.plusDays(5));
+        when(orderRepository.findAllById(List.of(7L))).thenReturn(List.of(order));
+
+        SimulationCandidateDTO candidate = new SimulationCandidateDTO();
+        candidate.setOrderId(7L);
+        SimulationResultDTO result = service.simulate(List.of(candidate));
+
+        assertEquals(7L, result.getBlocks().get(0).getOrderId());
+        assertTrue(result.getDeadlineViolations().isEmpty());
+        assertEquals(OrderStatus.CREATED, order.getStatus());
+        assertNull(order.getStartDate());
+        verify(orderRepository, never()).save(any());
+        verify(availabilityIndex, never()).add(any());
+        // la timeline vera non vede le prenotazioni simulate
+        assertEquals(1, machineA.size());
+    }
+
+    @Test
+    void simulate_orderAlreadyInProduction_throws() {
+        Order order = new Order();
+        order.setId(7L);
+        order.setStatus(OrderStatus.IN_PRODUCTION);
+        when(orderRepository.findAllById(List.of(7L))).thenReturn(List.of(order));
+
+        SimulationCandidateDTO candidate = new SimulationCandidateDTO();
+        candidate.setOrderId(7L);
+
+        assertThrows(IllegalArgumentException.class, () -> service.simulate(List.of(candidate)));
+    }
+
+    @Test
+    void simulate_unknownModel_throws() {
+        assertThrows(IllegalArgumentException.class, () -> service.simulate(List.of(
+                new SimulationCandidateDTO("Nope", 1, null))));
+    }
+}
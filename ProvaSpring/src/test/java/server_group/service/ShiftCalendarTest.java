@@ -0,0 +1,68 @@
+package server_group.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShiftCalendarTest {
+
+    // lunedì 3 marzo 2025, turni 8-12 e 13-17 dal lunedì al venerdì, festivo il 5 marzo
+    private final LocalDate monday = LocalDate.of(2025, 3, 3);
+    private final ShiftCalendar calendar = new ShiftCalendar(
+            List.of(new ShiftCalendar.Shift(LocalTime.of(13, 0), LocalTime.of(17, 0)),
+                    new ShiftCalendar.Shift(LocalTime.of(8, 0), LocalTime.of(12, 0))),
+            EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY),
+            Set.of(LocalDate.of(2025, 3, 5)));
+
+    // --- nextWorkingTime ---
+    @Test
+    void nextWorkingTime_alignsToShifts() {
+        assertEquals(monday.atTime(8, 0), calendar.nextWorkingTime(monday.atStartOfDay()));
+        assertEquals(monday.atTime(9, 30), calendar.nextWorkingTime(monday.atTime(9, 30)));
+        assertEquals(monday.atTime(13, 0), calendar.nextWorkingTime(monday.atTime(12, 0)));
+        assertEquals(monday.plusDays(1).atTime(8, 0), calendar.nextWorkingTime(monday.atTime(17, 0)));
+    }
+
+    @Test
+    void nextWorkingTime_skipsHolidaysAndWeekends() {
+        assertEquals(monday.plusDays(3).atTime(8, 0), calendar.nextWorkingTime(monday.plusDays(1).atTime(18, 0)));
+        assertEquals(monday.plusDays(7).atTime(8, 0), calendar.nextWorkingTime(monday.plusDays(4).atTime(17, 0)));
+    }
+
+    // --- addWorkingMinutes ---
+    @Test
+    void addWorkingMinutes_shortJobsShareTheDay() {
+        LocalDateTime first = calendar.addWorkingMinutes(monday.atTime(8, 0), 10);
+        assertEquals(monday.atTime(8, 10), first);
+        assertEquals(monday.atTime(8, 20), calendar.addWorkingMinutes(first, 10));
+    }
+
+    @Test
+    void addWorkingMinutes_continuesInNextShift() {
+        // 3 ore dalle 11: 1 ora prima di pranzo, 2 dopo
+        assertEquals(monday.atTime(15, 0), calendar.addWorkingMinutes(monday.atTime(11, 0), 180));
+        // finire esattamente a fine turno non sposta al turno dopo
+        assertEquals(monday.atTime(12, 0), calendar.addWorkingMinutes(monday.atTime(8, 0), 240));
+        // due giornate piene dal martedì: il mercoledì è festivo
+        assertEquals(monday.plusDays(3).atTime(17, 0), calendar.addWorkingMinutes(monday.plusDays(1).atTime(8, 0), 960));
+    }
+
+    // --- validazione ---
+    @Test
+    void constructor_rejectsOverlappingShifts() {
+        assertThrows(IllegalArgumentException.class, () -> new ShiftCalendar(
+                List.of(new ShiftCalendar.Shift(LocalTime.of(8, 0), LocalTime.of(14, 0)),
+                        new ShiftCalendar.Shift(LocalTime.of(13, 0), LocalTime.of(17, 0))),
+                EnumSet.of(DayOfWeek.MONDAY), Set.of()));
+        assertThrows(IllegalArgumentException.class, () -> new ShiftCalendar(
+                List.of(), EnumSet.of(DayOfWeek.MONDAY), Set.of()));
+    }
+}